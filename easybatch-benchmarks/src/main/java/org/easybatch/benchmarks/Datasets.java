@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generator of benchmark datasets of a given number of persons, in the formats supported by Easy Batch.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class Datasets {
+
+    public static final String[] FIELDS = {"id", "firstName", "lastName", "age", "married"};
+
+    public static final int[] FIELDS_LENGTH = {8, 12, 12, 3, 5};
+
+    private static final String[] FIRST_NAMES = {"foo", "bar", "baz", "mahmoud", "mario", "jean-pierre"};
+
+    private static final String[] LAST_NAMES = {"ben hassine", "mueller", "dupont", "smith", "garcia"};
+
+    private Datasets() {
+
+    }
+
+    public static Person person(final int id) {
+        return new Person(id, FIRST_NAMES[id % FIRST_NAMES.length], LAST_NAMES[id % LAST_NAMES.length], 18 + id % 60, id % 3 == 0);
+    }
+
+    public static List<Person> persons(final int size) {
+        List<Person> persons = new ArrayList<Person>(size);
+        for (int i = 1; i <= size; i++) {
+            persons.add(person(i));
+        }
+        return persons;
+    }
+
+    public static String csvLine(final int id) {
+        Person person = person(id);
+        return person.getId() + "," + person.getFirstName() + "," + person.getLastName() + "," + person.getAge() + "," + person.isMarried();
+    }
+
+    public static String fixedLengthLine(final int id) {
+        Person person = person(id);
+        // numbers are padded with leading zeros since fields are not trimmed by the fixed length mapper
+        return zeroPad(person.getId(), FIELDS_LENGTH[0]) +
+                pad(person.getFirstName(), FIELDS_LENGTH[1]) +
+                pad(person.getLastName(), FIELDS_LENGTH[2]) +
+                zeroPad(person.getAge(), FIELDS_LENGTH[3]) +
+                pad(String.valueOf(person.isMarried()), FIELDS_LENGTH[4]);
+    }
+
+    public static String xmlElement(final int id) {
+        Person person = person(id);
+        return "<person><id>" + person.getId() + "</id><firstName>" + person.getFirstName() + "</firstName><lastName>" +
+                person.getLastName() + "</lastName><age>" + person.getAge() + "</age><married>" + person.isMarried() +
+                "</married></person>";
+    }
+
+    public static String jsonObject(final int id) {
+        Person person = person(id);
+        return "{\"id\":" + person.getId() + ",\"firstName\":\"" + person.getFirstName() + "\",\"lastName\":\"" +
+                person.getLastName() + "\",\"age\":" + person.getAge() + ",\"married\":" + person.isMarried() + "}";
+    }
+
+    public static String csv(final int size) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= size; i++) {
+            csv.append(csvLine(i)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    public static String fixedLength(final int size) {
+        StringBuilder fixedLength = new StringBuilder();
+        for (int i = 1; i <= size; i++) {
+            fixedLength.append(fixedLengthLine(i)).append('\n');
+        }
+        return fixedLength.toString();
+    }
+
+    public static String xml(final int size) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<persons>\n");
+        for (int i = 1; i <= size; i++) {
+            xml.append(xmlElement(i)).append('\n');
+        }
+        return xml.append("</persons>\n").toString();
+    }
+
+    public static String json(final int size) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= size; i++) {
+            json.append(jsonObject(i)).append(i < size ? ",\n" : "\n");
+        }
+        return json.append("]\n").toString();
+    }
+
+    /**
+     * Write a dataset to a temporary file deleted when the JVM exits.
+     */
+    public static File toTempFile(final String content, final String suffix) throws IOException {
+        File file = File.createTempFile("easybatch-benchmark", suffix);
+        file.deleteOnExit();
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+        return file;
+    }
+
+    private static String zeroPad(final int value, final int length) {
+        StringBuilder padded = new StringBuilder(String.valueOf(value));
+        while (padded.length() < length) {
+            padded.insert(0, '0');
+        }
+        return padded.toString();
+    }
+
+    private static String pad(final String value, final int length) {
+        StringBuilder padded = new StringBuilder(value);
+        while (padded.length() < length) {
+            padded.append(' ');
+        }
+        return padded.toString();
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import org.easybatch.core.api.RecordProcessingException;
+import org.easybatch.core.api.RecordProcessor;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.impl.EngineBuilder;
+import org.easybatch.core.writer.OutputStreamRecordWriter;
+import org.easybatch.flatfile.DelimitedRecordMapper;
+import org.easybatch.flatfile.FlatFileRecordReader;
+import org.easybatch.xml.XmlRecordMapper;
+import org.easybatch.xml.XmlRecordMarshaller;
+import org.easybatch.xml.XmlRecordReader;
+import org.easybatch.xml.XmlStreamRecordReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.OutputStreamWriter;
+import java.util.concurrent.TimeUnit;
+
+import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
+
+/**
+ * End-to-end benchmarks of engines over generated datasets: each operation runs an engine over the whole dataset.
+ * <p/>
+ * The dataset size can be set on the command line, for example: <code>-p records=1000000</code>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"10000", "100000"})
+    private int records;
+
+    private File csvFile;
+
+    private File xmlFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        csvFile = Datasets.toTempFile(Datasets.csv(records), ".csv");
+        xmlFile = Datasets.toTempFile(Datasets.xml(records), ".xml");
+    }
+
+    @Benchmark
+    public Report csvToBeans(final Blackhole blackhole) throws Exception {
+        return csvToBeansEngine(blackhole).build().call();
+    }
+
+    @Benchmark
+    public Report csvToBeansWithParallelProcessing(final Blackhole blackhole) throws Exception {
+        return csvToBeansEngine(blackhole)
+                .processingThreads(Runtime.getRuntime().availableProcessors())
+                .build()
+                .call();
+    }
+
+    @Benchmark
+    public Report xmlToBeans(final Blackhole blackhole) throws Exception {
+        FileInputStream inputStream = new FileInputStream(xmlFile);
+        try {
+            return aNewEngine()
+                    .reader(new XmlRecordReader("person", inputStream))
+                    .mapper(new XmlRecordMapper<Person>(Person.class))
+                    .processor(new ConsumingRecordProcessor(blackhole))
+                    .silentMode(true)
+                    .build()
+                    .call();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    @Benchmark
+    public Report xmlStreamToBeans(final Blackhole blackhole) throws Exception {
+        FileInputStream inputStream = new FileInputStream(xmlFile);
+        try {
+            return aNewEngine()
+                    .reader(new XmlStreamRecordReader("person", inputStream, Person.class))
+                    .mapper(new XmlRecordMapper<Person>(Person.class))
+                    .processor(new ConsumingRecordProcessor(blackhole))
+                    .silentMode(true)
+                    .build()
+                    .call();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    @Benchmark
+    public Report csvToXml() throws Exception {
+        OutputStreamWriter outputStreamWriter = new OutputStreamWriter(new NullOutputStream());
+        try {
+            return aNewEngine()
+                    .reader(new FlatFileRecordReader(csvFile, "UTF-8"))
+                    .mapper(new DelimitedRecordMapper<Person>(Person.class, Datasets.FIELDS))
+                    .processor(new XmlRecordMarshaller(Person.class))
+                    .writer(new OutputStreamRecordWriter(outputStreamWriter))
+                    .silentMode(true)
+                    .build()
+                    .call();
+        } finally {
+            outputStreamWriter.close();
+        }
+    }
+
+    private EngineBuilder csvToBeansEngine(final Blackhole blackhole) throws Exception {
+        return aNewEngine()
+                .reader(new FlatFileRecordReader(csvFile, "UTF-8"))
+                .mapper(new DelimitedRecordMapper<Person>(Person.class, Datasets.FIELDS))
+                .processor(new ConsumingRecordProcessor(blackhole))
+                .silentMode(true);
+    }
+
+    private static class ConsumingRecordProcessor implements RecordProcessor<Person, Person> {
+
+        private final Blackhole blackhole;
+
+        ConsumingRecordProcessor(final Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public Person processRecord(final Person person) throws RecordProcessingException {
+            blackhole.consume(person);
+            return person;
+        }
+    }
+
+}
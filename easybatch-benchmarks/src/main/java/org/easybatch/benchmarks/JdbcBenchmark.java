@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.jdbc.JdbcRecord;
+import org.easybatch.jdbc.JdbcRecordMapper;
+import org.easybatch.jdbc.JdbcRecordReader;
+import org.easybatch.jdbc.JdbcRecordWriter;
+import org.easybatch.jdbc.PreparedStatementProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of jdbc components over an embedded HSQLDB database: each operation reads (or writes) the whole dataset.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JdbcBenchmark {
+
+    private static final String DATABASE_URL = "jdbc:hsqldb:mem:benchmark";
+
+    private static final String INSERT_QUERY = "INSERT INTO person_copy VALUES (?, ?, ?, ?, ?)";
+
+    @Param({"10000"})
+    private int records;
+
+    private Connection connection;
+
+    private List<Object> persons;
+
+    private JdbcRecordMapper<Person> jdbcRecordMapper;
+
+    @Setup
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection(DATABASE_URL, "sa", "");
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("CREATE TABLE person (id integer PRIMARY KEY, firstName varchar(32), lastName varchar(32), age integer, married boolean)");
+        statement.executeUpdate("CREATE TABLE person_copy (id integer, firstName varchar(32), lastName varchar(32), age integer, married boolean)");
+        statement.close();
+        persons = new ArrayList<Object>(Datasets.persons(records));
+        new JdbcRecordWriter(connection, "INSERT INTO person VALUES (?, ?, ?, ?, ?)", new PersonStatementProvider()).writeRecords(persons);
+        jdbcRecordMapper = new JdbcRecordMapper<Person>(Person.class, Datasets.FIELDS);
+    }
+
+    @Benchmark
+    public void jdbcRecordReader(final Blackhole blackhole) throws Exception {
+        ReaderBenchmark.readAll(newReader(), blackhole);
+    }
+
+    @Benchmark
+    public void jdbcRecordReaderAndMapper(final Blackhole blackhole) throws Exception {
+        RecordReader recordReader = newReader();
+        recordReader.open();
+        try {
+            while (recordReader.hasNextRecord()) {
+                JdbcRecord record = (JdbcRecord) recordReader.readNextRecord();
+                blackhole.consume(jdbcRecordMapper.mapRecord(record));
+            }
+        } finally {
+            recordReader.close();
+        }
+    }
+
+    @Benchmark
+    public void jdbcRecordWriter() throws Exception {
+        new JdbcRecordWriter(connection, INSERT_QUERY, new PersonStatementProvider()).writeRecords(persons);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCopies() throws Exception {
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("DELETE FROM person_copy");
+        statement.close();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Statement statement = connection.createStatement();
+        statement.execute("SHUTDOWN");
+        statement.close();
+        connection.close();
+    }
+
+    /*
+     * The jdbc record reader closes its connection, so each reader gets a new connection.
+     */
+    private JdbcRecordReader newReader() throws SQLException {
+        return new JdbcRecordReader(DriverManager.getConnection(DATABASE_URL, "sa", ""), "SELECT * FROM person");
+    }
+
+    private static class PersonStatementProvider implements PreparedStatementProvider {
+
+        @Override
+        public void prepareStatement(final PreparedStatement preparedStatement, final Object record) throws SQLException {
+            Person person = (Person) record;
+            preparedStatement.setInt(1, person.getId());
+            preparedStatement.setString(2, person.getFirstName());
+            preparedStatement.setString(3, person.getLastName());
+            preparedStatement.setInt(4, person.getAge());
+            preparedStatement.setBoolean(5, person.isMarried());
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import org.easybatch.core.util.LineReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link LineReader} against {@link Scanner} and {@link BufferedReader}:
+ * each operation reads all lines of a CSV file.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineReaderBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final Charset UTF_16 = Charset.forName("UTF-16");
+
+    @Param({"100000"})
+    private int records;
+
+    @Param({"8192", "65536", "262144"})
+    private int bufferSize;
+
+    private File csvFile;
+
+    private File utf16CsvFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        String csv = Datasets.csv(records);
+        csvFile = Datasets.toTempFile(csv, ".csv");
+        utf16CsvFile = File.createTempFile("easybatch-benchmark", ".csv");
+        utf16CsvFile.deleteOnExit();
+        OutputStream outputStream = new FileOutputStream(utf16CsvFile);
+        try {
+            outputStream.write(csv.getBytes(UTF_16));
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    @Benchmark
+    public void scanner(final Blackhole blackhole) throws Exception {
+        Scanner scanner = new Scanner(csvFile, "UTF-8");
+        try {
+            while (scanner.hasNextLine()) {
+                blackhole.consume(scanner.nextLine());
+            }
+        } finally {
+            scanner.close();
+        }
+    }
+
+    @Benchmark
+    public void bufferedReader(final Blackhole blackhole) throws Exception {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(csvFile), UTF_8), bufferSize);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(line);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public void lineReader(final Blackhole blackhole) throws Exception {
+        readAll(csvFile, UTF_8, blackhole);
+    }
+
+    @Benchmark
+    public void lineReaderWithDecoder(final Blackhole blackhole) throws Exception {
+        readAll(utf16CsvFile, UTF_16, blackhole);
+    }
+
+    @Benchmark
+    public void lineReaderSkippingLines(final Blackhole blackhole) throws Exception {
+        LineReader lineReader = new LineReader(new FileInputStream(csvFile).getChannel(), UTF_8, bufferSize);
+        try {
+            long lines = 0;
+            while (lineReader.skipLine()) {
+                lines++;
+            }
+            blackhole.consume(lines);
+        } finally {
+            lineReader.close();
+        }
+    }
+
+    @Benchmark
+    public long countLines() throws Exception {
+        FileChannel channel = new FileInputStream(csvFile).getChannel();
+        try {
+            return LineReader.countLines(channel, bufferSize);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void readAll(final File file, final Charset charset, final Blackhole blackhole) throws IOException {
+        FileChannel channel = new FileInputStream(file).getChannel();
+        LineReader lineReader = new LineReader(channel, charset, bufferSize);
+        try {
+            String line;
+            while ((line = lineReader.readLine()) != null) {
+                blackhole.consume(line);
+            }
+        } finally {
+            lineReader.close();
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.mapper.ObjectMapper;
+import org.easybatch.core.record.StringRecord;
+import org.easybatch.flatfile.DelimitedRecordMapper;
+import org.easybatch.flatfile.FixedLengthRecordMapper;
+import org.easybatch.xml.XmlRecord;
+import org.easybatch.xml.XmlRecordMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of record mappers: each operation maps a single record to a {@link Person}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Map<String, String> values;
+
+    private StringRecord csvRecord;
+
+    private StringRecord fixedLengthRecord;
+
+    private XmlRecord xmlRecord;
+
+    private ObjectMapper<Person> objectMapper;
+
+    private DelimitedRecordMapper<Person> delimitedRecordMapper;
+
+    private FixedLengthRecordMapper<Person> fixedLengthRecordMapper;
+
+    private XmlRecordMapper<Person> xmlRecordMapper;
+
+    @Setup
+    public void setUp() throws Exception {
+        Person person = Datasets.person(42);
+        values = new HashMap<String, String>();
+        values.put("id", String.valueOf(person.getId()));
+        values.put("firstName", person.getFirstName());
+        values.put("lastName", person.getLastName());
+        values.put("age", String.valueOf(person.getAge()));
+        values.put("married", String.valueOf(person.isMarried()));
+
+        Header header = new Header(1L, "benchmark", System.currentTimeMillis());
+        csvRecord = new StringRecord(header, Datasets.csvLine(42));
+        fixedLengthRecord = new StringRecord(header, Datasets.fixedLengthLine(42));
+        xmlRecord = new XmlRecord(header, Datasets.xmlElement(42));
+
+        objectMapper = new ObjectMapper<Person>(Person.class);
+        delimitedRecordMapper = new DelimitedRecordMapper<Person>(Person.class, Datasets.FIELDS);
+        fixedLengthRecordMapper = new FixedLengthRecordMapper<Person>(Person.class, Datasets.FIELDS_LENGTH, Datasets.FIELDS);
+        xmlRecordMapper = new XmlRecordMapper<Person>(Person.class);
+    }
+
+    @Benchmark
+    public Person objectMapper() throws Exception {
+        return objectMapper.mapObject(values);
+    }
+
+    @Benchmark
+    public Person delimitedRecordMapper() throws Exception {
+        return delimitedRecordMapper.mapRecord(csvRecord);
+    }
+
+    @Benchmark
+    public Person fixedLengthRecordMapper() throws Exception {
+        return fixedLengthRecordMapper.mapRecord(fixedLengthRecord);
+    }
+
+    @Benchmark
+    public Person xmlRecordMapper() throws Exception {
+        return xmlRecordMapper.mapRecord(xmlRecord);
+    }
+
+}
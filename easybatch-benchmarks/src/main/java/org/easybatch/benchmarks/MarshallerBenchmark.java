@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import org.easybatch.flatfile.DelimitedRecordMarshaller;
+import org.easybatch.flatfile.FixedLengthRecordMarshaller;
+import org.easybatch.xml.XmlRecordMarshaller;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of record marshallers: each operation marshals a single {@link Person}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+    private Person person;
+
+    private DelimitedRecordMarshaller delimitedRecordMarshaller;
+
+    private FixedLengthRecordMarshaller fixedLengthRecordMarshaller;
+
+    private XmlRecordMarshaller xmlRecordMarshaller;
+
+    @Setup
+    public void setUp() throws Exception {
+        person = Datasets.person(42);
+        delimitedRecordMarshaller = new DelimitedRecordMarshaller(Person.class, Datasets.FIELDS);
+        fixedLengthRecordMarshaller = new FixedLengthRecordMarshaller(Person.class, Datasets.FIELDS);
+        xmlRecordMarshaller = new XmlRecordMarshaller(Person.class);
+    }
+
+    @Benchmark
+    public String delimitedRecordMarshaller() throws Exception {
+        return delimitedRecordMarshaller.processRecord(person);
+    }
+
+    @Benchmark
+    public String fixedLengthRecordMarshaller() throws Exception {
+        return fixedLengthRecordMarshaller.processRecord(person);
+    }
+
+    @Benchmark
+    public String xmlRecordMarshaller() throws Exception {
+        return xmlRecordMarshaller.processRecord(person);
+    }
+
+}
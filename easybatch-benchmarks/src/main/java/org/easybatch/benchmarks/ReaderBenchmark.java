@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.reader.IterableRecordReader;
+import org.easybatch.core.reader.StringRecordReader;
+import org.easybatch.flatfile.FlatFileRecordReader;
+import org.easybatch.flatfile.MappedFlatFileRecordReader;
+import org.easybatch.json.JsonRecordReader;
+import org.easybatch.xml.XmlRecordReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of record readers: each operation reads the whole dataset.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReaderBenchmark {
+
+    @Param({"10000"})
+    private int records;
+
+    private String csv;
+
+    private List<Person> persons;
+
+    private File csvFile;
+
+    private File xmlFile;
+
+    private File jsonFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        csv = Datasets.csv(records);
+        persons = Datasets.persons(records);
+        csvFile = Datasets.toTempFile(csv, ".csv");
+        xmlFile = Datasets.toTempFile(Datasets.xml(records), ".xml");
+        jsonFile = Datasets.toTempFile(Datasets.json(records), ".json");
+    }
+
+    @Benchmark
+    public void flatFileRecordReader(final Blackhole blackhole) throws Exception {
+        readAll(new FlatFileRecordReader(csvFile, "UTF-8"), blackhole);
+    }
+
+    @Benchmark
+    public void mappedFlatFileRecordReader(final Blackhole blackhole) throws Exception {
+        readAll(new MappedFlatFileRecordReader(csvFile, "UTF-8"), blackhole);
+    }
+
+    @Benchmark
+    public void xmlRecordReader(final Blackhole blackhole) throws Exception {
+        FileInputStream inputStream = new FileInputStream(xmlFile);
+        try {
+            readAll(new XmlRecordReader("person", inputStream), blackhole);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    @Benchmark
+    public void jsonRecordReader(final Blackhole blackhole) throws Exception {
+        FileInputStream inputStream = new FileInputStream(jsonFile);
+        try {
+            readAll(new JsonRecordReader(inputStream), blackhole);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    @Benchmark
+    public void stringRecordReader(final Blackhole blackhole) throws Exception {
+        readAll(new StringRecordReader(csv), blackhole);
+    }
+
+    @Benchmark
+    public void iterableRecordReader(final Blackhole blackhole) throws Exception {
+        readAll(new IterableRecordReader<Person>(persons), blackhole);
+    }
+
+    static void readAll(final RecordReader recordReader, final Blackhole blackhole) throws Exception {
+        recordReader.open();
+        try {
+            while (recordReader.hasNextRecord()) {
+                blackhole.consume(recordReader.readNextRecord());
+            }
+        } finally {
+            recordReader.close();
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.benchmarks;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.record.StringRecord;
+import org.easybatch.core.writer.FileRecordWriter;
+import org.easybatch.core.writer.OutputStreamRecordWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of record writers: each operation writes a single record.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriterBenchmark {
+
+    private StringRecord record;
+
+    private File output;
+
+    private FileWriter fileWriter;
+
+    private FileRecordWriter fileRecordWriter;
+
+    private OutputStreamWriter outputStreamWriter;
+
+    private OutputStreamRecordWriter outputStreamRecordWriter;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        record = new StringRecord(new Header(1L, "benchmark", System.currentTimeMillis()), Datasets.csvLine(42));
+        output = File.createTempFile("easybatch-benchmark", ".csv");
+        fileWriter = new FileWriter(output);
+        fileRecordWriter = new FileRecordWriter(fileWriter);
+        // measures the writer overhead without any I/O
+        outputStreamWriter = new OutputStreamWriter(new NullOutputStream());
+        outputStreamRecordWriter = new OutputStreamRecordWriter(outputStreamWriter);
+    }
+
+    @Benchmark
+    public Object fileRecordWriter() throws Exception {
+        return fileRecordWriter.processRecord(record);
+    }
+
+    @Benchmark
+    public Object outputStreamRecordWriter() throws Exception {
+        return outputStreamRecordWriter.processRecord(record);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        fileWriter.close();
+        outputStreamWriter.close();
+        output.delete();
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.event.step.RecordProcessorEventListener;
+import org.easybatch.core.api.event.step.RecordReaderEventListener;
+import org.easybatch.core.record.StringRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the dispatch of per record events by the {@link LocalEventManager}:
+ * each operation fires the reading and processing events of a record.
+ * <p/>
+ * This benchmark lives in the engine implementation package since the local event manager is package private.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    @Param({"0", "1", "4"})
+    private int listeners;
+
+    private LocalEventManager eventManager;
+
+    private Record record;
+
+    @Setup
+    public void setUp() {
+        eventManager = new LocalEventManager();
+        for (int i = 0; i < listeners; i++) {
+            eventManager.addRecordReaderEventListener(new NoOpRecordReaderEventListener());
+            eventManager.addRecordProcessorEventListener(new NoOpRecordProcessorEventListener());
+        }
+        record = new StringRecord(new Header(1L, "benchmark", System.currentTimeMillis()), "payload");
+    }
+
+    @Benchmark
+    public Object dispatchRecordEvents() {
+        eventManager.fireBeforeRecordReading();
+        eventManager.fireAfterRecordReading(record);
+        Object processed = eventManager.fireBeforeRecordProcessing(record);
+        eventManager.fireAfterRecordProcessing(processed, processed);
+        return processed;
+    }
+
+    private static class NoOpRecordReaderEventListener implements RecordReaderEventListener {
+
+        @Override
+        public void beforeReaderOpening() {
+        }
+
+        @Override
+        public void afterReaderOpening() {
+        }
+
+        @Override
+        public void beforeRecordReading() {
+        }
+
+        @Override
+        public void afterRecordReading(final Record record) {
+        }
+
+        @Override
+        public void onRecordReadingException(final Throwable throwable) {
+        }
+
+        @Override
+        public void beforeReaderClosing() {
+        }
+
+        @Override
+        public void afterReaderClosing() {
+        }
+    }
+
+    private static class NoOpRecordProcessorEventListener implements RecordProcessorEventListener {
+
+        @Override
+        public Object beforeRecordProcessing(final Object record) {
+            return record;
+        }
+
+        @Override
+        public void afterRecordProcessing(final Object record, final Object processingResult) {
+        }
+
+        @Override
+        public void onRecordProcessingException(final Object record, final Throwable throwable) {
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+import java.util.List;
+
+/**
+ * Interface for record writers able to write a chunk of records at once.
+ * <p/>
+ * When the engine is configured with a chunk size (see {@link org.easybatch.core.impl.EngineBuilder#chunkSize(int)})
+ * and a batch record writer is the last processor of the pipeline, records are buffered and handed to
+ * {@link #writeRecords(java.util.List)} once per chunk instead of being written one at a time.
+ *
+ * @param <T> the type of record to write
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface BatchRecordWriter<T> extends RecordWriter<T> {
+
+    /**
+     * Write a chunk of records.
+     *
+     * @param records the records to write
+     * @throws RecordProcessingException thrown if an exception occurs during records writing
+     */
+    void writeRecords(List<T> records) throws RecordProcessingException;
+
+}
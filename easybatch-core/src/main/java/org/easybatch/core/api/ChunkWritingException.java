@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Exception thrown by a {@link BatchRecordWriter} when only some records of a chunk could not be written.
+ * <p/>
+ * Records of the chunk which are not reported as failed are considered written: they are reported as succeeded
+ * while failed records are reported as in error.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class ChunkWritingException extends RecordProcessingException {
+
+    private final Map<Integer, Exception> failures;
+
+    /**
+     * Create a chunk writing exception.
+     *
+     * @param message  the exception message
+     * @param failures the exceptions of failed records by index in the chunk, which must not be empty
+     */
+    public ChunkWritingException(String message, Map<Integer, Exception> failures) {
+        super(message, failures.values().iterator().next());
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Get the exceptions of failed records.
+     *
+     * @return the exceptions of failed records by index in the chunk
+     */
+    public Map<Integer, Exception> getFailures() {
+        return failures;
+    }
+}
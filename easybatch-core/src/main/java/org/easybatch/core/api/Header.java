@@ -33,10 +33,17 @@ import java.util.Date;
  */
 public class Header {
 
+    private static final long UNDEFINED = Long.MIN_VALUE;
+
     /**
      * The physical record number in the data source (if defined).
      */
-    private Long number;
+    private long number;
+
+    /**
+     * True if the record number is defined.
+     */
+    private boolean hasNumber;
 
     /**
      * The data source name from which this record has been read.
@@ -44,7 +51,12 @@ public class Header {
     private String source;
 
     /**
-     * The date at which the record has been read.
+     * The time (in milliseconds) at which the record has been read.
+     */
+    private long creationTime;
+
+    /**
+     * The date at which the record has been read, created on demand from the creation time.
      */
     private Date creationDate;
 
@@ -54,15 +66,61 @@ public class Header {
      * @param creationDate date at which the record has been read.
      */
     public Header(Long number, String source, Date creationDate) {
-        this.number = number;
+        this.number = number != null ? number : 0;
+        this.hasNumber = number != null;
         this.source = source;
+        this.creationTime = creationDate != null ? creationDate.getTime() : UNDEFINED;
         this.creationDate = creationDate;
     }
 
+    /**
+     * Create a header without allocating a {@link Date}: the creation date is created only if requested.
+     *
+     * @param number       physical record number in the data source.
+     * @param source       data source name from which this record has been read.
+     * @param creationTime time (in milliseconds) at which the record has been read.
+     */
+    public Header(long number, String source, long creationTime) {
+        this.number = number;
+        this.hasNumber = true;
+        this.source = source;
+        this.creationTime = creationTime;
+    }
+
+    /**
+     * Update the header of a reused record (flyweight mode).
+     * This method is intended to be used by record readers reusing the same record instance for each record.
+     *
+     * @param number       physical record number in the data source.
+     * @param creationTime time (in milliseconds) at which the record has been read.
+     */
+    public void update(long number, long creationTime) {
+        this.number = number;
+        this.hasNumber = true;
+        this.creationTime = creationTime;
+        this.creationDate = null;
+    }
+
     /**
      * Return the physical record number in the data source (if defined).
      */
     public Long getNumber() {
+        return hasNumber ? number : null;
+    }
+
+    /**
+     * Return true if the physical record number in the data source is defined.
+     */
+    public boolean hasNumber() {
+        return hasNumber;
+    }
+
+    /**
+     * Return the physical record number in the data source without boxing it.
+     *
+     * @return the record number, or 0 if it is not defined (see {@link #hasNumber()})
+     */
+    public long getNumberValue() {
         return number;
     }
 
@@ -73,19 +131,29 @@ public class Header {
         return source;
     }
 
+    /**
+     * Return the time (in milliseconds) at which the record has been read.
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
     /**
      * Return the date at which the record has been read.
      */
     public Date getCreationDate() {
+        if (creationDate == null && creationTime != UNDEFINED) {
+            creationDate = new Date(creationTime);
+        }
         return creationDate;
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("[");
-        sb.append("number=").append(number);
+        sb.append("number=").append(getNumber());
         sb.append(", source=\"").append(source).append('\"');
-        sb.append(", creationDate=\"").append(creationDate);
+        sb.append(", creationDate=\"").append(getCreationDate());
         sb.append("\"]");
         return sb.toString();
     }
@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed memory histogram of the latency of a processing stage (read, filter, map, validate or a processor).
+ * <p/>
+ * Latencies are recorded in nanoseconds into logarithmic buckets: each power of two is split
+ * into 16 linear sub buckets, which gives percentiles with a relative error lower than 7%.
+ * Latencies greater than 2^40 nanoseconds (about 18 minutes) are counted in the last bucket.
+ * <p/>
+ * The histogram can be updated by several threads and read concurrently (by JMX for example).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class LatencyHistogram implements Serializable {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private String name;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordValue(final long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /*
+     * Used to take a snapshot of a report. The count of the copy is computed from the copied buckets
+     * so that percentiles stay consistent if latencies are recorded concurrently.
+     */
+    LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram(name);
+        long copiedCount = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = buckets.get(i);
+            copy.buckets.set(i, bucketCount);
+            copiedCount += bucketCount;
+        }
+        copy.count.set(copiedCount);
+        copy.max.set(max.get());
+        return copy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the maximum recorded latency in nanoseconds
+     */
+    public long getMaxValue() {
+        return max.get();
+    }
+
+    /**
+     * Get the latency below which the given percentage of recorded latencies fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency at the given percentile in nanoseconds (0 if no latency has been recorded)
+     */
+    public long getValueAtPercentile(final double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulativeCount += buckets.get(i);
+            if (cumulativeCount >= rank) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public String getFormattedP50() {
+        return formatNanos(getValueAtPercentile(50));
+    }
+
+    public String getFormattedP95() {
+        return formatNanos(getValueAtPercentile(95));
+    }
+
+    public String getFormattedP99() {
+        return formatNanos(getValueAtPercentile(99));
+    }
+
+    public String getFormattedMax() {
+        return formatNanos(getMaxValue());
+    }
+
+    /*
+     * Values lower than 16 have their own bucket. Other values are indexed by their exponent
+     * and the 4 bits following their highest bit.
+     */
+    private static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT && value >= (1L << (MAX_EXPONENT + 1))) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static String formatNanos(final long nanos) {
+        return String.format(Locale.US, "%.3fms", nanos / 1000000d);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(name);
+        sb.append(": p50 = ").append(getFormattedP50());
+        sb.append(", p95 = ").append(getFormattedP95());
+        sb.append(", p99 = ").append(getFormattedP99());
+        sb.append(", max = ").append(getFormattedMax());
+        sb.append(" (").append(getCount()).append(" samples)");
+        return sb.toString();
+    }
+}
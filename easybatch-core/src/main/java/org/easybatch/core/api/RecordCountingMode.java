@@ -0,0 +1,52 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+/**
+ * Enumeration of the ways the engine calculates the total number of records when JMX monitoring is enabled.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public enum RecordCountingMode {
+
+    /**
+     * Records are counted with {@link RecordReader#getTotalRecords()} before processing starts.
+     */
+    SYNCHRONOUS,
+
+    /**
+     * Records are counted with {@link RecordReader#getTotalRecords()} in a background thread while records are processed.
+     * Until the count is known, the report holds the estimate of an {@link EstimableRecordReader} if any.
+     * <p/>
+     * The record reader should support calling getTotalRecords() while records are being read.
+     */
+    ASYNCHRONOUS,
+
+    /**
+     * The total number of records is estimated by an {@link EstimableRecordReader} and never counted.
+     * The total number of records is unknown for other readers.
+     */
+    ESTIMATED
+}
@@ -24,10 +24,14 @@
 
 package org.easybatch.core.api;
 
+import org.easybatch.core.util.StripedCounter;
+
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.easybatch.core.util.Utils.DEFAULT_LIMIT;
 import static org.easybatch.core.util.Utils.LINE_SEPARATOR;
@@ -41,30 +45,35 @@ public class Report implements Serializable {
 
     public static final String DATE_FORMAT = "yyyy-MM-dd hh:mm:ss";
 
-    private long startTime;
+    /*
+     * Fields are volatile and counters are striped so that the report can be updated by several threads
+     * and read (for example through JMX) while the engine is running.
+     */
 
-    private long endTime;
+    private volatile long startTime;
+
+    private volatile long endTime;
 
     private String dataSource;
 
-    private Long totalRecords;
+    private volatile Long totalRecords;
 
     // needed only for jmx monitoring
-    private long currentRecordNumber;
+    private volatile long currentRecordNumber;
 
-    private long filteredRecords;
+    private final StripedCounter filteredRecords = new StripedCounter();
 
-    private long skippedRecords;
+    private final StripedCounter skippedRecords = new StripedCounter();
 
-    private long ignoredRecords;
+    private final StripedCounter ignoredRecords = new StripedCounter();
 
-    private long rejectedRecords;
+    private final StripedCounter rejectedRecords = new StripedCounter();
 
-    private long errorRecords;
+    private final StripedCounter errorRecords = new StripedCounter();
 
-    private long successRecords;
+    private final StripedCounter successRecords = new StripedCounter();
 
-    private Status status;
+    private volatile Status status;
 
     private long limit;
 
@@ -76,32 +85,62 @@ public class Report implements Serializable {
 
     private Properties systemProperties;
 
+    // filled only by staged engines
+    private List<StageStatistics> stageStatistics = new CopyOnWriteArrayList<StageStatistics>();
+
+    // filled only when latency tracking is enabled
+    private List<LatencyHistogram> latencyHistograms = new CopyOnWriteArrayList<LatencyHistogram>();
+
     public Report() {
         this.status = Status.INITIALIZING;
     }
 
     public void incrementTotalFilteredRecords() {
-        filteredRecords++;
+        filteredRecords.increment();
+    }
+
+    public void incrementTotalFilteredRecords(final long count) {
+        filteredRecords.add(count);
     }
 
     public void incrementTotalSkippedRecords() {
-        skippedRecords++;
+        skippedRecords.increment();
+    }
+
+    public void incrementTotalSkippedRecords(final long count) {
+        skippedRecords.add(count);
     }
 
     public void incrementTotalIgnoredRecord() {
-        ignoredRecords++;
+        ignoredRecords.increment();
+    }
+
+    public void incrementTotalIgnoredRecord(final long count) {
+        ignoredRecords.add(count);
     }
 
     public void incrementTotalRejectedRecord() {
-        rejectedRecords++;
+        rejectedRecords.increment();
+    }
+
+    public void incrementTotalRejectedRecord(final long count) {
+        rejectedRecords.add(count);
     }
 
     public void incrementTotalErrorRecord() {
-        errorRecords++;
+        errorRecords.increment();
+    }
+
+    public void incrementTotalErrorRecord(final long count) {
+        errorRecords.add(count);
     }
 
     public void incrementTotalSuccessRecord() {
-        successRecords++;
+        successRecords.increment();
+    }
+
+    public void incrementTotalSuccessRecord(final long count) {
+        successRecords.add(count);
     }
 
     public void setTotalRecords(final Long totalRecords) {
@@ -192,28 +231,78 @@ public class Report implements Serializable {
         return executionId;
     }
 
+    public List<StageStatistics> getStageStatistics() {
+        return stageStatistics;
+    }
+
+    public void addStageStatistics(StageStatistics statistics) {
+        stageStatistics.add(statistics);
+    }
+
+    public List<LatencyHistogram> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    public void addLatencyHistogram(LatencyHistogram latencyHistogram) {
+        latencyHistograms.add(latencyHistogram);
+    }
+
     public long getFilteredRecordsCount() {
-        return filteredRecords;
+        return filteredRecords.sum();
     }
 
     public long getSkippedRecordsCount() {
-        return skippedRecords;
+        return skippedRecords.sum();
     }
 
     public long getIgnoredRecordsCount() {
-        return ignoredRecords;
+        return ignoredRecords.sum();
     }
 
     public long getRejectedRecordsCount() {
-        return rejectedRecords;
+        return rejectedRecords.sum();
     }
 
     public long getErrorRecordsCount() {
-        return errorRecords;
+        return errorRecords.sum();
     }
 
     public long getSuccessRecordsCount() {
-        return successRecords;
+        return successRecords.sum();
+    }
+
+    /**
+     * Return a copy of this report. The copy is not updated anymore when this report changes,
+     * so that consistent statistics can be read while the engine is running.
+     *
+     * @return a snapshot of this report
+     */
+    public Report snapshot() {
+        Report snapshot = new Report();
+        snapshot.setStartTime(startTime);
+        snapshot.setEndTime(endTime);
+        snapshot.setDataSource(dataSource);
+        snapshot.setTotalRecords(totalRecords);
+        snapshot.setCurrentRecordNumber(currentRecordNumber);
+        snapshot.incrementTotalFilteredRecords(getFilteredRecordsCount());
+        snapshot.incrementTotalSkippedRecords(getSkippedRecordsCount());
+        snapshot.incrementTotalIgnoredRecord(getIgnoredRecordsCount());
+        snapshot.incrementTotalRejectedRecord(getRejectedRecordsCount());
+        snapshot.incrementTotalErrorRecord(getErrorRecordsCount());
+        snapshot.incrementTotalSuccessRecord(getSuccessRecordsCount());
+        snapshot.setStatus(status);
+        snapshot.setLimit(limit);
+        snapshot.setEngineName(engineName);
+        snapshot.setExecutionId(executionId);
+        snapshot.setBatchResult(batchResult);
+        snapshot.setSystemProperties(systemProperties);
+        for (StageStatistics statistics : stageStatistics) {
+            snapshot.addStageStatistics(statistics.copy());
+        }
+        for (LatencyHistogram latencyHistogram : latencyHistograms) {
+            snapshot.addLatencyHistogram(latencyHistogram.copy());
+        }
+        return snapshot;
     }
 
     /*
@@ -368,6 +457,12 @@ public class Report implements Serializable {
         sb.append(LINE_SEPARATOR).append("\tError records = ").append(getFormattedErrorRecords());
         sb.append(LINE_SEPARATOR).append("\tSuccess records = ").append(getFormattedSuccessRecords());
         sb.append(LINE_SEPARATOR).append("\tRecord processing time average = ").append(getFormattedAverageRecordProcessingTime());
+        for (StageStatistics statistics : stageStatistics) {
+            sb.append(LINE_SEPARATOR).append("\tStage ").append(statistics);
+        }
+        for (LatencyHistogram latencyHistogram : latencyHistograms) {
+            sb.append(LINE_SEPARATOR).append("\tLatency ").append(latencyHistogram);
+        }
         if (batchResult != null) {
             sb.append(LINE_SEPARATOR).append("\tResult = ").append(batchResult);
         }
@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+/**
+ * Optional contract for record readers able to resume reading from a position in the data source,
+ * instead of reading and skipping records up to that position.
+ * <p/>
+ * When checkpointing is enabled, the engine saves the current position of the reader at regular intervals.
+ * When the engine is restarted after a failure, it asks the reader to resume from the last saved position.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface ResumableRecordReader extends RecordReader {
+
+    /**
+     * Get the position of the reader in the data source, right after the last read record.
+     * <p/>
+     * The position is opaque to the engine: it is saved as is and given back to {@link #resumeFrom(String, long)}.
+     *
+     * @return the current position or null if the position cannot be determined
+     */
+    String getCurrentPosition();
+
+    /**
+     * Resume reading from a position previously returned by {@link #getCurrentPosition()}.
+     * This method is called before {@link #open()}.
+     *
+     * @param position     the position to resume from
+     * @param recordNumber the number of the last record read at this position: records read after resuming
+     *                     should be numbered from recordNumber + 1
+     */
+    void resumeFrom(String position, long recordNumber);
+}
@@ -0,0 +1,48 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+/**
+ * Optional contract for record readers able to move to a record number without reading previous records
+ * (using an index of the data source for example).
+ * <p/>
+ * When records are skipped (see {@link org.easybatch.core.impl.EngineBuilder#skip(long)}) or when the engine resumes
+ * from a checkpoint without reader position, the engine asks the reader to seek past skipped records instead of
+ * reading and skipping them.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface SeekableRecordReader extends RecordReader {
+
+    /**
+     * Move the reader after the given record: the next read record is number recordNumber + 1.
+     * This method is called before {@link #open()}.
+     *
+     * @param recordNumber the number of the last record to skip
+     * @return true if the reader will start after the given record, false if it cannot seek to this record,
+     * in which case the engine reads and skips previous records
+     */
+    boolean seek(long recordNumber);
+}
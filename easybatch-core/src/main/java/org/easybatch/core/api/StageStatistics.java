@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of a stage of a staged engine: number of handled items, queue depth and busy/idle time.
+ * <p/>
+ * Statistics are updated by the stage thread and can be read concurrently (by JMX for example).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class StageStatistics implements Serializable {
+
+    private String name;
+
+    private volatile long handledItems;
+
+    private volatile int queueDepth;
+
+    private volatile int maxQueueDepth;
+
+    private volatile long busyTime;
+
+    private volatile long idleTime;
+
+    public StageStatistics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Record the time spent by the stage handling an item.
+     *
+     * @param nanos the busy time in nanoseconds
+     */
+    public void addBusyTime(final long nanos) {
+        busyTime += nanos;
+        handledItems++;
+    }
+
+    /**
+     * Record the time spent by the stage waiting for an item.
+     *
+     * @param nanos the idle time in nanoseconds
+     */
+    public void addIdleTime(final long nanos) {
+        idleTime += nanos;
+    }
+
+    /**
+     * Record the current depth of the input queue of the stage.
+     *
+     * @param queueDepth the current queue depth
+     */
+    public void setQueueDepth(final int queueDepth) {
+        this.queueDepth = queueDepth;
+        if (queueDepth > maxQueueDepth) {
+            maxQueueDepth = queueDepth;
+        }
+    }
+
+    /*
+     * Used to take a snapshot of a report
+     */
+    StageStatistics copy() {
+        StageStatistics copy = new StageStatistics(name);
+        copy.handledItems = handledItems;
+        copy.queueDepth = queueDepth;
+        copy.maxQueueDepth = maxQueueDepth;
+        copy.busyTime = busyTime;
+        copy.idleTime = idleTime;
+        return copy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHandledItems() {
+        return handledItems;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * @return the busy time in milliseconds
+     */
+    public long getBusyTime() {
+        return TimeUnit.NANOSECONDS.toMillis(busyTime);
+    }
+
+    /**
+     * @return the idle time in milliseconds
+     */
+    public long getIdleTime() {
+        return TimeUnit.NANOSECONDS.toMillis(idleTime);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(name);
+        sb.append(": handled items = ").append(handledItems);
+        sb.append(", busy time = ").append(getBusyTime()).append("ms");
+        sb.append(", idle time = ").append(getIdleTime()).append("ms");
+        sb.append(", queue depth = ").append(queueDepth);
+        sb.append(" (max = ").append(maxQueueDepth).append(")");
+        return sb.toString();
+    }
+}
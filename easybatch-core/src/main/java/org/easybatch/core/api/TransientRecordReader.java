@@ -0,0 +1,50 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.api;
+
+/**
+ * Optional contract for record readers whose records may be valid only until the next record is read, because the
+ * same record instance is reused (flyweight mode) or because the payload is a live cursor on the data source (like a
+ * jdbc result set).
+ * <p/>
+ * Such records must be mapped before the next record is read: they cannot be read ahead of the engine (see
+ * {@link org.easybatch.core.reader.PrefetchingRecordReader} and staged execution), and reused records cannot be
+ * buffered in chunks or processed in parallel.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface TransientRecordReader extends RecordReader {
+
+    /**
+     * @return true if records, or their payload, are only valid until the next record is read
+     */
+    boolean hasTransientRecords();
+
+    /**
+     * @return true if the same record instance is returned for each record
+     */
+    boolean isReusingRecords();
+}
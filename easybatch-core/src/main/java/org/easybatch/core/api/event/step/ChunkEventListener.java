@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.api.event.step;
+
+import java.util.List;
+
+/**
+ * Event interface collection for chunk writing events.
+ * <p/>
+ * These events are fired only when the engine runs in chunk mode.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public interface ChunkEventListener {
+
+    /**
+     * Called before a chunk of records gets written.
+     *
+     * @param records the records of the chunk
+     */
+    void beforeChunkWriting(final List<Object> records);
+
+    /**
+     * Called after a chunk of records has been written.
+     *
+     * @param records the written records
+     */
+    void afterChunkWriting(final List<Object> records);
+
+    /**
+     * Called when an exception occurs during chunk writing.
+     *
+     * @param records   the records of the chunk
+     * @param throwable the exception occurred during chunk writing
+     */
+    void onChunkWritingException(final List<Object> records, final Throwable throwable);
+}
@@ -62,4 +62,27 @@ public class FileExtensionFilter implements RecordFilter {
         return false;
     }
 
+    /**
+     * Get a glob pattern matching the names of the files filtered by this filter, to skip these files while walking
+     * directories with {@link org.easybatch.core.reader.FileRecordReader#setExcludedGlob(String)} instead of
+     * filtering records.
+     *
+     * @return a glob pattern matching file names with one of the extensions, example: {@code *{.log,.txt}}
+     */
+    public String getGlob() {
+        StringBuilder glob = new StringBuilder("*{");
+        for (int i = 0; i < extensions.size(); i++) {
+            if (i > 0) {
+                glob.append(',');
+            }
+            for (char c : extensions.get(i).toCharArray()) {
+                if ("*?[]{},\\".indexOf(c) != -1) {
+                    glob.append('\\');
+                }
+                glob.append(c);
+            }
+        }
+        return glob.append('}').toString();
+    }
+
 }
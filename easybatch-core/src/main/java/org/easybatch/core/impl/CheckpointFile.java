@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import java.io.*;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A checkpoint saved in a local file: the number of the last committed record, the position of the reader
+ * after this record (if the reader is resumable) and the data source name.
+ * <p/>
+ * The checkpoint is written to a temporary file which is synced to disk and then renamed,
+ * so that the checkpoint file is never left half written.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class CheckpointFile {
+
+    private static final Logger LOGGER = Logger.getLogger(CheckpointFile.class.getName());
+
+    private static final String RECORD_NUMBER = "recordNumber";
+
+    private static final String POSITION = "position";
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    private File file;
+
+    private long recordNumber;
+
+    private String position;
+
+    private String dataSource;
+
+    CheckpointFile(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the checkpoint file if it exists.
+     *
+     * @return true if a checkpoint has been loaded
+     */
+    boolean load() throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        Properties properties = new Properties();
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            properties.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        recordNumber = Long.parseLong(properties.getProperty(RECORD_NUMBER));
+        position = properties.getProperty(POSITION);
+        dataSource = properties.getProperty(DATA_SOURCE);
+        return true;
+    }
+
+    void save(final long recordNumber, final String position, final String dataSource) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(RECORD_NUMBER, String.valueOf(recordNumber));
+        if (position != null) {
+            properties.setProperty(POSITION, position);
+        }
+        if (dataSource != null) {
+            properties.setProperty(DATA_SOURCE, dataSource);
+        }
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        FileOutputStream outputStream = new FileOutputStream(temporaryFile);
+        try {
+            properties.store(outputStream, "Easy Batch checkpoint");
+            outputStream.flush();
+            outputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+        if (!temporaryFile.renameTo(file)) {
+            // renaming to an existing file is not supported on all platforms
+            if (!file.delete() || !temporaryFile.renameTo(file)) {
+                throw new IOException("Unable to write checkpoint file " + file.getAbsolutePath());
+            }
+        }
+        this.recordNumber = recordNumber;
+        this.position = position;
+        this.dataSource = dataSource;
+    }
+
+    void delete() {
+        if (file.exists() && !file.delete()) {
+            LOGGER.log(Level.WARNING, "Unable to delete checkpoint file {0}", file.getAbsolutePath());
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long getRecordNumber() {
+        return recordNumber;
+    }
+
+    String getPosition() {
+        return position;
+    }
+
+    String getDataSource() {
+        return dataSource;
+    }
+}
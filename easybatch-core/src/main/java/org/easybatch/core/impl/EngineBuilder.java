@@ -34,6 +34,7 @@ import org.easybatch.core.api.handler.IgnoredRecordHandler;
 import org.easybatch.core.api.handler.RejectedRecordHandler;
 import org.easybatch.core.util.Utils;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,11 +48,17 @@ import static org.easybatch.core.util.Utils.checkNotNull;
  */
 public final class EngineBuilder {
 
+    private static final int DEFAULT_STAGE_QUEUE_CAPACITY = 1000;
+
     /**
      * The easy batch engine to build.
      */
     private EngineImpl engine;
 
+    private boolean stagedExecution;
+
+    private int stageQueueCapacity = DEFAULT_STAGE_QUEUE_CAPACITY;
+
     public EngineBuilder() {
 
         RecordReader recordReader = new NoOpRecordReader();
@@ -128,6 +135,136 @@ public final class EngineBuilder {
         return this;
     }
 
+    /**
+     * Enable chunk mode: records are read, filtered, mapped, validated and processed one at a time,
+     * then handed to the last processor of the pipeline (usually a writer) by chunks of the given size.
+     * If the last processor is a {@link BatchRecordWriter}, each chunk is written in a single call and its records
+     * succeed or fail together. Otherwise, records of the chunk are written and reported one at a time.
+     *
+     * @param chunkSize the number of records per chunk
+     * @return the engine builder
+     */
+    public EngineBuilder chunkSize(final int chunkSize) {
+        checkArgument(chunkSize >= 1, "The chunk size should be greater than or equal to 1");
+        engine.setChunkSize(chunkSize);
+        return this;
+    }
+
+    /**
+     * Enable parallel processing: records are still read, filtered, mapped and validated by the engine thread,
+     * but processors are applied by a pool of worker threads. If the last processor of the pipeline is a
+     * {@link RecordWriter}, it is applied by the engine thread so that writers do not need to be thread safe.
+     * {@link ComputationalRecordProcessor}s and the processors following them are applied by the engine thread as
+     * well, so that the computation result reported for each record is the one of this record.
+     * Other processors <strong>must</strong> be thread safe.
+     *
+     * @param threads the number of worker threads
+     * @return the engine builder
+     */
+    public EngineBuilder processingThreads(final int threads) {
+        checkArgument(threads >= 1, "The number of processing threads should be greater than or equal to 1");
+        engine.setProcessingThreads(threads);
+        return this;
+    }
+
+    /**
+     * Set the maximum number of records being processed by worker threads at a time when parallel processing is enabled.
+     * Defaults to twice the number of processing threads.
+     *
+     * @param maxRecordsInFlight the maximum number of records being processed at a time
+     * @return the engine builder
+     */
+    public EngineBuilder maxRecordsInFlight(final int maxRecordsInFlight) {
+        checkArgument(maxRecordsInFlight >= 1, "The maximum number of records in flight should be greater than or equal to 1");
+        engine.setMaxRecordsInFlight(maxRecordsInFlight);
+        return this;
+    }
+
+    /**
+     * Parameter to preserve input order when parallel processing is enabled (enabled by default).
+     * If false, processed records are handed to the writer as soon as they are processed.
+     *
+     * @param preserveOrder true to preserve input order
+     * @return the engine builder
+     */
+    public EngineBuilder preserveOrder(final boolean preserveOrder) {
+        engine.setPreserveOrder(preserveOrder);
+        return this;
+    }
+
+    /**
+     * Enable latency tracking of read, filter, map, validate and processing stages.
+     * The latency of each stage is measured for one record out of samplingRate and percentiles
+     * are reported in latency histograms of the {@link org.easybatch.core.api.Report}.
+     *
+     * @param samplingRate the latency sampling rate (1 to measure all records)
+     * @return the engine builder
+     */
+    public EngineBuilder latencySamplingRate(final int samplingRate) {
+        checkArgument(samplingRate >= 1, "The latency sampling rate should be greater than or equal to 1");
+        engine.setLatencySamplingRate(samplingRate);
+        return this;
+    }
+
+    /**
+     * Enable checkpointing: the number of the last committed record (and the position of the reader after this record
+     * if it is a {@link ResumableRecordReader}) is saved in the given file every checkpointInterval records.
+     * <p/>
+     * If the file contains a checkpoint when the engine starts, the engine resumes reading after the checkpointed record:
+     * resumable readers are asked to resume from the saved position, other readers are read and previous records skipped.
+     * The checkpoint file is deleted when the execution finishes successfully.
+     * <p/>
+     * Records processed after the last checkpoint of an aborted execution are processed again when the engine is restarted.
+     *
+     * @param checkpointFile the file in which checkpoints are saved
+     * @return the engine builder
+     */
+    public EngineBuilder checkpoint(final File checkpointFile) {
+        checkNotNull(checkpointFile, "checkpoint file");
+        engine.setCheckpointFile(checkpointFile);
+        return this;
+    }
+
+    /**
+     * Set the number of records between two checkpoints (1000 by default).
+     *
+     * @param checkpointInterval the number of records between two checkpoints
+     * @return the engine builder
+     */
+    public EngineBuilder checkpointInterval(final int checkpointInterval) {
+        checkArgument(checkpointInterval >= 1, "The checkpoint interval should be greater than or equal to 1");
+        engine.setCheckpointInterval(checkpointInterval);
+        return this;
+    }
+
+    /**
+     * Enable staged execution: records are read, prepared (skipped, filtered, mapped and validated) and processed
+     * by three different threads connected with bounded queues. This makes reading records overlap with
+     * processing/writing them, which is useful when both the reader and the writer are I/O bound.
+     * <p/>
+     * Records are read ahead of the mapper: readers whose records are only valid until the next record is read
+     * (see {@link org.easybatch.core.api.TransientRecordReader}) are not supported.
+     *
+     * @param stagedExecution true to enable staged execution
+     * @return the engine builder
+     */
+    public EngineBuilder stagedExecution(final boolean stagedExecution) {
+        this.stagedExecution = stagedExecution;
+        return this;
+    }
+
+    /**
+     * Set the capacity of queues between stages when staged execution is enabled.
+     *
+     * @param capacity the capacity of stage queues
+     * @return the engine builder
+     */
+    public EngineBuilder stageQueueCapacity(final int capacity) {
+        checkArgument(capacity >= 1, "The stage queue capacity should be greater than or equal to 1");
+        this.stageQueueCapacity = capacity;
+        return this;
+    }
+
     /**
      * Register a record reader.
      *
@@ -281,6 +418,19 @@ public final class EngineBuilder {
         return this;
     }
 
+    /**
+     * Set how the total number of records is calculated when JMX monitoring is enabled
+     * ({@link RecordCountingMode#SYNCHRONOUS} by default).
+     *
+     * @param recordCountingMode the record counting mode
+     * @return the engine builder
+     */
+    public EngineBuilder recordCountingMode(final RecordCountingMode recordCountingMode) {
+        checkNotNull(recordCountingMode, "record counting mode");
+        engine.setRecordCountingMode(recordCountingMode);
+        return this;
+    }
+
     /**
      * Register a job event listener.
      * See {@link JobEventListener} for available callback methods.
@@ -359,6 +509,23 @@ public final class EngineBuilder {
         return this;
     }
 
+    /**
+     * Register a chunk event listener.
+     * See {@link org.easybatch.core.api.event.step.ChunkEventListener} for available callback methods.
+     * A custom event manager must implement {@link org.easybatch.core.api.event.ChunkEventManager} to accept
+     * chunk event listeners.
+     *
+     * @param chunkEventListener The event listener to add.
+     * @return the engine builder
+     * @throws IllegalArgumentException if the event manager does not implement
+     *                                  {@link org.easybatch.core.api.event.ChunkEventManager}
+     */
+    public EngineBuilder chunkEventListener(final ChunkEventListener chunkEventListener) {
+        checkNotNull(chunkEventListener, "chunk event listener");
+        engine.addChunkEventListener(chunkEventListener);
+        return this;
+    }
+
     /**
      * Register a custom event manager.
      *
@@ -377,7 +544,24 @@ public final class EngineBuilder {
      * @return an Easy Batch instance
      */
     public Engine build() {
+        if (isReusingRecords(engine.getRecordReader())) {
+            checkArgument(engine.getChunkSize() <= 1, "Readers reusing records are not supported with chunks of more than one record");
+            checkArgument(engine.getProcessingThreads() == 0, "Readers reusing records are not supported with parallel processing");
+        }
+        if (stagedExecution) {
+            checkArgument(!engine.isCheckpointingEnabled(), "Checkpointing is not supported with staged execution");
+            checkArgument(!hasTransientRecords(engine.getRecordReader()), "Readers whose records are only valid until the next record is read are not supported with staged execution");
+            return new StagedEngineImpl(engine, stageQueueCapacity);
+        }
         return engine;
     }
 
+    private boolean hasTransientRecords(final RecordReader recordReader) {
+        return recordReader instanceof TransientRecordReader && ((TransientRecordReader) recordReader).hasTransientRecords();
+    }
+
+    private boolean isReusingRecords(final RecordReader recordReader) {
+        return recordReader instanceof TransientRecordReader && ((TransientRecordReader) recordReader).isReusingRecords();
+    }
+
 }
@@ -0,0 +1,298 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Engine;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.Status;
+import org.easybatch.core.util.NamedThreadFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.easybatch.core.util.Utils.LINE_SEPARATOR;
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * Executor that runs many engines concurrently with a limit on the number of engines running at a time.
+ * <p/>
+ * Engines are run on virtual threads when the JVM supports them (and this is not disabled),
+ * or on a pool of platform threads otherwise.
+ * <p/>
+ * The executor provides an aggregated report of submitted engines, updated while engines are running,
+ * and a combined report once all engines have completed (see {@link #awaitCompletion()}).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class EngineExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(EngineExecutor.class.getName());
+
+    private static final String VIRTUAL_THREAD_EXECUTOR_FACTORY = "newVirtualThreadPerTaskExecutor";
+
+    private final ExecutorService executorService;
+
+    private final Semaphore permits;
+
+    private final boolean virtualThreads;
+
+    private final List<Submission> submissions = new CopyOnWriteArrayList<Submission>();
+
+    /**
+     * Create an engine executor using virtual threads if available.
+     *
+     * @param maxConcurrentEngines the maximum number of engines running at a time
+     */
+    public EngineExecutor(final int maxConcurrentEngines) {
+        this(maxConcurrentEngines, true);
+    }
+
+    /**
+     * Create an engine executor.
+     *
+     * @param maxConcurrentEngines the maximum number of engines running at a time
+     * @param preferVirtualThreads true to use virtual threads if the JVM supports them
+     */
+    public EngineExecutor(final int maxConcurrentEngines, final boolean preferVirtualThreads) {
+        checkArgument(maxConcurrentEngines >= 1, "The maximum number of concurrent engines should be greater than or equal to 1");
+        this.permits = new Semaphore(maxConcurrentEngines);
+        ExecutorService virtualThreadExecutor = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            this.executorService = virtualThreadExecutor;
+            this.virtualThreads = true;
+        } else {
+            this.executorService = Executors.newFixedThreadPool(maxConcurrentEngines, new NamedThreadFactory("engine-executor-", false));
+            this.virtualThreads = false;
+        }
+        LOGGER.log(Level.INFO, "Engine executor running at most {0} engine(s) at a time on {1} threads",
+                new Object[]{maxConcurrentEngines, virtualThreads ? "virtual" : "platform"});
+    }
+
+    /**
+     * Submit an engine for execution.
+     *
+     * @param engine the engine to run
+     * @return a future of the engine report
+     */
+    public Future<Report> submit(final Engine engine) {
+        checkNotNull(engine, "engine");
+        Future<Report> future = executorService.submit(new Callable<Report>() {
+            @Override
+            public Report call() throws Exception {
+                permits.acquire();
+                try {
+                    return engine.call();
+                } finally {
+                    permits.release();
+                }
+            }
+        });
+        submissions.add(new Submission(engine, future));
+        return future;
+    }
+
+    /**
+     * Submit engines for execution.
+     *
+     * @param engines the engines to run
+     * @return futures of engines reports, in the same order as engines
+     */
+    public List<Future<Report>> submitAll(final List<? extends Engine> engines) {
+        checkNotNull(engines, "engines");
+        List<Future<Report>> submitted = new ArrayList<Future<Report>>();
+        for (Engine engine : engines) {
+            submitted.add(submit(engine));
+        }
+        return submitted;
+    }
+
+    /**
+     * Wait for all submitted engines to complete.
+     *
+     * @return the combined report of all submitted engines
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Report awaitCompletion() throws InterruptedException {
+        for (Submission submission : submissions) {
+            try {
+                submission.future.get();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.SEVERE, "An engine terminated with an unexpected exception", e.getCause());
+            } catch (CancellationException e) {
+                LOGGER.log(Level.WARNING, "An engine has been cancelled", e);
+            }
+        }
+        return getReport();
+    }
+
+    /**
+     * Get the aggregated report of submitted engines. This report is a snapshot computed at call time.
+     * <ul>
+     * <li>The start time is the minimum of start times</li>
+     * <li>The end time is the maximum of end times (once all engines have completed)</li>
+     * <li>Records counts are the sums of records counts</li>
+     * <li>The batch result is the list of batch results</li>
+     * <li>The data source is the list (one per line) of data sources</li>
+     * <li>The status is {@link Status#RUNNING} while engines are running, then {@link Status#ABORTED} if one engine
+     * is aborted or {@link Status#FINISHED} otherwise</li>
+     * </ul>
+     *
+     * @return the aggregated report
+     */
+    public Report getReport() {
+        Report aggregatedReport = new Report();
+        aggregatedReport.setEngineName("engine-executor");
+        long startTime = Long.MAX_VALUE;
+        long endTime = 0;
+        long totalRecords = 0;
+        long currentRecordNumber = 0;
+        boolean completed = true;
+        boolean aborted = false;
+        boolean started = false;
+        List<Object> results = new ArrayList<Object>();
+        StringBuilder dataSources = new StringBuilder();
+
+        for (Submission submission : submissions) {
+            Report report = getReport(submission.engine, submission.future);
+            completed &= submission.future.isDone();
+            if (report == null) {
+                continue;
+            }
+            if (report.getStartTime() > 0) {
+                started = true;
+                startTime = Math.min(startTime, report.getStartTime());
+            }
+            endTime = Math.max(endTime, report.getEndTime());
+            if (report.getTotalRecords() != null) {
+                totalRecords += report.getTotalRecords();
+            }
+            currentRecordNumber += report.getCurrentRecordNumber();
+            addCount(aggregatedReport, report);
+            if (Status.ABORTED.equals(report.getStatus())) {
+                aborted = true;
+            }
+            if (report.getBatchResult() != null) {
+                results.add(report.getBatchResult());
+            }
+            if (report.getDataSource() != null) {
+                dataSources.append(report.getDataSource()).append(LINE_SEPARATOR);
+            }
+        }
+
+        aggregatedReport.setStartTime(started ? startTime : 0);
+        aggregatedReport.setEndTime(completed ? endTime : 0);
+        aggregatedReport.setTotalRecords(totalRecords);
+        aggregatedReport.setCurrentRecordNumber(currentRecordNumber);
+        aggregatedReport.setDataSource(dataSources.toString());
+        if (!results.isEmpty()) {
+            aggregatedReport.setBatchResult(results);
+        }
+        if (!completed) {
+            aggregatedReport.setStatus(started ? Status.RUNNING : Status.INITIALIZING);
+        } else {
+            aggregatedReport.setStatus(aborted ? Status.ABORTED : Status.FINISHED);
+        }
+        return aggregatedReport;
+    }
+
+    /**
+     * Stop accepting new engines. Engines already submitted keep running.
+     */
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Stop accepting new engines and interrupt running ones.
+     */
+    public void shutdownNow() {
+        executorService.shutdownNow();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /*
+     * The live report of engines built with the engine builder is available while they are running.
+     */
+    private Report getReport(final Engine engine, final Future<Report> future) {
+        if (engine instanceof EngineImpl) {
+            return ((EngineImpl) engine).getReport();
+        }
+        if (engine instanceof StagedEngineImpl) {
+            return ((StagedEngineImpl) engine).getReport();
+        }
+        if (future.isDone() && !future.isCancelled()) {
+            try {
+                return future.get();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private void addCount(final Report aggregatedReport, final Report report) {
+        aggregatedReport.incrementTotalSkippedRecords(report.getSkippedRecordsCount());
+        aggregatedReport.incrementTotalFilteredRecords(report.getFilteredRecordsCount());
+        aggregatedReport.incrementTotalIgnoredRecord(report.getIgnoredRecordsCount());
+        aggregatedReport.incrementTotalRejectedRecord(report.getRejectedRecordsCount());
+        aggregatedReport.incrementTotalErrorRecord(report.getErrorRecordsCount());
+        aggregatedReport.incrementTotalSuccessRecord(report.getSuccessRecordsCount());
+    }
+
+    /*
+     * Virtual threads are available as of Java 21: they are looked up reflectively to stay compatible with older JVMs.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_FACTORY);
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /*
+     * Engines and their futures are stored together so that concurrent submissions can not mismatch them.
+     */
+    private static final class Submission {
+
+        private final Engine engine;
+
+        private final Future<Report> future;
+
+        Submission(final Engine engine, final Future<Report> future) {
+            this.engine = engine;
+            this.future = future;
+        }
+    }
+}
@@ -25,6 +25,7 @@
 package org.easybatch.core.impl;
 
 import org.easybatch.core.api.*;
+import org.easybatch.core.api.event.ChunkEventManager;
 import org.easybatch.core.api.event.EventManager;
 import org.easybatch.core.api.event.job.JobEventListener;
 import org.easybatch.core.api.event.step.*;
@@ -34,6 +35,8 @@ import org.easybatch.core.api.handler.IgnoredRecordHandler;
 import org.easybatch.core.api.handler.RejectedRecordHandler;
 import org.easybatch.core.util.Utils;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -41,6 +44,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.easybatch.core.util.Utils.DEFAULT_LIMIT;
+import static org.easybatch.core.util.Utils.checkArgument;
 
 /**
  * Core Easy Batch engine implementation.
@@ -53,6 +57,8 @@ final class EngineImpl implements Engine {
 
     private static final String STRICT_MODE_MESSAGE = "Strict mode enabled: aborting execution";
 
+    static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
     private String name;
 
     private String executionId;
@@ -85,8 +91,43 @@ final class EngineImpl implements Engine {
 
     private boolean jmxEnabled;
 
+    private RecordCountingMode recordCountingMode = RecordCountingMode.SYNCHRONOUS;
+
+    private TotalRecordsCounter totalRecordsCounter;
+
     private long limit;
 
+    private int chunkSize;
+
+    private int processingThreads;
+
+    private int maxRecordsInFlight;
+
+    private boolean preserveOrder = true;
+
+    private ParallelProcessingStage processingStage;
+
+    private int latencySamplingRate;
+
+    private LatencyTracker readLatencyTracker = LatencyTracker.DISABLED;
+
+    private LatencyTracker filterLatencyTracker = LatencyTracker.DISABLED;
+
+    private LatencyTracker mapLatencyTracker = LatencyTracker.DISABLED;
+
+    private LatencyTracker validateLatencyTracker = LatencyTracker.DISABLED;
+
+    private CheckpointFile checkpointFile;
+
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+    private long lastCheckpointRecordNumber;
+
+    /**
+     * The number of records skipped by seeking the record reader instead of reading them.
+     */
+    private long seekedRecordsNumber;
+
     EngineImpl(final String name,
                final RecordReader recordReader,
                final RecordSkipper recordSkipper,
@@ -128,137 +169,283 @@ final class EngineImpl implements Engine {
     @Override
     public Report call() {
 
-        initializeEngine();
-
-        if (!initializeRecordReader()) {
+        if (!start()) {
             return report;
         }
 
-        initializeDatasource();
-
-        setupMonitoring();
-
-        setRunningStatus();
-
         try {
-            long processedRecordsNumber = 0;
+            long processedRecordsNumber = seekedRecordsNumber;
             while (recordReader.hasNextRecord() && processedRecordsNumber < limit) {
                 /*
                  * read next record
                  */
-                Record currentRecord;
-                try {
-                    currentRecord = readRecord();
-                    if (currentRecord == null) {
-                        LOGGER.log(Level.SEVERE, "The record reader returned null for next record, aborting execution");
-                        reportAbortedStatus();
-                        return report;
-                    }
-                    processedRecordsNumber++;
-                    report.setCurrentRecordNumber(currentRecord.getHeader().getNumber());
-                } catch (Exception e) {
-                    eventManager.fireOnJobException(e);
-                    eventManager.fireOnRecordReadingException(e);
-                    LOGGER.log(Level.SEVERE, "An exception occurred while reading next record, aborting execution", e);
-                    reportAbortedStatus();
+                Record currentRecord = readNextRecord();
+                if (currentRecord == null) {
+                    abortOnReadingError();
                     return report;
                 }
+                processedRecordsNumber++;
 
                 /*
-                 * Skip records if any
+                 * skip, filter, map and validate record
                  */
-                if (recordSkipper.skipRecord(currentRecord)) {
-                    report.incrementTotalSkippedRecords();
-                    continue;
-                }
-
-                /*
-                 * apply filter chain
-                 */
-                try {
-                    boolean filtered = filterChain.filterRecord(currentRecord);
-                    if (filtered) {
-                        report.incrementTotalFilteredRecords();
-                        filteredRecordHandler.handle(currentRecord);
-                        continue;
-                    }
-                } catch (Exception e) {
-                    report.incrementTotalFilteredRecords();
-                    filteredRecordHandler.handle(currentRecord, e);
-                    continue;
-                }
-
-                /*
-                 * map record to domain object
-                 */
-                Object typedRecord;
-                try {
-                    typedRecord = mapRecord(currentRecord);
-                    if (typedRecord == null) {
-                        report.incrementTotalIgnoredRecord();
-                        ignoredRecordHandler.handle(currentRecord);
-                        continue;
-                    }
-                } catch (Exception e) {
-                    report.incrementTotalIgnoredRecord();
-                    ignoredRecordHandler.handle(currentRecord, e);
-                    eventManager.fireOnJobException(e);
-                    if (strictMode) {
-                        reportAbortDueToStrictMode();
+                Object typedRecord = prepareRecord(currentRecord);
+                if (typedRecord == null) {
+                    if (isAborted()) {
                         break;
                     }
+                    checkpoint();
                     continue;
                 }
 
                 /*
-                 * apply validation pipeline
+                 * apply processing pipeline
                  */
-                try {
-                    Set<ValidationError> validationsErrors = validateRecord(typedRecord);
-                    if (!validationsErrors.isEmpty()) {
-                        report.incrementTotalRejectedRecord();
-                        rejectedRecordHandler.handle(currentRecord, validationsErrors);
-                        if (strictMode) {
-                            reportAbortDueToStrictMode();
-                            break;
-                        }
-                        continue;
-                    }
-                } catch (Exception e) {
-                    report.incrementTotalRejectedRecord();
-                    rejectedRecordHandler.handle(currentRecord, e);
-                    eventManager.fireOnJobException(e);
-                    if (strictMode) {
-                        reportAbortDueToStrictMode();
-                        break;
-                    }
-                    continue;
+                if (processRecord(currentRecord, typedRecord)) {
+                    break;
                 }
 
                 /*
-                 * apply processing pipeline
+                 * save a checkpoint if needed
                  */
-                boolean processingError = processingPipeline.process(currentRecord, typedRecord);
-                if (processingError) {
-                    if (strictMode) {
-                        reportAbortDueToStrictMode();
-                        break;
-                    }
-                } else {
-                    report.incrementTotalSuccessRecord();
+                if (checkpoint()) {
+                    break;
                 }
             }
 
-            tearDownEngine(processedRecordsNumber);
+            finish(processedRecordsNumber);
 
         } finally {
-            closeRecordReader();
-            eventManager.fireAfterJobEnd();
+            stop();
         }
         return report;
 
     }
 
+    /*
+     * Engine execution steps, shared with the staged engine implementation
+     */
+
+    /**
+     * Initialize the engine and open the record reader.
+     *
+     * @return false if the record reader cannot be opened, true otherwise
+     */
+    boolean start() {
+        initializeEngine();
+
+        if (!initializeRecordReader()) {
+            return false;
+        }
+
+        initializeDatasource();
+
+        initializeLatencyTracking();
+
+        setupMonitoring();
+
+        setRunningStatus();
+
+        startProcessingStage();
+
+        return true;
+    }
+
+    /**
+     * Read next record.
+     *
+     * @return the next record or null if the record cannot be read, in which case the execution
+     * should be aborted with {@link #abortOnReadingError()}
+     */
+    Record readNextRecord() {
+        try {
+            Record currentRecord = readRecord();
+            if (currentRecord == null) {
+                LOGGER.log(Level.SEVERE, "The record reader returned null for next record, aborting execution");
+                return null;
+            }
+            Header header = currentRecord.getHeader();
+            if (header.hasNumber()) {
+                report.setCurrentRecordNumber(header.getNumberValue());
+            }
+            return currentRecord;
+        } catch (Exception e) {
+            eventManager.fireOnJobException(e);
+            eventManager.fireOnRecordReadingException(e);
+            LOGGER.log(Level.SEVERE, "An exception occurred while reading next record, aborting execution", e);
+            return null;
+        }
+    }
+
+    /**
+     * Complete records already read and abort the execution.
+     */
+    void abortOnReadingError() {
+        completePendingRecords();
+        reportAbortedStatus();
+    }
+
+    /**
+     * Skip, filter, map and validate a record.
+     *
+     * @return the mapped record or null if the record has been skipped, filtered, ignored or rejected
+     */
+    Object prepareRecord(final Record currentRecord) {
+        /*
+         * Skip records if any
+         */
+        if (recordSkipper.skipRecord(currentRecord)) {
+            report.incrementTotalSkippedRecords();
+            return null;
+        }
+
+        /*
+         * apply filter chain
+         */
+        try {
+            long startTime = filterLatencyTracker.start();
+            boolean filtered = filterChain.filterRecord(currentRecord);
+            filterLatencyTracker.stop(startTime);
+            if (filtered) {
+                report.incrementTotalFilteredRecords();
+                filteredRecordHandler.handle(currentRecord);
+                return null;
+            }
+        } catch (Exception e) {
+            report.incrementTotalFilteredRecords();
+            filteredRecordHandler.handle(currentRecord, e);
+            return null;
+        }
+
+        /*
+         * map record to domain object
+         */
+        Object typedRecord;
+        try {
+            typedRecord = mapRecord(currentRecord);
+            if (typedRecord == null) {
+                report.incrementTotalIgnoredRecord();
+                ignoredRecordHandler.handle(currentRecord);
+                return null;
+            }
+        } catch (Exception e) {
+            report.incrementTotalIgnoredRecord();
+            ignoredRecordHandler.handle(currentRecord, e);
+            eventManager.fireOnJobException(e);
+            if (strictMode) {
+                reportAbortDueToStrictMode();
+            }
+            return null;
+        }
+
+        /*
+         * apply validation pipeline
+         */
+        try {
+            Set<ValidationError> validationsErrors = validateRecord(typedRecord);
+            if (!validationsErrors.isEmpty()) {
+                report.incrementTotalRejectedRecord();
+                rejectedRecordHandler.handle(currentRecord, validationsErrors);
+                if (strictMode) {
+                    reportAbortDueToStrictMode();
+                }
+                return null;
+            }
+        } catch (Exception e) {
+            report.incrementTotalRejectedRecord();
+            rejectedRecordHandler.handle(currentRecord, e);
+            eventManager.fireOnJobException(e);
+            if (strictMode) {
+                reportAbortDueToStrictMode();
+            }
+            return null;
+        }
+        return typedRecord;
+    }
+
+    /**
+     * Apply the processing pipeline on a record.
+     *
+     * @return true if the execution should be aborted
+     */
+    boolean processRecord(final Record currentRecord, final Object typedRecord) {
+        if (processingStage != null) {
+            return submitRecord(currentRecord, typedRecord);
+        }
+        boolean processingError = processingPipeline.process(currentRecord, typedRecord);
+        return onRecordProcessed(processingError);
+    }
+
+    /**
+     * Save a checkpoint if checkpointing is enabled and the checkpoint interval is reached.
+     * Records in flight (if any) are completed before saving the checkpoint, which is saved
+     * only once the current chunk (if any) has been written.
+     *
+     * @return true if the execution should be aborted
+     */
+    boolean checkpoint() {
+        if (checkpointFile == null) {
+            return false;
+        }
+        long recordNumber = report.getCurrentRecordNumber();
+        if (recordNumber - lastCheckpointRecordNumber < checkpointInterval) {
+            return false;
+        }
+        if (processingStage != null) {
+            while (!processingStage.isEmpty()) {
+                if (completeNextRecord(true)) {
+                    return true;
+                }
+            }
+        }
+        if (processingPipeline.hasPendingChunk()) {
+            return false;
+        }
+        saveCheckpoint(recordNumber);
+        return false;
+    }
+
+    /**
+     * Complete pending records and update the report at the end of the execution.
+     */
+    void finish(final long processedRecordsNumber) {
+        completePendingRecords();
+        tearDownEngine(processedRecordsNumber);
+        if (checkpointFile != null && !isAborted()) {
+            checkpointFile.delete();
+        }
+    }
+
+    /**
+     * Release resources at the end of the execution.
+     */
+    void stop() {
+        stopTotalRecordsCounter();
+        stopProcessingStage();
+        closeRecordReader();
+        eventManager.fireAfterJobEnd();
+    }
+
+    boolean isAborted() {
+        return Status.ABORTED.equals(report.getStatus());
+    }
+
+    boolean hasNextRecord() {
+        return recordReader.hasNextRecord();
+    }
+
+    long getSeekedRecordsNumber() {
+        return seekedRecordsNumber;
+    }
+
+    long getLimit() {
+        return limit;
+    }
+
+    Report getReport() {
+        return report;
+    }
+
     private void initializeEngine() {
         if (silentMode) {
             Utils.muteLoggers();
@@ -272,6 +459,12 @@ final class EngineImpl implements Engine {
         if (limit != DEFAULT_LIMIT ) {
             LOGGER.log(Level.INFO, "Records limit: {0}", limit);
         }
+        if (processingPipeline.isChunkModeEnabled()) {
+            LOGGER.log(Level.INFO, "Chunk size: {0}", chunkSize);
+        }
+        if (processingThreads > 0) {
+            LOGGER.log(Level.INFO, "Processing threads: {0}", processingThreads);
+        }
         report.setLimit(limit);
         report.setStartTime(System.currentTimeMillis()); //System.nanoTime() does not allow to have start time (see Javadoc)
         report.setSystemProperties(System.getProperties());
@@ -281,6 +474,9 @@ final class EngineImpl implements Engine {
 
     private boolean initializeRecordReader() {
         try {
+            if (!resumeFromCheckpoint()) {
+                seekRecordReader();
+            }
             openRecordReader();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "An exception occurred while opening the record reader", e);
@@ -291,6 +487,71 @@ final class EngineImpl implements Engine {
         return true;
     }
 
+    /*
+     * Returns true if the reader resumes from the position saved in the checkpoint.
+     */
+    private boolean resumeFromCheckpoint() {
+        if (checkpointFile == null) {
+            return false;
+        }
+        String checkpointFileName = checkpointFile.getFile().getAbsolutePath();
+        try {
+            if (!checkpointFile.load()) {
+                LOGGER.log(Level.INFO, "No checkpoint found in {0}", checkpointFileName);
+                return false;
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Unable to load checkpoint file " + checkpointFileName + ", ignoring it", e);
+            return false;
+        }
+        String dataSourceName = recordReader.getDataSourceName();
+        if (checkpointFile.getDataSource() != null && !checkpointFile.getDataSource().equals(dataSourceName)) {
+            LOGGER.log(Level.WARNING, "The checkpoint in {0} has been saved for another data source, ignoring it", checkpointFileName);
+            return false;
+        }
+        long recordNumber = checkpointFile.getRecordNumber();
+        String position = checkpointFile.getPosition();
+        if (recordReader instanceof ResumableRecordReader && position != null) {
+            LOGGER.log(Level.INFO, "Resuming after record {0} at position {1}", new Object[]{recordNumber, position});
+            ((ResumableRecordReader) recordReader).resumeFrom(position, recordNumber);
+            // records before the checkpoint count towards the limit, as when seeking or skipping them
+            seekedRecordsNumber = recordNumber;
+            report.incrementTotalSkippedRecords(recordNumber);
+            lastCheckpointRecordNumber = recordNumber;
+            return true;
+        } else {
+            LOGGER.log(Level.INFO, "Resuming after record {0} by skipping previous records", recordNumber);
+            if (recordNumber > recordSkipper.getNumberOfRecordsToSkip()) {
+                recordSkipper = new RecordSkipper(recordNumber);
+            }
+        }
+        lastCheckpointRecordNumber = recordNumber;
+        return false;
+    }
+
+    private void seekRecordReader() {
+        long recordsToSkip = recordSkipper.getNumberOfRecordsToSkip();
+        if (recordsToSkip > 0 && recordReader instanceof SeekableRecordReader
+                && ((SeekableRecordReader) recordReader).seek(recordsToSkip)) {
+            LOGGER.log(Level.INFO, "Seeking after record {0} instead of reading previous records", recordsToSkip);
+            seekedRecordsNumber = recordsToSkip;
+            report.incrementTotalSkippedRecords(recordsToSkip);
+        }
+    }
+
+    private void saveCheckpoint(final long recordNumber) {
+        String position = null;
+        if (recordReader instanceof ResumableRecordReader) {
+            position = ((ResumableRecordReader) recordReader).getCurrentPosition();
+        }
+        try {
+            checkpointFile.save(recordNumber, position, report.getDataSource());
+            lastCheckpointRecordNumber = recordNumber;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to save checkpoint after record " + recordNumber, e);
+        }
+    }
+
     private void openRecordReader() throws RecordReaderOpeningException {
         eventManager.fireBeforeReaderOpening();
         recordReader.open();
@@ -303,14 +564,54 @@ final class EngineImpl implements Engine {
         report.setDataSource(dataSourceName);
     }
 
+    private void initializeLatencyTracking() {
+        if (latencySamplingRate > 0) {
+            LOGGER.log(Level.INFO, "Latency sampling rate: 1/{0}", latencySamplingRate);
+            readLatencyTracker = newLatencyTracker("read");
+            filterLatencyTracker = newLatencyTracker("filter");
+            mapLatencyTracker = newLatencyTracker("map");
+            validateLatencyTracker = newLatencyTracker("validate");
+            processingPipeline.enableLatencyTracking(latencySamplingRate);
+        }
+    }
+
+    private LatencyTracker newLatencyTracker(final String stage) {
+        LatencyHistogram histogram = new LatencyHistogram(stage);
+        report.addLatencyHistogram(histogram);
+        return new LatencyTracker(histogram, latencySamplingRate);
+    }
+
     private void setupMonitoring() {
         if (jmxEnabled) {
             LOGGER.log(Level.INFO, "Registering JMX MBean");
             Utils.registerJmxMBean(report, this);
+            calculateTotalRecords();
+        }
+    }
+
+    private void calculateTotalRecords() {
+        if (recordCountingMode == RecordCountingMode.SYNCHRONOUS) {
             LOGGER.log(Level.INFO, "Calculating the total number of records");
             Long totalRecords = recordReader.getTotalRecords();
             report.setTotalRecords(totalRecords);
             LOGGER.log(Level.INFO, "Total records = {0}", totalRecords == null ? "N/A" : totalRecords);
+            return;
+        }
+        if (recordReader instanceof EstimableRecordReader) {
+            Long estimatedTotalRecords = ((EstimableRecordReader) recordReader).estimateTotalRecords();
+            report.setTotalRecords(estimatedTotalRecords);
+            LOGGER.log(Level.INFO, "Estimated total records = {0}", estimatedTotalRecords == null ? "N/A" : estimatedTotalRecords);
+        }
+        if (recordCountingMode == RecordCountingMode.ASYNCHRONOUS) {
+            LOGGER.log(Level.INFO, "Calculating the total number of records in background");
+            totalRecordsCounter = new TotalRecordsCounter(recordReader, report, name);
+            totalRecordsCounter.start();
+        }
+    }
+
+    private void stopTotalRecordsCounter() {
+        if (totalRecordsCounter != null) {
+            totalRecordsCounter.stop();
         }
     }
 
@@ -331,24 +632,148 @@ final class EngineImpl implements Engine {
 
     private Record readRecord() throws RecordReadingException {
         eventManager.fireBeforeRecordReading();
+        long startTime = readLatencyTracker.start();
         Record currentRecord = recordReader.readNextRecord();
+        readLatencyTracker.stop(startTime);
         eventManager.fireAfterRecordReading(currentRecord);
         return currentRecord;
     }
 
     private Object mapRecord(Record currentRecord) throws RecordMappingException {
         Record recordToMap = eventManager.fireBeforeRecordMapping(currentRecord);
+        long startTime = mapLatencyTracker.start();
         Object typedRecord = recordMapper.mapRecord(recordToMap);
+        mapLatencyTracker.stop(startTime);
         eventManager.fireAfterRecordMapping(recordToMap, typedRecord);
         return typedRecord;
     }
 
     @SuppressWarnings({"unchecked"})
     private Set<ValidationError> validateRecord(Object typedRecord) {
-        return validationPipeline.validateRecord(typedRecord);
+        long startTime = validateLatencyTracker.start();
+        Set<ValidationError> validationErrors = validationPipeline.validateRecord(typedRecord);
+        validateLatencyTracker.stop(startTime);
+        return validationErrors;
+    }
+
+    /*
+     * Returns true if the execution should be aborted
+     */
+    private boolean onRecordProcessed(boolean processingError) {
+        if (processingError) {
+            if (strictMode) {
+                reportAbortDueToStrictMode();
+                return true;
+            }
+        } else if (!processingPipeline.isChunkModeEnabled()) {
+            report.incrementTotalSuccessRecord();
+        } else if (processingPipeline.isChunkFull()) {
+            boolean writingError = processingPipeline.writeChunk();
+            if (writingError && strictMode) {
+                reportAbortDueToStrictMode();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void startProcessingStage() {
+        if (processingThreads > 0) {
+            processingPipeline.setParallelModeEnabled(true);
+            int window = maxRecordsInFlight > 0 ? maxRecordsInFlight : 2 * processingThreads;
+            processingStage = new ParallelProcessingStage(processingPipeline, processingThreads, window, preserveOrder);
+            processingStage.start(name);
+        }
+    }
+
+    private void stopProcessingStage() {
+        if (processingStage != null) {
+            processingStage.shutdown();
+            processingStage = null;
+        }
+    }
+
+    /*
+     * Submit a record to worker threads and complete already processed records.
+     * Returns true if the execution should be aborted
+     */
+    private boolean submitRecord(Record currentRecord, Object typedRecord) {
+        Object recordToProcess;
+        try {
+            recordToProcess = processingPipeline.beforeProcessing(typedRecord);
+        } catch (Exception e) {
+            processingPipeline.handleProcessingError(currentRecord, e);
+            return onRecordProcessed(true);
+        }
+        while (processingStage.isFull()) {
+            if (completeNextRecord(true)) {
+                return true;
+            }
+        }
+        processingStage.submit(currentRecord, recordToProcess);
+        while (!processingStage.isEmpty()) {
+            ParallelProcessingStage.ProcessingTask task = nextCompletedTask(false);
+            if (task == null) {
+                return false;
+            }
+            if (completeRecord(task)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean completeNextRecord(boolean wait) {
+        ParallelProcessingStage.ProcessingTask task = nextCompletedTask(wait);
+        if (task == null) {
+            LOGGER.log(Level.SEVERE, "Interrupted while waiting for records being processed, aborting execution");
+            reportAbortedStatus();
+            return true;
+        }
+        return completeRecord(task);
+    }
+
+    private ParallelProcessingStage.ProcessingTask nextCompletedTask(boolean wait) {
+        try {
+            return processingStage.nextCompletedTask(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private boolean completeRecord(ParallelProcessingStage.ProcessingTask task) {
+        boolean processingError;
+        if (task.getError() != null) {
+            processingPipeline.handleProcessingError(task.getRecord(), task.getError());
+            processingError = true;
+        } else {
+            processingError = processingPipeline.completeProcessing(task.getRecord(), task.getProcessedRecord());
+        }
+        return onRecordProcessed(processingError);
+    }
+
+    /*
+     * Complete records still being processed by worker threads (if any) and write the last chunk (if any)
+     */
+    private void completePendingRecords() {
+        if (processingStage != null && !isAborted()) {
+            while (!processingStage.isEmpty()) {
+                if (completeNextRecord(true)) {
+                    break;
+                }
+            }
+        }
+        if (processingPipeline.isChunkModeEnabled()) {
+            boolean writingError = processingPipeline.writeChunk();
+            if (writingError && strictMode) {
+                reportAbortDueToStrictMode();
+            }
+        }
     }
 
     private void tearDownEngine(long processedRecordsNumber) {
+        stopTotalRecordsCounter();
         report.setTotalRecords(processedRecordsNumber);
         report.setEndTime(System.currentTimeMillis());
         if (!report.getStatus().equals(Status.ABORTED)) {
@@ -388,6 +813,10 @@ final class EngineImpl implements Engine {
         this.recordReader = recordReader;
     }
 
+    RecordReader getRecordReader() {
+        return recordReader;
+    }
+
     void setRecordSkipper(RecordSkipper recordSkipper) {
         this.recordSkipper = recordSkipper;
     }
@@ -448,6 +877,11 @@ final class EngineImpl implements Engine {
         eventManager.addRecordProcessorEventListener(recordProcessorEventListener);
     }
 
+    void addChunkEventListener(final ChunkEventListener chunkEventListener) {
+        checkArgument(eventManager instanceof ChunkEventManager, "the event manager does not support chunk event listeners");
+        ((ChunkEventManager) eventManager).addChunkEventListener(chunkEventListener);
+    }
+
     void setStrictMode(final boolean strictMode) {
         this.strictMode = strictMode;
     }
@@ -460,6 +894,51 @@ final class EngineImpl implements Engine {
         this.limit = limit;
     }
 
+    void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+        processingPipeline.setChunkSize(chunkSize);
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    void setProcessingThreads(final int processingThreads) {
+        this.processingThreads = processingThreads;
+    }
+
+    int getProcessingThreads() {
+        return processingThreads;
+    }
+
+    void setMaxRecordsInFlight(final int maxRecordsInFlight) {
+        this.maxRecordsInFlight = maxRecordsInFlight;
+    }
+
+    void setPreserveOrder(final boolean preserveOrder) {
+        this.preserveOrder = preserveOrder;
+    }
+
+    void setLatencySamplingRate(final int latencySamplingRate) {
+        this.latencySamplingRate = latencySamplingRate;
+    }
+
+    void setRecordCountingMode(final RecordCountingMode recordCountingMode) {
+        this.recordCountingMode = recordCountingMode;
+    }
+
+    void setCheckpointFile(final File checkpointFile) {
+        this.checkpointFile = new CheckpointFile(checkpointFile);
+    }
+
+    void setCheckpointInterval(final int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    boolean isCheckpointingEnabled() {
+        return checkpointFile != null;
+    }
+
     void setName(String name) {
         this.name = name;
     }
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.LatencyHistogram;
+
+/**
+ * Measures the latency of a stage for one invocation out of {@code samplingRate} and records it in a histogram.
+ * <p/>
+ * The sampling counter is not synchronized: when a tracker is shared by several threads, the sampling
+ * rate is approximate but the recorded latencies are accurate.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+final class LatencyTracker {
+
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * Tracker used when latency tracking is disabled: it never samples.
+     */
+    static final LatencyTracker DISABLED = new LatencyTracker(null, 0);
+
+    private final LatencyHistogram histogram;
+
+    private final int samplingRate;
+
+    private int countdown = 1;
+
+    LatencyTracker(final LatencyHistogram histogram, final int samplingRate) {
+        this.histogram = histogram;
+        this.samplingRate = samplingRate;
+    }
+
+    /**
+     * Start measuring an invocation of the stage.
+     *
+     * @return the start time in nanoseconds or {@link #NOT_SAMPLED} if this invocation is not sampled
+     */
+    long start() {
+        if (samplingRate == 0 || --countdown > 0) {
+            return NOT_SAMPLED;
+        }
+        countdown = samplingRate;
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the latency of an invocation started with {@link #start()}.
+     *
+     * @param startTime the value returned by {@link #start()}
+     */
+    void stop(final long startTime) {
+        if (startTime != NOT_SAMPLED) {
+            histogram.recordValue(System.nanoTime() - startTime);
+        }
+    }
+}
@@ -26,123 +26,151 @@ package org.easybatch.core.impl;
 
 import org.easybatch.core.api.Record;
 import org.easybatch.core.api.ValidationError;
+import org.easybatch.core.api.event.ChunkEventManager;
 import org.easybatch.core.api.event.EventManager;
 import org.easybatch.core.api.event.job.JobEventListener;
 import org.easybatch.core.api.event.step.*;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
- * Local implementation of {@link EventManager}.
+ * Local implementation of {@link EventManager}, firing chunk events (see {@link ChunkEventManager}).
  *
  * @author Mario Mueller (mario@xenji.com)
  */
-class LocalEventManager implements EventManager {
+class LocalEventManager implements ChunkEventManager {
 
+    /*
+     * Listeners are registered in sets (to ignore duplicates) and compiled into arrays on registration.
+     * Events are dispatched by iterating these arrays: this does not allocate iterators and costs
+     * almost nothing when no listener is registered for a given step.
+     */
     private Set<JobEventListener> jobEventListeners = new LinkedHashSet<JobEventListener>();
     private Set<RecordReaderEventListener> recordReaderEventListeners = new LinkedHashSet<RecordReaderEventListener>();
     private Set<RecordFilterEventListener> recordFilterEventListeners = new LinkedHashSet<RecordFilterEventListener>();
     private Set<RecordMapperEventListener> recordMapperEventListeners = new LinkedHashSet<RecordMapperEventListener>();
     private Set<RecordValidatorEventListener> recordValidatorEventListeners = new LinkedHashSet<RecordValidatorEventListener>();
     private Set<RecordProcessorEventListener> recordProcessorEventListeners = new LinkedHashSet<RecordProcessorEventListener>();
+    private Set<ChunkEventListener> chunkEventListeners = new LinkedHashSet<ChunkEventListener>();
+
+    private JobEventListener[] jobEventListenersArray = new JobEventListener[0];
+    private RecordReaderEventListener[] recordReaderEventListenersArray = new RecordReaderEventListener[0];
+    private RecordFilterEventListener[] recordFilterEventListenersArray = new RecordFilterEventListener[0];
+    private RecordMapperEventListener[] recordMapperEventListenersArray = new RecordMapperEventListener[0];
+    private RecordValidatorEventListener[] recordValidatorEventListenersArray = new RecordValidatorEventListener[0];
+    private RecordProcessorEventListener[] recordProcessorEventListenersArray = new RecordProcessorEventListener[0];
+    private ChunkEventListener[] chunkEventListenersArray = new ChunkEventListener[0];
 
     @Override
     public void addJobEventListener(JobEventListener jobEventListener) {
         jobEventListeners.add(jobEventListener);
+        jobEventListenersArray = jobEventListeners.toArray(new JobEventListener[jobEventListeners.size()]);
     }
 
     @Override
     public void addRecordReaderEventListener(RecordReaderEventListener recordReaderEventListener) {
         recordReaderEventListeners.add(recordReaderEventListener);
+        recordReaderEventListenersArray = recordReaderEventListeners.toArray(new RecordReaderEventListener[recordReaderEventListeners.size()]);
     }
 
     @Override
     public void addRecordFilterEventListener(RecordFilterEventListener recordFilterEventListener) {
         recordFilterEventListeners.add(recordFilterEventListener);
+        recordFilterEventListenersArray = recordFilterEventListeners.toArray(new RecordFilterEventListener[recordFilterEventListeners.size()]);
     }
 
     @Override
     public void addRecordMapperEventListener(RecordMapperEventListener recordMapperEventListener) {
         recordMapperEventListeners.add(recordMapperEventListener);
+        recordMapperEventListenersArray = recordMapperEventListeners.toArray(new RecordMapperEventListener[recordMapperEventListeners.size()]);
     }
 
     @Override
     public void addRecordValidatorEventListener(RecordValidatorEventListener recordValidatorEventListener) {
         recordValidatorEventListeners.add(recordValidatorEventListener);
+        recordValidatorEventListenersArray = recordValidatorEventListeners.toArray(new RecordValidatorEventListener[recordValidatorEventListeners.size()]);
     }
 
     @Override
     public void addRecordProcessorEventListener(RecordProcessorEventListener recordProcessorEventListener) {
         recordProcessorEventListeners.add(recordProcessorEventListener);
+        recordProcessorEventListenersArray = recordProcessorEventListeners.toArray(new RecordProcessorEventListener[recordProcessorEventListeners.size()]);
+    }
+
+    @Override
+    public void addChunkEventListener(ChunkEventListener chunkEventListener) {
+        chunkEventListeners.add(chunkEventListener);
+        chunkEventListenersArray = chunkEventListeners.toArray(new ChunkEventListener[chunkEventListeners.size()]);
     }
 
     @Override
     public void fireBeforeJobStart() {
-        for (JobEventListener eventListener : jobEventListeners) {
+        for (JobEventListener eventListener : jobEventListenersArray) {
             eventListener.beforeJobStart();
         }
     }
 
     @Override
     public void fireAfterJobEnd() {
-        for (JobEventListener eventListener : jobEventListeners) {
+        for (JobEventListener eventListener : jobEventListenersArray) {
             eventListener.afterJobEnd();
         }
     }
 
     @Override
     public void fireOnJobException(Throwable t) {
-        for (JobEventListener eventListener : jobEventListeners) {
+        for (JobEventListener eventListener : jobEventListenersArray) {
             eventListener.onJobException(t);
         }
     }
 
     @Override
     public void fireBeforeReaderOpening() {
-        for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+        for (RecordReaderEventListener eventListener : recordReaderEventListenersArray) {
             eventListener.beforeReaderOpening();
         }
     }
 
     @Override
     public void fireAfterReaderOpening() {
-        for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+        for (RecordReaderEventListener eventListener : recordReaderEventListenersArray) {
             eventListener.afterReaderOpening();
         }
     }
 
     @Override
     public void fireBeforeRecordReading() {
-        for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+        for (RecordReaderEventListener eventListener : recordReaderEventListenersArray) {
             eventListener.beforeRecordReading();
         }
     }
 
     @Override
     public void fireAfterRecordReading(Record record) {
-        for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+        for (RecordReaderEventListener eventListener : recordReaderEventListenersArray) {
             eventListener.afterRecordReading(record);
         }
     }
 
     @Override
     public void fireOnRecordReadingException(Throwable throwable) {
-        for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+        for (RecordReaderEventListener eventListener : recordReaderEventListenersArray) {
             eventListener.onRecordReadingException(throwable);
         }
     }
 
     @Override
     public void fireBeforeRecordReaderClosing() {
-        for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+        for (RecordReaderEventListener eventListener : recordReaderEventListenersArray) {
             eventListener.beforeReaderClosing();
         }
     }
 
     @Override
     public void fireAfterRecordReaderClosing() {
-        for (RecordReaderEventListener eventListener : recordReaderEventListeners) {
+        for (RecordReaderEventListener eventListener : recordReaderEventListenersArray) {
             eventListener.afterReaderClosing();
         }
     }
@@ -150,7 +178,7 @@ class LocalEventManager implements EventManager {
     @Override
     public Record fireBeforeRecordFiltering(Record record) {
         Record recordToFilter = record;
-        for (RecordFilterEventListener eventListener : recordFilterEventListeners) {
+        for (RecordFilterEventListener eventListener : recordFilterEventListenersArray) {
             recordToFilter = eventListener.beforeRecordFiltering(recordToFilter);
         }
         return recordToFilter;
@@ -158,7 +186,7 @@ class LocalEventManager implements EventManager {
 
     @Override
     public void fireAfterRecordFiltering(Record record, boolean filtered) {
-        for (RecordFilterEventListener eventListener : recordFilterEventListeners) {
+        for (RecordFilterEventListener eventListener : recordFilterEventListenersArray) {
             eventListener.afterRecordFiltering(record, filtered);
         }
     }
@@ -166,7 +194,7 @@ class LocalEventManager implements EventManager {
     @Override
     public Record fireBeforeRecordMapping(Record record) {
         Record recordToMap = record;
-        for (RecordMapperEventListener eventListener : recordMapperEventListeners) {
+        for (RecordMapperEventListener eventListener : recordMapperEventListenersArray) {
             recordToMap = eventListener.beforeRecordMapping(recordToMap);
         }
         return recordToMap;
@@ -174,7 +202,7 @@ class LocalEventManager implements EventManager {
 
     @Override
     public void fireAfterRecordMapping(Record record, Object mappedRecord) {
-        for (RecordMapperEventListener eventListener : recordMapperEventListeners) {
+        for (RecordMapperEventListener eventListener : recordMapperEventListenersArray) {
             eventListener.afterRecordMapping(record, mappedRecord);
         }
     }
@@ -182,7 +210,7 @@ class LocalEventManager implements EventManager {
     @Override
     public Object fireBeforeRecordValidation(Object mappedRecord) {
         Object recordToValidate = mappedRecord;
-        for (RecordValidatorEventListener eventListener : recordValidatorEventListeners) {
+        for (RecordValidatorEventListener eventListener : recordValidatorEventListenersArray) {
             recordToValidate = eventListener.beforeRecordValidation(recordToValidate);
         }
         return recordToValidate;
@@ -190,7 +218,7 @@ class LocalEventManager implements EventManager {
 
     @Override
     public void fireAfterRecordValidation(Object validatedRecord, Set<ValidationError> validationErrors) {
-        for (RecordValidatorEventListener eventListener : recordValidatorEventListeners) {
+        for (RecordValidatorEventListener eventListener : recordValidatorEventListenersArray) {
             eventListener.afterRecordValidation(validatedRecord, validationErrors);
         }
     }
@@ -198,7 +226,7 @@ class LocalEventManager implements EventManager {
     @Override
     public Object fireBeforeRecordProcessing(Object record) {
         Object recordToProcess = record;
-        for (RecordProcessorEventListener eventListener : recordProcessorEventListeners) {
+        for (RecordProcessorEventListener eventListener : recordProcessorEventListenersArray) {
             recordToProcess = eventListener.beforeRecordProcessing(recordToProcess);
         }
         return recordToProcess;
@@ -206,15 +234,36 @@ class LocalEventManager implements EventManager {
 
     @Override
     public void fireAfterRecordProcessing(Object record, Object processingResult) {
-        for (RecordProcessorEventListener eventListener : recordProcessorEventListeners) {
+        for (RecordProcessorEventListener eventListener : recordProcessorEventListenersArray) {
             eventListener.afterRecordProcessing(record, processingResult);
         }
     }
 
     @Override
     public void fireOnRecordProcessingException(final Object record, final Throwable throwable) {
-        for (RecordProcessorEventListener eventListener : recordProcessorEventListeners) {
+        for (RecordProcessorEventListener eventListener : recordProcessorEventListenersArray) {
             eventListener.onRecordProcessingException(record, throwable);
         }
     }
+
+    @Override
+    public void fireBeforeChunkWriting(final List<Object> records) {
+        for (ChunkEventListener eventListener : chunkEventListenersArray) {
+            eventListener.beforeChunkWriting(records);
+        }
+    }
+
+    @Override
+    public void fireAfterChunkWriting(final List<Object> records) {
+        for (ChunkEventListener eventListener : chunkEventListenersArray) {
+            eventListener.afterChunkWriting(records);
+        }
+    }
+
+    @Override
+    public void fireOnChunkWritingException(final List<Object> records, final Throwable throwable) {
+        for (ChunkEventListener eventListener : chunkEventListenersArray) {
+            eventListener.onChunkWritingException(records, throwable);
+        }
+    }
 }
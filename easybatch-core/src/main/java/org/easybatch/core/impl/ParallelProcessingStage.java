@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.util.NamedThreadFactory;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Processing stage that fans records out to a pool of worker threads.
+ * <p/>
+ * At most <code>maxRecordsInFlight</code> records are submitted and not yet completed at a time.
+ * Completed records are handed back to the engine thread either in input order or in completion order.
+ * <p/>
+ * This class is not thread safe: it must be used only from the engine thread.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+final class ParallelProcessingStage {
+
+    private ProcessingPipeline processingPipeline;
+
+    private int threads;
+
+    private int maxRecordsInFlight;
+
+    private boolean preserveOrder;
+
+    private ExecutorService executorService;
+
+    // tasks in submission order, used when order is preserved
+    private Queue<ProcessingTask> submittedTasks = new LinkedList<ProcessingTask>();
+
+    // tasks in completion order, used when order is not preserved
+    private BlockingQueue<ProcessingTask> completedTasks = new LinkedBlockingQueue<ProcessingTask>();
+
+    private int recordsInFlight;
+
+    ParallelProcessingStage(final ProcessingPipeline processingPipeline, final int threads,
+                            final int maxRecordsInFlight, final boolean preserveOrder) {
+        this.processingPipeline = processingPipeline;
+        this.threads = threads;
+        this.maxRecordsInFlight = maxRecordsInFlight;
+        this.preserveOrder = preserveOrder;
+    }
+
+    void start(final String engineName) {
+        executorService = Executors.newFixedThreadPool(threads, new NamedThreadFactory(engineName + "-worker-", true));
+    }
+
+    void submit(final Record record, final Object recordToProcess) {
+        ProcessingTask task = new ProcessingTask(record, recordToProcess);
+        if (preserveOrder) {
+            submittedTasks.add(task);
+        }
+        recordsInFlight++;
+        executorService.execute(task);
+    }
+
+    boolean isFull() {
+        return recordsInFlight >= maxRecordsInFlight;
+    }
+
+    boolean isEmpty() {
+        return recordsInFlight == 0;
+    }
+
+    /**
+     * Get the next completed task.
+     *
+     * @param wait true to wait for a task to complete, false to return immediately
+     * @return the next completed task or null if wait is false and no task is completed yet
+     */
+    ProcessingTask nextCompletedTask(final boolean wait) throws InterruptedException {
+        if (isEmpty()) {
+            return null;
+        }
+        ProcessingTask task;
+        if (preserveOrder) {
+            task = submittedTasks.peek();
+            if (!wait && !task.isDone()) {
+                return null;
+            }
+            task.await();
+            submittedTasks.remove();
+        } else {
+            task = wait ? completedTasks.take() : completedTasks.poll();
+            if (task == null) {
+                return null;
+            }
+        }
+        recordsInFlight--;
+        return task;
+    }
+
+    void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * A record being processed by a worker thread.
+     */
+    final class ProcessingTask implements Runnable {
+
+        private final Record record;
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile Object input;
+
+        private volatile Object processedRecord;
+
+        private volatile Throwable error;
+
+        ProcessingTask(final Record record, final Object input) {
+            this.record = record;
+            this.input = input;
+        }
+
+        @Override
+        public void run() {
+            try {
+                processedRecord = processingPipeline.applyProcessors(input);
+            } catch (Throwable throwable) {
+                error = throwable;
+            } finally {
+                input = null;
+                done.countDown();
+                if (!preserveOrder) {
+                    completedTasks.add(this);
+                }
+            }
+        }
+
+        boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        void await() throws InterruptedException {
+            done.await();
+        }
+
+        Record getRecord() {
+            return record;
+        }
+
+        Object getProcessedRecord() {
+            return processedRecord;
+        }
+
+        Throwable getError() {
+            return error;
+        }
+    }
+}
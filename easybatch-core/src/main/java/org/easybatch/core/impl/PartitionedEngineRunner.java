@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * Runner that splits a data source into partitions with a {@link Partitioner}, runs one engine per partition
+ * (created with an {@link EngineTemplate}) on a pool of threads and returns the merged report of all engines.
+ * <p/>
+ * The merged report is computed as described in {@link EngineExecutor#getReport()}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class PartitionedEngineRunner implements Callable<Report> {
+
+    private static final Logger LOGGER = Logger.getLogger(PartitionedEngineRunner.class.getName());
+
+    private final Partitioner partitioner;
+
+    private final EngineTemplate engineTemplate;
+
+    private final int partitions;
+
+    private final int threads;
+
+    /**
+     * Create a runner using one partition and one thread per available processor.
+     *
+     * @param partitioner    the partitioner of the data source
+     * @param engineTemplate the template used to create engines
+     */
+    public PartitionedEngineRunner(final Partitioner partitioner, final EngineTemplate engineTemplate) {
+        this(partitioner, engineTemplate, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a runner using one thread per partition.
+     *
+     * @param partitioner    the partitioner of the data source
+     * @param engineTemplate the template used to create engines
+     * @param partitions     the number of partitions
+     */
+    public PartitionedEngineRunner(final Partitioner partitioner, final EngineTemplate engineTemplate, final int partitions) {
+        this(partitioner, engineTemplate, partitions, partitions);
+    }
+
+    /**
+     * Create a runner.
+     *
+     * @param partitioner    the partitioner of the data source
+     * @param engineTemplate the template used to create engines
+     * @param partitions     the number of partitions
+     * @param threads        the maximum number of partitions processed at a time
+     */
+    public PartitionedEngineRunner(final Partitioner partitioner, final EngineTemplate engineTemplate,
+                                   final int partitions, final int threads) {
+        checkNotNull(partitioner, "partitioner");
+        checkNotNull(engineTemplate, "engine template");
+        checkArgument(partitions >= 1, "The number of partitions should be greater than or equal to 1");
+        checkArgument(threads >= 1, "The number of threads should be greater than or equal to 1");
+        this.partitioner = partitioner;
+        this.engineTemplate = engineTemplate;
+        this.partitions = partitions;
+        this.threads = threads;
+    }
+
+    /**
+     * Partition the data source, run engines and wait for their completion.
+     *
+     * @return the merged report of all engines
+     * @throws PartitioningException if the data source cannot be partitioned
+     * @throws InterruptedException  if interrupted while waiting for engines
+     */
+    @Override
+    public Report call() throws PartitioningException, InterruptedException {
+        List<RecordReader> partitionReaders = partitioner.partition(partitions);
+        LOGGER.log(Level.INFO, "Data source split into {0} partition(s)", partitionReaders.size());
+
+        List<Engine> engines = new ArrayList<Engine>();
+        for (int i = 0; i < partitionReaders.size(); i++) {
+            engines.add(engineTemplate.createEngine(partitionReaders.get(i), i));
+        }
+
+        /*
+         * Partitions are CPU bound: they run on platform threads, at most one per partition.
+         */
+        EngineExecutor engineExecutor = new EngineExecutor(Math.max(1, Math.min(threads, engines.size())), false);
+        try {
+            engineExecutor.submitAll(engines);
+            Report report = engineExecutor.awaitCompletion();
+            report.setEngineName("partitioned-engine-runner");
+            return report;
+        } finally {
+            engineExecutor.shutdown();
+        }
+    }
+
+}
@@ -24,17 +24,24 @@
 
 package org.easybatch.core.impl;
 
-import org.easybatch.core.api.ComputationalRecordProcessor;
-import org.easybatch.core.api.Record;
-import org.easybatch.core.api.RecordProcessor;
-import org.easybatch.core.api.Report;
+import org.easybatch.core.api.*;
+import org.easybatch.core.api.event.ChunkEventManager;
 import org.easybatch.core.api.event.EventManager;
 import org.easybatch.core.api.handler.ErrorRecordHandler;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The processing pipeline is the set of stages to process a record.
+ * <p/>
+ * In chunk mode, the last processor of the pipeline is not applied record by record:
+ * processed records are buffered and handed to it once per chunk (see {@link #writeChunk()}).
+ * <p/>
+ * In parallel mode, processors are applied on worker threads (see {@link #applyProcessors(Object)})
+ * except the trailing record writer (if any) which is applied on the engine thread
+ * when the record is completed (see {@link #completeProcessing(Record, Object)}).
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
@@ -48,36 +55,274 @@ final class ProcessingPipeline {
 
     private EventManager eventManager;
 
+    /**
+     * The event manager if it fires chunk events, null otherwise.
+     */
+    private ChunkEventManager chunkEventManager;
+
+    private int chunkSize;
+
+    private boolean parallelModeEnabled;
+
+    private List<Record> chunkRecords;
+
+    private List<Object> chunkItems;
+
+    private LatencyTracker[] latencyTrackers;
+
     ProcessingPipeline(List<RecordProcessor> processors, ErrorRecordHandler errorRecordHandler, Report report, EventManager eventManager) {
         this.processors = processors;
         this.errorRecordHandler = errorRecordHandler;
         this.report = report;
         this.eventManager = eventManager;
+        if (eventManager instanceof ChunkEventManager) {
+            this.chunkEventManager = (ChunkEventManager) eventManager;
+        }
     }
 
-    @SuppressWarnings({"unchecked"})
     public boolean process(Record currentRecord, Object typedRecord) {
-
-        boolean processingError = false;
-        Object processingResult = null;
         try {
             Object recordToProcess = eventManager.fireBeforeRecordProcessing(typedRecord);
-            for (RecordProcessor recordProcessor : processors) {
-                recordToProcess = recordProcessor.processRecord(recordToProcess);
-                if (recordProcessor instanceof ComputationalRecordProcessor) {
-                    processingResult = ((ComputationalRecordProcessor) recordProcessor).getComputationResult();
-                }
+            recordToProcess = applyProcessors(recordToProcess, 0, getPerRecordProcessorsCount());
+            completeRecord(currentRecord, recordToProcess);
+            return false;
+        } catch (Exception e) {
+            handleProcessingError(currentRecord, e);
+            return true;
+        }
+    }
+
+    /**
+     * Fire the before record processing event. Should be called on the engine thread.
+     */
+    public Object beforeProcessing(Object typedRecord) {
+        return eventManager.fireBeforeRecordProcessing(typedRecord);
+    }
+
+    /**
+     * Apply the processors that are allowed to run on worker threads in parallel mode.
+     */
+    public Object applyProcessors(Object recordToProcess) throws RecordProcessingException {
+        return applyProcessors(recordToProcess, 0, getParallelProcessorsCount());
+    }
+
+    /**
+     * Apply remaining processors on a record processed by a worker thread. Should be called on the engine thread.
+     *
+     * @return true if a processing error occurred, false otherwise
+     */
+    public boolean completeProcessing(Record currentRecord, Object processedRecord) {
+        try {
+            Object recordToProcess = applyProcessors(processedRecord, getParallelProcessorsCount(), getPerRecordProcessorsCount());
+            completeRecord(currentRecord, recordToProcess);
+            return false;
+        } catch (Exception e) {
+            handleProcessingError(currentRecord, e);
+            return true;
+        }
+    }
+
+    public void handleProcessingError(Record currentRecord, Throwable throwable) {
+        report.incrementTotalErrorRecord();
+        errorRecordHandler.handle(currentRecord, throwable);
+        eventManager.fireOnJobException(throwable);
+        eventManager.fireOnRecordProcessingException(currentRecord, throwable);
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private Object applyProcessors(Object record, int from, int to) throws RecordProcessingException {
+        Object recordToProcess = record;
+        for (int i = from; i < to; i++) {
+            if (latencyTrackers != null) {
+                long startTime = latencyTrackers[i].start();
+                recordToProcess = processors.get(i).processRecord(recordToProcess);
+                latencyTrackers[i].stop(startTime);
+            } else {
+                recordToProcess = processors.get(i).processRecord(recordToProcess);
+            }
+        }
+        return recordToProcess;
+    }
+
+    /*
+     * In chunk mode, the after record processing event is fired once the record has been written with its chunk
+     */
+    private void completeRecord(Record currentRecord, Object processedRecord) {
+        if (isChunkModeEnabled()) {
+            chunkRecords.add(currentRecord);
+            chunkItems.add(processedRecord);
+        } else {
+            eventManager.fireAfterRecordProcessing(processedRecord, getProcessingResult());
+        }
+    }
+
+    /*
+     * The processing result is the computation result of the last computational processor applied on the record.
+     */
+    private Object getProcessingResult() {
+        for (int i = getPerRecordProcessorsCount() - 1; i >= 0; i--) {
+            RecordProcessor recordProcessor = processors.get(i);
+            if (recordProcessor instanceof ComputationalRecordProcessor) {
+                return ((ComputationalRecordProcessor) recordProcessor).getComputationResult();
+            }
+        }
+        return null;
+    }
+
+    /*
+     * In chunk mode, the last processor is applied on the whole chunk
+     */
+    private int getPerRecordProcessorsCount() {
+        return isChunkModeEnabled() ? processors.size() - 1 : processors.size();
+    }
+
+    /*
+     * In parallel mode, the trailing record writer is applied on the engine thread, as well as computational
+     * processors and the processors following them: their computation result is read on the engine thread
+     * after each record, and their state is not meant to be shared between threads.
+     */
+    private int getParallelProcessorsCount() {
+        int count = getPerRecordProcessorsCount();
+        if (parallelModeEnabled && getLastProcessor() instanceof RecordWriter) {
+            count = processors.size() - 1;
+        }
+        for (int i = 0; i < count; i++) {
+            if (processors.get(i) instanceof ComputationalRecordProcessor) {
+                return i;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Write the current chunk using the last processor of the pipeline.
+     * If the last processor is a {@link BatchRecordWriter}, all records of the chunk are reported as succeeded
+     * or in error depending on the outcome of the write, unless the writer reports the failed records with a
+     * {@link ChunkWritingException}. Otherwise, records are written and reported one by one.
+     *
+     * @return true if the chunk (or at least one of its records) could not be written, false otherwise
+     */
+    public boolean writeChunk() {
+        if (chunkItems.isEmpty()) {
+            return false;
+        }
+        try {
+            fireBeforeChunkWriting(chunkItems);
+            if (getLastProcessor() instanceof BatchRecordWriter) {
+                return writeChunkInBatch();
+            }
+            return writeChunkRecordByRecord();
+        } finally {
+            chunkRecords = new ArrayList<Record>(chunkSize);
+            chunkItems = new ArrayList<Object>(chunkSize);
+        }
+    }
 
+    @SuppressWarnings({"unchecked"})
+    private boolean writeChunkInBatch() {
+        LatencyTracker latencyTracker = getLastProcessorLatencyTracker();
+        try {
+            long startTime = latencyTracker.start();
+            ((BatchRecordWriter) getLastProcessor()).writeRecords(chunkItems);
+            latencyTracker.stop(startTime);
+        } catch (ChunkWritingException e) {
+            Map<Integer, Exception> failures = e.getFailures();
+            Object processingResult = getProcessingResult();
+            for (int i = 0; i < chunkItems.size(); i++) {
+                Exception failure = failures.get(i);
+                if (failure != null) {
+                    report.incrementTotalErrorRecord();
+                    errorRecordHandler.handle(chunkRecords.get(i), failure);
+                } else {
+                    report.incrementTotalSuccessRecord();
+                    eventManager.fireAfterRecordProcessing(chunkItems.get(i), processingResult);
+                }
             }
-            eventManager.fireAfterRecordProcessing(recordToProcess, processingResult);
+            eventManager.fireOnJobException(e);
+            fireOnChunkWritingException(chunkItems, e);
+            return true;
         } catch (Exception e) {
-            processingError = true;
-            report.incrementTotalErrorRecord();
-            errorRecordHandler.handle(currentRecord, e);
+            for (Record record : chunkRecords) {
+                report.incrementTotalErrorRecord();
+                errorRecordHandler.handle(record, e);
+            }
             eventManager.fireOnJobException(e);
-            eventManager.fireOnRecordProcessingException(currentRecord, e);
+            fireOnChunkWritingException(chunkItems, e);
+            return true;
+        }
+        Object processingResult = getProcessingResult();
+        for (Object item : chunkItems) {
+            eventManager.fireAfterRecordProcessing(item, processingResult);
+        }
+        fireAfterChunkWriting(chunkItems);
+        report.incrementTotalSuccessRecord(chunkItems.size());
+        return false;
+    }
+
+    /*
+     * A failure on a record does not affect the other records of the chunk, which are written or were already written
+     */
+    @SuppressWarnings({"unchecked"})
+    private boolean writeChunkRecordByRecord() {
+        LatencyTracker latencyTracker = getLastProcessorLatencyTracker();
+        RecordProcessor lastProcessor = getLastProcessor();
+        Exception writingException = null;
+        long startTime = latencyTracker.start();
+        for (int i = 0; i < chunkItems.size(); i++) {
+            Object item = chunkItems.get(i);
+            try {
+                lastProcessor.processRecord(item);
+            } catch (Exception e) {
+                if (writingException == null) {
+                    writingException = e;
+                }
+                handleProcessingError(chunkRecords.get(i), e);
+                continue;
+            }
+            report.incrementTotalSuccessRecord();
+            eventManager.fireAfterRecordProcessing(item, getProcessingResult());
+        }
+        latencyTracker.stop(startTime);
+        if (writingException != null) {
+            fireOnChunkWritingException(chunkItems, writingException);
+            return true;
+        }
+        fireAfterChunkWriting(chunkItems);
+        return false;
+    }
+
+    private void fireBeforeChunkWriting(List<Object> records) {
+        if (chunkEventManager != null) {
+            chunkEventManager.fireBeforeChunkWriting(records);
+        }
+    }
+
+    private void fireAfterChunkWriting(List<Object> records) {
+        if (chunkEventManager != null) {
+            chunkEventManager.fireAfterChunkWriting(records);
+        }
+    }
+
+    private void fireOnChunkWritingException(List<Object> records, Throwable throwable) {
+        if (chunkEventManager != null) {
+            chunkEventManager.fireOnChunkWritingException(records, throwable);
         }
-        return processingError;
+    }
+
+    private LatencyTracker getLastProcessorLatencyTracker() {
+        return latencyTrackers != null ? latencyTrackers[processors.size() - 1] : LatencyTracker.DISABLED;
+    }
+
+    public boolean isChunkModeEnabled() {
+        return chunkSize > 0;
+    }
+
+    public boolean hasPendingChunk() {
+        return isChunkModeEnabled() && !chunkItems.isEmpty();
+    }
+
+    public boolean isChunkFull() {
+        return chunkItems.size() >= chunkSize;
     }
 
     public RecordProcessor getLastProcessor() {
@@ -92,4 +337,37 @@ final class ProcessingPipeline {
         this.errorRecordHandler = errorRecordHandler;
     }
 
+    void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        this.chunkRecords = new ArrayList<Record>(chunkSize);
+        this.chunkItems = new ArrayList<Object>(chunkSize);
+    }
+
+    /**
+     * Track the latency of each processor. In chunk mode, the latency of the last processor is measured per chunk.
+     *
+     * @param samplingRate the latency is measured for one record (or chunk) out of samplingRate
+     */
+    void enableLatencyTracking(int samplingRate) {
+        latencyTrackers = new LatencyTracker[processors.size()];
+        for (int i = 0; i < processors.size(); i++) {
+            String name = "processor#" + (i + 1) + " (" + getProcessorName(processors.get(i)) + ")";
+            LatencyHistogram histogram = new LatencyHistogram(name);
+            report.addLatencyHistogram(histogram);
+            latencyTrackers[i] = new LatencyTracker(histogram, samplingRate);
+        }
+    }
+
+    /*
+     * Anonymous processors do not have a simple name
+     */
+    private String getProcessorName(RecordProcessor recordProcessor) {
+        String simpleName = recordProcessor.getClass().getSimpleName();
+        return simpleName.isEmpty() ? recordProcessor.getClass().getName() : simpleName;
+    }
+
+    void setParallelModeEnabled(boolean parallelModeEnabled) {
+        this.parallelModeEnabled = parallelModeEnabled;
+    }
+
 }
@@ -0,0 +1,332 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Engine;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.StageStatistics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Staged engine implementation: records are read, prepared (skipped, filtered, mapped and validated)
+ * and processed by three different threads connected with bounded queues.
+ * <p/>
+ * This makes reading from the data source overlap with processing/writing records instead of alternating with it.
+ * Each stage reports its input queue depth and busy/idle time in the batch report.
+ * <p/>
+ * Components of each stage are invoked by a single thread, but event listeners may be invoked from different threads.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+final class StagedEngineImpl implements Engine {
+
+    private static final Logger LOGGER = Logger.getLogger(Engine.class.getName());
+
+    // marks the end of the data stream in stage queues
+    private static final Object END = new Object();
+
+    // marks a reading error in stage queues
+    private static final Object READING_ERROR = new Object();
+
+    private static final long OFFER_TIMEOUT = 100;
+
+    private EngineImpl engine;
+
+    private int queueCapacity;
+
+    private BlockingQueue<Object> readRecords;
+
+    private BlockingQueue<Object> preparedRecords;
+
+    private StageStatistics readingStage;
+
+    private StageStatistics preparingStage;
+
+    private StageStatistics processingStage;
+
+    private volatile boolean aborted;
+
+    private volatile long readRecordsNumber;
+
+    /**
+     * An unexpected exception or error of the reading or preparing stage, rethrown by the calling thread.
+     */
+    private volatile Throwable stageFailure;
+
+    StagedEngineImpl(final EngineImpl engine, final int queueCapacity) {
+        this.engine = engine;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public String getName() {
+        return engine.getName();
+    }
+
+    @Override
+    public String getExecutionId() {
+        return engine.getExecutionId();
+    }
+
+    @Override
+    public Report call() {
+        readRecords = new ArrayBlockingQueue<Object>(queueCapacity);
+        preparedRecords = new ArrayBlockingQueue<Object>(queueCapacity);
+        aborted = false;
+        readRecordsNumber = 0;
+        stageFailure = null;
+
+        if (!engine.start()) {
+            return engine.getReport();
+        }
+        readRecordsNumber = engine.getSeekedRecordsNumber();
+
+        LOGGER.log(Level.INFO, "Stage queue capacity: {0}", queueCapacity);
+        Report report = engine.getReport();
+        readingStage = new StageStatistics("reader");
+        preparingStage = new StageStatistics("mapper");
+        processingStage = new StageStatistics("processor");
+        report.addStageStatistics(readingStage);
+        report.addStageStatistics(preparingStage);
+        report.addStageStatistics(processingStage);
+
+        Thread readingThread = new Thread(new ReadingStage(), getName() + "-reader");
+        Thread preparingThread = new Thread(new PreparingStage(), getName() + "-mapper");
+        try {
+            readingThread.start();
+            preparingThread.start();
+            boolean readingError = process();
+            aborted = true; // stop upstream stages if still running
+            join(readingThread);
+            join(preparingThread);
+            rethrowStageFailure();
+            if (readingError) {
+                engine.abortOnReadingError();
+            } else {
+                engine.finish(readRecordsNumber);
+            }
+        } finally {
+            aborted = true;
+            engine.stop();
+        }
+        return report;
+    }
+
+    /*
+     * Processing stage, executed by the calling thread.
+     * Returns true if a reading error has been received.
+     */
+    private boolean process() {
+        while (true) {
+            Object item = take(preparedRecords, processingStage);
+            if (item == END || item == null) {
+                return false;
+            }
+            if (item == READING_ERROR) {
+                return true;
+            }
+            PreparedRecord preparedRecord = (PreparedRecord) item;
+            long start = System.nanoTime();
+            boolean abort = engine.processRecord(preparedRecord.record, preparedRecord.typedRecord);
+            processingStage.addBusyTime(System.nanoTime() - start);
+            if (abort) {
+                return false;
+            }
+        }
+    }
+
+    private class ReadingStage implements Runnable {
+        @Override
+        public void run() {
+            Object lastItem = END;
+            try {
+                while (!aborted && engine.hasNextRecord() && readRecordsNumber < engine.getLimit()) {
+                    long start = System.nanoTime();
+                    Record record = engine.readNextRecord();
+                    readingStage.addBusyTime(System.nanoTime() - start);
+                    if (record == null) {
+                        lastItem = READING_ERROR;
+                        break;
+                    }
+                    readRecordsNumber++;
+                    if (!put(readRecords, record, readingStage)) {
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "An exception occurred while reading records, aborting execution", e);
+                lastItem = READING_ERROR;
+            } catch (Throwable e) {
+                fail("reading records", e);
+            } finally {
+                // downstream stages always receive the end of the data stream
+                put(readRecords, lastItem, readingStage);
+            }
+        }
+    }
+
+    private class PreparingStage implements Runnable {
+        @Override
+        public void run() {
+            Object lastItem = END;
+            try {
+                while (true) {
+                    Object item = take(readRecords, preparingStage);
+                    if (item == null) {
+                        return;
+                    }
+                    if (item == END || item == READING_ERROR) {
+                        lastItem = item;
+                        return;
+                    }
+                    Record record = (Record) item;
+                    long start = System.nanoTime();
+                    Object typedRecord = engine.prepareRecord(record);
+                    preparingStage.addBusyTime(System.nanoTime() - start);
+                    if (typedRecord != null) {
+                        if (!put(preparedRecords, new PreparedRecord(record, typedRecord), preparingStage)) {
+                            return;
+                        }
+                    } else if (engine.isAborted()) {
+                        return;
+                    }
+                }
+            } catch (Throwable e) {
+                fail("preparing records", e);
+            } finally {
+                // the processing stage always receives the end of the data stream
+                put(preparedRecords, lastItem, preparingStage);
+            }
+        }
+    }
+
+    /*
+     * Record an unexpected failure of a stage and abort the execution: blocked stages return as soon as their
+     * queue is empty.
+     */
+    private void fail(final String stage, final Throwable failure) {
+        LOGGER.log(Level.SEVERE, "An unexpected error occurred while " + stage + ", aborting execution", failure);
+        stageFailure = failure;
+        aborted = true;
+    }
+
+    /*
+     * Rethrow the failure of a stage on the calling thread, like the sequential engine would.
+     */
+    private void rethrowStageFailure() {
+        Throwable failure = stageFailure;
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Unable to execute engine " + getName(), failure);
+        }
+    }
+
+    /*
+     * Take next item from the queue, returns null if the execution has been aborted.
+     */
+    private Object take(final BlockingQueue<Object> queue, final StageStatistics statistics) {
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                Object item = queue.poll(OFFER_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (item != null) {
+                    statistics.setQueueDepth(queue.size());
+                    return item;
+                }
+                if (aborted && queue.isEmpty()) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted = true;
+            return null;
+        } finally {
+            statistics.addIdleTime(System.nanoTime() - start);
+        }
+    }
+
+    /*
+     * Put an item in the queue, returns false if the execution has been aborted.
+     */
+    private boolean put(final BlockingQueue<Object> queue, final Object item, final StageStatistics statistics) {
+        long start = System.nanoTime();
+        try {
+            while (!aborted) {
+                if (queue.offer(item, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted = true;
+            return false;
+        } finally {
+            statistics.addIdleTime(System.nanoTime() - start);
+        }
+    }
+
+    private void join(final Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.WARNING, "Interrupted while waiting for thread " + thread.getName() + " to finish", e);
+        }
+    }
+
+    private static class PreparedRecord {
+
+        private final Record record;
+
+        private final Object typedRecord;
+
+        PreparedRecord(final Record record, final Object typedRecord) {
+            this.record = record;
+            this.typedRecord = typedRecord;
+        }
+    }
+
+    Report getReport() {
+        return engine.getReport();
+    }
+
+    @Override
+    public String toString() {
+        return engine.toString();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.Report;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Counts records of a record reader in a background thread and updates the total number of records of the report.
+ * <p/>
+ * Once stopped, the counter does not update the report anymore: the engine sets the final number of records.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+class TotalRecordsCounter implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(TotalRecordsCounter.class.getName());
+
+    private final RecordReader recordReader;
+
+    private final Report report;
+
+    private final Thread thread;
+
+    private boolean stopped;
+
+    TotalRecordsCounter(final RecordReader recordReader, final Report report, final String engineName) {
+        this.recordReader = recordReader;
+        this.report = report;
+        this.thread = new Thread(this, engineName + "-record-counter");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        Long totalRecords;
+        try {
+            totalRecords = recordReader.getTotalRecords();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (!stopped) {
+                    LOGGER.log(Level.WARNING, "Unable to calculate the total number of records", e);
+                }
+            }
+            return;
+        }
+        synchronized (this) {
+            if (stopped || totalRecords == null) {
+                return;
+            }
+            report.setTotalRecords(totalRecords);
+        }
+        LOGGER.log(Level.INFO, "Total records = {0}", totalRecords);
+    }
+
+    /**
+     * Stop counting records: interrupting the counter thread closes channels it may be reading.
+     * Readers interrupted while counting records return no total number of records without reporting an error.
+     */
+    void stop() {
+        synchronized (this) {
+            stopped = true;
+        }
+        thread.interrupt();
+    }
+}
@@ -28,6 +28,7 @@ import org.easybatch.core.api.RecordValidator;
 import org.easybatch.core.api.ValidationError;
 import org.easybatch.core.api.event.EventManager;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -39,6 +40,11 @@ import java.util.Set;
  */
 class ValidationPipeline {
 
+    /*
+     * Shared by all valid records to avoid allocating an empty set for each record.
+     */
+    private static final Set<ValidationError> NO_VALIDATION_ERRORS = Collections.emptySet();
+
     private List<RecordValidator> validators;
 
     private EventManager eventManager;
@@ -54,11 +60,11 @@ class ValidationPipeline {
 
     public Set<ValidationError> validateRecord(final Object record) {
         Object recordToValidate = eventManager.fireBeforeRecordValidation(record);
-        Set<ValidationError> allErrors = new HashSet<ValidationError>();
+        Set<ValidationError> allErrors = NO_VALIDATION_ERRORS;
         for (RecordValidator validator : validators) {
             Set<ValidationError> validationsErrors = validator.validateRecord(recordToValidate);
             if (!validationsErrors.isEmpty()) {
-                allErrors.addAll(validationsErrors);
+                allErrors = new HashSet<ValidationError>(validationsErrors);
                 break;
             }
         }
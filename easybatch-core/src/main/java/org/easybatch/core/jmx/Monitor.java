@@ -24,6 +24,7 @@
 
 package org.easybatch.core.jmx;
 
+import org.easybatch.core.api.LatencyHistogram;
 import org.easybatch.core.api.Report;
 
 import static java.lang.String.valueOf;
@@ -174,4 +175,19 @@ public class Monitor implements MonitorMBean {
         return report.getStatus().toString();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getLatencies() {
+        StringBuilder latencies = new StringBuilder();
+        for (LatencyHistogram latencyHistogram : report.getLatencyHistograms()) {
+            if (latencies.length() > 0) {
+                latencies.append("; ");
+            }
+            latencies.append(latencyHistogram);
+        }
+        return latencies.toString();
+    }
+
 }
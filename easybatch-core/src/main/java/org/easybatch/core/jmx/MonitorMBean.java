@@ -143,4 +143,11 @@ public interface MonitorMBean {
      */
     String getStatus();
 
+    /**
+     * Get latency percentiles (p50, p95, p99 and max) of each stage, if latency tracking is enabled.
+     *
+     * @return latency percentiles of each stage
+     */
+    String getLatencies();
+
 }
@@ -31,7 +31,6 @@ import org.easybatch.core.api.RecordReadingException;
 import org.easybatch.core.record.MultiRecord;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -61,7 +60,7 @@ public abstract class AbstractMultiRecordReader extends MultiRecordReader {
         while (hasNextRecord() && items++ < chunkSize) {
             records.add(delegate.readNextRecord());
         }
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new MultiRecord(header, records);
     }
 }
@@ -30,7 +30,6 @@ import org.easybatch.core.api.RecordReader;
 import org.easybatch.core.record.PoisonRecord;
 import org.easybatch.core.record.StringRecord;
 
-import java.util.Date;
 import java.util.Scanner;
 
 /**
@@ -100,7 +99,7 @@ public class CliRecordReader implements RecordReader {
         if (stop) {
             return new PoisonRecord();
         }
-        Header header = new Header(++recordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++recordNumber, getDataSourceName(), System.currentTimeMillis());
         return new StringRecord(header, payload);
     }
 
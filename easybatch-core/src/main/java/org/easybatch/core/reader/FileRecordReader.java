@@ -27,12 +27,19 @@ package org.easybatch.core.reader;
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
 import org.easybatch.core.record.FileRecord;
+import org.easybatch.core.util.GlobPattern;
+import org.easybatch.core.util.NamedThreadFactory;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static java.lang.String.format;
 import static org.easybatch.core.util.Utils.checkArgument;
@@ -40,26 +47,61 @@ import static org.easybatch.core.util.Utils.checkArgument;
 /**
  * A convenient {@link RecordReader} that recursively reads files in a directory.
  * <p/>
+ * Files are listed lazily while reading: the reader only keeps the names of the directories being walked, so that
+ * the first record is read immediately and memory does not grow with the number of files. Glob patterns on file
+ * names (see {@link GlobPattern}) can be given to skip files while walking, instead of creating records and
+ * filtering them (see {@link org.easybatch.core.filter.FileExtensionFilter#getGlob()}).
+ * <p/>
+ * Subdirectories can be walked in parallel with {@link #setThreads(int)}, in which case files are not read in
+ * directory order.
+ * <p/>
  * This reader produces {@link FileRecord} instances.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
 public class FileRecordReader implements RecordReader {
 
+    private static final Logger LOGGER = Logger.getLogger(FileRecordReader.class.getName());
+
+    /**
+     * The number of files listed ahead of the reader when walking in parallel.
+     */
+    private static final int PARALLEL_BUFFER_SIZE = 1024;
+
+    /**
+     * Marks the end of the walk when walking in parallel.
+     */
+    private static final File END_OF_WALK = new File("");
+
     /**
      * The directory to read files from.
      */
     private File directory;
 
     /**
-     * The array of files in the directory.
+     * The pattern of file names to read, null to read all files.
+     */
+    private GlobPattern glob;
+
+    /**
+     * The pattern of file names to skip, null to skip no file.
+     */
+    private GlobPattern excludedGlob;
+
+    /**
+     * The number of threads walking subdirectories.
      */
-    private List<File> files;
+    private int threads = 1;
 
     /**
-     * The data source iterator.
+     * The file walker.
      */
-    private Iterator<File> iterator;
+    private FileWalker walker;
+
+    /**
+     * The next file to read.
+     */
+    private File nextFile;
 
     /**
      * The current record number.
@@ -67,7 +109,7 @@ public class FileRecordReader implements RecordReader {
     private long currentRecordNumber;
 
     /**
-     * Construct a {@link FileRecordReader} to read files (non recursively) from a given directory.
+     * Construct a {@link FileRecordReader} to read files (recursively) from a given directory.
      *
      * @param directory the directory to read files from.
      */
@@ -75,30 +117,57 @@ public class FileRecordReader implements RecordReader {
         this.directory = directory;
     }
 
+    /**
+     * Construct a {@link FileRecordReader} to read files (recursively) matching a glob pattern from a given directory.
+     *
+     * @param directory the directory to read files from.
+     * @param glob      the glob pattern of file names to read, example: {@code *.{csv,txt}}
+     */
+    public FileRecordReader(File directory, String glob) {
+        this(directory);
+        setGlob(glob);
+    }
+
+    /**
+     * Set the glob pattern of file names to read. Files not matching the pattern are skipped while walking.
+     *
+     * @param glob the glob pattern of file names to read, null to read all files
+     */
+    public void setGlob(final String glob) {
+        this.glob = glob != null ? GlobPattern.compile(glob) : null;
+    }
+
+    /**
+     * Set the glob pattern of file names to skip while walking.
+     *
+     * @param excludedGlob the glob pattern of file names to skip, null to skip no file
+     */
+    public void setExcludedGlob(final String excludedGlob) {
+        this.excludedGlob = excludedGlob != null ? GlobPattern.compile(excludedGlob) : null;
+    }
+
+    /**
+     * Set the number of threads walking subdirectories in parallel (1 by default, to read files in directory order).
+     *
+     * @param threads the number of threads walking subdirectories
+     */
+    public void setThreads(final int threads) {
+        checkArgument(threads >= 1, "threads parameter must be greater than or equal to 1");
+        this.threads = threads;
+    }
+
     /**
      * Open the reader.
      */
     @Override
     public void open() {
         checkDirectory();
-        files = getFiles(directory);
-        iterator = files.listIterator();
-        currentRecordNumber = 0;
-    }
-    
-    private List<File> getFiles(final File directory) {
-        List<File> files = new ArrayList<File>();
-        File[] filesList = directory.listFiles();
-        if (filesList != null) {
-            for (File file : filesList) {
-                if (file.isFile()) {
-                    files.add(file);
-                } else {
-                    files.addAll(getFiles(file));
-                }
-            }
+        if (walker != null) {
+            walker.close();
         }
-        return files;
+        walker = threads > 1 ? new ParallelWalker() : new SequentialWalker();
+        nextFile = null;
+        currentRecordNumber = 0;
     }
 
     private void checkDirectory() {
@@ -114,7 +183,10 @@ public class FileRecordReader implements RecordReader {
      */
     @Override
     public boolean hasNextRecord() {
-        return iterator.hasNext();
+        if (nextFile == null) {
+            nextFile = walker.next();
+        }
+        return nextFile != null;
     }
 
     /**
@@ -124,19 +196,34 @@ public class FileRecordReader implements RecordReader {
      */
     @Override
     public FileRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
-        return new FileRecord(header, iterator.next());
+        if (!hasNextRecord()) {
+            throw new NoSuchElementException("No more files to read from directory " + directory.getAbsolutePath());
+        }
+        File file = nextFile;
+        nextFile = null;
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        return new FileRecord(header, file);
     }
 
     /**
      * Get the total record number in the data source. This is useful to calculate execution progress.
+     * <p/>
+     * Files are counted by walking the directory, without keeping them in memory.
      *
      * @return the total record number in the data source or null if the total records number cannot be
      * calculated in advance
      */
     @Override
     public Long getTotalRecords() {
-        return (long) files.size();
+        if (!directory.isDirectory()) {
+            return null;
+        }
+        FileWalker counter = new SequentialWalker();
+        long totalRecords = 0;
+        while (counter.next() != null) {
+            totalRecords++;
+        }
+        return totalRecords;
     }
 
     /**
@@ -154,6 +241,184 @@ public class FileRecordReader implements RecordReader {
      */
     @Override
     public void close() {
-        // no op
+        if (walker != null) {
+            walker.close();
+            walker = null;
+        }
+    }
+
+    private boolean accept(final String fileName) {
+        return (glob == null || glob.matches(fileName)) && (excludedGlob == null || !excludedGlob.matches(fileName));
+    }
+
+    private interface FileWalker {
+
+        /*
+         * Returns null at the end of the walk.
+         */
+        File next();
+
+        void close();
+    }
+
+    /**
+     * Walks the directory depth first, in the order of directory entries.
+     */
+    private class SequentialWalker implements FileWalker {
+
+        /**
+         * The directories being walked, from the root directory to the current directory.
+         */
+        private final LinkedList<DirectoryEntries> directories = new LinkedList<DirectoryEntries>();
+
+        SequentialWalker() {
+            push(directory);
+        }
+
+        @Override
+        public File next() {
+            while (!directories.isEmpty()) {
+                DirectoryEntries current = directories.getLast();
+                if (current.index == current.names.length) {
+                    directories.removeLast();
+                    continue;
+                }
+                String name = current.names[current.index++];
+                File file = new File(current.directory, name);
+                if (file.isFile()) {
+                    if (accept(name)) {
+                        return file;
+                    }
+                } else {
+                    push(file);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+            directories.clear();
+        }
+
+        private void push(final File directory) {
+            String[] names = directory.list();
+            if (names != null && names.length > 0) {
+                directories.add(new DirectoryEntries(directory, names));
+            }
+        }
+    }
+
+    /**
+     * The names of the entries of a directory, and the index of the next entry to walk.
+     */
+    private static class DirectoryEntries {
+
+        private final File directory;
+
+        private final String[] names;
+
+        private int index;
+
+        DirectoryEntries(final File directory, final String[] names) {
+            this.directory = directory;
+            this.names = names;
+        }
+    }
+
+    /**
+     * Walks subdirectories in parallel, listing files ahead of the reader in a bounded buffer.
+     */
+    private class ParallelWalker implements FileWalker {
+
+        private final BlockingQueue<File> files = new ArrayBlockingQueue<File>(PARALLEL_BUFFER_SIZE);
+
+        private final ExecutorService executorService = Executors.newFixedThreadPool(threads, new NamedThreadFactory(directory.getName() + "-walker-", true));
+
+        /**
+         * The number of directories submitted and not walked yet.
+         */
+        private final AtomicInteger pendingDirectories = new AtomicInteger();
+
+        private volatile boolean closed;
+
+        private boolean ended;
+
+        ParallelWalker() {
+            submit(directory);
+        }
+
+        @Override
+        public File next() {
+            if (ended) {
+                return null;
+            }
+            try {
+                File file = files.take();
+                if (file == END_OF_WALK) {
+                    ended = true;
+                    executorService.shutdown();
+                    return null;
+                }
+                return file;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            executorService.shutdownNow();
+            files.clear();
+        }
+
+        private void submit(final File directory) {
+            if (closed) {
+                return;
+            }
+            pendingDirectories.incrementAndGet();
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        walk(directory);
+                    } catch (InterruptedException e) {
+                        // the reader is closed
+                        return;
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING, "Unable to walk directory " + directory.getAbsolutePath(), e);
+                    }
+                    if (pendingDirectories.decrementAndGet() == 0) {
+                        try {
+                            files.put(END_OF_WALK);
+                        } catch (InterruptedException e) {
+                            // the reader is closed
+                        }
+                    }
+                }
+            });
+        }
+
+        private void walk(final File directory) throws InterruptedException {
+            String[] names = directory.list();
+            if (names == null) {
+                return;
+            }
+            for (String name : names) {
+                if (closed) {
+                    return;
+                }
+                File file = new File(directory, name);
+                if (file.isFile()) {
+                    if (accept(name)) {
+                        files.put(file);
+                    }
+                } else {
+                    submit(file);
+                }
+            }
+        }
     }
 }
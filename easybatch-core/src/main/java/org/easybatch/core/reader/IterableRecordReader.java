@@ -25,12 +25,11 @@
 package org.easybatch.core.reader;
 
 import org.easybatch.core.api.Header;
-import org.easybatch.core.api.RecordReader;
 import org.easybatch.core.api.RecordReaderOpeningException;
 import org.easybatch.core.api.RecordReadingException;
+import org.easybatch.core.api.TransientRecordReader;
 import org.easybatch.core.record.GenericRecord;
 
-import java.util.Date;
 import java.util.Iterator;
 
 import static org.easybatch.core.util.Utils.checkNotNull;
@@ -45,7 +44,7 @@ import static org.easybatch.core.util.Utils.checkNotNull;
  * @param <T> the type of records in the iterable data source.
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class IterableRecordReader<T> implements RecordReader {
+public class IterableRecordReader<T> implements TransientRecordReader {
 
     /**
      * The current record number.
@@ -57,6 +56,16 @@ public class IterableRecordReader<T> implements RecordReader {
      */
     private Iterator<T> iterator;
 
+    /**
+     * Reuse the same record instance for each record.
+     */
+    private boolean reuseRecords;
+
+    /**
+     * The reused record instance (flyweight mode).
+     */
+    private GenericRecord<T> reusableRecord;
+
     /**
      * Reads record from an {@link Iterable} data source.
      * <p/>
@@ -74,6 +83,7 @@ public class IterableRecordReader<T> implements RecordReader {
     @Override
     public void open() throws RecordReaderOpeningException {
         currentRecordNumber = 0;
+        reusableRecord = null;
     }
 
     @Override
@@ -83,8 +93,17 @@ public class IterableRecordReader<T> implements RecordReader {
 
     @Override
     public GenericRecord<T> readNextRecord() throws RecordReadingException {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
-        return new GenericRecord<T>(header, iterator.next());
+        if (reuseRecords && reusableRecord != null) {
+            reusableRecord.getHeader().update(++currentRecordNumber, System.currentTimeMillis());
+            reusableRecord.setPayload(iterator.next());
+            return reusableRecord;
+        }
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        GenericRecord<T> record = new GenericRecord<T>(header, iterator.next());
+        if (reuseRecords) {
+            reusableRecord = record;
+        }
+        return record;
     }
 
     @Override
@@ -101,4 +120,28 @@ public class IterableRecordReader<T> implements RecordReader {
     public void close() {
         // no op
     }
+
+    /**
+     * Reuse the same record instance for each record instead of creating a new one (flyweight mode).
+     * <p/>
+     * This mode reduces allocations when reading large data sources, but a record must not be referenced
+     * once the next record is read: it can not be used with chunks of more than one record, parallel or staged
+     * processing (the engine builder rejects these configurations), nor with processors or listeners keeping
+     * references to records.
+     *
+     * @param reuseRecords true to reuse the same record instance for each record
+     */
+    public void setReuseRecords(final boolean reuseRecords) {
+        this.reuseRecords = reuseRecords;
+    }
+
+    @Override
+    public boolean hasTransientRecords() {
+        return reuseRecords;
+    }
+
+    @Override
+    public boolean isReusingRecords() {
+        return reuseRecords;
+    }
 }
@@ -0,0 +1,300 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.reader;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.RecordReaderClosingException;
+import org.easybatch.core.api.RecordReaderOpeningException;
+import org.easybatch.core.api.RecordReadingException;
+import org.easybatch.core.api.TransientRecordReader;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A {@link RecordReader} decorator reading records ahead of the engine in a background thread.
+ * <p/>
+ * Records are read from the delegate reader by a prefetching thread into a bounded buffer, so that the time spent
+ * waiting for the data source (database round trips, cursor batches, network file systems, etc) overlaps with
+ * record processing. The delegate reader is opened by the calling thread, and is used by the prefetching thread only
+ * until it is closed. A reading exception of the delegate is thrown by {@link #readNextRecord()} in place of the
+ * record that could not be read, and stops prefetching. If the calling thread is interrupted while waiting for a
+ * record, the next call to {@link #readNextRecord()} throws a reading exception as well.
+ * <p/>
+ * The number of buffered records and the time spent waiting for records can be monitored while reading.
+ * <p/>
+ * Readers whose records are only valid until the next record is read (see {@link TransientRecordReader}), like a jdbc
+ * reader whose payload is the live result set, cannot be prefetched. Records read ahead and not returned yet are
+ * dropped when the reader is closed: do not prefetch readers consuming their data source, like a jms reader
+ * acknowledging messages as they are received, unless all records are read before closing.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class PrefetchingRecordReader implements RecordReader {
+
+    private static final Logger LOGGER = Logger.getLogger(PrefetchingRecordReader.class.getName());
+
+    /**
+     * The default number of records read ahead.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    /**
+     * The time to wait for the prefetching thread to stop when closing the reader, in milliseconds.
+     */
+    private static final long CLOSE_TIMEOUT = 1000;
+
+    /**
+     * Marks the end of the delegate data source in the buffer.
+     */
+    private static final Object END_OF_DATA = new Object();
+
+    private RecordReader delegate;
+
+    private int bufferSize;
+
+    /**
+     * Records and reading exceptions of the delegate reader, in reading order.
+     */
+    private volatile BlockingQueue<Object> buffer;
+
+    private Thread prefetcher;
+
+    private volatile boolean stopped;
+
+    /**
+     * The next item of the buffer, taken by {@link #hasNextRecord()}.
+     */
+    private Object next;
+
+    private volatile int maxBufferedRecords;
+
+    private volatile long waitTime;
+
+    /**
+     * Create a prefetching record reader reading {@link #DEFAULT_BUFFER_SIZE} records ahead.
+     *
+     * @param delegate the delegate record reader
+     */
+    public PrefetchingRecordReader(final RecordReader delegate) {
+        this(delegate, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a prefetching record reader.
+     *
+     * @param delegate   the delegate record reader
+     * @param bufferSize the maximum number of records read ahead
+     */
+    public PrefetchingRecordReader(final RecordReader delegate, final int bufferSize) {
+        checkNotNull(delegate, "delegate record reader");
+        checkArgument(bufferSize >= 1, "buffer size must be greater than or equal to 1");
+        this.delegate = delegate;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void open() throws RecordReaderOpeningException {
+        if (delegate instanceof TransientRecordReader && ((TransientRecordReader) delegate).hasTransientRecords()) {
+            throw new RecordReaderOpeningException("Records of " + delegate.getDataSourceName() + " are only valid until the next record is read and cannot be prefetched");
+        }
+        delegate.open();
+        buffer = new ArrayBlockingQueue<Object>(bufferSize);
+        next = null;
+        stopped = false;
+        maxBufferedRecords = 0;
+        waitTime = 0;
+        prefetcher = new Thread(new Prefetcher(), delegate.getDataSourceName() + "-prefetcher");
+        prefetcher.setDaemon(true);
+        prefetcher.start();
+    }
+
+    @Override
+    public boolean hasNextRecord() {
+        if (next == null) {
+            try {
+                next = buffer.poll();
+                if (next == null) {
+                    long startTime = System.nanoTime();
+                    next = buffer.take();
+                    waitTime += System.nanoTime() - startTime;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // records left in the buffer must not be dropped silently: the next read fails
+                next = new RecordReadingException("Interrupted while waiting for records of " + getDataSourceName(), e);
+            }
+        }
+        return next != END_OF_DATA;
+    }
+
+    @Override
+    public Record readNextRecord() throws RecordReadingException {
+        if (!hasNextRecord()) {
+            throw new RecordReadingException("No more records to read from " + getDataSourceName());
+        }
+        Object item = next;
+        next = null;
+        if (item instanceof RecordReadingException) {
+            // keep returning the end of data once the exception is thrown
+            next = END_OF_DATA;
+            throw (RecordReadingException) item;
+        }
+        return (Record) item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Delegates to the delegate reader, which may be reading records at the same time.
+     */
+    @Override
+    public Long getTotalRecords() {
+        return delegate.getTotalRecords();
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return delegate.getDataSourceName();
+    }
+
+    /**
+     * Stop prefetching and close the delegate reader.
+     * If the prefetching thread does not stop in time (blocked by the data source), the delegate reader is closed anyway.
+     */
+    @Override
+    public void close() throws RecordReaderClosingException {
+        if (prefetcher != null) {
+            stopped = true;
+            prefetcher.interrupt();
+            // unblock the prefetching thread if the buffer is full
+            buffer.clear();
+            try {
+                prefetcher.join(CLOSE_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (prefetcher.isAlive()) {
+                LOGGER.log(Level.WARNING, "Prefetching thread of {0} did not stop, closing the reader anyway", getDataSourceName());
+            }
+            // a record may have been added while stopping
+            buffer.clear();
+            prefetcher = null;
+        }
+        delegate.close();
+    }
+
+    /**
+     * @return the number of records currently read ahead
+     */
+    public int getBufferedRecords() {
+        BlockingQueue<Object> currentBuffer = buffer;
+        return currentBuffer != null ? currentBuffer.size() : 0;
+    }
+
+    /**
+     * @return the maximum number of records read ahead since the reader has been opened
+     */
+    public int getMaxBufferedRecords() {
+        return maxBufferedRecords;
+    }
+
+    /**
+     * @return the maximum number of records read ahead
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the time spent waiting for the delegate reader because no record was read ahead, in milliseconds
+     */
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTime);
+    }
+
+    /**
+     * Reads records from the delegate reader until the end of data, a reading exception or the reader is closed.
+     */
+    private class Prefetcher implements Runnable {
+
+        @Override
+        public void run() {
+            // the end of data, or the exception stopping prefetching, is always added so that readers never wait forever
+            Object last = END_OF_DATA;
+            try {
+                while (!stopped) {
+                    Object item = readNext();
+                    if (item == END_OF_DATA || item instanceof RecordReadingException) {
+                        last = item;
+                        break;
+                    }
+                    buffer.put(item);
+                    int bufferedRecords = buffer.size();
+                    if (bufferedRecords > maxBufferedRecords) {
+                        maxBufferedRecords = bufferedRecords;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // the reader is closed
+            } catch (Throwable e) {
+                last = new RecordReadingException("Unable to prefetch next record", e);
+            } finally {
+                if (!stopped) {
+                    try {
+                        buffer.put(last);
+                    } catch (InterruptedException e) {
+                        // the reader is closed
+                    }
+                }
+            }
+        }
+
+        private Object readNext() {
+            try {
+                if (!delegate.hasNextRecord()) {
+                    return END_OF_DATA;
+                }
+                Record record = delegate.readNextRecord();
+                if (record == null) {
+                    return new RecordReadingException("The delegate reader returned a null record");
+                }
+                return record;
+            } catch (RecordReadingException e) {
+                return e;
+            } catch (Throwable e) {
+                return new RecordReadingException("Unable to read next record", e);
+            }
+        }
+    }
+}
@@ -26,10 +26,15 @@ package org.easybatch.core.reader;
 
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.RecordReadingException;
+import org.easybatch.core.api.TransientRecordReader;
 import org.easybatch.core.record.StringRecord;
+import org.easybatch.core.util.LineReader;
 
-import java.util.Date;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A convenient {@link RecordReader} that reads data from a String.
@@ -38,7 +43,9 @@ import java.util.Scanner;
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class StringRecordReader implements RecordReader {
+public class StringRecordReader implements TransientRecordReader {
+
+    private static final Logger LOGGER = Logger.getLogger(StringRecordReader.class.getName());
 
     /**
      * The current read record number.
@@ -46,21 +53,24 @@ public class StringRecordReader implements RecordReader {
     private long currentRecordNumber;
 
     /**
-     * Scanner to read input String.
+     * Line reader to read input String.
      */
-    private Scanner scanner;
+    private LineReader lineReader;
 
     /**
-     * A second scanner used to calculate the number of records in the input file.
-     * The main scanner may be used instead but since the {@link Scanner} class does not have a method to rewind it to the
-     * beginning of the file ( {@link java.util.Scanner#reset()} does not rewind the scanner), another scanner instance is needed.
+     * The content of the String data source.
      */
-    private Scanner recordCounterScanner;
+    private String content;
 
     /**
-     * The content of the String data source.
+     * Reuse the same record instance for each record.
      */
-    private String content;
+    private boolean reuseRecords;
+
+    /**
+     * The reused record instance (flyweight mode).
+     */
+    private StringRecord reusableRecord;
 
     /**
      * Constructs a StringRecordReader.
@@ -74,29 +84,48 @@ public class StringRecordReader implements RecordReader {
     @Override
     public void open() {
         currentRecordNumber = 0;
-        scanner = new Scanner(content);
-        recordCounterScanner = new Scanner(content);
+        reusableRecord = null;
+        lineReader = newLineReader();
     }
 
     @Override
     public boolean hasNextRecord() {
-        return scanner.hasNextLine();
+        try {
+            return lineReader.hasNextLine();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An exception occurred while checking the existence of next line", e);
+            return false;
+        }
     }
 
     @Override
-    public StringRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
-        return new StringRecord(header, scanner.nextLine());
+    public StringRecord readNextRecord() throws RecordReadingException {
+        String line = nextLine();
+        if (reuseRecords && reusableRecord != null) {
+            reusableRecord.getHeader().update(++currentRecordNumber, System.currentTimeMillis());
+            reusableRecord.setPayload(line);
+            return reusableRecord;
+        }
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        StringRecord record = new StringRecord(header, line);
+        if (reuseRecords) {
+            reusableRecord = record;
+        }
+        return record;
     }
 
     @Override
     public Long getTotalRecords() {
         long totalRecords = 0;
-        while (recordCounterScanner.hasNextLine()) {
-            totalRecords++;
-            recordCounterScanner.nextLine();
+        LineReader recordCounter = newLineReader();
+        try {
+            while (recordCounter.skipLine()) {
+                totalRecords++;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Unable to calculate total records number", e);
+            return null;
         }
-        recordCounterScanner.close();
         return totalRecords;
     }
 
@@ -107,6 +136,44 @@ public class StringRecordReader implements RecordReader {
 
     @Override
     public void close() {
-        scanner.close();
+        // nothing to release for an in-memory string
+    }
+
+    private LineReader newLineReader() {
+        // no need for a buffer larger than the content
+        int bufferSize = Math.max(1, Math.min(content.length(), LineReader.DEFAULT_BUFFER_SIZE));
+        return new LineReader(new StringReader(content), bufferSize);
+    }
+
+    private String nextLine() throws RecordReadingException {
+        try {
+            return lineReader.readLine();
+        } catch (IOException e) {
+            throw new RecordReadingException("Unable to read next line", e);
+        }
+    }
+
+    /**
+     * Reuse the same record instance for each record instead of creating a new one (flyweight mode).
+     * <p/>
+     * This mode reduces allocations when reading large data sources, but a record must not be referenced
+     * once the next record is read: it can not be used with chunks of more than one record, parallel or staged
+     * processing (the engine builder rejects these configurations), nor with processors or listeners keeping
+     * references to records.
+     *
+     * @param reuseRecords true to reuse the same record instance for each record
+     */
+    public void setReuseRecords(final boolean reuseRecords) {
+        this.reuseRecords = reuseRecords;
+    }
+
+    @Override
+    public boolean hasTransientRecords() {
+        return reuseRecords;
+    }
+
+    @Override
+    public boolean isReusingRecords() {
+        return reuseRecords;
     }
 }
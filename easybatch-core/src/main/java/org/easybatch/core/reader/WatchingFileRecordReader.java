@@ -0,0 +1,302 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.reader;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.record.FileRecord;
+import org.easybatch.core.util.GlobPattern;
+
+import java.io.File;
+import java.util.*;
+
+import static java.lang.String.format;
+import static org.easybatch.core.util.Utils.checkArgument;
+
+/**
+ * A {@link RecordReader} that watches a directory and reads files as they are dropped in it, until a stop condition
+ * is met: files are read with a low latency by a single long running engine instead of scheduling engines that
+ * read the whole directory again and again.
+ * <p/>
+ * The directory (not its subdirectories) is polled every {@code pollInterval} milliseconds. A file is read once its
+ * size and modification date have not changed for {@code stabilityDelay} milliseconds, so that files being written
+ * are not read before they are complete. Files present in the directory when the reader is opened are read as well.
+ * Each file is read once, as long as it stays in the directory (processed files are typically moved or deleted):
+ * a file dropped again with the same name after being removed is read again.
+ * <p/>
+ * {@link #hasNextRecord()} waits for the next file until the reader is stopped with {@link #stop()}, no file is
+ * dropped during {@code idleTimeout} milliseconds (if set), or the thread reading records is interrupted.
+ * <p/>
+ * This reader produces {@link FileRecord} instances.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class WatchingFileRecordReader implements RecordReader {
+
+    /**
+     * The default poll interval: 200ms.
+     */
+    public static final long DEFAULT_POLL_INTERVAL = 200;
+
+    /**
+     * The default stability delay: 1s.
+     */
+    public static final long DEFAULT_STABILITY_DELAY = 1000;
+
+    /**
+     * The watched directory.
+     */
+    private File directory;
+
+    private long pollInterval = DEFAULT_POLL_INTERVAL;
+
+    private long stabilityDelay = DEFAULT_STABILITY_DELAY;
+
+    /**
+     * The time without new file after which the reader stops, 0 to wait indefinitely.
+     */
+    private long idleTimeout;
+
+    /**
+     * The pattern of file names to read, null to read all files.
+     */
+    private GlobPattern glob;
+
+    /**
+     * Files seen but not read yet, by name, in the order they were seen.
+     */
+    private Map<String, Observation> candidates;
+
+    /**
+     * Names of the files already read and still in the directory.
+     */
+    private Set<String> readFiles;
+
+    /**
+     * Stable files waiting to be read.
+     */
+    private LinkedList<File> stableFiles;
+
+    private volatile boolean stopped;
+
+    private long lastReadTime;
+
+    /**
+     * The current record number.
+     */
+    private long currentRecordNumber;
+
+    /**
+     * Construct a {@link WatchingFileRecordReader} to read files dropped in a given directory.
+     *
+     * @param directory the directory to watch.
+     */
+    public WatchingFileRecordReader(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Set the interval between two listings of the directory.
+     *
+     * @param pollInterval the poll interval in milliseconds
+     */
+    public void setPollInterval(final long pollInterval) {
+        checkArgument(pollInterval >= 1, "poll interval must be greater than or equal to 1");
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Set the time during which the size and the modification date of a file must not change for the file to be read.
+     *
+     * @param stabilityDelay the stability delay in milliseconds
+     */
+    public void setStabilityDelay(final long stabilityDelay) {
+        checkArgument(stabilityDelay >= 0, "stability delay must be greater than or equal to 0");
+        this.stabilityDelay = stabilityDelay;
+    }
+
+    /**
+     * Stop reading files when no file has been read during the given time.
+     *
+     * @param idleTimeout the idle timeout in milliseconds, 0 to wait for files until the reader is stopped
+     */
+    public void setIdleTimeout(final long idleTimeout) {
+        checkArgument(idleTimeout >= 0, "idle timeout must be greater than or equal to 0");
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Set the glob pattern of file names to read. Other files are ignored.
+     *
+     * @param glob the glob pattern of file names to read, null to read all files
+     */
+    public void setGlob(final String glob) {
+        this.glob = glob != null ? GlobPattern.compile(glob) : null;
+    }
+
+    /**
+     * Stop waiting for files: {@link #hasNextRecord()} returns false once the files already stable are read.
+     * This method can be called from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Open the reader.
+     */
+    @Override
+    public void open() {
+        checkArgument(directory.isDirectory(), format("%s is not a directory.", directory.getAbsolutePath()));
+        checkArgument(directory.canRead(), format("Unable to read files from directory %s. Permission denied.", directory.getAbsolutePath()));
+        candidates = new LinkedHashMap<String, Observation>();
+        readFiles = new HashSet<String>();
+        stableFiles = new LinkedList<File>();
+        stopped = false;
+        lastReadTime = System.currentTimeMillis();
+        currentRecordNumber = 0;
+    }
+
+    /**
+     * Wait for the next stable file.
+     *
+     * @return true if a file is ready to be read, false if the reader is stopped
+     */
+    @Override
+    public boolean hasNextRecord() {
+        while (stableFiles.isEmpty()) {
+            if (stopped || (idleTimeout > 0 && System.currentTimeMillis() - lastReadTime >= idleTimeout)) {
+                return false;
+            }
+            poll();
+            if (stableFiles.isEmpty()) {
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the next stable file.
+     *
+     * @return the next record from the data source.
+     */
+    @Override
+    public FileRecord readNextRecord() {
+        if (!hasNextRecord()) {
+            throw new NoSuchElementException("No more files to read from directory " + directory.getAbsolutePath());
+        }
+        File file = stableFiles.removeFirst();
+        lastReadTime = System.currentTimeMillis();
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        return new FileRecord(header, file);
+    }
+
+    /**
+     * The total number of files is unknown.
+     *
+     * @return null
+     */
+    @Override
+    public Long getTotalRecords() {
+        return null;
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return directory.getAbsolutePath();
+    }
+
+    /**
+     * Close the reader.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+    }
+
+    /*
+     * List the directory and move files whose size and modification date did not change during the stability delay
+     * to stable files.
+     */
+    private void poll() {
+        String[] names = directory.list();
+        if (names == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<String> listedNames = new HashSet<String>(Arrays.asList(names));
+        // forget files removed from the directory
+        readFiles.retainAll(listedNames);
+        candidates.keySet().retainAll(listedNames);
+        for (String name : names) {
+            if (!readFiles.contains(name) && !candidates.containsKey(name) && (glob == null || glob.matches(name))) {
+                candidates.put(name, new Observation());
+            }
+        }
+        Iterator<Map.Entry<String, Observation>> iterator = candidates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Observation> candidate = iterator.next();
+            File file = new File(directory, candidate.getKey());
+            if (!file.isFile()) {
+                continue;
+            }
+            if (candidate.getValue().isStable(file, now, stabilityDelay)) {
+                iterator.remove();
+                readFiles.add(candidate.getKey());
+                stableFiles.add(file);
+            }
+        }
+    }
+
+    /**
+     * The last observed size and modification date of a file, and when they were first observed.
+     */
+    private static class Observation {
+
+        private long size = -1;
+
+        private long lastModified = -1;
+
+        private long since;
+
+        boolean isStable(final File file, final long now, final long stabilityDelay) {
+            long currentSize = file.length();
+            long currentLastModified = file.lastModified();
+            if (currentSize != size || currentLastModified != lastModified) {
+                size = currentSize;
+                lastModified = currentLastModified;
+                since = now;
+            }
+            return now - since >= stabilityDelay;
+        }
+    }
+}
@@ -59,6 +59,16 @@ public class GenericRecord<P> implements Record<P> {
         return payload;
     }
 
+    /**
+     * Set the record's payload. This method is intended to be used by record readers
+     * reusing the same record instance for each record (flyweight mode).
+     *
+     * @param payload the record's payload
+     */
+    public void setPayload(final P payload) {
+        this.payload = payload;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("[");
@@ -28,7 +28,6 @@ import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
 
 import java.io.Serializable;
-import java.util.Date;
 
 /**
  * A marker record that serves as End-Of-Stream record or Poison Record.
@@ -40,7 +39,7 @@ public class PoisonRecord implements Record<Object>, Serializable {
 
     @Override
     public Header getHeader() {
-        return new Header(0L, "Poison record", new Date());
+        return new Header(0L, "Poison record", System.currentTimeMillis());
     }
 
     @Override
@@ -0,0 +1,206 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.util;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Compression formats supported by readers: inputs in these formats are decompressed while being read,
+ * without being decompressed to disk first. Only the JDK is used.
+ * <p/>
+ * Gzip and zip formats are detected from the first bytes of inputs (see {@link #detect(File)} and
+ * {@link #autoDecompress(InputStream)}). The deflate format is not detected: its two bytes header may be the first
+ * characters of a text (like "x^"), so deflate inputs should be decompressed explicitly with {@link #DEFLATE}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public enum Compression {
+
+    /**
+     * Gzip format (RFC 1952). Files with several members (concatenated gzip files for example) are supported.
+     */
+    GZIP {
+        @Override
+        public InputStream decompress(final InputStream inputStream) throws IOException {
+            return new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+    },
+
+    /**
+     * Zip format: entries are read one after the other, directories are ignored.
+     */
+    ZIP {
+        @Override
+        public InputStream decompress(final InputStream inputStream) throws IOException {
+            return new ZipEntriesInputStream(new ZipInputStream(inputStream));
+        }
+    },
+
+    /**
+     * Deflate format with a zlib header (RFC 1950). This format is not detected automatically.
+     */
+    DEFLATE {
+        @Override
+        public InputStream decompress(final InputStream inputStream) throws IOException {
+            return new InflaterInputStream(inputStream, new Inflater(), BUFFER_SIZE);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAGIC_LENGTH = 4;
+
+    /**
+     * Decompress an input stream in this format.
+     *
+     * @param inputStream the compressed input stream
+     * @return the decompressed input stream
+     * @throws IOException if the input stream is not in this format
+     */
+    public abstract InputStream decompress(final InputStream inputStream) throws IOException;
+
+    /**
+     * Detect the compression format of a file.
+     *
+     * @param file the file
+     * @return the compression format or null if the file is not compressed (in a detected format)
+     * @throws IOException if the file cannot be read
+     */
+    public static Compression detect(final File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            byte[] magic = new byte[MAGIC_LENGTH];
+            return detect(magic, readMagic(inputStream, magic));
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Open a file, decompressing it if it is compressed.
+     * Gzip files are decompressed with a {@link ParallelGzipInputStream}.
+     *
+     * @param file the file
+     * @return the (decompressed) content of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static InputStream open(final File file) throws IOException {
+        Compression compression = detect(file);
+        if (compression == GZIP) {
+            return new ParallelGzipInputStream(file);
+        }
+        InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        return compression != null ? compression.decompress(inputStream) : inputStream;
+    }
+
+    /**
+     * Decompress an input stream if it is compressed.
+     *
+     * @param inputStream the input stream
+     * @return the decompressed input stream, or an input stream reading the same bytes if it is not compressed
+     * @throws IOException if the input stream cannot be read
+     */
+    public static InputStream autoDecompress(final InputStream inputStream) throws IOException {
+        Utils.checkNotNull(inputStream, "input stream");
+        InputStream markableInputStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream, BUFFER_SIZE);
+        markableInputStream.mark(MAGIC_LENGTH);
+        byte[] magic = new byte[MAGIC_LENGTH];
+        int length = readMagic(markableInputStream, magic);
+        markableInputStream.reset();
+        Compression compression = detect(magic, length);
+        return compression != null ? compression.decompress(markableInputStream) : markableInputStream;
+    }
+
+    private static int readMagic(final InputStream inputStream, final byte[] magic) throws IOException {
+        int length = 0;
+        int read;
+        while (length < magic.length && (read = inputStream.read(magic, length, magic.length - length)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+
+    private static Compression detect(final byte[] magic, final int length) {
+        if (length >= 2 && magic[0] == (byte) 0x1f && magic[1] == (byte) 0x8b) {
+            return GZIP;
+        }
+        if (length >= 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4) {
+            return ZIP;
+        }
+        return null;
+    }
+
+    /**
+     * Reads zip entries one after the other.
+     */
+    private static class ZipEntriesInputStream extends FilterInputStream {
+
+        private final ZipInputStream zipInputStream;
+
+        private boolean endOfEntries;
+
+        ZipEntriesInputStream(final ZipInputStream zipInputStream) throws IOException {
+            super(zipInputStream);
+            this.zipInputStream = zipInputStream;
+            nextEntry();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            while (!endOfEntries) {
+                int read = zipInputStream.read(b, off, len);
+                if (read != -1) {
+                    return read;
+                }
+                nextEntry();
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void nextEntry() throws IOException {
+            ZipEntry entry;
+            do {
+                entry = zipInputStream.getNextEntry();
+            } while (entry != null && entry.isDirectory());
+            endOfEntries = entry == null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * A glob pattern matching file names, with the usual syntax:
+ * <ul>
+ * <li>{@code *} matches any number of characters</li>
+ * <li>{@code ?} matches exactly one character</li>
+ * <li>{@code [abc]}, {@code [a-z]} and {@code [!abc]} match one character of (or not of) a set</li>
+ * <li>{@code {log,txt}} matches one of the comma separated sub patterns</li>
+ * <li>{@code \} escapes the following character</li>
+ * </ul>
+ * Example: {@code *.{csv,txt}}
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class GlobPattern {
+
+    private final String glob;
+
+    private final Pattern pattern;
+
+    private GlobPattern(final String glob, final Pattern pattern) {
+        this.glob = glob;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Compile a glob pattern.
+     *
+     * @param glob the glob pattern
+     * @return the compiled glob pattern
+     * @throws IllegalArgumentException if the glob pattern is invalid
+     */
+    public static GlobPattern compile(final String glob) {
+        Utils.checkNotNull(glob, "glob");
+        return new GlobPattern(glob, Pattern.compile(toRegex(glob)));
+    }
+
+    /**
+     * Check if a file name matches the pattern.
+     *
+     * @param fileName the file name
+     * @return true if the file name matches the pattern
+     */
+    public boolean matches(final String fileName) {
+        return pattern.matcher(fileName).matches();
+    }
+
+    @Override
+    public String toString() {
+        return glob;
+    }
+
+    private static String toRegex(final String glob) {
+        StringBuilder regex = new StringBuilder();
+        boolean inGroup = false;
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i++);
+            switch (c) {
+                case '*':
+                    regex.append(".*");
+                    break;
+                case '?':
+                    regex.append('.');
+                    break;
+                case '\\':
+                    Utils.checkArgument(i < glob.length(), "Invalid glob " + glob + ": nothing to escape at the end");
+                    appendLiteral(regex, glob.charAt(i++));
+                    break;
+                case '[':
+                    int end = glob.indexOf(']', i + 1);
+                    Utils.checkArgument(end != -1, "Invalid glob " + glob + ": unclosed [");
+                    regex.append('[');
+                    if (glob.charAt(i) == '!') {
+                        regex.append('^');
+                        i++;
+                    }
+                    for (; i < end; i++) {
+                        char s = glob.charAt(i);
+                        if (s == '-') {
+                            regex.append('-');
+                        } else {
+                            appendLiteral(regex, s);
+                        }
+                    }
+                    regex.append(']');
+                    i = end + 1;
+                    break;
+                case '{':
+                    Utils.checkArgument(!inGroup, "Invalid glob " + glob + ": nested groups are not supported");
+                    regex.append("(?:");
+                    inGroup = true;
+                    break;
+                case '}':
+                    if (inGroup) {
+                        regex.append(')');
+                        inGroup = false;
+                    } else {
+                        appendLiteral(regex, c);
+                    }
+                    break;
+                case ',':
+                    if (inGroup) {
+                        regex.append('|');
+                    } else {
+                        appendLiteral(regex, c);
+                    }
+                    break;
+                default:
+                    appendLiteral(regex, c);
+            }
+        }
+        Utils.checkArgument(!inGroup, "Invalid glob " + glob + ": unclosed {");
+        return regex.toString();
+    }
+
+    private static void appendLiteral(final StringBuilder regex, final char c) {
+        if ("\\.[]{}()*+-?^$|&".indexOf(c) != -1) {
+            regex.append('\\');
+        }
+        regex.append(c);
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Buffered line reader, used by line oriented record readers as a faster alternative to {@link java.util.Scanner}.
+ * <p/>
+ * Lines are terminated by "\n", "\r\n" or "\r". There are two reading modes:
+ * <ul>
+ * <li>When reading a byte channel encoded with a charset encoding line terminators as in ASCII (see {@link #supports(Charset)}),
+ * which is the case of UTF-8 and ISO-8859 charsets for example, line terminators are scanned at the byte level and
+ * only lines are decoded. In this mode, the reader keeps track of the position (in bytes) of the next line.
+ * Lines made only of ASCII characters (and all lines in ISO-8859-1) are decoded without a charset decoder.</li>
+ * <li>Otherwise, bytes are decoded to characters with a {@link CharsetDecoder} before line terminators are scanned.
+ * In this mode, the position of the next line is unknown.</li>
+ * </ul>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class LineReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Value returned by {@link #getPosition()} when the position of the next line is unknown.
+     */
+    public static final long UNKNOWN_POSITION = -1;
+
+    private static final byte LF = '\n';
+
+    private static final byte CR = '\r';
+
+    private static final int NOT_FOUND = -1;
+
+    /**
+     * Lines are usually much smaller than this when searching a line boundary: the buffer grows if needed.
+     */
+    private static final int BOUNDARY_BUFFER_SIZE = 1024;
+
+    private final Closeable source;
+
+    /*
+     * Byte mode: the channel, the charset of the channel and the decoding fast path of this charset.
+     */
+    private final ReadableByteChannel channel;
+
+    private final Charset charset;
+
+    private final boolean asciiFastPath;
+
+    private final boolean latin1FastPath;
+
+    private byte[] bytes;
+
+    /*
+     * Char mode: the reader (decoding bytes if needed)
+     */
+    private final Reader reader;
+
+    private char[] chars;
+
+    /*
+     * Index of the first byte (or char) of the next line in the buffer
+     */
+    private int start;
+
+    /*
+     * Index of the end of data in the buffer
+     */
+    private int limit;
+
+    private boolean endOfInput;
+
+    /*
+     * Position (in the channel) of the first byte of the next line (byte mode only)
+     */
+    private long position;
+
+    /*
+     * Length of the terminator of the line found by the last scan
+     */
+    private int terminatorLength;
+
+    /**
+     * Create a line reader reading a channel from its current position.
+     *
+     * @param channel    the channel to read lines from
+     * @param charset    the charset of the input
+     * @param bufferSize the initial size of the read buffer (the buffer grows to hold lines larger than it)
+     */
+    public LineReader(final ReadableByteChannel channel, final Charset charset, final int bufferSize) {
+        this(channel, charset, bufferSize, 0);
+    }
+
+    /**
+     * Create a line reader reading a channel from a given position.
+     *
+     * @param channel         the channel to read lines from, positioned at initialPosition
+     * @param charset         the charset of the input
+     * @param bufferSize      the initial size of the read buffer (the buffer grows to hold lines larger than it)
+     * @param initialPosition the position of the channel
+     */
+    public LineReader(final ReadableByteChannel channel, final Charset charset, final int bufferSize, final long initialPosition) {
+        Utils.checkNotNull(channel, "channel");
+        Utils.checkNotNull(charset, "charset");
+        Utils.checkArgument(bufferSize >= 1, "The buffer size should be greater than or equal to 1");
+        this.source = channel;
+        if (supports(charset)) {
+            this.channel = channel;
+            this.charset = charset;
+            this.latin1FastPath = "ISO-8859-1".equals(charset.name());
+            this.asciiFastPath = latin1FastPath || "UTF-8".equals(charset.name()) || "US-ASCII".equals(charset.name());
+            this.bytes = new byte[bufferSize];
+            this.reader = null;
+            this.position = initialPosition;
+        } else {
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.channel = null;
+            this.charset = null;
+            this.latin1FastPath = false;
+            this.asciiFastPath = false;
+            this.reader = Channels.newReader(channel, decoder, bufferSize);
+            this.chars = new char[bufferSize];
+            this.position = UNKNOWN_POSITION;
+        }
+    }
+
+    /**
+     * Create a line reader reading characters.
+     *
+     * @param reader     the reader to read lines from
+     * @param bufferSize the initial size of the read buffer (the buffer grows to hold lines larger than it)
+     */
+    public LineReader(final Reader reader, final int bufferSize) {
+        Utils.checkNotNull(reader, "reader");
+        Utils.checkArgument(bufferSize >= 1, "The buffer size should be greater than or equal to 1");
+        this.source = reader;
+        this.channel = null;
+        this.charset = null;
+        this.latin1FastPath = false;
+        this.asciiFastPath = false;
+        this.reader = reader;
+        this.chars = new char[bufferSize];
+        this.position = UNKNOWN_POSITION;
+    }
+
+    /**
+     * Check if line terminators can be found at the byte level in inputs encoded with the given charset.
+     *
+     * @param charset the charset to check
+     * @return true if the charset encodes "\r" and "\n" as in ASCII
+     */
+    public static boolean supports(final Charset charset) {
+        return charset.canEncode() && Arrays.equals("\r\n".getBytes(charset), new byte[]{CR, LF});
+    }
+
+    /**
+     * Count lines of an input encoded with a {@link #supports(Charset) supported} charset, without decoding them.
+     * Lines are counted as they would be read by a line reader. The channel is not closed.
+     *
+     * @param channel    the channel to read
+     * @param bufferSize the size of the read buffer
+     * @return the number of lines
+     * @throws IOException if the input cannot be read
+     */
+    public static long countLines(final ReadableByteChannel channel, final int bufferSize) throws IOException {
+        Utils.checkNotNull(channel, "channel");
+        Utils.checkArgument(bufferSize >= 1, "The buffer size should be greater than or equal to 1");
+        byte[] buffer = new byte[bufferSize];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        long lines = 0;
+        byte previous = LF;
+        int read;
+        while ((read = channel.read(byteBuffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == CR || (b == LF && previous != CR)) {
+                    lines++;
+                }
+                previous = b;
+            }
+            byteBuffer.clear();
+        }
+        if (previous != LF && previous != CR) {
+            // last line without terminator
+            lines++;
+        }
+        return lines;
+    }
+
+    /**
+     * Find the first line starting at or after a byte offset in a file encoded with a {@link #supports(Charset) supported}
+     * charset, as lines would be read by a line reader. Lines are not decoded. The position of the channel is changed
+     * but the channel is not closed.
+     *
+     * @param channel the file channel
+     * @param offset  the byte offset, lower than the size of the file
+     * @return the byte offset of the first line starting at or after the given offset
+     * @throws IOException if the file cannot be read
+     */
+    public static long nextLineStart(final FileChannel channel, final long offset) throws IOException {
+        Utils.checkNotNull(channel, "channel");
+        if (offset == 0) {
+            return 0;
+        }
+        // read from the previous byte: if it is a line terminator, the line starts at the given offset
+        channel.position(offset - 1);
+        LineReader lineReader = new LineReader(channel, Charset.forName("ISO-8859-1"), BOUNDARY_BUFFER_SIZE, offset - 1);
+        lineReader.skipLine();
+        return lineReader.getPosition();
+    }
+
+    /**
+     * @return true if there is a next line to read
+     * @throws IOException if the input cannot be read
+     */
+    public boolean hasNextLine() throws IOException {
+        while (start == limit && !endOfInput) {
+            fill();
+        }
+        return start < limit;
+    }
+
+    /**
+     * Read the next line.
+     *
+     * @return the next line without its terminator, or null if the end of input is reached
+     * @throws IOException if the input cannot be read
+     */
+    public String readLine() throws IOException {
+        int end = nextLineEnd();
+        if (end == NOT_FOUND) {
+            return null;
+        }
+        String line = bytes != null ? decode(start, end - start) : new String(chars, start, end - start);
+        consume(end);
+        return line;
+    }
+
+    /**
+     * Skip the next line without decoding it.
+     *
+     * @return true if a line has been skipped, false if the end of input is reached
+     * @throws IOException if the input cannot be read
+     */
+    public boolean skipLine() throws IOException {
+        int end = nextLineEnd();
+        if (end == NOT_FOUND) {
+            return false;
+        }
+        consume(end);
+        return true;
+    }
+
+    /**
+     * @return the position (in bytes) of the next line in the channel, or {@link #UNKNOWN_POSITION} when
+     * reading characters
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /*
+     * Find the end of the next line (filling the buffer as needed) and set the terminator length.
+     */
+    private int nextLineEnd() throws IOException {
+        int scanned = 0;
+        while (true) {
+            int end = bytes != null ? scanBytes(start + scanned) : scanChars(start + scanned);
+            if (end != NOT_FOUND) {
+                return end;
+            }
+            if (endOfInput) {
+                if (start < limit) {
+                    terminatorLength = 0;
+                    return limit;
+                }
+                return NOT_FOUND;
+            }
+            // a trailing CR is scanned again since the next byte is needed to know if the terminator is "\r" or "\r\n"
+            scanned = (limit - start) - (limit > start && isTrailingCarriageReturn() ? 1 : 0);
+            fill();
+        }
+    }
+
+    private int scanBytes(final int from) {
+        final byte[] buffer = bytes;
+        final int end = limit;
+        for (int i = from; i < end; i++) {
+            byte b = buffer[i];
+            if (b == LF) {
+                terminatorLength = 1;
+                return i;
+            }
+            if (b == CR) {
+                if (i + 1 < end) {
+                    terminatorLength = buffer[i + 1] == LF ? 2 : 1;
+                    return i;
+                }
+                if (endOfInput) {
+                    terminatorLength = 1;
+                    return i;
+                }
+                return NOT_FOUND;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private int scanChars(final int from) {
+        final char[] buffer = chars;
+        final int end = limit;
+        for (int i = from; i < end; i++) {
+            char c = buffer[i];
+            if (c == LF) {
+                terminatorLength = 1;
+                return i;
+            }
+            if (c == CR) {
+                if (i + 1 < end) {
+                    terminatorLength = buffer[i + 1] == LF ? 2 : 1;
+                    return i;
+                }
+                if (endOfInput) {
+                    terminatorLength = 1;
+                    return i;
+                }
+                return NOT_FOUND;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private boolean isTrailingCarriageReturn() {
+        return bytes != null ? bytes[limit - 1] == CR : chars[limit - 1] == CR;
+    }
+
+    @SuppressWarnings("deprecation")
+    private String decode(final int offset, final int length) {
+        if (latin1FastPath || (asciiFastPath && isAscii(offset, length))) {
+            // each byte is a character: no need for a charset decoder
+            return new String(bytes, 0, offset, length);
+        }
+        return new String(bytes, offset, length, charset);
+    }
+
+    private boolean isAscii(final int offset, final int length) {
+        int mask = 0;
+        for (int i = offset; i < offset + length; i++) {
+            mask |= bytes[i];
+        }
+        return mask >= 0;
+    }
+
+    private void consume(final int end) {
+        int next = end + terminatorLength;
+        if (position != UNKNOWN_POSITION) {
+            position += next - start;
+        }
+        start = next;
+    }
+
+    /*
+     * Move pending data to the beginning of the buffer (growing it if it is full) and read more data.
+     */
+    private void fill() throws IOException {
+        int pending = limit - start;
+        int capacity = bytes != null ? bytes.length : chars.length;
+        if (start > 0) {
+            if (bytes != null) {
+                System.arraycopy(bytes, start, bytes, 0, pending);
+            } else {
+                System.arraycopy(chars, start, chars, 0, pending);
+            }
+        } else if (pending == capacity) {
+            if (bytes != null) {
+                bytes = Arrays.copyOf(bytes, capacity * 2);
+            } else {
+                chars = Arrays.copyOf(chars, capacity * 2);
+            }
+        }
+        start = 0;
+        limit = pending;
+        int read;
+        if (bytes != null) {
+            read = channel.read(ByteBuffer.wrap(bytes, limit, bytes.length - limit));
+        } else {
+            read = reader.read(chars, limit, chars.length - limit);
+        }
+        if (read == -1) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+}
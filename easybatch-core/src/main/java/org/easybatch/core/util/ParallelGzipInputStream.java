@@ -0,0 +1,472 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.util;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * An input stream decompressing a gzip file, with members of multi-member files decompressed in parallel.
+ * <p/>
+ * Gzip members (concatenated gzip files, or files written by block compressors such as bgzip) do not record their
+ * compressed size: members are searched ahead of the stream by looking for gzip headers, and are decompressed by a
+ * pool of threads. Headers are only searched in a window of compressed bytes ahead of the bytes consumed by the stream
+ * (the largest of {@code memberBufferSize} and 256KB), so that a file is not read ahead entirely to search members
+ * it does not have. A header found inside the compressed data of a member is decompressed for nothing and ignored
+ * once the previous member ends. The first bytes of each member (up to {@code memberBufferSize}) are decompressed in
+ * parallel and the rest of larger members is decompressed by the thread reading the stream, so that a single-member
+ * file is decompressed like with a {@link java.util.zip.GZIPInputStream}.
+ * <p/>
+ * As with {@link java.util.zip.GZIPInputStream}, data following the last member which is not a gzip member is ignored.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+    /**
+     * The default number of bytes of a member decompressed in parallel: 4MB.
+     */
+    public static final int DEFAULT_MEMBER_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final int MIN_SEARCH_WINDOW = 4 * CHUNK_SIZE;
+
+    private static final int FHCRC = 2;
+
+    private static final int FEXTRA = 4;
+
+    private static final int FNAME = 8;
+
+    private static final int FCOMMENT = 16;
+
+    private static final int RESERVED_FLAGS = 0xe0;
+
+    private final File file;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final int readAhead;
+
+    private final int memberBufferSize;
+
+    /**
+     * The number of compressed bytes searched for headers ahead of the bytes consumed by the stream.
+     */
+    private final int searchWindow;
+
+    private final ExecutorService executorService;
+
+    /**
+     * Members being decompressed, in the order of their offset.
+     */
+    private final LinkedList<Future<Member>> members = new LinkedList<Future<Member>>();
+
+    /**
+     * Where to search the next gzip header.
+     */
+    private long searchOffset;
+
+    private final byte[] searchBuffer = new byte[CHUNK_SIZE];
+
+    /**
+     * The offset of the member following the current member.
+     */
+    private long nextMemberOffset;
+
+    private Member member;
+
+    private int memberPosition;
+
+    private boolean closed;
+
+    /**
+     * Create a parallel gzip input stream using as many threads as available processors.
+     *
+     * @param file the gzip file
+     * @throws IOException if the file cannot be opened
+     */
+    public ParallelGzipInputStream(final File file) throws IOException {
+        this(file, Runtime.getRuntime().availableProcessors(), DEFAULT_MEMBER_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a parallel gzip input stream.
+     *
+     * @param file             the gzip file
+     * @param threads          the number of threads decompressing members, which is also the number of members
+     *                         decompressed ahead of the stream
+     * @param memberBufferSize the number of bytes of each member decompressed in parallel
+     * @throws IOException if the file cannot be opened
+     */
+    public ParallelGzipInputStream(final File file, final int threads, final int memberBufferSize) throws IOException {
+        Utils.checkNotNull(file, "file");
+        Utils.checkArgument(threads >= 1, "threads parameter must be greater than or equal to 1");
+        Utils.checkArgument(memberBufferSize >= 1, "member buffer size parameter must be greater than or equal to 1");
+        this.file = file;
+        this.channel = new FileInputStream(file).getChannel();
+        this.size = channel.size();
+        this.readAhead = threads;
+        this.memberBufferSize = memberBufferSize;
+        this.searchWindow = Math.max(memberBufferSize, MIN_SEARCH_WINDOW);
+        this.executorService = Executors.newFixedThreadPool(threads, new NamedThreadFactory(file.getName() + "-inflater-", true));
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            if (member != null) {
+                if (memberPosition < member.length) {
+                    int read = Math.min(len, member.length - memberPosition);
+                    System.arraycopy(member.data, memberPosition, b, off, read);
+                    memberPosition += read;
+                    return read;
+                }
+                if (!member.finished) {
+                    // the rest of a large member is decompressed by the reading thread
+                    int read = member.inflate(b, off, len);
+                    if (read != -1) {
+                        // the search window moves with the bytes consumed by the reading thread
+                        decompressAhead();
+                        return read;
+                    }
+                }
+                nextMemberOffset = member.end;
+                member.release();
+                member = null;
+            }
+            if (!nextMember()) {
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            executorService.shutdownNow();
+            channel.close();
+        }
+    }
+
+    /*
+     * Take the decompressed member starting where the previous one ended, ignoring members found in between.
+     */
+    private boolean nextMember() throws IOException {
+        decompressAhead();
+        while (!members.isEmpty()) {
+            Member candidate = get(members.removeFirst());
+            decompressAhead();
+            if (candidate.start < nextMemberOffset) {
+                // a header found inside the previous member
+                candidate.release();
+                continue;
+            }
+            if (candidate.start > nextMemberOffset) {
+                // the data following the last member is not a gzip member
+                return false;
+            }
+            if (candidate.error != null) {
+                throw candidate.error;
+            }
+            member = candidate;
+            memberPosition = 0;
+            return true;
+        }
+        return false;
+    }
+
+    private void decompressAhead() throws IOException {
+        while (members.size() < readAhead) {
+            long start = nextHeader();
+            if (start == -1) {
+                return;
+            }
+            final Member candidate = new Member(start);
+            members.add(executorService.submit(new Callable<Member>() {
+                @Override
+                public Member call() {
+                    return candidate.decompressAhead();
+                }
+            }));
+        }
+    }
+
+    /*
+     * Search the next offset starting with a gzip header (magic number, deflate method and no reserved flag) in the
+     * search window. Returns -1 if there is none, the search resuming where it stopped once the window moves.
+     */
+    private long nextHeader() throws IOException {
+        long consumed = member != null ? member.inputOffset : nextMemberOffset;
+        long limit = Math.min(size, consumed + searchWindow);
+        // whole chunks are searched, except at the end of the file
+        while (searchOffset < limit && (limit == size || limit - searchOffset >= CHUNK_SIZE)) {
+            int length = read(searchBuffer, searchOffset);
+            if (length <= 3) {
+                // too few bytes left for a header
+                searchOffset = size;
+                break;
+            }
+            // the last 3 bytes may be the beginning of a header
+            int positions = (int) Math.min(length - 3, limit - searchOffset);
+            for (int i = 0; i < positions; i++) {
+                if (searchBuffer[i] == (byte) 0x1f && searchBuffer[i + 1] == (byte) 0x8b && searchBuffer[i + 2] == 8
+                        && (searchBuffer[i + 3] & RESERVED_FLAGS) == 0) {
+                    long header = searchOffset + i;
+                    searchOffset = header + 1;
+                    return header;
+                }
+            }
+            searchOffset += positions;
+        }
+        return -1;
+    }
+
+    /*
+     * The offset where the next gzip header will be searched, for tests.
+     */
+    long getSearchOffset() {
+        return searchOffset;
+    }
+
+    private int read(final byte[] buffer, final long position) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        while (byteBuffer.hasRemaining()) {
+            if (channel.read(byteBuffer, position + byteBuffer.position()) == -1) {
+                break;
+            }
+        }
+        return byteBuffer.position();
+    }
+
+    private Member get(final Future<Member> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decompressing file " + file.getName(), e);
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to decompress file " + file.getName(), e.getCause());
+        }
+    }
+
+    /**
+     * A gzip member: its first bytes are decompressed ahead, the rest is decompressed on demand.
+     */
+    private class Member {
+
+        private final long start;
+
+        private final Inflater inflater = new Inflater(true);
+
+        private final CRC32 crc = new CRC32();
+
+        private final byte[] input = new byte[CHUNK_SIZE];
+
+        private int inputPosition;
+
+        private int inputLimit;
+
+        /**
+         * The offset following the compressed bytes read so far.
+         */
+        private long inputOffset;
+
+        private byte[] data;
+
+        private int length;
+
+        private boolean finished;
+
+        private long end;
+
+        private IOException error;
+
+        Member(final long start) {
+            this.start = start;
+            this.inputOffset = start;
+        }
+
+        Member decompressAhead() {
+            try {
+                readHeader();
+                data = new byte[Math.min(CHUNK_SIZE, memberBufferSize)];
+                while (length < memberBufferSize) {
+                    if (length == data.length) {
+                        data = Arrays.copyOf(data, (int) Math.min((long) data.length * 2, memberBufferSize));
+                    }
+                    int read = inflate(data, length, data.length - length);
+                    if (read == -1) {
+                        break;
+                    }
+                    length += read;
+                }
+            } catch (IOException e) {
+                error = e;
+                release();
+            }
+            return this;
+        }
+
+        /*
+         * Returns -1 once the member trailer has been checked.
+         */
+        int inflate(final byte[] b, final int off, final int len) throws IOException {
+            try {
+                while (true) {
+                    int read = inflater.inflate(b, off, len);
+                    if (read > 0) {
+                        crc.update(b, off, read);
+                        return read;
+                    }
+                    if (inflater.finished()) {
+                        readTrailer();
+                        return -1;
+                    }
+                    if (inflater.needsDictionary()) {
+                        throw new IOException("Invalid gzip member at offset " + start);
+                    }
+                    if (inflater.needsInput()) {
+                        fill();
+                        inflater.setInput(input, inputPosition, inputLimit - inputPosition);
+                        inputPosition = inputLimit;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Invalid gzip member at offset " + start, e);
+            }
+        }
+
+        void release() {
+            data = null;
+            inflater.end();
+        }
+
+        private void readHeader() throws IOException {
+            // magic number and compression method are checked when searching headers
+            int flags = readUnsignedByte(4);
+            // modification time, extra flags and operating system
+            skip(6);
+            if ((flags & FEXTRA) != 0) {
+                int extraLength = readUnsignedByte(1) | (readUnsignedByte(1) << 8);
+                skip(extraLength);
+            }
+            if ((flags & FNAME) != 0) {
+                skipZeroTerminatedString();
+            }
+            if ((flags & FCOMMENT) != 0) {
+                skipZeroTerminatedString();
+            }
+            if ((flags & FHCRC) != 0) {
+                skip(2);
+            }
+            inflater.setInput(input, inputPosition, inputLimit - inputPosition);
+            inputPosition = inputLimit;
+        }
+
+        private void readTrailer() throws IOException {
+            // bytes given to the inflater after the end of the compressed data
+            inputPosition = inputLimit - inflater.getRemaining();
+            long expectedCrc = readUnsignedInt();
+            long expectedSize = readUnsignedInt();
+            if (expectedCrc != crc.getValue() || expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new IOException("Corrupt gzip member at offset " + start);
+            }
+            end = inputOffset - (inputLimit - inputPosition);
+            finished = true;
+            inflater.end();
+        }
+
+        private long readUnsignedInt() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 4; i++) {
+                value |= (long) readUnsignedByte(1) << (8 * i);
+            }
+            return value;
+        }
+
+        private void skipZeroTerminatedString() throws IOException {
+            while (readUnsignedByte(1) != 0) {
+                // skip
+            }
+        }
+
+        private void skip(final int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                readUnsignedByte(1);
+            }
+        }
+
+        /*
+         * Read the last of the given number of bytes.
+         */
+        private int readUnsignedByte(final int bytes) throws IOException {
+            int value = 0;
+            for (int i = 0; i < bytes; i++) {
+                if (inputPosition == inputLimit) {
+                    fill();
+                }
+                value = input[inputPosition++] & 0xff;
+            }
+            return value;
+        }
+
+        private void fill() throws IOException {
+            int read = read(input, inputOffset);
+            if (read == 0) {
+                throw new EOFException("Unexpected end of gzip member at offset " + start + " in file " + file.getName());
+            }
+            inputOffset += read;
+            inputPosition = 0;
+            inputLimit = read;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.util;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe counter spreading updates over several cells to avoid contention between threads.
+ * <p/>
+ * Each thread updates the cell selected by its id, and cells are padded so that two cells never share
+ * the same cache line. The value of the counter is the sum of its cells.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class StripedCounter implements Serializable {
+
+    /*
+     * Number of longs between two cells: 8 longs fill a 64 bytes cache line.
+     */
+    private static final int PADDING = 8;
+
+    private static final int MAX_STRIPES = 64;
+
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(final long delta) {
+        cells.getAndAdd(cell(), delta);
+    }
+
+    /**
+     * Return the current value of the counter. The value is exact if no update happens concurrently.
+     *
+     * @return the current value of the counter
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < stripes(); i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    /*
+     * The number of stripes is read from the cells: a deserialized counter may come from a JVM
+     * with a different number of processors.
+     */
+    private int stripes() {
+        return cells.length() / PADDING;
+    }
+
+    private int cell() {
+        return (int) (Thread.currentThread().getId() & (stripes() - 1)) * PADDING;
+    }
+
+    /*
+     * The smallest power of two greater than or equal to twice the number of processors.
+     */
+    private static int stripes(final int processors) {
+        int stripes = 1;
+        while (stripes < 2 * processors && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(sum());
+    }
+}
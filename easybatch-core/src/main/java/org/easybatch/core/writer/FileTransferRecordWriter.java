@@ -0,0 +1,269 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.writer;
+
+import org.easybatch.core.api.BatchRecordWriter;
+import org.easybatch.core.api.ChunkWritingException;
+import org.easybatch.core.api.RecordProcessingException;
+import org.easybatch.core.record.FileRecord;
+import org.easybatch.core.util.NamedThreadFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static java.lang.String.format;
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * Writer that copies (or moves) the files of {@link FileRecord}s to a target directory, keeping their names.
+ * <p/>
+ * Files are copied with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, so that
+ * their content is copied by the operating system without going through the heap. Moved files are renamed when
+ * possible, and copied then deleted otherwise (when the target directory is on another file system).
+ * <p/>
+ * When atomic transfers are enabled, files are first copied to a temporary file in the target directory and then
+ * renamed, so that readers of the target directory never see a partially copied file.
+ * <p/>
+ * Files of a chunk of records (see {@link org.easybatch.core.impl.EngineBuilder#chunkSize(int)}) are transferred in
+ * parallel by a bounded pool of threads (see {@link #setThreads(int)}). Files of a chunk having the same name are
+ * transferred one after the other, in the order of records. A file which cannot be transferred does not prevent the
+ * other files of the chunk from being transferred, and only its record is reported as failed.
+ * Existing files with the same name in the target directory are replaced.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FileTransferRecordWriter extends AbstractRecordWriter<FileRecord> implements BatchRecordWriter<FileRecord> {
+
+    /**
+     * Prefix of temporary files of atomic transfers.
+     */
+    static final String TEMPORARY_FILE_PREFIX = ".";
+
+    /**
+     * Suffix of temporary files of atomic transfers.
+     */
+    static final String TEMPORARY_FILE_SUFFIX = ".part";
+
+    /**
+     * The directory to transfer files to.
+     */
+    private File targetDirectory;
+
+    private boolean move;
+
+    private boolean atomic;
+
+    private ThreadPoolExecutor executorService;
+
+    /**
+     * Create a writer copying files to a target directory.
+     *
+     * @param targetDirectory the directory to copy files to
+     */
+    public FileTransferRecordWriter(final File targetDirectory) {
+        checkNotNull(targetDirectory, "target directory");
+        this.targetDirectory = targetDirectory;
+        setThreads(1);
+    }
+
+    /**
+     * Move files instead of copying them.
+     *
+     * @param move true to move files, false to copy them (default)
+     */
+    public void setMove(final boolean move) {
+        this.move = move;
+    }
+
+    /**
+     * Copy files to a temporary file of the target directory before renaming them.
+     *
+     * @param atomic true to rename files once copied, false to copy files in place (default)
+     */
+    public void setAtomic(final boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    /**
+     * Set the number of threads transferring the files of a chunk of records in parallel (1 by default).
+     *
+     * @param threads the number of threads transferring files
+     */
+    public void setThreads(final int threads) {
+        checkArgument(threads >= 1, "threads parameter must be greater than or equal to 1");
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+        executorService = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(targetDirectory.getName() + "-transfer-", true));
+        // idle threads are released between jobs
+        executorService.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    protected void writeRecord(final FileRecord record) throws RecordProcessingException {
+        transfer(record.getPayload());
+    }
+
+    /**
+     * Transfer the files of a chunk of records in parallel, waiting for all transfers to complete.
+     *
+     * @param records the records of the files to transfer
+     * @throws ChunkWritingException if some files cannot be transferred, once other transfers are completed
+     * @throws RecordProcessingException if interrupted while waiting for transfers
+     */
+    @Override
+    public void writeRecords(final List<FileRecord> records) throws RecordProcessingException {
+        // each transfer sets its own slot, read once transfers are completed
+        final Exception[] failures = new Exception[records.size()];
+        if (records.size() == 1 || executorService.getMaximumPoolSize() == 1) {
+            for (int i = 0; i < records.size(); i++) {
+                transfer(records, i, failures);
+            }
+        } else {
+            transferInParallel(records, failures);
+        }
+        Map<Integer, Exception> failed = new LinkedHashMap<Integer, Exception>();
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] != null) {
+                failed.put(i, failures[i]);
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new ChunkWritingException(format("Unable to transfer %d of %d files", failed.size(), records.size()), failed);
+        }
+    }
+
+    private void transferInParallel(final List<FileRecord> records, final Exception[] failures) throws RecordProcessingException {
+        // files with the same name share the same target (and temporary) file: they are transferred by the same task
+        Map<String, List<Integer>> indexesByName = new LinkedHashMap<String, List<Integer>>();
+        for (int i = 0; i < records.size(); i++) {
+            String name = records.get(i).getPayload().getName();
+            List<Integer> indexes = indexesByName.get(name);
+            if (indexes == null) {
+                indexes = new ArrayList<Integer>(1);
+                indexesByName.put(name, indexes);
+            }
+            indexes.add(i);
+        }
+        List<Future<Void>> transfers = new ArrayList<Future<Void>>(indexesByName.size());
+        for (final List<Integer> indexes : indexesByName.values()) {
+            transfers.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int index : indexes) {
+                        transfer(records, index, failures);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> transfer : transfers) {
+            try {
+                transfer.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RecordProcessingException("Interrupted while transferring files", e);
+            } catch (ExecutionException e) {
+                // transfers record their failures
+                throw new RecordProcessingException("Unable to transfer files", e.getCause());
+            }
+        }
+    }
+
+    private void transfer(final List<FileRecord> records, final int index, final Exception[] failures) {
+        try {
+            transfer(records.get(index).getPayload());
+        } catch (Exception e) {
+            failures[index] = e;
+        }
+    }
+
+    private void transfer(final File file) throws RecordProcessingException {
+        File target = new File(targetDirectory, file.getName());
+        try {
+            if (!file.isFile()) {
+                throw new IOException(format("%s is not a file", file));
+            }
+            if (move && rename(file, target)) {
+                return;
+            }
+            if (atomic) {
+                File temporaryFile = new File(targetDirectory, TEMPORARY_FILE_PREFIX + file.getName() + TEMPORARY_FILE_SUFFIX);
+                copy(file, temporaryFile);
+                if (!rename(temporaryFile, target)) {
+                    temporaryFile.delete();
+                    throw new IOException(format("Unable to rename %s to %s", temporaryFile, target));
+                }
+            } else {
+                copy(file, target);
+            }
+            if (move && !file.delete()) {
+                throw new IOException(format("Unable to delete %s once copied", file));
+            }
+        } catch (IOException e) {
+            throw new RecordProcessingException(format("Unable to %s file %s to %s", move ? "move" : "copy", file, targetDirectory), e);
+        }
+    }
+
+    /*
+     * Renaming does not replace an existing file on all platforms.
+     */
+    private boolean rename(final File source, final File target) {
+        return source.renameTo(target) || (target.delete() && source.renameTo(target));
+    }
+
+    private void copy(final File source, final File target) throws IOException {
+        FileChannel sourceChannel = new FileInputStream(source).getChannel();
+        try {
+            FileChannel targetChannel = new FileOutputStream(target).getChannel();
+            try {
+                long size = sourceChannel.size();
+                long position = 0;
+                while (position < size) {
+                    long transferred = sourceChannel.transferTo(position, size - position, targetChannel);
+                    if (transferred <= 0) {
+                        throw new IOException(format("%s was truncated while being copied", source));
+                    }
+                    position += transferred;
+                }
+            } finally {
+                targetChannel.close();
+            }
+        } finally {
+            sourceChannel.close();
+        }
+    }
+}
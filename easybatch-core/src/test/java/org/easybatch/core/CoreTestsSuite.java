@@ -24,6 +24,8 @@
 
 package org.easybatch.core;
 
+import org.easybatch.core.api.HeaderTest;
+import org.easybatch.core.api.LatencyHistogramTest;
 import org.easybatch.core.api.ReportTest;
 import org.easybatch.core.converter.*;
 import org.easybatch.core.dispatcher.*;
@@ -33,7 +35,14 @@ import org.easybatch.core.mapper.GenericRecordMapperTest;
 import org.easybatch.core.mapper.ObjectMapperTest;
 import org.easybatch.core.processor.RecordCollectorTest;
 import org.easybatch.core.reader.*;
+import org.easybatch.core.util.CompressionTest;
+import org.easybatch.core.util.GlobPatternTest;
+import org.easybatch.core.util.LineReaderTest;
+import org.easybatch.core.util.NamedThreadFactoryTest;
+import org.easybatch.core.util.ParallelGzipInputStreamTest;
+import org.easybatch.core.util.StripedCounterTest;
 import org.easybatch.core.writer.FileRecordWriterTest;
+import org.easybatch.core.writer.FileTransferRecordWriterTest;
 import org.easybatch.core.writer.OutputStreamRecordWriterTest;
 import org.easybatch.core.writer.StandardOutputRecordWriterTest;
 import org.junit.runner.RunWith;
@@ -56,6 +65,8 @@ import org.junit.runners.Suite;
         IterableMultiRecordReaderTest.class,
         StringMultiRecordReaderTest.class,
         FileMultiRecordReaderTest.class,
+        PrefetchingRecordReaderTest.class,
+        WatchingFileRecordReaderTest.class,
         // mapper
         ObjectMapperTest.class,
         GenericRecordMapperTest.class,
@@ -95,12 +106,24 @@ import org.junit.runners.Suite;
         OutputStreamRecordWriterTest.class,
         StandardOutputRecordWriterTest.class,
         FileRecordWriterTest.class,
+        FileTransferRecordWriterTest.class,
         // processor
         RecordCollectorTest.class,
         // api
+        HeaderTest.class,
+        LatencyHistogramTest.class,
         ReportTest.class,
+        StripedCounterTest.class,
+        NamedThreadFactoryTest.class,
+        LineReaderTest.class,
+        CompressionTest.class,
+        ParallelGzipInputStreamTest.class,
+        GlobPatternTest.class,
         // impl
         EngineImplTest.class,
+        StagedEngineImplTest.class,
+        EngineExecutorTest.class,
+        PartitionedEngineRunnerTest.class,
         FilterChainTest.class,
         ValidationPipelineTest.class,
         ProcessingPipelineTest.class,
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.api;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link Header}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class HeaderTest {
+
+    @Test
+    public void theCreationDateShouldBeCreatedFromTheCreationTime() throws Exception {
+        Header header = new Header(1L, "source", 123456789L);
+
+        assertThat(header.getNumber()).isEqualTo(1L);
+        assertThat(header.getNumberValue()).isEqualTo(1L);
+        assertThat(header.getCreationTime()).isEqualTo(123456789L);
+        assertThat(header.getCreationDate()).isEqualTo(new Date(123456789L));
+    }
+
+    @Test
+    public void whenTheHeaderIsUpdated_ThenTheNumberAndCreationDateShouldBeUpdated() throws Exception {
+        Header header = new Header(1L, "source", 123456789L);
+        header.getCreationDate();
+
+        header.update(2L, 987654321L);
+
+        assertThat(header.getNumber()).isEqualTo(2L);
+        assertThat(header.getSource()).isEqualTo("source");
+        assertThat(header.getCreationDate()).isEqualTo(new Date(987654321L));
+    }
+
+    @Test
+    public void whenTheNumberAndCreationDateAreNotDefined_ThenTheyShouldBeNull() throws Exception {
+        Header header = new Header(null, "source", null);
+
+        assertThat(header.getNumber()).isNull();
+        assertThat(header.hasNumber()).isFalse();
+        assertThat(header.getNumberValue()).isEqualTo(0);
+        assertThat(header.getCreationDate()).isNull();
+    }
+
+    @Test
+    public void anyRecordNumberShouldBeDefined() throws Exception {
+        Header header = new Header(Long.MIN_VALUE, "source", new Date());
+
+        assertThat(header.hasNumber()).isTrue();
+        assertThat(header.getNumber()).isEqualTo(Long.MIN_VALUE);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link LatencyHistogram}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class LatencyHistogramTest {
+
+    private LatencyHistogram latencyHistogram;
+
+    @Before
+    public void setUp() throws Exception {
+        latencyHistogram = new LatencyHistogram("stage");
+    }
+
+    @Test
+    public void whenNoLatencyIsRecorded_ThenPercentilesShouldBeZero() throws Exception {
+        assertThat(latencyHistogram.getCount()).isEqualTo(0);
+        assertThat(latencyHistogram.getValueAtPercentile(99)).isEqualTo(0);
+        assertThat(latencyHistogram.getMaxValue()).isEqualTo(0);
+    }
+
+    @Test
+    public void smallLatenciesShouldBeRecordedExactly() throws Exception {
+        for (long i = 1; i <= 10; i++) {
+            latencyHistogram.recordValue(i);
+        }
+
+        assertThat(latencyHistogram.getCount()).isEqualTo(10);
+        assertThat(latencyHistogram.getValueAtPercentile(50)).isEqualTo(5);
+        assertThat(latencyHistogram.getValueAtPercentile(100)).isEqualTo(10);
+        assertThat(latencyHistogram.getMaxValue()).isEqualTo(10);
+    }
+
+    @Test
+    public void percentilesShouldBeAccurateWithinTheHistogramPrecision() throws Exception {
+        for (long i = 1; i <= 1000; i++) {
+            latencyHistogram.recordValue(i * 1000);
+        }
+
+        assertThat(latencyHistogram.getValueAtPercentile(50)).isBetween(500000L, 535000L);
+        assertThat(latencyHistogram.getValueAtPercentile(95)).isBetween(950000L, 1000000L);
+        assertThat(latencyHistogram.getValueAtPercentile(99)).isBetween(990000L, 1000000L);
+        assertThat(latencyHistogram.getMaxValue()).isEqualTo(1000000L);
+    }
+
+    @Test
+    public void veryLargeLatenciesShouldBeCountedInTheLastBucket() throws Exception {
+        latencyHistogram.recordValue(Long.MAX_VALUE);
+
+        assertThat(latencyHistogram.getCount()).isEqualTo(1);
+        assertThat(latencyHistogram.getValueAtPercentile(50)).isGreaterThan(1L << 40);
+    }
+
+    @Test
+    public void latenciesShouldBeFormattedInMilliseconds() throws Exception {
+        latencyHistogram.recordValue(1500000);
+
+        assertThat(latencyHistogram.getFormattedMax()).isEqualTo("1.500ms");
+        assertThat(latencyHistogram.toString()).startsWith("stage: p50 = ").endsWith("(1 samples)");
+    }
+}
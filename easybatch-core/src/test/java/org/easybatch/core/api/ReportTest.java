@@ -152,4 +152,36 @@ public class ReportTest {
         assertThat(report.toString()).doesNotContain("Result");
     }
 
+    @Test
+    public void theSnapshotShouldNotBeUpdatedWhenTheReportChanges() {
+        Report snapshot = report.snapshot();
+
+        report.incrementTotalSuccessRecord();
+        report.setStatus(Status.ABORTED);
+
+        assertThat(snapshot.getSuccessRecordsCount()).isEqualTo(2);
+        assertThat(snapshot.getErrorRecordsCount()).isEqualTo(2);
+        assertThat(snapshot.getTotalRecords()).isEqualTo(10);
+        assertThat(snapshot.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void theSnapshotStatisticsShouldNotBeUpdatedWhenTheReportChanges() {
+        StageStatistics stageStatistics = new StageStatistics("reading");
+        stageStatistics.addBusyTime(1000);
+        LatencyHistogram latencyHistogram = new LatencyHistogram("read");
+        latencyHistogram.recordValue(1000);
+        report.addStageStatistics(stageStatistics);
+        report.addLatencyHistogram(latencyHistogram);
+
+        Report snapshot = report.snapshot();
+
+        stageStatistics.addBusyTime(1000);
+        latencyHistogram.recordValue(2000);
+        assertThat(snapshot.getStageStatistics().get(0).getHandledItems()).isEqualTo(1);
+        assertThat(snapshot.getLatencyHistograms().get(0).getCount()).isEqualTo(1);
+        assertThat(snapshot.getLatencyHistograms().get(0).getMaxValue()).isEqualTo(1000);
+    }
+
 }
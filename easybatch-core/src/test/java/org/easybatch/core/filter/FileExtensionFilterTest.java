@@ -26,6 +26,7 @@ package org.easybatch.core.filter;
 
 import org.easybatch.core.api.Header;
 import org.easybatch.core.record.FileRecord;
+import org.easybatch.core.util.GlobPattern;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -68,4 +69,13 @@ public class FileExtensionFilterTest {
         assertThat(filter.filterRecord(mdRecord)).isFalse();
     }
 
+    @Test
+    public void theGlobPatternShouldMatchTheFilteredFileNames() {
+        GlobPattern glob = GlobPattern.compile(filter.getGlob());
+        assertThat(glob.matches("CHANGELOG.txt")).isTrue();
+        assertThat(glob.matches("pom.xml")).isTrue();
+        assertThat(glob.matches("README.md")).isFalse();
+        assertThat(glob.matches("txt")).isFalse();
+    }
+
 }
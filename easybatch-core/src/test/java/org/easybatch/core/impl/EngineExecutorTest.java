@@ -0,0 +1,179 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.Engine;
+import org.easybatch.core.api.Report;
+import org.easybatch.core.api.Status;
+import org.easybatch.core.reader.IterableRecordReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
+
+/**
+ * Test class for {@link EngineExecutor}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class EngineExecutorTest {
+
+    private EngineExecutor engineExecutor;
+
+    @Before
+    public void setUp() throws Exception {
+        engineExecutor = new EngineExecutor(2, false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        engineExecutor.shutdownNow();
+    }
+
+    @Test
+    public void whenEnginesAreSubmitted_ThenTheirReportsShouldBeAvailableThroughFutures() throws Exception {
+        Future<Report> future1 = engineExecutor.submit(newEngine(10));
+        Future<Report> future2 = engineExecutor.submit(newEngine(20));
+
+        assertThat(future1.get().getSuccessRecordsCount()).isEqualTo(10);
+        assertThat(future2.get().getSuccessRecordsCount()).isEqualTo(20);
+    }
+
+    @Test
+    public void whenAllEnginesAreCompleted_ThenTheCombinedReportShouldBeTheSumOfReports() throws Exception {
+        engineExecutor.submitAll(Arrays.asList(newEngine(10), newEngine(20), newEngine(30)));
+
+        Report report = engineExecutor.awaitCompletion();
+
+        assertThat(report.getTotalRecords()).isEqualTo(60);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(60);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getStartTime()).isGreaterThan(0);
+        assertThat(report.getEndTime()).isGreaterThanOrEqualTo(report.getStartTime());
+    }
+
+    @Test
+    public void theNumberOfEnginesRunningAtATimeShouldNotExceedTheConcurrencyLimit() throws Exception {
+        final AtomicInteger runningEngines = new AtomicInteger();
+        final AtomicInteger maxRunningEngines = new AtomicInteger();
+        List<Engine> engines = new ArrayList<Engine>();
+        for (int i = 0; i < 6; i++) {
+            engines.add(new StubEngine() {
+                @Override
+                public Report call() throws Exception {
+                    int running = runningEngines.incrementAndGet();
+                    synchronized (maxRunningEngines) {
+                        maxRunningEngines.set(Math.max(maxRunningEngines.get(), running));
+                    }
+                    Thread.sleep(20);
+                    runningEngines.decrementAndGet();
+                    return new Report();
+                }
+            });
+        }
+
+        engineExecutor.submitAll(engines);
+        engineExecutor.awaitCompletion();
+
+        assertThat(maxRunningEngines.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void whileEnginesAreRunning_ThenTheAggregatedReportShouldBeLive() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        engineExecutor.submit(newEngine(10));
+        engineExecutor.submit(new StubEngine() {
+            @Override
+            public Report call() throws Exception {
+                latch.await(5, TimeUnit.SECONDS);
+                return new Report();
+            }
+        });
+
+        while (engineExecutor.getReport().getSuccessRecordsCount() < 10) {
+            Thread.sleep(10);
+        }
+        Report report = engineExecutor.getReport();
+        latch.countDown();
+
+        assertThat(report.getStatus()).isEqualTo(Status.RUNNING);
+        assertThat(report.getEndTime()).isEqualTo(0);
+    }
+
+    @Test
+    public void whenAnEngineIsAborted_ThenTheCombinedReportStatusShouldBeAborted() throws Exception {
+        Engine abortedEngine = new StubEngine() {
+            @Override
+            public Report call() throws Exception {
+                Report report = new Report();
+                report.setStatus(Status.ABORTED);
+                return report;
+            }
+        };
+        engineExecutor.submitAll(Arrays.asList(newEngine(10), abortedEngine));
+
+        Report report = engineExecutor.awaitCompletion();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenTheConcurrencyLimitIsLowerThanOne_ThenShouldThrowAnIllegalArgumentException() throws Exception {
+        new EngineExecutor(0);
+    }
+
+    private Engine newEngine(int records) {
+        List<String> dataSource = new ArrayList<String>();
+        for (int i = 0; i < records; i++) {
+            dataSource.add("record" + i);
+        }
+        return aNewEngine().reader(new IterableRecordReader(dataSource)).build();
+    }
+
+    private abstract static class StubEngine implements Engine {
+
+        @Override
+        public String getName() {
+            return "stub-engine";
+        }
+
+        @Override
+        public String getExecutionId() {
+            return "stub-execution";
+        }
+    }
+}
@@ -25,6 +25,7 @@
 package org.easybatch.core.impl;
 
 import org.easybatch.core.api.*;
+import org.easybatch.core.api.event.EventManager;
 import org.easybatch.core.api.event.job.JobEventListener;
 import org.easybatch.core.api.event.step.*;
 import org.easybatch.core.api.handler.ErrorRecordHandler;
@@ -36,18 +37,25 @@ import org.easybatch.core.reader.IterableRecordReader;
 import org.easybatch.core.record.GenericRecord;
 import org.easybatch.core.record.StringRecord;
 import org.easybatch.core.util.Utils;
+import org.easybatch.core.writer.AbstractRecordWriter;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
+import java.io.File;
+import java.io.FileInputStream;
 import java.lang.management.ManagementFactory;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
@@ -95,6 +103,10 @@ public class EngineImplTest {
     @Mock
     private RecordProcessorEventListener recordProcessorEventListener;
     @Mock
+    private ChunkEventListener chunkEventListener;
+    @Mock
+    private BatchRecordWriter batchRecordWriter;
+    @Mock
     private FilteredRecordHandler filteredRecordHandler;
     @Mock
     private IgnoredRecordHandler ignoredRecordHandler;
@@ -386,6 +398,291 @@ public class EngineImplTest {
 
     }
 
+    /*
+     * Chunk mode tests
+     */
+
+    @Test
+    public void whenChunkModeIsEnabled_thenRecordsShouldBeWrittenByChunks() throws Exception {
+        List<String> dataSource = Arrays.asList("foo", "bar", "baz");
+
+        engine = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .writer(batchRecordWriter)
+                .chunkSize(2)
+                .chunkEventListener(chunkEventListener)
+                .build();
+
+        Report report = engine.call();
+
+        ArgumentCaptor<List> chunks = ArgumentCaptor.forClass(List.class);
+        verify(batchRecordWriter, times(2)).writeRecords(chunks.capture());
+        verify(batchRecordWriter, never()).processRecord(any());
+        assertThat(chunks.getAllValues().get(0)).hasSize(2);
+        assertThat(chunks.getAllValues().get(1)).hasSize(1);
+        verify(chunkEventListener, times(2)).beforeChunkWriting(anyList());
+        verify(chunkEventListener, times(2)).afterChunkWriting(anyList());
+        assertThat(report.getTotalRecords()).isEqualTo(3);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(3);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
+    @Test
+    public void whenChunkWritingFails_thenAllRecordsOfTheChunkShouldBeInError() throws Exception {
+        doThrow(recordProcessingException).when(batchRecordWriter).writeRecords(anyList());
+
+        engine = aNewEngine()
+                .reader(reader)
+                .writer(batchRecordWriter)
+                .chunkSize(2)
+                .errorRecordHandler(errorRecordHandler)
+                .chunkEventListener(chunkEventListener)
+                .build();
+
+        Report report = engine.call();
+
+        verify(errorRecordHandler).handle(record1, recordProcessingException);
+        verify(errorRecordHandler).handle(record2, recordProcessingException);
+        verify(chunkEventListener).onChunkWritingException(anyList(), eq(recordProcessingException));
+        assertThat(report.getErrorRecordsCount()).isEqualTo(2);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void whenABatchWriterReportsFailedRecords_thenOnlyTheseRecordsShouldBeInError() throws Exception {
+        Map<Integer, Exception> failures = new HashMap<Integer, Exception>();
+        failures.put(1, recordProcessingException);
+        ChunkWritingException chunkWritingException = new ChunkWritingException("failed", failures);
+        doThrow(chunkWritingException).when(batchRecordWriter).writeRecords(anyList());
+
+        Report report = aNewEngine()
+                .reader(reader)
+                .writer(batchRecordWriter)
+                .chunkSize(2)
+                .errorRecordHandler(errorRecordHandler)
+                .chunkEventListener(chunkEventListener)
+                .build().call();
+
+        verify(errorRecordHandler).handle(record2, recordProcessingException);
+        verify(errorRecordHandler, never()).handle(eq(record1), any(Throwable.class));
+        verify(chunkEventListener).onChunkWritingException(anyList(), eq(chunkWritingException));
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenTheEventManagerDoesNotFireChunkEvents_thenChunkEventListenersShouldBeRejected() throws Exception {
+        new EngineBuilder()
+                .eventManager(mock(EventManager.class))
+                .chunkEventListener(chunkEventListener);
+    }
+
+    @Test
+    public void whenChunkModeIsEnabledWithARegularWriter_thenEachRecordOfTheChunkShouldBeWritten() throws Exception {
+        engine = aNewEngine()
+                .reader(reader)
+                .processor(firstProcessor)
+                .chunkSize(5)
+                .build();
+
+        Report report = engine.call();
+
+        verify(firstProcessor).processRecord(record1);
+        verify(firstProcessor).processRecord(record2);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenWritingARecordOfAChunkFailsWithARegularWriter_thenOnlyThisRecordShouldBeInError() throws Exception {
+        when(firstProcessor.processRecord(record1)).thenThrow(recordProcessingException);
+
+        Report report = aNewEngine()
+                .reader(reader)
+                .processor(firstProcessor)
+                .chunkSize(5)
+                .errorRecordHandler(errorRecordHandler)
+                .chunkEventListener(chunkEventListener)
+                .build().call();
+
+        verify(errorRecordHandler).handle(record1, recordProcessingException);
+        verify(errorRecordHandler, never()).handle(eq(record2), any(Throwable.class));
+        verify(firstProcessor).processRecord(record2);
+        verify(chunkEventListener).onChunkWritingException(anyList(), eq(recordProcessingException));
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenChunkModeIsEnabled_thenAfterRecordProcessingShouldBeFiredOnceTheRecordIsWritten() throws Exception {
+        when(recordProcessorEventListener.beforeRecordProcessing(record1)).thenReturn(record1);
+        when(recordProcessorEventListener.beforeRecordProcessing(record2)).thenReturn(record2);
+
+        engine = aNewEngine()
+                .reader(reader)
+                .processor(firstProcessor)
+                .chunkSize(5)
+                .recordProcessorEventListener(recordProcessorEventListener)
+                .build();
+
+        engine.call();
+
+        InOrder inOrder = Mockito.inOrder(firstProcessor, recordProcessorEventListener);
+        inOrder.verify(firstProcessor).processRecord(record1);
+        inOrder.verify(recordProcessorEventListener).afterRecordProcessing(record1, null);
+        inOrder.verify(firstProcessor).processRecord(record2);
+        inOrder.verify(recordProcessorEventListener).afterRecordProcessing(record2, null);
+    }
+
+    /*
+     * Parallel processing tests
+     */
+
+    @Test
+    public void whenParallelProcessingIsEnabled_thenInputOrderShouldBePreservedAtTheWriter() throws Exception {
+        List<String> dataSource = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) {
+            dataSource.add("record" + i);
+        }
+        RecordListWriter writer = new RecordListWriter();
+
+        Report report = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .processor(new PayloadUpperCaser())
+                .writer(writer)
+                .processingThreads(4)
+                .maxRecordsInFlight(8)
+                .build().call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(100);
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(writer.getPayloads()).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(writer.getPayloads().get(i)).isEqualTo("RECORD" + i);
+        }
+    }
+
+    @Test
+    public void whenParallelProcessingIsEnabled_thenComputationalProcessorsShouldBeAppliedOnTheEngineThread() throws Exception {
+        List<String> dataSource = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) {
+            dataSource.add("record" + i);
+        }
+        RecordCollector<String> collector = new RecordCollector<String>();
+        RecordListWriter writer = new RecordListWriter();
+
+        Report report = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .processor(new PayloadUpperCaser())
+                .processor(collector)
+                .writer(writer)
+                .processingThreads(4)
+                .build().call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(100);
+        assertThat(collector.getComputationResult()).isEqualTo(writer.getPayloads());
+        for (int i = 0; i < 100; i++) {
+            assertThat(collector.getComputationResult().get(i)).isEqualTo("RECORD" + i);
+        }
+    }
+
+    @Test
+    public void whenParallelProcessingIsEnabledWithoutPreservingOrder_thenAllRecordsShouldBeWritten() throws Exception {
+        List<String> dataSource = Arrays.asList("foo", "bar", "baz");
+        RecordListWriter writer = new RecordListWriter();
+
+        Report report = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .processor(new PayloadUpperCaser())
+                .writer(writer)
+                .processingThreads(2)
+                .preserveOrder(false)
+                .build().call();
+
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(3);
+        assertThat(writer.getPayloads()).containsOnly("FOO", "BAR", "BAZ");
+    }
+
+    @Test
+    public void whenAProcessorFailsInParallelMode_thenTheErrorRecordHandlerShouldBeInvoked() throws Exception {
+        when(firstProcessor.processRecord(record1)).thenThrow(recordProcessingException);
+
+        Report report = aNewEngine()
+                .reader(reader)
+                .processor(firstProcessor)
+                .errorRecordHandler(errorRecordHandler)
+                .processingThreads(2)
+                .build().call();
+
+        verify(errorRecordHandler).handle(record1, recordProcessingException);
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenStrictModeIsEnabledInParallelMode_ThenTheEngineShouldAbortOnFirstProcessingException() throws Exception {
+        when(firstProcessor.processRecord(record1)).thenThrow(recordProcessingException);
+
+        Report report = aNewEngine()
+                .reader(reader)
+                .processor(firstProcessor)
+                .processingThreads(1)
+                .maxRecordsInFlight(1)
+                .strictMode(true)
+                .build().call();
+
+        assertThat(report.getErrorRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(0);
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+    }
+
+    @Test
+    public void whenLatencyTrackingIsEnabled_ThenLatencyHistogramsShouldBeReported() throws Exception {
+        List<String> dataSource = Arrays.asList("foo", "bar", "baz", "qux");
+
+        Report report = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .processor(new PayloadUpperCaser())
+                .latencySamplingRate(2)
+                .build().call();
+
+        List<LatencyHistogram> latencyHistograms = report.getLatencyHistograms();
+        assertThat(latencyHistograms).hasSize(6); // read, filter, map, validate and default + custom processors
+        assertThat(latencyHistograms.get(0).getName()).isEqualTo("read");
+        assertThat(latencyHistograms.get(0).getCount()).isEqualTo(2);
+        assertThat(latencyHistograms.get(5).getName()).isEqualTo("processor#2 (PayloadUpperCaser)");
+        assertThat(latencyHistograms.get(5).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenLatencyTrackingIsNotEnabled_ThenNoLatencyHistogramShouldBeReported() throws Exception {
+        Report report = aNewEngine()
+                .reader(reader)
+                .build().call();
+
+        assertThat(report.getLatencyHistograms()).isEmpty();
+    }
+
+    private static class PayloadUpperCaser implements RecordProcessor<GenericRecord, String> {
+        @Override
+        public String processRecord(GenericRecord record) throws RecordProcessingException {
+            return ((String) record.getPayload()).toUpperCase();
+        }
+    }
+
+    private static class RecordListWriter extends AbstractRecordWriter<String> {
+
+        private List<String> payloads = new ArrayList<String>();
+
+        @Override
+        protected void writeRecord(String record) throws RecordProcessingException {
+            payloads.add(record);
+        }
+
+        public List<String> getPayloads() {
+            return payloads;
+        }
+    }
+
     /*
      * Batch/Step event listeners tests
      */
@@ -531,4 +828,330 @@ public class EngineImplTest {
         verify(errorRecordHandler).handle(record1, runtimeException);
     }
 
+    @Test
+    public void whenTheExecutionIsAborted_thenTheLastCheckpointShouldBeKept() throws Exception {
+        File checkpoint = File.createTempFile("easybatch", ".checkpoint");
+        checkpoint.delete();
+        engine = new EngineBuilder()
+                .reader(new IterableRecordReader<String>(Arrays.asList("a", "b", "c", "d", "e")))
+                .processor(new FailingRecordProcessor("d"))
+                .strictMode(true)
+                .checkpoint(checkpoint)
+                .checkpointInterval(2)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        assertThat(checkpoint).exists();
+        Properties properties = new Properties();
+        FileInputStream inputStream = new FileInputStream(checkpoint);
+        properties.load(inputStream);
+        inputStream.close();
+        assertThat(properties.getProperty("recordNumber")).isEqualTo("2");
+        checkpoint.delete();
+    }
+
+    @Test
+    public void whenACheckpointExists_thenTheExecutionShouldResumeAfterTheCheckpointedRecord() throws Exception {
+        File checkpoint = File.createTempFile("easybatch", ".checkpoint");
+        checkpoint.delete();
+        List<String> dataSource = Arrays.asList("a", "b", "c", "d", "e");
+        new EngineBuilder()
+                .reader(new IterableRecordReader<String>(dataSource))
+                .processor(new FailingRecordProcessor("d"))
+                .strictMode(true)
+                .checkpoint(checkpoint)
+                .checkpointInterval(2)
+                .build()
+                .call();
+
+        RecordCollector<GenericRecord> recordCollector = new RecordCollector<GenericRecord>();
+        Report report = new EngineBuilder()
+                .reader(new IterableRecordReader<String>(dataSource))
+                .processor(recordCollector)
+                .checkpoint(checkpoint)
+                .checkpointInterval(2)
+                .build()
+                .call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getSkippedRecordsCount()).isEqualTo(2);
+        List<GenericRecord> records = recordCollector.getComputationResult();
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).getPayload()).isEqualTo("c");
+        assertThat(checkpoint).doesNotExist();
+    }
+
+    @Test
+    public void whenResumingFromAPosition_thenRecordsBeforeTheCheckpointShouldCountTowardsTheLimit() throws Exception {
+        File checkpoint = File.createTempFile("easybatch", ".checkpoint");
+        checkpoint.delete();
+        List<String> dataSource = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h");
+        new EngineBuilder()
+                .reader(new ResumableListRecordReader(dataSource))
+                .processor(new FailingRecordProcessor("e"))
+                .strictMode(true)
+                .checkpoint(checkpoint)
+                .checkpointInterval(2)
+                .build()
+                .call();
+
+        RecordCollector<GenericRecord> recordCollector = new RecordCollector<GenericRecord>();
+        Report report = new EngineBuilder()
+                .reader(new ResumableListRecordReader(dataSource))
+                .processor(recordCollector)
+                .limit(6)
+                .checkpoint(checkpoint)
+                .checkpointInterval(2)
+                .build()
+                .call();
+
+        List<GenericRecord> records = recordCollector.getComputationResult();
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getPayload()).isEqualTo("e");
+        assertThat(records.get(1).getHeader().getNumber()).isEqualTo(6);
+        assertThat(report.getSkippedRecordsCount()).isEqualTo(4);
+        assertThat(report.getTotalRecords()).isEqualTo(6);
+        checkpoint.delete();
+    }
+
+    @Test
+    public void theCurrentRecordNumberShouldOnlyBeUpdatedWithDefinedRecordNumbers() throws Exception {
+        when(header1.hasNumber()).thenReturn(true);
+        when(header1.getNumberValue()).thenReturn(1L);
+        when(header2.hasNumber()).thenReturn(false);
+
+        Report report = engine.call();
+
+        assertThat(report.getCurrentRecordNumber()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkpointIntervalMustBePositive() throws Exception {
+        new EngineBuilder().checkpointInterval(0);
+    }
+
+    @Test
+    public void whenRecordsAreCountedAsynchronously_thenTheEstimateShouldBeReportedUntilTheCountIsKnown() throws Exception {
+        final CountDownLatch countReleased = new CountDownLatch(1);
+        EstimableRecordReader estimableReader = mockEstimableReader();
+        when(estimableReader.getTotalRecords()).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                try {
+                    countReleased.await();
+                    return 20L;
+                } catch (InterruptedException e) {
+                    return null;
+                }
+            }
+        });
+        TotalRecordsRecorder totalRecordsRecorder = new TotalRecordsRecorder();
+        engine = new EngineBuilder()
+                .reader(estimableReader)
+                .processor(totalRecordsRecorder)
+                .enableJMX(true)
+                .recordCountingMode(RecordCountingMode.ASYNCHRONOUS)
+                .build();
+        totalRecordsRecorder.engine = (EngineImpl) engine;
+
+        try {
+            Report report = engine.call();
+
+            assertThat(totalRecordsRecorder.totalRecords).containsExactly(10L, 10L);
+            assertThat(report.getTotalRecords()).isEqualTo(2);
+            assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        } finally {
+            countReleased.countDown();
+        }
+    }
+
+    @Test
+    public void whenRecordsAreEstimated_thenRecordsShouldNotBeCounted() throws Exception {
+        EstimableRecordReader estimableReader = mockEstimableReader();
+        TotalRecordsRecorder totalRecordsRecorder = new TotalRecordsRecorder();
+        engine = new EngineBuilder()
+                .reader(estimableReader)
+                .processor(totalRecordsRecorder)
+                .enableJMX(true)
+                .recordCountingMode(RecordCountingMode.ESTIMATED)
+                .build();
+        totalRecordsRecorder.engine = (EngineImpl) engine;
+
+        Report report = engine.call();
+
+        assertThat(totalRecordsRecorder.totalRecords).containsExactly(10L, 10L);
+        assertThat(report.getTotalRecords()).isEqualTo(2);
+        verify(estimableReader, never()).getTotalRecords();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recordCountingModeShouldNotBeNull() throws Exception {
+        new EngineBuilder().recordCountingMode(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readersReusingRecordsShouldNotBeSupportedWithChunksOfMoreThanOneRecord() throws Exception {
+        aNewEngine()
+                .reader(mockReusingReader())
+                .chunkSize(2)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readersReusingRecordsShouldNotBeSupportedWithParallelProcessing() throws Exception {
+        aNewEngine()
+                .reader(mockReusingReader())
+                .processingThreads(1)
+                .build();
+    }
+
+    @Test
+    public void readersReusingRecordsShouldBeSupportedWithChunksOfOneRecord() throws Exception {
+        assertThat(aNewEngine()
+                .reader(mockReusingReader())
+                .chunkSize(1)
+                .build()).isNotNull();
+    }
+
+    @Test
+    public void whenTheReaderIsSeekable_thenSkippedRecordsShouldNotBeRead() throws Exception {
+        SeekableRecordReader seekableReader = mock(SeekableRecordReader.class);
+        when(seekableReader.seek(1)).thenReturn(true);
+        when(seekableReader.hasNextRecord()).thenReturn(true, false);
+        when(seekableReader.readNextRecord()).thenReturn(record2);
+        when(header2.getNumber()).thenReturn(2L);
+
+        Report report = new EngineBuilder()
+                .reader(seekableReader)
+                .skip(1)
+                .processor(firstProcessor)
+                .build().call();
+
+        InOrder inOrder = inOrder(seekableReader);
+        inOrder.verify(seekableReader).seek(1);
+        inOrder.verify(seekableReader).open();
+        verify(seekableReader, times(1)).readNextRecord();
+        verify(firstProcessor).processRecord(record2);
+        assertThat(report.getSkippedRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(1);
+        assertThat(report.getTotalRecords()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenTheReaderCannotSeek_thenSkippedRecordsShouldBeReadAndSkipped() throws Exception {
+        SeekableRecordReader seekableReader = mock(SeekableRecordReader.class);
+        when(seekableReader.seek(1)).thenReturn(false);
+        when(seekableReader.hasNextRecord()).thenReturn(true, true, false);
+        when(seekableReader.readNextRecord()).thenReturn(record1, record2);
+        when(header1.getNumber()).thenReturn(1L);
+        when(header2.getNumber()).thenReturn(2L);
+
+        Report report = new EngineBuilder()
+                .reader(seekableReader)
+                .skip(1)
+                .processor(firstProcessor)
+                .build().call();
+
+        verify(firstProcessor, never()).processRecord(record1);
+        verify(firstProcessor).processRecord(record2);
+        assertThat(report.getSkippedRecordsCount()).isEqualTo(1);
+    }
+
+    private TransientRecordReader mockReusingReader() {
+        TransientRecordReader reusingReader = mock(TransientRecordReader.class);
+        when(reusingReader.hasTransientRecords()).thenReturn(true);
+        when(reusingReader.isReusingRecords()).thenReturn(true);
+        return reusingReader;
+    }
+
+    private EstimableRecordReader mockEstimableReader() throws Exception {
+        EstimableRecordReader estimableReader = mock(EstimableRecordReader.class);
+        when(estimableReader.hasNextRecord()).thenReturn(true, true, false);
+        when(estimableReader.readNextRecord()).thenReturn(record1, record2);
+        when(estimableReader.estimateTotalRecords()).thenReturn(10L);
+        return estimableReader;
+    }
+
+    private static class TotalRecordsRecorder implements RecordProcessor<Record, Record> {
+
+        private EngineImpl engine;
+
+        private List<Long> totalRecords = new ArrayList<Long>();
+
+        @Override
+        public Record processRecord(final Record record) {
+            totalRecords.add(engine.getReport().getTotalRecords());
+            return record;
+        }
+    }
+
+    private static class ResumableListRecordReader implements ResumableRecordReader {
+
+        private List<String> dataSource;
+
+        private int index;
+
+        ResumableListRecordReader(final List<String> dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public String getCurrentPosition() {
+            return String.valueOf(index);
+        }
+
+        @Override
+        public void resumeFrom(final String position, final long recordNumber) {
+            index = Integer.parseInt(position);
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public boolean hasNextRecord() {
+            return index < dataSource.size();
+        }
+
+        @Override
+        public GenericRecord<String> readNextRecord() {
+            index++;
+            return new GenericRecord<String>(new Header((long) index, getDataSourceName(), new Date()), dataSource.get(index - 1));
+        }
+
+        @Override
+        public Long getTotalRecords() {
+            return null;
+        }
+
+        @Override
+        public String getDataSourceName() {
+            return "list";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class FailingRecordProcessor implements RecordProcessor<GenericRecord, GenericRecord> {
+
+        private String failingPayload;
+
+        FailingRecordProcessor(final String failingPayload) {
+            this.failingPayload = failingPayload;
+        }
+
+        @Override
+        public GenericRecord processRecord(final GenericRecord record) throws RecordProcessingException {
+            if (failingPayload.equals(record.getPayload())) {
+                throw new RecordProcessingException("Unable to process record " + record.getHeader().getNumber());
+            }
+            return record;
+        }
+    }
+
 }
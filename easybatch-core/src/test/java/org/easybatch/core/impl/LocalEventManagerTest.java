@@ -42,6 +42,8 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.easybatch.core.util.Utils.LINE_SEPARATOR;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -368,4 +370,23 @@ public class LocalEventManagerTest {
 
         assertThat(report.getRejectedRecordsCount()).isEqualTo(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenAListenerIsRegisteredTwice_ThenItShouldBeNotifiedOnce() {
+        localEventManager.addJobEventListener(jobEventListener1);
+
+        localEventManager.fireBeforeJobStart();
+
+        verify(jobEventListener1, times(1)).beforeJobStart();
+    }
+
+    @Test
+    public void whenNoListenerIsRegistered_ThenRecordsShouldBePassedThrough() {
+        localEventManager = new LocalEventManager();
+
+        assertThat(localEventManager.fireBeforeRecordFiltering(record)).isEqualTo(record);
+        assertThat(localEventManager.fireBeforeRecordMapping(record)).isEqualTo(record);
+        assertThat(localEventManager.fireBeforeRecordValidation(mappedRecord)).isEqualTo(mappedRecord);
+        assertThat(localEventManager.fireBeforeRecordProcessing(mappedRecord)).isEqualTo(mappedRecord);
+    }
+}
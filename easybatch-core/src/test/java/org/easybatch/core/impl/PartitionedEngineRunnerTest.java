@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.*;
+import org.easybatch.core.processor.RecordCollector;
+import org.easybatch.core.reader.IterableRecordReader;
+import org.easybatch.core.record.GenericRecord;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
+
+/**
+ * Test class for {@link PartitionedEngineRunner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class PartitionedEngineRunnerTest {
+
+    private static final List<String> DATA_SOURCE = Arrays.asList("a", "b", "c", "d", "e");
+
+    @Test
+    public void allPartitionsShouldBeProcessedAndReportsMerged() throws Exception {
+        Report report = new PartitionedEngineRunner(new ListPartitioner(), new CollectingEngineTemplate(), 3).call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(5);
+        List<String> payloads = new ArrayList<String>();
+        for (Object batchResult : (List<?>) report.getBatchResult()) {
+            for (Object record : (List<?>) batchResult) {
+                payloads.add((String) ((GenericRecord) record).getPayload());
+            }
+        }
+        assertThat(payloads).containsOnly("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    public void whenAPartitionIsAborted_thenTheMergedReportShouldBeAborted() throws Exception {
+        EngineTemplate engineTemplate = new EngineTemplate() {
+            @Override
+            public Engine createEngine(final RecordReader partitionReader, final int partition) {
+                return aNewEngine()
+                        .reader(partitionReader)
+                        .processor(new RecordProcessor<GenericRecord, GenericRecord>() {
+                            @Override
+                            public GenericRecord processRecord(final GenericRecord record) throws RecordProcessingException {
+                                if ("d".equals(record.getPayload())) {
+                                    throw new RecordProcessingException("Unable to process record d");
+                                }
+                                return record;
+                            }
+                        })
+                        .strictMode(true)
+                        .build();
+            }
+        };
+
+        Report report = new PartitionedEngineRunner(new ListPartitioner(), engineTemplate, 2, 1).call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void numberOfPartitionsMustBePositive() throws Exception {
+        new PartitionedEngineRunner(new ListPartitioner(), new CollectingEngineTemplate(), 0);
+    }
+
+    /*
+     * Splits the data source list into sub lists of (almost) equal size.
+     */
+    private static class ListPartitioner implements Partitioner {
+
+        @Override
+        public List<RecordReader> partition(final int partitions) {
+            List<RecordReader> readers = new ArrayList<RecordReader>();
+            int size = DATA_SOURCE.size();
+            for (int i = 0; i < partitions; i++) {
+                List<String> partition = DATA_SOURCE.subList(i * size / partitions, (i + 1) * size / partitions);
+                readers.add(new IterableRecordReader<String>(partition));
+            }
+            return readers;
+        }
+    }
+
+    private static class CollectingEngineTemplate implements EngineTemplate {
+
+        @Override
+        public Engine createEngine(final RecordReader partitionReader, final int partition) {
+            return aNewEngine()
+                    .named("partition-" + partition)
+                    .reader(partitionReader)
+                    .processor(new RecordCollector<GenericRecord>())
+                    .build();
+        }
+    }
+
+}
@@ -134,4 +134,18 @@ public class ProcessingPipelineTest {
 
         assertThat(processingPipeline.getLastProcessor()).isEqualTo(computationalRecordProcessor);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void chunksShouldBeWrittenWithAnEventManagerNotFiringChunkEvents() throws Exception {
+        processingPipeline = new ProcessingPipeline(asList(recordProcessor), errorRecordHandler, report, eventManager);
+        processingPipeline.setChunkSize(2);
+
+        processingPipeline.process(record, typedRecord);
+        boolean writingError = processingPipeline.writeChunk();
+
+        assertThat(writingError).isFalse();
+        verify(recordProcessor).processRecord(typedRecord);
+        verify(report).incrementTotalSuccessRecord();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.impl;
+
+import org.easybatch.core.api.*;
+import org.easybatch.core.api.handler.IgnoredRecordHandler;
+import org.easybatch.core.processor.RecordCollector;
+import org.easybatch.core.reader.IterableRecordReader;
+import org.easybatch.core.record.GenericRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link StagedEngineImpl}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@SuppressWarnings("unchecked")
+@RunWith(MockitoJUnitRunner.class)
+public class StagedEngineImplTest {
+
+    private List<String> dataSource;
+
+    @Mock
+    private RecordReader reader;
+    @Mock
+    private Record record1, record2;
+    @Mock
+    private Header header1, header2;
+    @Mock
+    private RecordMapper mapper;
+    @Mock
+    private RecordProcessor processor;
+    @Mock
+    private RecordReadingException recordReadingException;
+    @Mock
+    private RecordMappingException recordMappingException;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = new ArrayList<String>();
+        for (int i = 0; i < 50; i++) {
+            dataSource.add("record" + i);
+        }
+        when(record1.getHeader()).thenReturn(header1);
+        when(record2.getHeader()).thenReturn(header2);
+        when(mapper.mapRecord(record1)).thenReturn(record1);
+        when(mapper.mapRecord(record2)).thenReturn(record2);
+    }
+
+    @Test
+    public void allRecordsShouldBeProcessedInOrder() throws Exception {
+        Engine engine = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .processor(new RecordCollector<GenericRecord>())
+                .stagedExecution(true)
+                .stageQueueCapacity(4)
+                .build();
+
+        Report report = engine.call();
+
+        assertThat(report.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(report.getTotalRecords()).isEqualTo(50);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(50);
+        List<GenericRecord> records = (List<GenericRecord>) report.getBatchResult();
+        assertThat(records).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            assertThat(records.get(i).getPayload()).isEqualTo("record" + i);
+        }
+    }
+
+    @Test
+    public void eachStageShouldReportItsStatistics() throws Exception {
+        Report report = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .stagedExecution(true)
+                .build().call();
+
+        List<StageStatistics> stageStatistics = report.getStageStatistics();
+        assertThat(stageStatistics).hasSize(3);
+        assertThat(stageStatistics.get(0).getName()).isEqualTo("reader");
+        assertThat(stageStatistics.get(0).getHandledItems()).isEqualTo(50);
+        assertThat(stageStatistics.get(1).getName()).isEqualTo("mapper");
+        assertThat(stageStatistics.get(1).getHandledItems()).isEqualTo(50);
+        assertThat(stageStatistics.get(2).getName()).isEqualTo("processor");
+        assertThat(stageStatistics.get(2).getHandledItems()).isEqualTo(50);
+    }
+
+    @Test
+    public void recordsLimitShouldBeRespected() throws Exception {
+        Report report = aNewEngine()
+                .reader(new IterableRecordReader(dataSource))
+                .limit(10)
+                .stagedExecution(true)
+                .build().call();
+
+        assertThat(report.getTotalRecords()).isEqualTo(10);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(10);
+    }
+
+    @Test
+    public void whenNotAbleToReadNextRecord_thenRecordsAlreadyReadShouldBeProcessedAndTheEngineShouldAbortExecution() throws Exception {
+        when(reader.hasNextRecord()).thenReturn(true);
+        when(reader.readNextRecord()).thenReturn(record1).thenThrow(recordReadingException);
+
+        Report report = aNewEngine()
+                .reader(reader)
+                .processor(processor)
+                .stagedExecution(true)
+                .build().call();
+
+        verify(processor).processRecord(record1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(1);
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        verify(reader).close();
+    }
+
+    @Test
+    public void whenStrictModeIsEnabled_thenTheEngineShouldAbortOnFirstMappingException() throws Exception {
+        when(reader.hasNextRecord()).thenReturn(true, true, false);
+        when(reader.readNextRecord()).thenReturn(record1, record2);
+        when(mapper.mapRecord(record1)).thenThrow(recordMappingException);
+
+        Report report = aNewEngine()
+                .reader(reader)
+                .mapper(mapper)
+                .processor(processor)
+                .strictMode(true)
+                .stagedExecution(true)
+                .build().call();
+
+        assertThat(report.getIgnoredRecordsCount()).isEqualTo(1);
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(0);
+        assertThat(report.getStatus()).isEqualTo(Status.ABORTED);
+        verify(mapper, never()).mapRecord(record2);
+        verifyZeroInteractions(processor);
+    }
+
+    @Test(timeout = 10000)
+    public void whenAnUnexpectedExceptionOccursWhilePreparingRecords_thenItShouldBeThrownInsteadOfHanging() throws Exception {
+        IllegalStateException exception = new IllegalStateException("boom");
+        when(reader.hasNextRecord()).thenReturn(true, true, false);
+        when(reader.readNextRecord()).thenReturn(record1, record2);
+        when(mapper.mapRecord(record1)).thenThrow(recordMappingException);
+        IgnoredRecordHandler ignoredRecordHandler = mock(IgnoredRecordHandler.class);
+        doThrow(exception).when(ignoredRecordHandler).handle(record1, recordMappingException);
+
+        Engine engine = aNewEngine()
+                .reader(reader)
+                .mapper(mapper)
+                .ignoredRecordHandler(ignoredRecordHandler)
+                .processor(processor)
+                .stagedExecution(true)
+                .build();
+
+        try {
+            engine.call();
+            fail("the exception of the ignored record handler should be thrown");
+        } catch (IllegalStateException e) {
+            assertThat(e).isEqualTo(exception);
+        }
+        verify(reader).close();
+        verifyZeroInteractions(processor);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readersWithTransientRecordsShouldNotBeSupported() throws Exception {
+        TransientRecordReader transientRecordReader = mock(TransientRecordReader.class);
+        when(transientRecordReader.hasTransientRecords()).thenReturn(true);
+
+        aNewEngine()
+                .reader(transientRecordReader)
+                .stagedExecution(true)
+                .build();
+    }
+}
@@ -24,11 +24,15 @@
 
 package org.easybatch.core.reader;
 
+import org.easybatch.core.filter.FileExtensionFilter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.easybatch.core.util.Utils.FILE_SEPARATOR;
@@ -85,6 +89,55 @@ public class FileRecordReaderTest {
         fileRecordReader.open();
     }
 
+    @Test
+    public void filesShouldBeReadLazilyInDirectoryOrder() throws Exception {
+        File tree = createTree();
+        try {
+            fileRecordReader.close();
+            fileRecordReader = new FileRecordReader(tree);
+            fileRecordReader.open();
+
+            assertThat(readFileNames()).containsExactlyElementsOf(expectedFileNames(tree));
+            assertThat(fileRecordReader.getTotalRecords()).isEqualTo(5);
+        } finally {
+            delete(tree);
+        }
+    }
+
+    @Test
+    public void filesNotMatchingTheGlobPatternsShouldBeSkipped() throws Exception {
+        File tree = createTree();
+        try {
+            fileRecordReader.close();
+            fileRecordReader = new FileRecordReader(tree, "*.{csv,txt}");
+            fileRecordReader.setExcludedGlob(new FileExtensionFilter(Arrays.asList(".txt")).getGlob());
+            fileRecordReader.open();
+
+            assertThat(readFileNames()).containsOnly("a.csv", "c.csv");
+            assertThat(fileRecordReader.getTotalRecords()).isEqualTo(2);
+        } finally {
+            delete(tree);
+        }
+    }
+
+    @Test
+    public void subdirectoriesShouldBeWalkedInParallel() throws Exception {
+        File tree = createTree();
+        try {
+            fileRecordReader.close();
+            fileRecordReader = new FileRecordReader(tree);
+            fileRecordReader.setThreads(3);
+            fileRecordReader.open();
+
+            List<String> fileNames = readFileNames();
+            assertThat(fileNames).hasSize(5);
+            assertThat(fileNames).containsOnly(expectedFileNames(tree).toArray(new String[5]));
+            assertThat(fileRecordReader.hasNextRecord()).isFalse();
+        } finally {
+            delete(tree);
+        }
+    }
+
     /*
      * Empty directory tests
      */
@@ -105,4 +158,53 @@ public class FileRecordReaderTest {
         assertThat(fileRecordReader.getTotalRecords()).isEqualTo(0);
     }
 
+    /*
+     * a.csv, b.txt, sub/c.csv, sub/d.log, sub/deeper/e.txt
+     */
+    private File createTree() throws Exception {
+        File tree = File.createTempFile("tree", "");
+        tree.delete();
+        File deeper = new File(tree, "sub" + FILE_SEPARATOR + "deeper");
+        deeper.mkdirs();
+        new File(tree, "a.csv").createNewFile();
+        new File(tree, "b.txt").createNewFile();
+        new File(tree, "sub" + FILE_SEPARATOR + "c.csv").createNewFile();
+        new File(tree, "sub" + FILE_SEPARATOR + "d.log").createNewFile();
+        new File(deeper, "e.txt").createNewFile();
+        return tree;
+    }
+
+    /*
+     * Depth first, in the order of directory entries
+     */
+    private List<String> expectedFileNames(final File directory) {
+        List<String> fileNames = new ArrayList<String>();
+        for (File file : directory.listFiles()) {
+            if (file.isFile()) {
+                fileNames.add(file.getName());
+            } else {
+                fileNames.addAll(expectedFileNames(file));
+            }
+        }
+        return fileNames;
+    }
+
+    private List<String> readFileNames() {
+        List<String> fileNames = new ArrayList<String>();
+        while (fileRecordReader.hasNextRecord()) {
+            fileNames.add(fileRecordReader.readNextRecord().getPayload().getName());
+        }
+        return fileNames;
+    }
+
+    private void delete(final File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
 }
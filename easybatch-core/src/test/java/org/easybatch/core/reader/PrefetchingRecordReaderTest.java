@@ -0,0 +1,240 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.reader;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.RecordReaderOpeningException;
+import org.easybatch.core.api.RecordReadingException;
+import org.easybatch.core.api.TransientRecordReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link PrefetchingRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PrefetchingRecordReaderTest {
+
+    @Mock
+    private RecordReader delegate;
+
+    @Mock
+    private Record record;
+
+    private List<String> dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = new ArrayList<String>();
+        for (int i = 1; i <= 10; i++) {
+            dataSource.add("record " + i);
+        }
+    }
+
+    @Test
+    public void recordsShouldBeReadInOrder() throws Exception {
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(new ListRecordReader<String>(dataSource), 3);
+        prefetchingRecordReader.open();
+
+        for (int i = 1; i <= 10; i++) {
+            assertThat(prefetchingRecordReader.hasNextRecord()).isTrue();
+            Record record = prefetchingRecordReader.readNextRecord();
+            assertThat(record.getHeader().getNumber()).isEqualTo(i);
+            assertThat(record.getPayload()).isEqualTo("record " + i);
+        }
+        assertThat(prefetchingRecordReader.hasNextRecord()).isFalse();
+        assertThat(prefetchingRecordReader.hasNextRecord()).isFalse();
+        assertThat(prefetchingRecordReader.getMaxBufferedRecords()).isLessThanOrEqualTo(3);
+        prefetchingRecordReader.close();
+    }
+
+    @Test
+    public void recordsShouldBeReadAheadUpToTheBufferSize() throws Exception {
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(new ListRecordReader<String>(dataSource), 4);
+        prefetchingRecordReader.open();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (prefetchingRecordReader.getBufferedRecords() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(prefetchingRecordReader.getBufferedRecords()).isEqualTo(4);
+        assertThat(prefetchingRecordReader.getMaxBufferedRecords()).isEqualTo(4);
+        assertThat(prefetchingRecordReader.getBufferSize()).isEqualTo(4);
+        prefetchingRecordReader.close();
+    }
+
+    @Test
+    public void readingExceptionsShouldBeThrownInPlaceOfTheRecord() throws Exception {
+        RecordReadingException exception = new RecordReadingException("boom");
+        when(delegate.hasNextRecord()).thenReturn(true);
+        when(delegate.readNextRecord()).thenReturn(record).thenThrow(exception);
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(delegate, 10);
+        prefetchingRecordReader.open();
+
+        assertThat(prefetchingRecordReader.hasNextRecord()).isTrue();
+        assertThat(prefetchingRecordReader.readNextRecord()).isEqualTo(record);
+        assertThat(prefetchingRecordReader.hasNextRecord()).isTrue();
+        try {
+            prefetchingRecordReader.readNextRecord();
+            fail("the reading exception of the delegate reader should be thrown");
+        } catch (RecordReadingException e) {
+            assertThat(e).isEqualTo(exception);
+        }
+        assertThat(prefetchingRecordReader.hasNextRecord()).isFalse();
+        prefetchingRecordReader.close();
+        verify(delegate, times(2)).readNextRecord();
+    }
+
+    @Test
+    public void whenInterruptedWhileWaitingForRecords_thenTheNextReadShouldFail() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        when(delegate.hasNextRecord()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                latch.await();
+                return false;
+            }
+        });
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(delegate, 10);
+        prefetchingRecordReader.open();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(prefetchingRecordReader.hasNextRecord()).isTrue();
+            prefetchingRecordReader.readNextRecord();
+            fail("the interruption should be reported by a reading exception");
+        } catch (RecordReadingException e) {
+            assertThat(e.getCause()).isInstanceOf(InterruptedException.class);
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+            latch.countDown();
+            prefetchingRecordReader.close();
+        }
+    }
+
+    @Test
+    public void runtimeExceptionsShouldBeWrappedInReadingExceptions() throws Exception {
+        IllegalStateException exception = new IllegalStateException("boom");
+        when(delegate.hasNextRecord()).thenThrow(exception);
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(delegate, 10);
+        prefetchingRecordReader.open();
+
+        assertThat(prefetchingRecordReader.hasNextRecord()).isTrue();
+        try {
+            prefetchingRecordReader.readNextRecord();
+            fail("the runtime exception of the delegate reader should be thrown");
+        } catch (RecordReadingException e) {
+            assertThat(e.getCause()).isEqualTo(exception);
+        }
+        prefetchingRecordReader.close();
+    }
+
+    @Test
+    public void nullRecordsAndErrorsShouldEndPrefetchingWithAReadingException() throws Exception {
+        when(delegate.hasNextRecord()).thenReturn(true);
+        when(delegate.readNextRecord()).thenReturn(null);
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(delegate, 10);
+        prefetchingRecordReader.open();
+
+        assertThat(prefetchingRecordReader.hasNextRecord()).isTrue();
+        try {
+            prefetchingRecordReader.readNextRecord();
+            fail("a null record should be reported as a reading exception");
+        } catch (RecordReadingException e) {
+            assertThat(e.getMessage()).contains("null record");
+        }
+        assertThat(prefetchingRecordReader.hasNextRecord()).isFalse();
+        prefetchingRecordReader.close();
+
+        AssertionError error = new AssertionError("boom");
+        reset(delegate);
+        when(delegate.hasNextRecord()).thenThrow(error);
+        prefetchingRecordReader.open();
+
+        assertThat(prefetchingRecordReader.hasNextRecord()).isTrue();
+        try {
+            prefetchingRecordReader.readNextRecord();
+            fail("the error of the delegate reader should be thrown");
+        } catch (RecordReadingException e) {
+            assertThat(e.getCause()).isEqualTo(error);
+        }
+        prefetchingRecordReader.close();
+    }
+
+    @Test(expected = RecordReaderOpeningException.class)
+    public void readersWithTransientRecordsShouldNotBePrefetched() throws Exception {
+        TransientRecordReader transientRecordReader = mock(TransientRecordReader.class);
+        when(transientRecordReader.hasTransientRecords()).thenReturn(true);
+
+        new PrefetchingRecordReader(transientRecordReader).open();
+    }
+
+    @Test
+    public void closingTheReaderShouldStopPrefetchingAndCloseTheDelegateReader() throws Exception {
+        when(delegate.hasNextRecord()).thenReturn(true);
+        when(delegate.readNextRecord()).thenReturn(record);
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(delegate, 2);
+        prefetchingRecordReader.open();
+        assertThat(prefetchingRecordReader.readNextRecord()).isEqualTo(record);
+
+        prefetchingRecordReader.close();
+
+        verify(delegate).open();
+        verify(delegate).close();
+        assertThat(prefetchingRecordReader.getBufferedRecords()).isZero();
+    }
+
+    @Test
+    public void totalRecordsAndDataSourceNameShouldBeThoseOfTheDelegateReader() throws Exception {
+        when(delegate.getTotalRecords()).thenReturn(10L);
+        when(delegate.getDataSourceName()).thenReturn("delegate");
+        PrefetchingRecordReader prefetchingRecordReader = new PrefetchingRecordReader(delegate);
+
+        assertThat(prefetchingRecordReader.getTotalRecords()).isEqualTo(10L);
+        assertThat(prefetchingRecordReader.getDataSourceName()).isEqualTo("delegate");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bufferSizeShouldBePositive() throws Exception {
+        new PrefetchingRecordReader(delegate, 0);
+    }
+}
@@ -92,6 +92,20 @@ public class StringRecordReaderTest {
         assertThat(stringRecordReader.hasNextRecord()).isFalse();
     }
 
+    @Test
+    public void whenRecordsAreReused_ThenTheSameRecordInstanceShouldBeUpdatedForEachRecord() throws Exception {
+        stringRecordReader.setReuseRecords(true);
+
+        Record record1 = stringRecordReader.readNextRecord();
+        assertThat(record1.getHeader().getNumber()).isEqualTo(1l);
+        assertThat(record1.getPayload()).isEqualTo("foo");
+
+        Record record2 = stringRecordReader.readNextRecord();
+        assertThat(record2).isSameAs(record1);
+        assertThat(record2.getHeader().getNumber()).isEqualTo(2l);
+        assertThat(record2.getPayload()).isEqualTo("bar");
+    }
+
     @Test
     public void theDataSourceNameShouldBeEqualToInMemoryString() throws Exception {
         assertThat(stringRecordReader.getDataSourceName()).isEqualTo(EXPECTED_DATA_SOURCE_NAME);
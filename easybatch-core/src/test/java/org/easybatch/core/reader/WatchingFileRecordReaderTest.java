@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.reader;
+
+import org.easybatch.core.record.FileRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link WatchingFileRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class WatchingFileRecordReaderTest {
+
+    private File directory;
+
+    private WatchingFileRecordReader watchingFileRecordReader;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile("drop", "");
+        directory.delete();
+        directory.mkdir();
+        watchingFileRecordReader = new WatchingFileRecordReader(directory);
+        watchingFileRecordReader.setPollInterval(10);
+        watchingFileRecordReader.setStabilityDelay(50);
+        watchingFileRecordReader.setIdleTimeout(500);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        watchingFileRecordReader.close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void filesPresentWhenOpeningTheReaderShouldBeRead() throws Exception {
+        write("a.csv", "a");
+        watchingFileRecordReader.open();
+
+        assertThat(watchingFileRecordReader.hasNextRecord()).isTrue();
+        FileRecord record = watchingFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(1);
+        assertThat(record.getPayload().getName()).isEqualTo("a.csv");
+    }
+
+    @Test
+    public void droppedFilesShouldBeReadOnceUntilTheIdleTimeout() throws Exception {
+        watchingFileRecordReader.open();
+        dropLater("b.csv", 100);
+
+        long start = System.currentTimeMillis();
+        assertThat(watchingFileRecordReader.hasNextRecord()).isTrue();
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(100);
+        assertThat(watchingFileRecordReader.readNextRecord().getPayload().getName()).isEqualTo("b.csv");
+
+        // the file is still in the directory but has already been read
+        assertThat(watchingFileRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void filesBeingWrittenShouldNotBeReadBeforeTheyAreStable() throws Exception {
+        watchingFileRecordReader.setStabilityDelay(300);
+        write("c.csv", "c");
+        watchingFileRecordReader.open();
+
+        long start = System.currentTimeMillis();
+        assertThat(watchingFileRecordReader.hasNextRecord()).isTrue();
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(300);
+    }
+
+    @Test
+    public void filesNotMatchingTheGlobPatternShouldBeIgnored() throws Exception {
+        watchingFileRecordReader.setGlob("*.csv");
+        watchingFileRecordReader.setIdleTimeout(200);
+        write("d.tmp", "d");
+        write("e.csv", "e");
+        watchingFileRecordReader.open();
+
+        assertThat(watchingFileRecordReader.hasNextRecord()).isTrue();
+        assertThat(watchingFileRecordReader.readNextRecord().getPayload().getName()).isEqualTo("e.csv");
+        assertThat(watchingFileRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void stoppingTheReaderShouldStopWaitingForFiles() throws Exception {
+        watchingFileRecordReader.setIdleTimeout(0);
+        watchingFileRecordReader.open();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sleep(100);
+                watchingFileRecordReader.stop();
+            }
+        }).start();
+
+        assertThat(watchingFileRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void totalRecordsShouldBeUnknown() throws Exception {
+        assertThat(watchingFileRecordReader.getTotalRecords()).isNull();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenTheDirectoryDoesNotExist_ThenShouldThrowAnIllegalArgumentException() throws Exception {
+        directory.delete();
+        watchingFileRecordReader.open();
+    }
+
+    private void dropLater(final String name, final long delay) {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sleep(delay);
+                try {
+                    write(name, name);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }).start();
+    }
+
+    private void write(final String name, final String content) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(new File(directory, name));
+        outputStream.write(content.getBytes("UTF-8"));
+        outputStream.close();
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
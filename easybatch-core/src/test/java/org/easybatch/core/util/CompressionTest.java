@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link Compression}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class CompressionTest {
+
+    private static final String CONTENT = "foo\nbar\n";
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("compressed", ".bin");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+    @Test
+    public void gzipFilesShouldBeDetectedAndDecompressed() throws Exception {
+        write(gzip(CONTENT));
+
+        assertThat(Compression.detect(file)).isEqualTo(Compression.GZIP);
+        assertThat(read(Compression.open(file))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void zipEntriesShouldBeReadOneAfterTheOther() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ZipOutputStream zipOutputStream = new ZipOutputStream(bytes);
+        zipOutputStream.putNextEntry(new ZipEntry("dir/"));
+        zipOutputStream.closeEntry();
+        zipOutputStream.putNextEntry(new ZipEntry("dir/foo.txt"));
+        zipOutputStream.write("foo\n".getBytes("UTF-8"));
+        zipOutputStream.closeEntry();
+        zipOutputStream.putNextEntry(new ZipEntry("bar.txt"));
+        zipOutputStream.write("bar\n".getBytes("UTF-8"));
+        zipOutputStream.closeEntry();
+        zipOutputStream.close();
+        write(bytes.toByteArray());
+
+        assertThat(Compression.detect(file)).isEqualTo(Compression.ZIP);
+        assertThat(read(Compression.open(file))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void deflateFilesShouldNotBeDetectedButDecompressedExplicitly() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(bytes);
+        deflaterOutputStream.write(CONTENT.getBytes("UTF-8"));
+        deflaterOutputStream.close();
+        write(bytes.toByteArray());
+
+        assertThat(Compression.detect(file)).isNull();
+        assertThat(read(Compression.DEFLATE.decompress(new FileInputStream(file)))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void textsStartingLikeAZlibHeaderShouldNotBeDetectedAsCompressed() throws Exception {
+        write("x^2 + y^2".getBytes("UTF-8"));
+
+        assertThat(Compression.detect(file)).isNull();
+        assertThat(read(Compression.open(file))).isEqualTo("x^2 + y^2");
+    }
+
+    @Test
+    public void uncompressedFilesShouldBeReadAsIs() throws Exception {
+        write(CONTENT.getBytes("UTF-8"));
+
+        assertThat(Compression.detect(file)).isNull();
+        assertThat(read(Compression.open(file))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void emptyFilesShouldNotBeDetectedAsCompressed() throws Exception {
+        assertThat(Compression.detect(file)).isNull();
+        assertThat(read(Compression.open(file))).isEmpty();
+    }
+
+    @Test
+    public void compressedInputStreamsShouldBeAutomaticallyDecompressed() throws Exception {
+        assertThat(read(Compression.autoDecompress(new ByteArrayInputStream(gzip(CONTENT))))).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void uncompressedInputStreamsShouldBeReadAsIs() throws Exception {
+        assertThat(read(Compression.autoDecompress(new ByteArrayInputStream(CONTENT.getBytes("UTF-8"))))).isEqualTo(CONTENT);
+        assertThat(read(Compression.autoDecompress(new ByteArrayInputStream("x".getBytes("UTF-8"))))).isEqualTo("x");
+    }
+
+    static byte[] gzip(final String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(bytes);
+        gzipOutputStream.write(content.getBytes("UTF-8"));
+        gzipOutputStream.close();
+        return bytes.toByteArray();
+    }
+
+    static String read(final InputStream inputStream) throws IOException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[7];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toString("UTF-8");
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private void write(final byte[] bytes) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(bytes);
+        outputStream.close();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link GlobPattern}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class GlobPatternTest {
+
+    @Test
+    public void wildcardsShouldMatchAnyCharacters() throws Exception {
+        GlobPattern glob = GlobPattern.compile("data-?.*");
+
+        assertThat(glob.matches("data-1.csv")).isTrue();
+        assertThat(glob.matches("data-1.")).isTrue();
+        assertThat(glob.matches("data-12.csv")).isFalse();
+        assertThat(glob.matches("data-1")).isFalse();
+    }
+
+    @Test
+    public void groupsShouldMatchOneOfTheirSubPatterns() throws Exception {
+        GlobPattern glob = GlobPattern.compile("*.{csv,txt}");
+
+        assertThat(glob.matches("a.csv")).isTrue();
+        assertThat(glob.matches("a.txt")).isTrue();
+        assertThat(glob.matches("a.xml")).isFalse();
+        assertThat(glob.matches("acsv")).isFalse();
+    }
+
+    @Test
+    public void characterSetsShouldMatchOneCharacter() throws Exception {
+        GlobPattern glob = GlobPattern.compile("part-[0-9][!a].log");
+
+        assertThat(glob.matches("part-1b.log")).isTrue();
+        assertThat(glob.matches("part-1a.log")).isFalse();
+        assertThat(glob.matches("part-xb.log")).isFalse();
+    }
+
+    @Test
+    public void specialCharactersShouldBeMatchedLiterally() throws Exception {
+        assertThat(GlobPattern.compile("a+b(1)^$.txt").matches("a+b(1)^$.txt")).isTrue();
+        assertThat(GlobPattern.compile("\\*.txt").matches("*.txt")).isTrue();
+        assertThat(GlobPattern.compile("\\*.txt").matches("a.txt")).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unclosedGroupsShouldBeRejected() throws Exception {
+        GlobPattern.compile("*.{csv,txt");
+    }
+}
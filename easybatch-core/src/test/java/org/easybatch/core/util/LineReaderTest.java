@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.core.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link LineReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class LineReaderTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void allLineTerminatorsShouldBeRecognized() throws Exception {
+        LineReader lineReader = lineReader("a\nb\r\nc\rd", 64);
+
+        assertThat(lineReader.readLine()).isEqualTo("a");
+        assertThat(lineReader.readLine()).isEqualTo("b");
+        assertThat(lineReader.readLine()).isEqualTo("c");
+        assertThat(lineReader.readLine()).isEqualTo("d");
+        assertThat(lineReader.hasNextLine()).isFalse();
+        assertThat(lineReader.readLine()).isNull();
+    }
+
+    @Test
+    public void nextLineStartShouldBeTheFirstLineStartingAtOrAfterTheOffset() throws Exception {
+        File file = File.createTempFile("lines", ".txt");
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write("ab\r\ncd\ne".getBytes("UTF-8"));
+        outputStream.close();
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            assertThat(LineReader.nextLineStart(channel, 0)).isEqualTo(0);
+            assertThat(LineReader.nextLineStart(channel, 1)).isEqualTo(4);
+            // in the middle of "\r\n"
+            assertThat(LineReader.nextLineStart(channel, 3)).isEqualTo(4);
+            assertThat(LineReader.nextLineStart(channel, 4)).isEqualTo(4);
+            assertThat(LineReader.nextLineStart(channel, 5)).isEqualTo(7);
+            assertThat(LineReader.nextLineStart(channel, 7)).isEqualTo(7);
+        } finally {
+            channel.close();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void linesLargerThanTheBufferShouldBeRead() throws Exception {
+        LineReader lineReader = lineReader("first line\r\nsecond line\r\n", 3);
+
+        assertThat(lineReader.readLine()).isEqualTo("first line");
+        assertThat(lineReader.readLine()).isEqualTo("second line");
+        assertThat(lineReader.hasNextLine()).isFalse();
+    }
+
+    @Test
+    public void positionShouldBeTheByteOffsetOfTheNextLine() throws Exception {
+        LineReader lineReader = lineReader("é\r\nb\n", 2);
+
+        assertThat(lineReader.getPosition()).isEqualTo(0);
+        assertThat(lineReader.readLine()).isEqualTo("é");
+        assertThat(lineReader.getPosition()).isEqualTo(4);
+        assertThat(lineReader.readLine()).isEqualTo("b");
+        assertThat(lineReader.getPosition()).isEqualTo(6);
+    }
+
+    @Test
+    public void emptyLinesShouldBeRead() throws Exception {
+        LineReader lineReader = lineReader("\n\na", 64);
+
+        assertThat(lineReader.readLine()).isEmpty();
+        assertThat(lineReader.readLine()).isEmpty();
+        assertThat(lineReader.readLine()).isEqualTo("a");
+    }
+
+    @Test
+    public void charsetsNotEncodingLineTerminatorsAsAsciiShouldNotBeSupported() throws Exception {
+        assertThat(LineReader.supports(UTF_8)).isTrue();
+        assertThat(LineReader.supports(Charset.forName("UTF-16"))).isFalse();
+    }
+
+    @Test
+    public void skippedLinesShouldAdvanceThePosition() throws Exception {
+        LineReader lineReader = lineReader("first\nsecond\r\nthird", 4);
+
+        assertThat(lineReader.skipLine()).isTrue();
+        assertThat(lineReader.skipLine()).isTrue();
+        assertThat(lineReader.getPosition()).isEqualTo(14);
+        assertThat(lineReader.readLine()).isEqualTo("third");
+        assertThat(lineReader.skipLine()).isFalse();
+    }
+
+    @Test
+    public void nonAsciiCharactersShouldBeDecoded() throws Exception {
+        Charset latin1 = Charset.forName("ISO-8859-1");
+        LineReader utf8Reader = lineReader("café\nnaïve", 64);
+        LineReader latin1Reader = new LineReader(Channels.newChannel(new ByteArrayInputStream("café\nnaïve".getBytes(latin1))), latin1, 64, 0);
+
+        assertThat(utf8Reader.readLine()).isEqualTo("café");
+        assertThat(utf8Reader.readLine()).isEqualTo("naïve");
+        assertThat(latin1Reader.readLine()).isEqualTo("café");
+        assertThat(latin1Reader.readLine()).isEqualTo("naïve");
+    }
+
+    @Test
+    public void unsupportedCharsetsShouldBeDecodedWithoutPosition() throws Exception {
+        Charset utf16 = Charset.forName("UTF-16");
+        LineReader lineReader = new LineReader(Channels.newChannel(new ByteArrayInputStream("a\r\nbé".getBytes(utf16))), utf16, 2, 0);
+
+        assertThat(lineReader.readLine()).isEqualTo("a");
+        assertThat(lineReader.readLine()).isEqualTo("bé");
+        assertThat(lineReader.hasNextLine()).isFalse();
+        assertThat(lineReader.getPosition()).isEqualTo(LineReader.UNKNOWN_POSITION);
+    }
+
+    @Test
+    public void linesShouldBeReadFromCharacterStreams() throws Exception {
+        LineReader lineReader = new LineReader(new StringReader("a\r\nb\rc"), 1);
+
+        assertThat(lineReader.readLine()).isEqualTo("a");
+        assertThat(lineReader.readLine()).isEqualTo("b");
+        assertThat(lineReader.readLine()).isEqualTo("c");
+        assertThat(lineReader.readLine()).isNull();
+    }
+
+    @Test
+    public void linesShouldBeCountedAsTheyAreRead() throws Exception {
+        assertThat(countLines("a\nb\r\nc\rd", 2)).isEqualTo(4);
+        assertThat(countLines("a\r\n\r\n", 1)).isEqualTo(2);
+        assertThat(countLines("\n", 8)).isEqualTo(1);
+        assertThat(countLines("", 8)).isEqualTo(0);
+    }
+
+    private long countLines(final String input, final int bufferSize) throws Exception {
+        return LineReader.countLines(Channels.newChannel(new ByteArrayInputStream(input.getBytes(UTF_8))), bufferSize);
+    }
+
+    private LineReader lineReader(final String input, final int bufferSize) {
+        return new LineReader(Channels.newChannel(new ByteArrayInputStream(input.getBytes(UTF_8))), UTF_8, bufferSize, 0);
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.easybatch.core.util.CompressionTest.gzip;
+import static org.easybatch.core.util.CompressionTest.read;
+
+/**
+ * Test class for {@link ParallelGzipInputStream}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class ParallelGzipInputStreamTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("parallel", ".gz");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+    @Test
+    public void membersShouldBeDecompressedInOrder() throws Exception {
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < 20; i++) {
+            String content = "member " + i + "\n";
+            expected.append(content);
+            bytes.write(gzip(content));
+        }
+        write(bytes.toByteArray());
+
+        assertThat(read(new ParallelGzipInputStream(file, 3, 4))).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void largeMembersShouldBeDecompressedByTheReadingThread() throws Exception {
+        String content = randomContent(200000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(gzip(content));
+        bytes.write(gzip(content));
+        write(bytes.toByteArray());
+
+        assertThat(read(new ParallelGzipInputStream(file, 2, 1024))).isEqualTo(content + content);
+    }
+
+    @Test
+    public void singleMemberFilesShouldNotBeSearchedEntirelyBeforeTheFirstRead() throws Exception {
+        String content = randomContent(400000);
+        write(gzip(content));
+        long size = file.length();
+
+        ParallelGzipInputStream inputStream = new ParallelGzipInputStream(file, 4, 1024);
+        try {
+            assertThat(inputStream.read()).isEqualTo('0');
+            assertThat(size).isGreaterThan(4 * 1024 * 1024);
+            assertThat(inputStream.getSearchOffset()).isLessThan(1024 * 1024);
+        } finally {
+            inputStream.close();
+        }
+        assertThat(read(new ParallelGzipInputStream(file, 4, 1024))).isEqualTo(content);
+    }
+
+    @Test
+    public void dataFollowingTheLastMemberShouldBeIgnored() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(gzip("foo\n"));
+        bytes.write("trailing data".getBytes("UTF-8"));
+        write(bytes.toByteArray());
+
+        assertThat(read(new ParallelGzipInputStream(file, 2, 1024))).isEqualTo("foo\n");
+    }
+
+    @Test
+    public void emptyFilesShouldBeEmpty() throws Exception {
+        assertThat(read(new ParallelGzipInputStream(file))).isEmpty();
+    }
+
+    @Test
+    public void corruptMembersShouldBeRejected() throws Exception {
+        byte[] bytes = gzip("foo\n");
+        // corrupt the crc of the member
+        bytes[bytes.length - 8] ^= 1;
+        write(bytes);
+
+        try {
+            read(new ParallelGzipInputStream(file, 2, 1024));
+            fail("corrupt gzip member should be rejected");
+        } catch (IOException e) {
+            assertThat(e.getMessage()).contains("Corrupt gzip member");
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void threadsNumberShouldBePositive() throws Exception {
+        new ParallelGzipInputStream(file, 0, 1024);
+    }
+
+    private String randomContent(final int lines) {
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            content.append(i).append(',').append(random.nextLong()).append('\n');
+        }
+        return content.toString();
+    }
+
+    private void write(final byte[] bytes) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(bytes);
+        outputStream.close();
+    }
+}
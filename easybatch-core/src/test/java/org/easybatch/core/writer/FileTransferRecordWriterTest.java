@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.core.writer;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.ChunkWritingException;
+import org.easybatch.core.record.FileRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for {@link FileTransferRecordWriter}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FileTransferRecordWriterTest {
+
+    private File sourceDirectory, targetDirectory;
+
+    private FileTransferRecordWriter fileTransferRecordWriter;
+
+    @Before
+    public void setUp() throws Exception {
+        sourceDirectory = createDirectory("source");
+        targetDirectory = createDirectory("target");
+        fileTransferRecordWriter = new FileTransferRecordWriter(targetDirectory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(sourceDirectory);
+        delete(targetDirectory);
+    }
+
+    @Test
+    public void filesShouldBeCopiedToTheTargetDirectory() throws Exception {
+        FileRecord record = record("a.csv", "a,b,c");
+
+        assertThat(fileTransferRecordWriter.processRecord(record)).isEqualTo(record);
+
+        assertThat(read(new File(targetDirectory, "a.csv"))).isEqualTo("a,b,c");
+        assertThat(record.getPayload()).exists();
+    }
+
+    @Test
+    public void filesShouldBeMovedToTheTargetDirectory() throws Exception {
+        fileTransferRecordWriter.setMove(true);
+        FileRecord record = record("a.csv", "a,b,c");
+
+        fileTransferRecordWriter.processRecord(record);
+
+        assertThat(read(new File(targetDirectory, "a.csv"))).isEqualTo("a,b,c");
+        assertThat(record.getPayload()).doesNotExist();
+    }
+
+    @Test
+    public void existingFilesShouldBeReplacedAtomically() throws Exception {
+        fileTransferRecordWriter.setAtomic(true);
+        write(new File(targetDirectory, "a.csv"), "old content");
+
+        fileTransferRecordWriter.processRecord(record("a.csv", "new content"));
+
+        assertThat(read(new File(targetDirectory, "a.csv"))).isEqualTo("new content");
+        assertThat(targetDirectory.list()).containsOnly("a.csv");
+    }
+
+    @Test
+    public void filesOfAChunkShouldBeTransferredInParallel() throws Exception {
+        fileTransferRecordWriter.setThreads(4);
+        List<FileRecord> records = new ArrayList<FileRecord>();
+        for (int i = 0; i < 20; i++) {
+            records.add(record("file" + i, "content " + i));
+        }
+
+        fileTransferRecordWriter.writeRecords(records);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(read(new File(targetDirectory, "file" + i))).isEqualTo("content " + i);
+        }
+    }
+
+    @Test
+    public void filesOfAChunkWithTheSameNameShouldBeTransferredInOrder() throws Exception {
+        fileTransferRecordWriter.setThreads(4);
+        fileTransferRecordWriter.setAtomic(true);
+        File otherSourceDirectory = createDirectory("other");
+        try {
+            File otherFile = new File(otherSourceDirectory, "a.csv");
+            write(otherFile, "other content");
+            FileRecord other = new FileRecord(new Header(2l, otherSourceDirectory.getAbsolutePath(), new Date()), otherFile);
+
+            fileTransferRecordWriter.writeRecords(Arrays.asList(record("a.csv", "content"), record("b.csv", "b"), other));
+
+            assertThat(read(new File(targetDirectory, "a.csv"))).isEqualTo("other content");
+            assertThat(targetDirectory.list()).containsOnly("a.csv", "b.csv");
+        } finally {
+            delete(otherSourceDirectory);
+        }
+    }
+
+    @Test
+    public void failedTransfersShouldBeReportedOnceTheChunkIsTransferred() throws Exception {
+        fileTransferRecordWriter.setThreads(2);
+        FileRecord missing = new FileRecord(new Header(2l, "dir", new Date()), new File(sourceDirectory, "missing"));
+
+        try {
+            fileTransferRecordWriter.writeRecords(Arrays.asList(record("a", "a"), missing, record("b", "b")));
+            fail("the transfer of a missing file should fail");
+        } catch (ChunkWritingException e) {
+            assertThat(e.getFailures().keySet()).containsOnly(1);
+            assertThat(e.getFailures().get(1).getMessage()).contains("missing");
+        }
+        assertThat(targetDirectory.list()).containsOnly("a", "b");
+    }
+
+    @Test
+    public void failedTransfersShouldNotStopTheTransferOfTheChunkWithASingleThread() throws Exception {
+        fileTransferRecordWriter.setMove(true);
+        FileRecord missing = new FileRecord(new Header(1l, "dir", new Date()), new File(sourceDirectory, "missing"));
+
+        try {
+            fileTransferRecordWriter.writeRecords(Arrays.asList(missing, record("a", "a")));
+            fail("the transfer of a missing file should fail");
+        } catch (ChunkWritingException e) {
+            assertThat(e.getFailures().keySet()).containsOnly(0);
+        }
+        assertThat(targetDirectory.list()).containsOnly("a");
+        assertThat(sourceDirectory.list()).isEmpty();
+    }
+
+    private FileRecord record(final String name, final String content) throws IOException {
+        File file = new File(sourceDirectory, name);
+        write(file, content);
+        return new FileRecord(new Header(1l, sourceDirectory.getAbsolutePath(), new Date()), file);
+    }
+
+    private File createDirectory(final String prefix) throws IOException {
+        File directory = File.createTempFile(prefix, "");
+        directory.delete();
+        directory.mkdir();
+        return directory;
+    }
+
+    private void write(final File file, final String content) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(content.getBytes("UTF-8"));
+        outputStream.close();
+    }
+
+    private String read(final File file) throws IOException {
+        byte[] content = new byte[(int) file.length()];
+        DataInputStream inputStream = new DataInputStream(new FileInputStream(file));
+        inputStream.readFully(content);
+        inputStream.close();
+        return new String(content, "UTF-8");
+    }
+
+    private void delete(final File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+}
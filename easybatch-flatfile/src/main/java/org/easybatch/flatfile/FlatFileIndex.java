@@ -0,0 +1,239 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import java.io.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * An index of line offsets of a flat file, sampled every {@code interval} lines.
+ * <p/>
+ * The index is saved in a sidecar file next to the flat file (see {@link #sidecarFileOf(File)}) by
+ * {@link FlatFileIndexBuilder}. When the sidecar file is up to date, {@link FlatFileRecordReader} uses it to count
+ * records and to seek to a record number, and {@link FlatFilePartitioner} uses it to create partitions with the same
+ * number of records.
+ * <p/>
+ * Offsets are stored as variable-length deltas, which takes 2 or 3 bytes per sampled line for usual line lengths.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FlatFileIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(FlatFileIndex.class.getName());
+
+    /**
+     * The extension of sidecar index files.
+     */
+    public static final String EXTENSION = ".idx";
+
+    private static final int MAGIC = 0x45424958;
+
+    private static final byte VERSION = 1;
+
+    private final long fileLength;
+
+    private final long fileLastModified;
+
+    private final int interval;
+
+    private final long totalRecords;
+
+    /**
+     * offsets[i] is the offset of record number i * interval + 1.
+     */
+    private final long[] offsets;
+
+    FlatFileIndex(final long fileLength, final long fileLastModified, final int interval, final long totalRecords, final long[] offsets) {
+        this.fileLength = fileLength;
+        this.fileLastModified = fileLastModified;
+        this.interval = interval;
+        this.totalRecords = totalRecords;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Get the sidecar index file of a flat file.
+     *
+     * @param input the flat file
+     * @return the index file, with the name of the flat file followed by {@value #EXTENSION}
+     */
+    public static File sidecarFileOf(final File input) {
+        checkNotNull(input, "input");
+        return new File(input.getPath() + EXTENSION);
+    }
+
+    /**
+     * Load an index from a file.
+     *
+     * @param indexFile the index file
+     * @return the index
+     * @throws IOException if the index file cannot be read or is not a valid index file
+     */
+    public static FlatFileIndex load(final File indexFile) throws IOException {
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+        try {
+            if (inputStream.readInt() != MAGIC || inputStream.readByte() != VERSION) {
+                throw new IOException(indexFile.getName() + " is not a valid flat file index");
+            }
+            long fileLength = inputStream.readLong();
+            long fileLastModified = inputStream.readLong();
+            int interval = inputStream.readInt();
+            long totalRecords = inputStream.readLong();
+            long[] offsets = new long[inputStream.readInt()];
+            long offset = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                offset += readVarLong(inputStream);
+                offsets[i] = offset;
+            }
+            return new FlatFileIndex(fileLength, fileLastModified, interval, totalRecords, offsets);
+        } catch (EOFException e) {
+            throw new IOException(indexFile.getName() + " is not a valid flat file index: " + e.getMessage());
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Load the sidecar index of a flat file if it exists and is up to date.
+     *
+     * @return the index or null if there is no usable index
+     */
+    static FlatFileIndex loadSidecar(final File input) {
+        File indexFile = sidecarFileOf(input);
+        if (!indexFile.exists()) {
+            return null;
+        }
+        try {
+            FlatFileIndex index = load(indexFile);
+            if (index.isUpToDate(input)) {
+                return index;
+            }
+            LOGGER.log(Level.INFO, "Index file {0} is out of date, ignoring it", indexFile.getAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to load index file " + indexFile.getAbsolutePath() + ", ignoring it", e);
+        }
+        return null;
+    }
+
+    /**
+     * Save the index in a file.
+     *
+     * @param indexFile the index file
+     * @throws IOException if the index file cannot be written
+     */
+    public void save(final File indexFile) throws IOException {
+        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+        try {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeByte(VERSION);
+            outputStream.writeLong(fileLength);
+            outputStream.writeLong(fileLastModified);
+            outputStream.writeInt(interval);
+            outputStream.writeLong(totalRecords);
+            outputStream.writeInt(offsets.length);
+            long previous = 0;
+            for (long offset : offsets) {
+                writeVarLong(outputStream, offset - previous);
+                previous = offset;
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Check if the index has been built for the current version of a flat file.
+     *
+     * @param input the flat file
+     * @return true if the length and last modification date of the file did not change since the index was built
+     */
+    public boolean isUpToDate(final File input) {
+        return input.length() == fileLength && input.lastModified() == fileLastModified;
+    }
+
+    /**
+     * @return the number of records of the indexed file
+     */
+    public long getTotalRecords() {
+        return totalRecords;
+    }
+
+    /**
+     * @return the number of lines between two sampled lines
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the number of the closest sampled record at or before a record.
+     *
+     * @param recordNumber the record number, starting from 1
+     * @return the number of the sampled record
+     */
+    public long getSampledRecordNumber(final long recordNumber) {
+        checkArgument(recordNumber >= 1, "record number must be greater than or equal to 1");
+        long sample = Math.min((recordNumber - 1) / interval, offsets.length - 1);
+        return sample * interval + 1;
+    }
+
+    /**
+     * Get the byte offset of the closest sampled record at or before a record (see {@link #getSampledRecordNumber(long)}).
+     *
+     * @param recordNumber the record number, starting from 1
+     * @return the byte offset of the sampled record
+     */
+    public long getSampledOffset(final long recordNumber) {
+        return offsets[(int) ((getSampledRecordNumber(recordNumber) - 1) / interval)];
+    }
+
+    /*
+     * Unsigned LEB128 encoding: 7 bits per byte, the high bit is set when more bytes follow.
+     */
+    private static void writeVarLong(final DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long readVarLong(final DataInput input) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import org.easybatch.core.util.Compression;
+import org.easybatch.core.util.LineReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * Builds the {@link FlatFileIndex} of a flat file and saves it in its sidecar index file.
+ * <p/>
+ * Only charsets encoding line terminators as in ASCII (UTF-8 or ISO-8859 charsets for example) are supported.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FlatFileIndexBuilder {
+
+    /**
+     * The default number of lines between two sampled lines.
+     */
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private File input;
+
+    private Charset charset;
+
+    private int interval = DEFAULT_INTERVAL;
+
+    private File indexFile;
+
+    /**
+     * Create a flat file index builder using the default charset.
+     *
+     * @param input the flat file to index
+     */
+    public FlatFileIndexBuilder(final File input) {
+        this(input, Charset.defaultCharset().name());
+    }
+
+    /**
+     * Create a flat file index builder.
+     *
+     * @param input       the flat file to index
+     * @param charsetName the encoding of the file
+     */
+    public FlatFileIndexBuilder(final File input, final String charsetName) {
+        checkNotNull(input, "input");
+        this.charset = Charset.forName(charsetName);
+        checkArgument(LineReader.supports(charset), "Charset " + charsetName + " is not supported by the flat file index builder");
+        this.input = input;
+        this.indexFile = FlatFileIndex.sidecarFileOf(input);
+    }
+
+    /**
+     * Set the number of lines between two sampled lines (1000 by default).
+     * Smaller intervals mean faster seeks and larger index files.
+     *
+     * @param interval the sampling interval
+     * @return the index builder
+     */
+    public FlatFileIndexBuilder interval(final int interval) {
+        checkArgument(interval >= 1, "interval parameter must be greater than or equal to 1");
+        this.interval = interval;
+        return this;
+    }
+
+    /**
+     * Set the file in which the index is saved (the sidecar index file by default, see {@link FlatFileIndex#sidecarFileOf(File)}).
+     * Readers only use sidecar index files.
+     *
+     * @param indexFile the index file
+     * @return the index builder
+     */
+    public FlatFileIndexBuilder indexFile(final File indexFile) {
+        checkNotNull(indexFile, "index file");
+        this.indexFile = indexFile;
+        return this;
+    }
+
+    /**
+     * Read the flat file, build its index and save it.
+     *
+     * @return the index
+     * @throws IOException if the flat file cannot be read, is compressed or modified while being indexed, or if the index
+     *                     cannot be saved
+     */
+    public FlatFileIndex build() throws IOException {
+        if (Compression.detect(input) != null) {
+            throw new IOException("Compressed file " + input.getName() + " cannot be indexed");
+        }
+        long length = input.length();
+        long lastModified = input.lastModified();
+        long[] offsets = new long[16];
+        int samples = 0;
+        long records = 0;
+        LineReader lineReader = new LineReader(new FileInputStream(input).getChannel(), charset, BUFFER_SIZE);
+        try {
+            long position = lineReader.getPosition();
+            while (lineReader.skipLine()) {
+                if (records % interval == 0) {
+                    if (samples == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, samples * 2);
+                    }
+                    offsets[samples++] = position;
+                }
+                records++;
+                position = lineReader.getPosition();
+            }
+        } finally {
+            lineReader.close();
+        }
+        if (input.length() != length || input.lastModified() != lastModified) {
+            throw new IOException("File " + input.getName() + " has been modified while being indexed");
+        }
+        FlatFileIndex index = new FlatFileIndex(length, lastModified, interval, records, Arrays.copyOf(offsets, samples));
+        index.save(indexFile);
+        return index;
+    }
+
+}
@@ -46,4 +46,14 @@ public class FlatFileMultiRecordReader extends AbstractMultiRecordReader {
         super(chunkSize, new FlatFileRecordReader(file));
     }
 
+    /**
+     * Constructs a flat file multi-record reader reading a memory mapped file.
+     *
+     * @param reader the memory mapped flat file reader to read records from
+     * @param chunkSize the number of records to read at a time
+     */
+    public FlatFileMultiRecordReader(final MappedFlatFileRecordReader reader, final int chunkSize) {
+        super(chunkSize, reader);
+    }
+
 }
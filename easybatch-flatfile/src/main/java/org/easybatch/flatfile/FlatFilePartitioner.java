@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.PartitioningException;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.util.Compression;
+import org.easybatch.core.util.LineReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A {@link Partitioner} that splits a flat file into byte ranges of (almost) equal size, aligned on line boundaries.
+ * <p/>
+ * Each partition is read by a {@link FlatFileRecordReader} reading lines starting in its byte range.
+ * Record numbers restart from 1 in each partition.
+ * <p/>
+ * When the file has an up to date sidecar index (see {@link FlatFileIndexBuilder}), partitions are aligned on indexed
+ * lines so that they have (almost) the same number of records, without reading the file.
+ * <p/>
+ * In memory mapped mode, partitions are read by {@link MappedFlatFileRecordReader}s instead, each one scanning its
+ * segments with a single thread since partitions are already read in parallel.
+ * <p/>
+ * Only charsets encoding line terminators as in ASCII (UTF-8 or ISO-8859 charsets for example) are supported.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FlatFilePartitioner implements Partitioner {
+
+    private File input;
+
+    private String charsetName;
+
+    private boolean memoryMapped;
+
+    /**
+     * Create a flat file partitioner using the default charset.
+     *
+     * @param input the input file
+     */
+    public FlatFilePartitioner(final File input) {
+        this(input, Charset.defaultCharset().name());
+    }
+
+    /**
+     * Create a flat file partitioner.
+     *
+     * @param input       the input file
+     * @param charsetName the encoding of the file
+     */
+    public FlatFilePartitioner(final File input, final String charsetName) {
+        checkNotNull(input, "input");
+        checkArgument(LineReader.supports(Charset.forName(charsetName)), "Charset " + charsetName + " is not supported by the flat file partitioner");
+        this.input = input;
+        this.charsetName = charsetName;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) throws PartitioningException {
+        checkArgument(partitions >= 1, "The number of partitions should be greater than or equal to 1");
+        List<RecordReader> readers = new ArrayList<RecordReader>();
+        try {
+            if (Compression.detect(input) != null) {
+                throw new PartitioningException("Compressed file " + input.getName() + " cannot be partitioned");
+            }
+            FlatFileIndex index = FlatFileIndex.loadSidecar(input);
+            FileChannel channel = new FileInputStream(input).getChannel();
+            try {
+                long size = channel.size();
+                long start = 0;
+                for (int i = 1; i <= partitions && start < size; i++) {
+                    long end;
+                    if (i == partitions) {
+                        end = size;
+                    } else if (index != null) {
+                        end = index.getSampledOffset(index.getTotalRecords() * i / partitions + 1);
+                    } else {
+                        end = LineReader.nextLineStart(channel, size * i / partitions);
+                    }
+                    if (end > start) {
+                        readers.add(newReader(start, end));
+                        start = end;
+                    }
+                }
+            } finally {
+                channel.close();
+            }
+        } catch (FileNotFoundException e) {
+            throw new PartitioningException("Unable to find file " + input.getName(), e);
+        } catch (IOException e) {
+            throw new PartitioningException("Unable to partition file " + input.getName(), e);
+        }
+        return readers;
+    }
+
+    private RecordReader newReader(final long start, final long end) throws FileNotFoundException {
+        if (memoryMapped) {
+            MappedFlatFileRecordReader reader = new MappedFlatFileRecordReader(input, charsetName);
+            reader.setRange(start, end);
+            reader.setThreads(1);
+            return reader;
+        }
+        FlatFileRecordReader reader = new FlatFileRecordReader(input, charsetName);
+        reader.setRange(start, end);
+        return reader;
+    }
+
+    /**
+     * Read partitions with {@link MappedFlatFileRecordReader}s instead of {@link FlatFileRecordReader}s.
+     *
+     * @param memoryMapped true to map partitions in memory
+     */
+    public void setMemoryMapped(final boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+}
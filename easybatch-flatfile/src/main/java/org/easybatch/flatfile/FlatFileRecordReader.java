@@ -24,31 +24,61 @@
 
 package org.easybatch.flatfile;
 
-import org.easybatch.core.api.Header;
-import org.easybatch.core.api.RecordReader;
-import org.easybatch.core.api.RecordReaderOpeningException;
+import org.easybatch.core.api.*;
 import org.easybatch.core.record.StringRecord;
+import org.easybatch.core.util.Compression;
+import org.easybatch.core.util.LineReader;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
-import java.util.Date;
-import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static org.easybatch.core.util.Utils.checkArgument;
+
 /**
  * A {@link RecordReader} implementation that read data from a flat file.
  * <p/>
  * This reader produces {@link StringRecord} instances.
+ * <p/>
+ * Lines are read with a {@link LineReader}. For charsets encoding line terminators as in ASCII (UTF-8 or ISO-8859
+ * charsets for example), this reader keeps track of the byte offset of the next line and can resume reading from this
+ * offset (see {@link ResumableRecordReader}).
+ * <p/>
+ * The total number of records is counted once for a given version of the file and can be estimated from the size of
+ * the file (see {@link EstimableRecordReader}).
+ * <p/>
+ * When the file has an up to date sidecar index (see {@link FlatFileIndexBuilder}), the total number of records is
+ * read from the index and seeking to a record (see {@link SeekableRecordReader}) starts from the closest indexed line.
+ * Without index, seeking skips lines without decoding them nor creating records.
+ * <p/>
+ * Gzip and zip files are decompressed while being read (see {@link Compression}). Positions, indexes and
+ * estimates are not available for compressed files, which are read from the beginning.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class FlatFileRecordReader implements RecordReader {
+public class FlatFileRecordReader implements ResumableRecordReader, EstimableRecordReader, SeekableRecordReader, TransientRecordReader {
 
     private static final Logger LOGGER = Logger.getLogger(FlatFileRecordReader.class.getName());
 
+    /**
+     * Lines are counted with a larger buffer than the one used to read them: counting is limited by I/O only.
+     */
+    private static final int COUNT_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * The number of bytes sampled at the beginning of the file to estimate the number of records.
+     */
+    private static final int ESTIMATE_SAMPLE_SIZE = 64 * 1024;
+
     /**
      * The current read record number.
      */
@@ -65,16 +95,56 @@ public class FlatFileRecordReader implements RecordReader {
     private String charsetName;
 
     /**
-     * Scanner to read input file.
+     * The input file absolute path, computed once instead of for each record.
+     */
+    private String dataSourceName;
+
+    /**
+     * Line reader to read input file.
+     */
+    private LineReader lineReader;
+
+    /**
+     * The size of the read buffer.
      */
-    private Scanner scanner;
+    private int bufferSize = LineReader.DEFAULT_BUFFER_SIZE;
 
     /**
-     * A second scanner used to calculate the number of records in the input file.
-     * The main scanner may be used instead but since the {@link Scanner} class does not have a method to rewind it to the
-     * beginning of the file ( {@link java.util.Scanner#reset()} does not rewind the scanner), another scanner instance is needed.
+     * The byte offset to start reading from (when resuming or reading a partition) and the number of the last record
+     * read before this offset.
      */
-    private Scanner recordCounterScanner;
+    private long startOffset;
+
+    private long startRecordNumber;
+
+    /**
+     * The number of lines to skip after the start offset when seeking to a record.
+     */
+    private long linesToSkip;
+
+    /**
+     * The byte offset where to stop reading (when reading a partition).
+     */
+    private long endOffset = Long.MAX_VALUE;
+
+    /**
+     * The total number of records, with the length and last modification date of the file when it was counted.
+     */
+    private Long totalRecords;
+
+    private long countedLength;
+
+    private long countedLastModified;
+
+    /**
+     * Reuse the same record instance for each record.
+     */
+    private boolean reuseRecords;
+
+    /**
+     * The reused record instance (flyweight mode).
+     */
+    private StringRecord reusableRecord;
 
     /**
      * Constructs a flat file record reader.
@@ -96,44 +166,104 @@ public class FlatFileRecordReader implements RecordReader {
     public FlatFileRecordReader(final File input, final String charsetName) throws FileNotFoundException {
         this.input = input;
         this.charsetName = charsetName;
+        this.dataSourceName = input.getAbsolutePath();
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StringRecord readNextRecord() throws RecordReadingException {
+        String line = nextLine();
+        if (reuseRecords && reusableRecord != null) {
+            reusableRecord.getHeader().update(++currentRecordNumber, System.currentTimeMillis());
+            reusableRecord.setPayload(line);
+            return reusableRecord;
+        }
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        StringRecord record = new StringRecord(header, line);
+        if (reuseRecords) {
+            reusableRecord = record;
+        }
+        return record;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public StringRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
-        return new StringRecord(header, scanner.nextLine());
+    public synchronized Long getTotalRecords() {
+        if (endOffset != Long.MAX_VALUE) {
+            // unknown without reading the partition
+            return null;
+        }
+        long length = input.length();
+        long lastModified = input.lastModified();
+        if (totalRecords != null && length == countedLength && lastModified == countedLastModified) {
+            return totalRecords;
+        }
+        FlatFileIndex index = loadIndex();
+        try {
+            totalRecords = index != null ? index.getTotalRecords() : countRecords();
+            countedLength = length;
+            countedLastModified = lastModified;
+        } catch (IOException e) {
+            // the engine interrupts the thread counting records in background once records are read
+            if (!Thread.currentThread().isInterrupted()) {
+                LOGGER.log(Level.SEVERE, "Unable to calculate total records number", e);
+            }
+            return null;
+        }
+        return totalRecords;
     }
 
     /**
      * {@inheritDoc}
+     * <p/>
+     * The number of records is estimated from the length of lines in the first 64KB of the file (or partition),
+     * which is exact for smaller files. The estimate is not available for charsets not supported by {@link LineReader}.
      */
     @Override
-    public Long getTotalRecords() {
-        long totalRecords = 0;
+    public Long estimateTotalRecords() {
+        Charset charset = Charset.forName(charsetName);
+        if (!LineReader.supports(charset)) {
+            return null;
+        }
+        FileChannel channel = null;
         try {
-            recordCounterScanner = new Scanner(new FileInputStream(input), charsetName);
-            while (recordCounterScanner.hasNextLine()) {
-                totalRecords++;
-                recordCounterScanner.nextLine();
+            if (isCompressed()) {
+                return null;
             }
-        } catch (FileNotFoundException e) {
-            LOGGER.log(Level.SEVERE, "Unable to calculate total records number", e);
+            channel = new FileInputStream(input).getChannel();
+            long size = Math.min(channel.size(), endOffset) - startOffset;
+            if (size <= 0) {
+                return 0L;
+            }
+            ByteBuffer sample = ByteBuffer.allocate((int) Math.min(size, ESTIMATE_SAMPLE_SIZE));
+            while (sample.hasRemaining() && channel.read(sample, startOffset + sample.position()) != -1) {
+                // read until the sample is full
+            }
+            sample.flip();
+            int sampleSize = sample.limit();
+            long sampleLines = LineReader.countLines(Channels.newChannel(new ByteArrayInputStream(sample.array(), 0, sampleSize)), Math.max(1, sampleSize));
+            return sampleSize == size ? sampleLines : Math.round((double) size * sampleLines / sampleSize);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to estimate total records number", e);
             return null;
         } finally {
-            if (recordCounterScanner != null) {
-                recordCounterScanner.close();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Unable to close file " + input.getName(), e);
+                }
             }
         }
-        return totalRecords;
     }
 
     @Override
     public String getDataSourceName() {
-        return input.getAbsolutePath();
+        return dataSourceName;
     }
 
     /**
@@ -141,11 +271,23 @@ public class FlatFileRecordReader implements RecordReader {
      */
     @Override
     public void open() throws RecordReaderOpeningException {
-        currentRecordNumber = 0;
+        currentRecordNumber = startRecordNumber;
+        reusableRecord = null;
         try {
-            scanner = new Scanner(new FileInputStream(input), charsetName);
+            if (isCompressed()) {
+                lineReader = new LineReader(openChannel(), Charset.forName(charsetName), bufferSize, LineReader.UNKNOWN_POSITION);
+            } else {
+                FileChannel channel = new FileInputStream(input).getChannel();
+                channel.position(startOffset);
+                lineReader = new LineReader(channel, Charset.forName(charsetName), bufferSize, startOffset);
+            }
+            for (long i = 0; i < linesToSkip && lineReader.skipLine(); i++) {
+                // skip lines between the start offset and the record to seek to
+            }
         } catch (FileNotFoundException e) {
             throw new RecordReaderOpeningException("Unable to find file " + input.getName(), e);
+        } catch (IOException e) {
+            throw new RecordReaderOpeningException("Unable to open file " + input.getName(), e);
         }
     }
 
@@ -154,17 +296,190 @@ public class FlatFileRecordReader implements RecordReader {
      */
     @Override
     public boolean hasNextRecord() {
-        return scanner.hasNextLine();
+        try {
+            return lineReader.getPosition() < endOffset && lineReader.hasNextLine();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An exception occurred while checking the existence of next line", e);
+            return false;
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void close() {
-        if (scanner != null) {
-            scanner.close();
+    public String getCurrentPosition() {
+        if (lineReader == null || lineReader.getPosition() == LineReader.UNKNOWN_POSITION) {
+            return null;
         }
+        return String.valueOf(lineReader.getPosition());
+    }
+
+    /**
+     * Resume reading from a byte offset in the input file.
+     *
+     * @param position     the byte offset of the next line to read
+     * @param recordNumber the number of the last record read before this offset
+     */
+    @Override
+    public void resumeFrom(final String position, final long recordNumber) {
+        this.startOffset = Long.parseLong(position);
+        this.startRecordNumber = recordNumber;
+        this.linesToSkip = 0;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Seeking is not supported when reading a partition, since record numbers restart from 1 in each partition.
+     */
+    @Override
+    public boolean seek(final long recordNumber) {
+        if (endOffset != Long.MAX_VALUE) {
+            return false;
+        }
+        FlatFileIndex index = loadIndex();
+        if (index == null) {
+            startOffset = 0;
+            linesToSkip = recordNumber;
+        } else if (recordNumber >= index.getTotalRecords()) {
+            startOffset = input.length();
+            linesToSkip = 0;
+        } else {
+            startOffset = index.getSampledOffset(recordNumber + 1);
+            linesToSkip = recordNumber + 1 - index.getSampledRecordNumber(recordNumber + 1);
+        }
+        startRecordNumber = recordNumber;
+        return true;
+    }
+
+    /**
+     * Read only lines starting in the given byte range (used by {@link FlatFilePartitioner}).
+     * Both offsets must be at the beginning of a line.
+     */
+    void setRange(final long startOffset, final long endOffset) {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.dataSourceName = input.getAbsolutePath() + " (bytes " + startOffset + " to " + endOffset + ")";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws RecordReaderClosingException {
+        if (lineReader != null) {
+            try {
+                lineReader.close();
+            } catch (IOException e) {
+                throw new RecordReaderClosingException("Unable to close file " + input.getName(), e);
+            }
+        }
+    }
+
+    private String nextLine() throws RecordReadingException {
+        try {
+            return lineReader.readLine();
+        } catch (IOException e) {
+            throw new RecordReadingException("Unable to read next line from file " + input.getName(), e);
+        }
+    }
+
+    /*
+     * Byte offsets of the index are meaningless for charsets not supported by the line reader.
+     */
+    private FlatFileIndex loadIndex() {
+        if (!LineReader.supports(Charset.forName(charsetName))) {
+            return null;
+        }
+        try {
+            return isCompressed() ? null : FlatFileIndex.loadSidecar(input);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to read file " + input.getName(), e);
+            return null;
+        }
+    }
+
+    private boolean isCompressed() throws IOException {
+        return input.exists() && Compression.detect(input) != null;
+    }
+
+    /*
+     * Compressed files are decompressed on the fly.
+     */
+    private ReadableByteChannel openChannel() throws IOException {
+        if (isCompressed()) {
+            return Channels.newChannel(Compression.open(input));
+        }
+        return new FileInputStream(input).getChannel();
+    }
+
+    /*
+     * Lines are counted at the byte level for supported charsets, and by skipping lines otherwise.
+     */
+    private long countRecords() throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        ReadableByteChannel channel = openChannel();
+        if (LineReader.supports(charset)) {
+            try {
+                return LineReader.countLines(channel, COUNT_BUFFER_SIZE);
+            } finally {
+                channel.close();
+            }
+        }
+        long records = 0;
+        LineReader recordCounter = new LineReader(channel, charset, bufferSize);
+        try {
+            while (recordCounter.skipLine()) {
+                records++;
+            }
+        } finally {
+            closeQuietly(recordCounter);
+        }
+        return records;
+    }
+
+    private void closeQuietly(final LineReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to close file " + input.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Set the size of the read buffer (64KB by default). Larger buffers mean fewer reads from the file system.
+     *
+     * @param bufferSize the buffer size in bytes
+     */
+    public void setBufferSize(final int bufferSize) {
+        checkArgument(bufferSize >= 1, "buffer size parameter must be greater than or equal to 1");
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Reuse the same record instance for each record instead of creating a new one (flyweight mode).
+     * <p/>
+     * This mode reduces allocations when reading large data sources, but a record must not be referenced
+     * once the next record is read: it can not be used with chunks of more than one record, parallel or staged
+     * processing (the engine builder rejects these configurations), nor with processors or listeners keeping
+     * references to records.
+     *
+     * @param reuseRecords true to reuse the same record instance for each record
+     */
+    public void setReuseRecords(final boolean reuseRecords) {
+        this.reuseRecords = reuseRecords;
+    }
+
+    @Override
+    public boolean hasTransientRecords() {
+        return reuseRecords;
+    }
+
+    @Override
+    public boolean isReusingRecords() {
+        return reuseRecords;
+    }
 }
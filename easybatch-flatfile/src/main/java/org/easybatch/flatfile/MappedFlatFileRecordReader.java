@@ -0,0 +1,632 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import org.easybatch.core.api.*;
+import org.easybatch.core.record.StringRecord;
+import org.easybatch.core.util.Compression;
+import org.easybatch.core.util.LineReader;
+import org.easybatch.core.util.NamedThreadFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A {@link RecordReader} implementation that reads a flat file by mapping it in memory, segment by segment.
+ * <p/>
+ * Upcoming segments are split into lines and decoded in parallel by a pool of scanner threads while lines of the
+ * current segment are read, so that reading large files is not bound to a single core. Each segment holds the lines
+ * starting in it. Records are still returned in file order, as {@link StringRecord} instances with the same payloads
+ * as {@link FlatFileRecordReader}: this reader can be used with {@link DelimitedRecordMapper},
+ * {@link FixedLengthRecordMapper} or {@link FlatFileMultiRecordReader}.
+ * <p/>
+ * To process segments of the file with parallel engines, use a {@link FlatFilePartitioner} in memory mapped mode.
+ * <p/>
+ * Only charsets encoding line terminators as in ASCII (UTF-8 or ISO-8859 charsets for example) are supported.
+ * Mapped segments are released by the garbage collector, not when the reader is closed.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class MappedFlatFileRecordReader implements ResumableRecordReader, TransientRecordReader {
+
+    private static final Logger LOGGER = Logger.getLogger(MappedFlatFileRecordReader.class.getName());
+
+    /**
+     * The default size of mapped segments: 1MB.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final byte LF = '\n';
+
+    private static final byte CR = '\r';
+
+    /**
+     * Bytes mapped after a segment to read its last line (more bytes are mapped if the line is longer).
+     */
+    private static final int LOOKAHEAD = 64 * 1024;
+
+    private File input;
+
+    private Charset charset;
+
+    private boolean asciiFastPath;
+
+    private boolean latin1FastPath;
+
+    private String dataSourceName;
+
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The byte offset to start reading from (when resuming or reading a partition) and the number of the last record
+     * read before this offset.
+     */
+    private long startOffset;
+
+    private long startRecordNumber;
+
+    /**
+     * The byte offset where to stop reading (when reading a partition).
+     */
+    private long endOffset = Long.MAX_VALUE;
+
+    private long currentRecordNumber;
+
+    private boolean reuseRecords;
+
+    private StringRecord reusableRecord;
+
+    private SegmentPipeline pipeline;
+
+    /**
+     * The buffer each scanner thread copies mapped windows to, reused from one segment to the next.
+     */
+    private final ThreadLocal<byte[]> scannerBuffers = new ThreadLocal<byte[]>();
+
+    /**
+     * The segment being read and the index of its next line.
+     */
+    private Segment segment;
+
+    private int lineIndex;
+
+    /**
+     * The byte offset of the next line.
+     */
+    private long lineStart;
+
+    /**
+     * The end of the data to read: the end of the file or of the partition.
+     */
+    private long limit;
+
+    /**
+     * Constructs a memory mapped flat file record reader.
+     *
+     * @param input the input file
+     * @throws FileNotFoundException thrown if the file does not exist
+     */
+    public MappedFlatFileRecordReader(final File input) throws FileNotFoundException {
+        this(input, Charset.defaultCharset().name());
+    }
+
+    /**
+     * Constructs a memory mapped flat file record reader.
+     *
+     * @param input       the input file
+     * @param charsetName the encoding to use to read the file
+     * @throws FileNotFoundException thrown if the file does not exist
+     */
+    public MappedFlatFileRecordReader(final File input, final String charsetName) throws FileNotFoundException {
+        checkNotNull(input, "input");
+        this.charset = Charset.forName(charsetName);
+        checkArgument(LineReader.supports(charset), "Charset " + charsetName + " is not supported by the memory mapped flat file reader");
+        this.input = input;
+        this.latin1FastPath = "ISO-8859-1".equals(charset.name());
+        this.asciiFastPath = latin1FastPath || "UTF-8".equals(charset.name()) || "US-ASCII".equals(charset.name());
+        this.dataSourceName = input.getAbsolutePath();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void open() throws RecordReaderOpeningException {
+        currentRecordNumber = startRecordNumber;
+        reusableRecord = null;
+        segment = null;
+        lineStart = startOffset;
+        try {
+            if (Compression.detect(input) != null) {
+                throw new RecordReaderOpeningException("Compressed file " + input.getName() + " cannot be memory mapped");
+            }
+            FileChannel channel = new FileInputStream(input).getChannel();
+            limit = Math.min(channel.size(), endOffset);
+            pipeline = new SegmentPipeline(channel, startOffset, limit, false);
+        } catch (FileNotFoundException e) {
+            throw new RecordReaderOpeningException("Unable to find file " + input.getName(), e);
+        } catch (IOException e) {
+            throw new RecordReaderOpeningException("Unable to open file " + input.getName(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNextRecord() {
+        return lineStart < limit;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StringRecord readNextRecord() throws RecordReadingException {
+        String line = nextLine();
+        if (reuseRecords && reusableRecord != null) {
+            reusableRecord.getHeader().update(++currentRecordNumber, System.currentTimeMillis());
+            reusableRecord.setPayload(line);
+            return reusableRecord;
+        }
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        StringRecord record = new StringRecord(header, line);
+        if (reuseRecords) {
+            reusableRecord = record;
+        }
+        return record;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Lines are counted in parallel, without being decoded.
+     */
+    @Override
+    public Long getTotalRecords() {
+        if (endOffset != Long.MAX_VALUE) {
+            // unknown without reading the partition
+            return null;
+        }
+        SegmentPipeline counter = null;
+        try {
+            FileChannel channel = new FileInputStream(input).getChannel();
+            counter = new SegmentPipeline(channel, 0, channel.size(), true);
+            long totalRecords = 0;
+            Segment counted;
+            while ((counted = counter.next()) != null) {
+                totalRecords += counted.lineCount;
+            }
+            return totalRecords;
+        } catch (IOException e) {
+            // the engine interrupts the thread counting records in background once records are read
+            if (!Thread.currentThread().isInterrupted()) {
+                LOGGER.log(Level.SEVERE, "Unable to calculate total records number", e);
+            }
+            return null;
+        } finally {
+            if (counter != null) {
+                counter.closeQuietly();
+            }
+        }
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getCurrentPosition() {
+        return pipeline == null ? null : String.valueOf(lineStart);
+    }
+
+    /**
+     * Resume reading from a byte offset in the input file.
+     *
+     * @param position     the byte offset of the next line to read
+     * @param recordNumber the number of the last record read before this offset
+     */
+    @Override
+    public void resumeFrom(final String position, final long recordNumber) {
+        this.startOffset = Long.parseLong(position);
+        this.startRecordNumber = recordNumber;
+    }
+
+    /**
+     * Read only lines starting in the given byte range (used by {@link FlatFilePartitioner}).
+     * Both offsets must be at the beginning of a line.
+     */
+    void setRange(final long startOffset, final long endOffset) {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.dataSourceName = input.getAbsolutePath() + " (bytes " + startOffset + " to " + endOffset + ")";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws RecordReaderClosingException {
+        if (pipeline != null) {
+            try {
+                pipeline.close();
+            } catch (IOException e) {
+                throw new RecordReaderClosingException("Unable to close file " + input.getName(), e);
+            }
+        }
+    }
+
+    private String nextLine() throws RecordReadingException {
+        // segments holding no line (in the middle of a long line) are skipped
+        while (segment == null || lineIndex == segment.lineCount) {
+            try {
+                segment = pipeline.next();
+            } catch (IOException e) {
+                throw new RecordReadingException("Unable to read next line from file " + input.getName(), e);
+            }
+            lineIndex = 0;
+            if (segment == null) {
+                throw new RecordReadingException("No more lines to read from file " + input.getName());
+            }
+        }
+        lineStart = segment.nextLineStarts[lineIndex];
+        String line = segment.lines[lineIndex];
+        // release the line as soon as possible
+        segment.lines[lineIndex++] = null;
+        return line;
+    }
+
+    /**
+     * Set the size of mapped segments (1MB by default). Up to one segment per scanner thread is read ahead.
+     *
+     * @param segmentSize the segment size in bytes
+     */
+    public void setSegmentSize(final int segmentSize) {
+        checkArgument(segmentSize >= 1, "segment size parameter must be greater than or equal to 1");
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Set the number of threads splitting segments into lines (the number of available processors by default).
+     *
+     * @param threads the number of scanner threads
+     */
+    public void setThreads(final int threads) {
+        checkArgument(threads >= 1, "threads parameter must be greater than or equal to 1");
+        this.threads = threads;
+    }
+
+    /**
+     * Reuse the same record instance for each record instead of creating a new one (flyweight mode).
+     * <p/>
+     * This mode reduces allocations when reading large data sources, but a record must not be referenced
+     * once the next record is read: it can not be used with chunks of more than one record, parallel or staged
+     * processing (the engine builder rejects these configurations), nor with processors or listeners keeping
+     * references to records.
+     *
+     * @param reuseRecords true to reuse the same record instance for each record
+     */
+    public void setReuseRecords(final boolean reuseRecords) {
+        this.reuseRecords = reuseRecords;
+    }
+
+    @Override
+    public boolean hasTransientRecords() {
+        return reuseRecords;
+    }
+
+    @Override
+    public boolean isReusingRecords() {
+        return reuseRecords;
+    }
+
+    /**
+     * The lines starting in a segment of the file, with the offset of the line following each of them.
+     * <p/>
+     * The last line of a segment ends in a following segment: bytes after the segment are mapped until its terminator.
+     * The byte before the segment is mapped as well to know whether the segment starts with a new line.
+     * <p/>
+     * Mapped bytes are copied once to the buffer of the scanner thread, and the mapping is dropped right away:
+     * when the window is extended, only the bytes following it are mapped and copied.
+     */
+    private class Segment implements Callable<Segment> {
+
+        private final FileChannel channel;
+
+        /**
+         * Where lines start in [start, end), and where the data to read begins and ends.
+         */
+        private final long start;
+
+        private final long end;
+
+        private final long rangeStart;
+
+        private final long limit;
+
+        private final boolean countOnly;
+
+        private String[] lines;
+
+        private long[] nextLineStarts;
+
+        private int lineCount;
+
+        /**
+         * Bytes of the window [windowStart, windowEnd), at the beginning of the scanner thread buffer.
+         */
+        private byte[] bytes;
+
+        private long windowStart;
+
+        private long windowEnd;
+
+        private int lookahead = LOOKAHEAD;
+
+        Segment(final FileChannel channel, final long start, final long end, final long rangeStart, final long limit, final boolean countOnly) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.rangeStart = rangeStart;
+            this.limit = limit;
+            this.countOnly = countOnly;
+        }
+
+        @Override
+        public Segment call() throws IOException {
+            bytes = scannerBuffers.get();
+            if (bytes == null) {
+                bytes = new byte[segmentSize + LOOKAHEAD + 1];
+            }
+            try {
+                scan();
+            } finally {
+                scannerBuffers.set(bytes);
+                bytes = null;
+            }
+            return this;
+        }
+
+        private void scan() throws IOException {
+            windowStart = start > rangeStart ? start - 1 : start;
+            windowEnd = windowStart;
+            map(Math.min(end + lookahead, limit));
+            if (!countOnly) {
+                // a rough estimate: the arrays grow if needed
+                int capacity = Math.max(16, (int) ((end - start) / 64));
+                lines = new String[capacity];
+                nextLineStarts = new long[capacity];
+            }
+            long lineStart = firstLineStart();
+            while (lineStart < end) {
+                long terminator = findTerminator(lineStart);
+                long nextLineStart = nextLineStart(terminator);
+                if (countOnly) {
+                    lineCount++;
+                } else {
+                    addLine(decode(lineStart, terminator), nextLineStart);
+                }
+                lineStart = nextLineStart;
+            }
+        }
+
+        private long firstLineStart() throws IOException {
+            if (start == rangeStart) {
+                return start;
+            }
+            byte previous = byteAt(start - 1);
+            if (previous == LF) {
+                return start;
+            }
+            if (previous == CR) {
+                // the segment may start in the middle of "\r\n"
+                return byteAt(start) == LF ? start + 1 : start;
+            }
+            return nextLineStart(findTerminator(start));
+        }
+
+        private long findTerminator(final long from) throws IOException {
+            int index = (int) (from - windowStart);
+            while (true) {
+                int length = (int) (windowEnd - windowStart);
+                for (; index < length; index++) {
+                    byte b = bytes[index];
+                    if (b == LF || b == CR) {
+                        return windowStart + index;
+                    }
+                }
+                if (!extend()) {
+                    // last line without terminator
+                    return limit;
+                }
+            }
+        }
+
+        private long nextLineStart(final long terminator) throws IOException {
+            if (terminator >= limit) {
+                return limit;
+            }
+            if (byteAt(terminator) == CR && terminator + 1 < limit && byteAt(terminator + 1) == LF) {
+                return terminator + 2;
+            }
+            return terminator + 1;
+        }
+
+        private byte byteAt(final long offset) throws IOException {
+            while (offset >= windowEnd) {
+                extend();
+            }
+            return bytes[(int) (offset - windowStart)];
+        }
+
+        private boolean extend() throws IOException {
+            if (windowEnd >= limit) {
+                return false;
+            }
+            lookahead *= 2;
+            map(Math.min(windowEnd + lookahead, limit));
+            return true;
+        }
+
+        /*
+         * Map the bytes between the end of the window and its new end, and append them to the window.
+         */
+        private void map(final long newWindowEnd) throws IOException {
+            long length = newWindowEnd - windowStart;
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Line too long in file " + input.getName() + " after byte " + start);
+            }
+            int windowLength = (int) (windowEnd - windowStart);
+            if (length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE, Math.max(length, 2L * bytes.length)));
+            }
+            int mappedLength = (int) (newWindowEnd - windowEnd);
+            channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, mappedLength).get(bytes, windowLength, mappedLength);
+            windowEnd = newWindowEnd;
+        }
+
+        @SuppressWarnings("deprecation")
+        private String decode(final long from, final long to) {
+            int offset = (int) (from - windowStart);
+            int length = (int) (to - from);
+            if (latin1FastPath || (asciiFastPath && isAscii(offset, length))) {
+                // each byte is a character: no need for a charset decoder
+                return new String(bytes, 0, offset, length);
+            }
+            return new String(bytes, offset, length, charset);
+        }
+
+        private boolean isAscii(final int offset, final int length) {
+            int mask = 0;
+            for (int i = offset; i < offset + length; i++) {
+                mask |= bytes[i];
+            }
+            return mask >= 0;
+        }
+
+        private void addLine(final String line, final long nextLineStart) {
+            if (lineCount == lines.length) {
+                lines = Arrays.copyOf(lines, lineCount * 2);
+                nextLineStarts = Arrays.copyOf(nextLineStarts, lineCount * 2);
+            }
+            lines[lineCount] = line;
+            nextLineStarts[lineCount++] = nextLineStart;
+        }
+    }
+
+    /**
+     * Splits segments of a byte range ahead of the reader, one segment per scanner thread.
+     */
+    private class SegmentPipeline {
+
+        private final FileChannel channel;
+
+        private final long rangeStart;
+
+        private final long limit;
+
+        private final boolean countOnly;
+
+        private final ExecutorService executorService;
+
+        private final LinkedList<Future<Segment>> segments = new LinkedList<Future<Segment>>();
+
+        private long nextSegmentStart;
+
+        SegmentPipeline(final FileChannel channel, final long rangeStart, final long limit, final boolean countOnly) {
+            this.channel = channel;
+            this.rangeStart = rangeStart;
+            this.limit = limit;
+            this.countOnly = countOnly;
+            this.nextSegmentStart = rangeStart;
+            this.executorService = Executors.newFixedThreadPool(threads, new NamedThreadFactory(input.getName() + "-scanner-", true));
+            scanAhead();
+        }
+
+        /**
+         * @return the next segment or null if there are no more segments
+         */
+        Segment next() throws IOException {
+            Future<Segment> next = segments.poll();
+            if (next == null) {
+                return null;
+            }
+            scanAhead();
+            try {
+                return next.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading file " + input.getName(), e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Unable to read file " + input.getName(), e.getCause());
+            }
+        }
+
+        void close() throws IOException {
+            executorService.shutdownNow();
+            channel.close();
+        }
+
+        void closeQuietly() {
+            try {
+                close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to close file " + input.getName(), e);
+            }
+        }
+
+        /*
+         * Keep one segment per thread being split, in addition to the segment being read.
+         */
+        private void scanAhead() {
+            while (segments.size() < threads && nextSegmentStart < limit) {
+                long end = Math.min(nextSegmentStart + segmentSize, limit);
+                segments.add(executorService.submit(new Segment(channel, nextSegmentStart, end, rangeStart, limit, countOnly)));
+                nextSegmentStart = end;
+            }
+        }
+    }
+}
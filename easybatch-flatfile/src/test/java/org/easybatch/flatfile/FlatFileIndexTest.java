@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.record.StringRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link FlatFileIndex} and {@link FlatFileIndexBuilder}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FlatFileIndexTest {
+
+    private static final int LINES = 10;
+
+    private File input;
+
+    private File indexFile;
+
+    private List<Long> lineOffsets;
+
+    @Before
+    public void setUp() throws Exception {
+        input = File.createTempFile("indexed", ".txt");
+        indexFile = FlatFileIndex.sidecarFileOf(input);
+        lineOffsets = new ArrayList<Long>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= LINES; i++) {
+            lineOffsets.add((long) content.length());
+            content.append("line ").append(i).append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        FileOutputStream outputStream = new FileOutputStream(input);
+        outputStream.write(content.toString().getBytes("UTF-8"));
+        outputStream.close();
+    }
+
+    @Test
+    public void indexShouldHoldOffsetsOfSampledLines() throws Exception {
+        FlatFileIndex index = new FlatFileIndexBuilder(input, "UTF-8").interval(3).build();
+
+        assertThat(index.getTotalRecords()).isEqualTo(LINES);
+        assertThat(index.getSampledRecordNumber(6)).isEqualTo(4);
+        assertThat(index.getSampledOffset(6)).isEqualTo(lineOffsets.get(3));
+        assertThat(index.getSampledRecordNumber(10)).isEqualTo(10);
+        assertThat(index.getSampledOffset(10)).isEqualTo(lineOffsets.get(9));
+    }
+
+    @Test
+    public void indexShouldBeSavedInSidecarFile() throws Exception {
+        new FlatFileIndexBuilder(input, "UTF-8").interval(2).build();
+
+        FlatFileIndex index = FlatFileIndex.load(indexFile);
+        assertThat(index.getInterval()).isEqualTo(2);
+        assertThat(index.getTotalRecords()).isEqualTo(LINES);
+        assertThat(index.isUpToDate(input)).isTrue();
+        for (int recordNumber = 1; recordNumber <= LINES; recordNumber += 2) {
+            assertThat(index.getSampledOffset(recordNumber)).isEqualTo(lineOffsets.get(recordNumber - 1));
+        }
+    }
+
+    @Test
+    public void indexShouldBeOutOfDateWhenTheFileChanges() throws Exception {
+        new FlatFileIndexBuilder(input, "UTF-8").build();
+        FileOutputStream outputStream = new FileOutputStream(input, true);
+        outputStream.write("line 11\n".getBytes("UTF-8"));
+        outputStream.close();
+
+        assertThat(FlatFileIndex.load(indexFile).isUpToDate(input)).isFalse();
+        assertThat(new FlatFileRecordReader(input, "UTF-8").getTotalRecords()).isEqualTo(LINES + 1);
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidIndexFilesShouldBeRejected() throws Exception {
+        FileOutputStream outputStream = new FileOutputStream(indexFile);
+        outputStream.write("not an index".getBytes("UTF-8"));
+        outputStream.close();
+
+        FlatFileIndex.load(indexFile);
+    }
+
+    @Test
+    public void readerShouldSeekToRecordsUsingTheIndex() throws Exception {
+        new FlatFileIndexBuilder(input, "UTF-8").interval(3).build();
+        FlatFileRecordReader reader = new FlatFileRecordReader(input, "UTF-8");
+
+        assertThat(reader.getTotalRecords()).isEqualTo(LINES);
+        assertThat(reader.seek(5)).isTrue();
+        reader.open();
+        StringRecord record = reader.readNextRecord();
+        reader.close();
+        assertThat(record.getHeader().getNumber()).isEqualTo(6);
+        assertThat(record.getPayload()).isEqualTo("line 6");
+    }
+
+    @Test
+    public void readerShouldSeekPastTheLastRecord() throws Exception {
+        new FlatFileIndexBuilder(input, "UTF-8").interval(3).build();
+        FlatFileRecordReader reader = new FlatFileRecordReader(input, "UTF-8");
+
+        reader.seek(LINES);
+        reader.open();
+        assertThat(reader.hasNextRecord()).isFalse();
+        reader.close();
+    }
+
+    @Test
+    public void partitionsShouldHaveTheSameNumberOfRecordsWithAnIndex() throws Exception {
+        new FlatFileIndexBuilder(input, "UTF-8").interval(1).build();
+
+        List<RecordReader> readers = new FlatFilePartitioner(input, "UTF-8").partition(2);
+
+        assertThat(readers).hasSize(2);
+        for (RecordReader reader : readers) {
+            reader.open();
+            int records = 0;
+            while (reader.hasNextRecord()) {
+                reader.readNextRecord();
+                records++;
+            }
+            reader.close();
+            assertThat(records).isEqualTo(LINES / 2);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        input.delete();
+        indexFile.delete();
+    }
+
+}
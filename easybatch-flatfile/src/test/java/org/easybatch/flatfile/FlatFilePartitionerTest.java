@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.record.StringRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link FlatFilePartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class FlatFilePartitionerTest {
+
+    private static final int LINES = 100;
+
+    private File input;
+
+    private List<String> expectedLines;
+
+    @Before
+    public void setUp() throws Exception {
+        input = File.createTempFile("partitions", ".txt");
+        expectedLines = new ArrayList<String>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= LINES; i++) {
+            String line = "line " + i + (i % 7 == 0 ? " with a longer payload" : "");
+            expectedLines.add(line);
+            content.append(line).append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        FileOutputStream outputStream = new FileOutputStream(input);
+        outputStream.write(content.toString().getBytes("UTF-8"));
+        outputStream.close();
+    }
+
+    @Test
+    public void partitionsShouldCoverAllLinesWithoutOverlapping() throws Exception {
+        List<RecordReader> readers = new FlatFilePartitioner(input, "UTF-8").partition(7);
+
+        assertThat(readers).hasSize(7);
+        assertThat(readAll(readers)).isEqualTo(expectedLines);
+    }
+
+    @Test
+    public void whenThereAreMorePartitionsThanLines_thenEmptyPartitionsShouldNotBeCreated() throws Exception {
+        List<RecordReader> readers = new FlatFilePartitioner(input, "UTF-8").partition(LINES * 4);
+
+        assertThat(readers.size()).isLessThanOrEqualTo(LINES);
+        assertThat(readAll(readers)).isEqualTo(expectedLines);
+    }
+
+    @Test
+    public void recordNumbersShouldStartFromOneInEachPartition() throws Exception {
+        List<RecordReader> readers = new FlatFilePartitioner(input, "UTF-8").partition(2);
+
+        RecordReader secondPartition = readers.get(1);
+        secondPartition.open();
+        assertThat(secondPartition.readNextRecord().getHeader().getNumber()).isEqualTo(1l);
+        secondPartition.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void charsetsWithNonAsciiLineTerminatorsShouldBeRejected() throws Exception {
+        new FlatFilePartitioner(input, "UTF-16");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        input.delete();
+    }
+
+    private List<String> readAll(final List<RecordReader> readers) throws Exception {
+        List<String> lines = new ArrayList<String>();
+        for (RecordReader reader : readers) {
+            reader.open();
+            while (reader.hasNextRecord()) {
+                lines.add(((StringRecord) reader.readNextRecord()).getPayload());
+            }
+            reader.close();
+        }
+        return lines;
+    }
+
+}
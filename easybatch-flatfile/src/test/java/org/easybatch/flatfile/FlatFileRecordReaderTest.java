@@ -6,8 +6,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -52,11 +54,119 @@ public class FlatFileRecordReaderTest {
         assertThat(flatFileRecordReader.getTotalRecords()).isEqualTo(3l);
     }
 
+    @Test
+    public void whenCountingIsInterrupted_thenTotalRecordsShouldBeNull() throws Exception {
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(flatFileRecordReader.getTotalRecords()).isNull();
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
     @Test
     public void testGetDataSourceName() throws Exception {
         assertThat(flatFileRecordReader.getDataSourceName()).isEqualTo(dataSource.getAbsolutePath());
     }
 
+    @Test
+    public void testResumeFromCurrentPosition() throws Exception {
+        flatFileRecordReader.readNextRecord();
+        String position = flatFileRecordReader.getCurrentPosition();
+        assertThat(position).isEqualTo(String.valueOf("id,user,message".length() + 1));
+        flatFileRecordReader.close();
+
+        flatFileRecordReader = new FlatFileRecordReader(dataSource);
+        flatFileRecordReader.resumeFrom(position, 1);
+        flatFileRecordReader.open();
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2l);
+        assertThat(record.getPayload()).isEqualTo("1,foo,easy batch rocks! #EasyBatch");
+    }
+
+    @Test
+    public void testReadNextRecordWithSmallBuffer() throws Exception {
+        flatFileRecordReader.close();
+        flatFileRecordReader = new FlatFileRecordReader(dataSource);
+        flatFileRecordReader.setBufferSize(4);
+        flatFileRecordReader.open();
+        flatFileRecordReader.readNextRecord();
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getPayload()).isEqualTo("1,foo,easy batch rocks! #EasyBatch");
+    }
+
+    @Test
+    public void testReadNextRecordWithUtf16Charset() throws Exception {
+        flatFileRecordReader.close();
+        File utf16DataSource = File.createTempFile("tweets-utf16", ".csv");
+        utf16DataSource.deleteOnExit();
+        FileOutputStream outputStream = new FileOutputStream(utf16DataSource);
+        outputStream.write("id,user,message\n1,foo,café".getBytes("UTF-16"));
+        outputStream.close();
+
+        flatFileRecordReader = new FlatFileRecordReader(utf16DataSource, "UTF-16");
+        assertThat(flatFileRecordReader.getTotalRecords()).isEqualTo(2l);
+        flatFileRecordReader.open();
+        flatFileRecordReader.readNextRecord();
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getPayload()).isEqualTo("1,foo,café");
+        assertThat(flatFileRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void testEstimateTotalRecords() throws Exception {
+        assertThat(flatFileRecordReader.estimateTotalRecords()).isEqualTo(3l);
+    }
+
+    @Test
+    public void testTotalRecordsAreCountedAgainWhenTheFileChanges() throws Exception {
+        flatFileRecordReader.close();
+        File file = File.createTempFile("records", ".csv");
+        file.deleteOnExit();
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write("a\nb\n".getBytes("UTF-8"));
+        outputStream.close();
+        flatFileRecordReader = new FlatFileRecordReader(file, "UTF-8");
+        assertThat(flatFileRecordReader.getTotalRecords()).isEqualTo(2l);
+
+        outputStream = new FileOutputStream(file, true);
+        outputStream.write("c\n".getBytes("UTF-8"));
+        outputStream.close();
+        assertThat(flatFileRecordReader.getTotalRecords()).isEqualTo(3l);
+    }
+
+    @Test
+    public void testSeekWithoutIndex() throws Exception {
+        flatFileRecordReader.close();
+        flatFileRecordReader = new FlatFileRecordReader(dataSource);
+        assertThat(flatFileRecordReader.seek(1)).isTrue();
+        flatFileRecordReader.open();
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2l);
+        assertThat(record.getPayload()).isEqualTo("1,foo,easy batch rocks! #EasyBatch");
+    }
+
+    @Test
+    public void testGzipCompressedFile() throws Exception {
+        flatFileRecordReader.close();
+        File file = File.createTempFile("records", ".csv.gz");
+        file.deleteOnExit();
+        GZIPOutputStream outputStream = new GZIPOutputStream(new FileOutputStream(file));
+        outputStream.write("a\nb\nc\n".getBytes("UTF-8"));
+        outputStream.close();
+        flatFileRecordReader = new FlatFileRecordReader(file, "UTF-8");
+        assertThat(flatFileRecordReader.getTotalRecords()).isEqualTo(3l);
+        assertThat(flatFileRecordReader.estimateTotalRecords()).isNull();
+        assertThat(flatFileRecordReader.seek(1)).isTrue();
+        flatFileRecordReader.open();
+        StringRecord record = flatFileRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2l);
+        assertThat(record.getPayload()).isEqualTo("b");
+        assertThat(flatFileRecordReader.readNextRecord().getPayload()).isEqualTo("c");
+        assertThat(flatFileRecordReader.hasNextRecord()).isFalse();
+    }
+
     /*
      * Empty file tests
      */
@@ -37,6 +37,9 @@ import org.junit.runners.Suite;
         DelimitedRecordMapperTest.class,
         FixedLengthRecordMapperTest.class,
         FlatFileRecordReaderTest.class,
+        FlatFilePartitionerTest.class,
+        FlatFileIndexTest.class,
+        MappedFlatFileRecordReaderTest.class,
         FlatFileIntegrationTest.class,
         FlatFileMultiRecordReaderTest.class
 })
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.flatfile;
+
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.record.StringRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link MappedFlatFileRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class MappedFlatFileRecordReaderTest {
+
+    private static final String CONTENT = "id,user,message\r\n1,foo,café\n\n2,bar,easy batch\r3,baz,rocks";
+
+    private static final List<String> LINES = asList("id,user,message", "1,foo,café", "", "2,bar,easy batch", "3,baz,rocks");
+
+    private File input;
+
+    private MappedFlatFileRecordReader reader;
+
+    @Before
+    public void setUp() throws Exception {
+        input = createFile(CONTENT);
+        reader = new MappedFlatFileRecordReader(input, "UTF-8");
+    }
+
+    @Test
+    public void linesShouldBeReadInOrder() throws Exception {
+        assertThat(readAll(reader)).isEqualTo(LINES);
+    }
+
+    @Test
+    public void linesSpanningSegmentsShouldBeRead() throws Exception {
+        // segments of one byte split "\r\n" terminators and multi-byte characters
+        for (int segmentSize = 1; segmentSize <= CONTENT.length(); segmentSize++) {
+            reader = new MappedFlatFileRecordReader(input, "UTF-8");
+            reader.setSegmentSize(segmentSize);
+            reader.setThreads(3);
+            assertThat(readAll(reader)).isEqualTo(LINES);
+        }
+    }
+
+    @Test
+    public void linesLongerThanTheLookaheadShouldBeRead() throws Exception {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 300000; i++) {
+            longLine.append((char) ('a' + i % 26));
+        }
+        reader = new MappedFlatFileRecordReader(createFile("first\n" + longLine + "\nlast"), "UTF-8");
+        reader.setSegmentSize(4096);
+        reader.setThreads(2);
+
+        assertThat(readAll(reader)).isEqualTo(asList("first", longLine.toString(), "last"));
+    }
+
+    @Test
+    public void recordNumbersShouldBeIncremented() throws Exception {
+        reader.open();
+        reader.readNextRecord();
+        assertThat(reader.readNextRecord().getHeader().getNumber()).isEqualTo(2l);
+    }
+
+    @Test
+    public void totalRecordsShouldBeCountedInParallel() throws Exception {
+        reader.setSegmentSize(2);
+        assertThat(reader.getTotalRecords()).isEqualTo(5l);
+    }
+
+    @Test
+    public void lastLineTerminatorShouldNotBeCountedAsARecord() throws Exception {
+        reader = new MappedFlatFileRecordReader(createFile("a\r\nb\r\n"), "UTF-8");
+        reader.setSegmentSize(2);
+
+        assertThat(reader.getTotalRecords()).isEqualTo(2l);
+        assertThat(readAll(reader)).isEqualTo(asList("a", "b"));
+    }
+
+    @Test
+    public void emptyFileShouldHaveNoRecords() throws Exception {
+        reader = new MappedFlatFileRecordReader(createFile(""), "UTF-8");
+
+        assertThat(reader.getTotalRecords()).isEqualTo(0l);
+        reader.open();
+        assertThat(reader.hasNextRecord()).isFalse();
+        reader.close();
+    }
+
+    @Test
+    public void readerShouldResumeFromCurrentPosition() throws Exception {
+        reader.setSegmentSize(4);
+        reader.open();
+        reader.readNextRecord();
+        reader.readNextRecord();
+        String position = reader.getCurrentPosition();
+        reader.close();
+
+        reader = new MappedFlatFileRecordReader(input, "UTF-8");
+        reader.resumeFrom(position, 2);
+        reader.open();
+        StringRecord record = reader.readNextRecord();
+        reader.close();
+        assertThat(record.getHeader().getNumber()).isEqualTo(3l);
+        assertThat(record.getPayload()).isEmpty();
+    }
+
+    @Test
+    public void memoryMappedPartitionsShouldCoverAllLines() throws Exception {
+        FlatFilePartitioner partitioner = new FlatFilePartitioner(input, "UTF-8");
+        partitioner.setMemoryMapped(true);
+
+        List<String> lines = new ArrayList<String>();
+        for (RecordReader partition : partitioner.partition(3)) {
+            assertThat(partition).isInstanceOf(MappedFlatFileRecordReader.class);
+            lines.addAll(readAll(partition));
+        }
+        assertThat(lines).isEqualTo(LINES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void charsetsWithNonAsciiLineTerminatorsShouldBeRejected() throws Exception {
+        new MappedFlatFileRecordReader(input, "UTF-16");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        reader.close();
+    }
+
+    private File createFile(final String content) throws Exception {
+        File file = File.createTempFile("mapped", ".txt");
+        file.deleteOnExit();
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(content.getBytes("UTF-8"));
+        outputStream.close();
+        return file;
+    }
+
+    private List<String> readAll(final RecordReader recordReader) throws Exception {
+        List<String> lines = new ArrayList<String>();
+        recordReader.open();
+        while (recordReader.hasNextRecord()) {
+            lines.add(((StringRecord) recordReader.readNextRecord()).getPayload());
+        }
+        recordReader.close();
+        return lines;
+    }
+
+}
@@ -31,7 +31,6 @@ import org.easybatch.core.api.RecordReader;
 import org.easybatch.core.api.RecordReaderClosingException;
 
 import java.io.IOException;
-import java.util.Date;
 import java.util.Iterator;
 
 /**
@@ -64,7 +63,7 @@ public class ApacheCommonCsvRecordReader implements RecordReader {
 
     @Override
     public ApacheCommonCsvRecord readNextRecord() {
-        Header header = new Header(parser.getRecordNumber(), getDataSourceName(), new Date());
+        Header header = new Header(parser.getRecordNumber(), getDataSourceName(), System.currentTimeMillis());
         return new ApacheCommonCsvRecord(header, iterator.next());
     }
 
@@ -32,7 +32,6 @@ import org.easybatch.core.record.MultiRecord;
 import org.hibernate.SessionFactory;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -61,7 +60,7 @@ public class HibernateMultiRecordReader<T> extends AbstractMultiRecordReader {
         do {
             records.add(delegate.readNextRecord());
         } while (items++ < chunkSize && hasNextRecord());
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new MultiRecord(header, records);
     }
 }
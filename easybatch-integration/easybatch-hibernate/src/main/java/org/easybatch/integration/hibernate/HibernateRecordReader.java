@@ -29,7 +29,6 @@ import org.easybatch.core.api.RecordReader;
 import org.easybatch.core.record.GenericRecord;
 import org.hibernate.*;
 
-import java.util.Date;
 
 import static org.easybatch.core.util.Utils.checkArgument;
 
@@ -90,7 +89,7 @@ public class HibernateRecordReader<T> implements RecordReader {
 
     @Override
     public GenericRecord<T> readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new GenericRecord<T>(header, (T) scrollableResults.get()[0]);
     }
 
@@ -24,10 +24,15 @@
 
 package org.easybatch.integration.hibernate;
 
+import org.easybatch.core.api.BatchRecordWriter;
 import org.easybatch.core.api.RecordProcessingException;
 import org.easybatch.core.writer.AbstractRecordWriter;
 import org.hibernate.Session;
 
+import java.util.List;
+
+import static java.lang.String.format;
+
 /**
  * Writes entities to a database using Hibernate.
  *
@@ -36,7 +41,7 @@ import org.hibernate.Session;
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class HibernateRecordWriter<T> extends AbstractRecordWriter<T> {
+public class HibernateRecordWriter<T> extends AbstractRecordWriter<T> implements BatchRecordWriter<T> {
 
     private Session session;
 
@@ -53,4 +58,23 @@ public class HibernateRecordWriter<T> extends AbstractRecordWriter<T> {
     public void writeRecord(T record) throws RecordProcessingException {
         session.saveOrUpdate(record);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Entities of the chunk are saved and flushed together, then evicted from the session so that its size does not
+     * grow with the number of chunks.
+     */
+    @Override
+    public void writeRecords(List<T> records) throws RecordProcessingException {
+        try {
+            for (T record : records) {
+                session.saveOrUpdate(record);
+            }
+            session.flush();
+            session.clear();
+        } catch (RuntimeException e) {
+            throw new RecordProcessingException(format("Unable to write a chunk of %d entities", records.size()), e);
+        }
+    }
 }
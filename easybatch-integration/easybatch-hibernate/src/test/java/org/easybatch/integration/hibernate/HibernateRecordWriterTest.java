@@ -28,6 +28,7 @@ import org.easybatch.core.api.Report;
 import org.easybatch.core.mapper.GenericRecordMapper;
 import org.easybatch.core.reader.IterableRecordReader;
 import org.hibernate.Session;
+import org.hibernate.Transaction;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -101,6 +102,31 @@ public class HibernateRecordWriterTest {
         assertThat(nbTweetsInDatabase).isEqualTo(nbTweetsToInsert);
     }
 
+    @Test
+    public void chunksShouldBeFlushedAndEvictedFromTheSession() throws Exception {
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        for (int i = 101; i <= 103; i++) {
+            tweets.add(new Tweet(i, "user " + i, "hello " + i));
+        }
+
+        Transaction transaction = session.beginTransaction();
+        hibernateRecordWriter.writeRecords(tweets);
+        assertThat(session.contains(tweets.get(0))).isFalse();
+        transaction.commit();
+
+        Connection connection = DatabaseUtil.getConnection();
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery("select count(*) from tweet where id > 100");
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isEqualTo(3);
+            statement.executeUpdate("delete from tweet where id > 100");
+        } finally {
+            statement.close();
+            connection.close();
+        }
+    }
+
     private List<Tweet> createTweets(Integer nbTweetsToInsert) {
         List<Tweet> tweets = new ArrayList<Tweet>();
         for (int i = 1; i <= nbTweetsToInsert; i++) {
@@ -48,9 +48,21 @@ public class JacksonRecordMapper<T> implements RecordMapper<T> {
         this.type = type;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Records already bound by a {@link JacksonRecordReader} are returned as is, provided that their payload is of
+     * the target type.
+     */
     @Override
-    @SuppressWarnings(value = "unchecked")
     public T mapRecord(Record record) throws RecordMappingException {
+        if (!(record instanceof JsonRecord)) {
+            Object payload = record.getPayload();
+            if (!type.isInstance(payload)) {
+                throw new RecordMappingException("Unable to map record " + record + " to target type " + type.getName());
+            }
+            return type.cast(payload);
+        }
         JsonRecord jsonRecord = (JsonRecord) record;
         try {
             return mapper.readValue(jsonRecord.getPayload().getBytes(), type);
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.integration.jackson;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonStreamContext;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.easybatch.core.api.*;
+import org.easybatch.core.record.GenericRecord;
+import org.easybatch.core.util.Compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * Record reader that binds the elements of a json array to domain objects with
+ * <a href="http://jackson.codehaus.org/">Jackson</a>, while streaming the array.
+ * <p/>
+ * Each element is bound from the tokens of the parser, so it is parsed once and is not written to an intermediate
+ * string like with a {@link org.easybatch.json.JsonRecordReader} and a {@link JacksonRecordMapper}. Only the current
+ * element is held in memory, whatever the size of the array.
+ * <p/>
+ * This reader produces {@link GenericRecord} instances with the bound objects as payload, which are returned as is by
+ * a {@link JacksonRecordMapper}.
+ *
+ * @param <T> Target domain object class.
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JacksonRecordReader<T> implements RecordReader {
+
+    /**
+     * The data source stream.
+     */
+    private InputStream inputStream;
+
+    private ObjectMapper mapper;
+
+    private Class<T> type;
+
+    /**
+     * The json parser, positioned on the first token of the next element.
+     */
+    private JsonParser parser;
+
+    /**
+     * The parsing context of the array, used to skip the rest of an element that could not be bound.
+     */
+    private JsonStreamContext arrayContext;
+
+    /**
+     * The current record number.
+     */
+    private long currentRecordNumber;
+
+    /**
+     * Create a reader binding the elements of a json array.
+     *
+     * @param inputStream the data source stream
+     * @param mapper      the object mapper to use
+     * @param type        the type of elements
+     */
+    public JacksonRecordReader(final InputStream inputStream, final ObjectMapper mapper, final Class<T> type) {
+        checkNotNull(inputStream, "input stream");
+        checkNotNull(mapper, "object mapper");
+        checkNotNull(type, "type");
+        this.inputStream = inputStream;
+        this.mapper = mapper;
+        this.type = type;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Gzip and zip input streams are decompressed while being read (see {@link Compression}).
+     */
+    @Override
+    public void open() throws RecordReaderOpeningException {
+        currentRecordNumber = 0;
+        try {
+            parser = mapper.getJsonFactory().createJsonParser(Compression.autoDecompress(inputStream));
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new RecordReaderOpeningException("The data source must be a json array, found " + token);
+            }
+            arrayContext = parser.getParsingContext();
+            parser.nextToken();
+        } catch (IOException e) {
+            throw new RecordReaderOpeningException("Unable to open record reader", e);
+        }
+    }
+
+    @Override
+    public boolean hasNextRecord() {
+        JsonToken token = parser.getCurrentToken();
+        return token != null && token != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public GenericRecord<T> readNextRecord() throws RecordReadingException {
+        if (!hasNextRecord()) {
+            throw new RecordReadingException("No more records to read");
+        }
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        try {
+            T value = mapper.readValue(parser, type);
+            parser.nextToken();
+            return new GenericRecord<T>(header, value);
+        } catch (IOException e) {
+            skipElement();
+            throw new RecordReadingException("Unable to read next record", e);
+        }
+    }
+
+    /**
+     * Move the parser to the first token of the next element after a binding failure, so that the following
+     * elements can still be read. If the stream can not be parsed any further, no more records are read.
+     */
+    private void skipElement() {
+        try {
+            while (parser.getCurrentToken() != null && parser.getParsingContext() != arrayContext) {
+                parser.skipChildren();
+                if (parser.getParsingContext() != arrayContext) {
+                    parser.nextToken();
+                }
+            }
+            parser.nextToken();
+        } catch (IOException e) {
+            parser.clearCurrentToken();
+        }
+    }
+
+    @Override
+    public Long getTotalRecords() {
+        return null;
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return "Json stream";
+    }
+
+    @Override
+    public void close() throws RecordReaderClosingException {
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+        } catch (IOException e) {
+            throw new RecordReaderClosingException("Unable to close record reader", e);
+        }
+    }
+}
@@ -27,6 +27,8 @@ package org.easybatch.integration.jackson;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordMappingException;
+import org.easybatch.core.record.GenericRecord;
 import org.easybatch.json.JsonRecord;
 import org.junit.Before;
 import org.junit.Test;
@@ -88,4 +90,9 @@ public class JacksonRecordMapperTest {
         assertThat(tweet.getMessage()).isNull();
     }
 
+    @Test(expected = RecordMappingException.class)
+    public void payloadsOfAnotherTypeShouldBeRejected() throws Exception {
+        mapper.mapRecord(new GenericRecord<String>(header, "foo"));
+    }
+
 }
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.integration.jackson;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.easybatch.core.api.RecordReaderOpeningException;
+import org.easybatch.core.api.RecordReadingException;
+import org.easybatch.core.record.GenericRecord;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for {@link JacksonRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JacksonRecordReaderTest {
+
+    private JacksonRecordReader<Tweet> recordReader;
+
+    @After
+    public void tearDown() throws Exception {
+        recordReader.close();
+    }
+
+    @Test
+    public void elementsShouldBeBoundWhileStreamingTheArray() throws Exception {
+        String json = "[{\"id\":1,\"user\":\"foo\",\"message\":\"Hello\"},{\"id\":2,\"user\":\"bar\"}]";
+        recordReader = newReader(json);
+        recordReader.open();
+
+        assertThat(recordReader.hasNextRecord()).isTrue();
+        GenericRecord<Tweet> record = recordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(1);
+        Tweet tweet = record.getPayload();
+        assertThat(tweet.getId()).isEqualTo(1);
+        assertThat(tweet.getUser()).isEqualTo("foo");
+        assertThat(tweet.getMessage()).isEqualTo("Hello");
+
+        assertThat(recordReader.hasNextRecord()).isTrue();
+        record = recordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2);
+        assertThat(record.getPayload().getUser()).isEqualTo("bar");
+        assertThat(record.getPayload().getMessage()).isNull();
+
+        assertThat(recordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void boundRecordsShouldBeReturnedAsIsByTheMapper() throws Exception {
+        recordReader = newReader("[{\"id\":1}]");
+        recordReader.open();
+        GenericRecord<Tweet> record = recordReader.readNextRecord();
+
+        JacksonRecordMapper<Tweet> mapper = new JacksonRecordMapper<Tweet>(new ObjectMapper(), Tweet.class);
+
+        assertThat(mapper.mapRecord(record)).isSameAs(record.getPayload());
+    }
+
+    @Test
+    public void elementsFollowingAnElementThatCanNotBeBoundShouldBeRead() throws Exception {
+        String json = "[{\"id\":1,\"user\":{\"name\":[\"foo\"]},\"message\":\"Hello\"},\"bar\",{\"id\":3}]";
+        recordReader = newReader(json);
+        recordReader.open();
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(recordReader.hasNextRecord()).isTrue();
+            try {
+                recordReader.readNextRecord();
+                fail("A binding failure was expected");
+            } catch (RecordReadingException e) {
+                // expected
+            }
+        }
+
+        assertThat(recordReader.hasNextRecord()).isTrue();
+        GenericRecord<Tweet> record = recordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(3);
+        assertThat(record.getPayload().getId()).isEqualTo(3);
+        assertThat(recordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void emptyArraysAndEmptyStreamsShouldHaveNoRecord() throws Exception {
+        recordReader = newReader("[]");
+        recordReader.open();
+        assertThat(recordReader.hasNextRecord()).isFalse();
+        recordReader.close();
+
+        recordReader = newReader("");
+        recordReader.open();
+        assertThat(recordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test(expected = RecordReaderOpeningException.class)
+    public void dataSourcesOtherThanArraysShouldBeRejected() throws Exception {
+        recordReader = newReader("{\"id\":1}");
+        recordReader.open();
+    }
+
+    private JacksonRecordReader<Tweet> newReader(String json) throws Exception {
+        return new JacksonRecordReader<Tweet>(new ByteArrayInputStream(json.getBytes("UTF-8")), new ObjectMapper(), Tweet.class);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.integration.mongodb;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.PartitioningException;
+import org.easybatch.core.api.RecordReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A {@link Partitioner} that splits documents matching a query into <code>_id</code> ranges
+ * holding (almost) the same number of documents.
+ * <p/>
+ * Each partition is read by a {@link MongoDBRecordReader} sorting documents by ascending <code>_id</code>.
+ * <p/>
+ * Boundaries are found by skipping documents in <code>_id</code> order, which MongoDB only supports up to
+ * {@link Integer#MAX_VALUE} documents: larger result sets cannot be partitioned.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class MongoDBPartitioner implements Partitioner {
+
+    private static final BasicDBObject ID_ASCENDING = new BasicDBObject("_id", 1);
+
+    private DBCollection collection;
+
+    private DBObject query;
+
+    /**
+     * Create a MongoDB partitioner.
+     *
+     * @param collection the collection to read documents from
+     * @param query      the query to fetch data
+     */
+    public MongoDBPartitioner(final DBCollection collection, final DBObject query) {
+        checkNotNull(collection, "collection");
+        checkNotNull(query, "query");
+        this.collection = collection;
+        this.query = query;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) throws PartitioningException {
+        checkArgument(partitions >= 1, "The number of partitions should be greater than or equal to 1");
+        List<RecordReader> readers = new ArrayList<RecordReader>();
+        try {
+            long count = collection.count(query);
+            if (count > Integer.MAX_VALUE) {
+                throw new PartitioningException("Unable to partition collection " + collection.getName() + ": "
+                        + count + " documents match the query, more than the " + Integer.MAX_VALUE + " that can be skipped");
+            }
+            Object lower = null;
+            for (int i = 1; i < partitions; i++) {
+                long boundaryIndex = count * i / partitions;
+                if (boundaryIndex == 0) {
+                    continue;
+                }
+                Object upper = getIdAt(boundaryIndex);
+                if (upper == null || upper.equals(lower)) {
+                    continue;
+                }
+                readers.add(newReader(lower, upper));
+                lower = upper;
+            }
+            readers.add(newReader(lower, null));
+        } catch (MongoException e) {
+            throw new PartitioningException("Unable to partition collection " + collection.getName(), e);
+        }
+        return readers;
+    }
+
+    /*
+     * _id of the document at the given index in ascending _id order.
+     */
+    private Object getIdAt(final long index) {
+        DBCursor cursor = collection.find(query, new BasicDBObject("_id", 1)).sort(ID_ASCENDING).skip((int) index).limit(1);
+        try {
+            return cursor.hasNext() ? cursor.next().get("_id") : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /*
+     * Reader of documents with lower <= _id < upper (null bounds are open).
+     */
+    private MongoDBRecordReader newReader(final Object lower, final Object upper) {
+        BasicDBObject idRange = new BasicDBObject();
+        if (lower != null) {
+            idRange.append("$gte", lower);
+        }
+        if (upper != null) {
+            idRange.append("$lt", upper);
+        }
+        DBObject partitionQuery = idRange.isEmpty() ? query :
+                new BasicDBObject("$and", Arrays.asList(query, new BasicDBObject("_id", idRange)));
+        MongoDBRecordReader reader = new MongoDBRecordReader(collection, partitionQuery);
+        reader.setSort(ID_ASCENDING);
+        return reader;
+    }
+
+}
@@ -24,13 +24,15 @@
 
 package org.easybatch.integration.mongodb;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
 import org.easybatch.core.api.Header;
-import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.ResumableRecordReader;
 
-import java.util.Date;
+import java.util.Arrays;
 
 import static org.easybatch.core.util.Utils.checkArgument;
 import static org.easybatch.core.util.Utils.checkNotNull;
@@ -39,10 +41,13 @@ import static org.easybatch.core.util.Utils.checkNotNull;
  * Reader that reads documents from a MongoDB collection.
  * <p/>
  * This reader produces {@link MongoDBRecord} instances.
+ * <p/>
+ * When documents are sorted by ascending <code>_id</code>, this reader can resume reading after the last
+ * <code>_id</code> read.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class MongoDBRecordReader implements RecordReader {
+public class MongoDBRecordReader implements ResumableRecordReader {
 
     private DBCollection collection;
 
@@ -58,6 +63,14 @@ public class MongoDBRecordReader implements RecordReader {
 
     private long currentRecordNumber;
 
+    private Object lastId;
+
+    private Object resumeId;
+
+    private long resumeRecordNumber;
+
+    private boolean limitReached;
+
     /**
      * Reader that reads documents from a MongoDB collection.
      * <p/>
@@ -73,12 +86,24 @@ public class MongoDBRecordReader implements RecordReader {
 
     @Override
     public void open() {
-        currentRecordNumber = 0;
-        cursor = collection.find(query);
+        currentRecordNumber = resumeRecordNumber;
+        lastId = null;
+        // documents read before resuming count towards the limit
+        limitReached = nbLimit >= 1 && resumeRecordNumber >= nbLimit;
+        if (limitReached) {
+            return;
+        }
+        if (resumeId != null) {
+            // documents skipped before resuming are already before the resume _id
+            cursor = collection.find(new BasicDBObject("$and",
+                    Arrays.asList(query, new BasicDBObject("_id", new BasicDBObject("$gt", resumeId)))));
+        } else {
+            cursor = collection.find(query);
+        }
         if (nbLimit >= 1) {
-            cursor.limit(nbLimit);
+            cursor.limit((int) (nbLimit - resumeRecordNumber));
         }
-        if (nbSkip >= 1) {
+        if (nbSkip >= 1 && resumeId == null) {
             cursor.skip(nbSkip);
         }
         if (orderBy != null) {
@@ -88,13 +113,40 @@ public class MongoDBRecordReader implements RecordReader {
 
     @Override
     public boolean hasNextRecord() {
-        return cursor.hasNext();
+        return !limitReached && cursor.hasNext();
     }
 
     @Override
     public MongoDBRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
-        return new MongoDBRecord(header, cursor.next());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        DBObject document = cursor.next();
+        lastId = document.get("_id");
+        return new MongoDBRecord(header, document);
+    }
+
+    /**
+     * Return the <code>_id</code> of the last document read (serialized in JSON),
+     * or null if documents are not sorted by ascending <code>_id</code>.
+     */
+    @Override
+    public String getCurrentPosition() {
+        if (lastId == null || !isSortedById()) {
+            return null;
+        }
+        return JSON.serialize(lastId);
+    }
+
+    /**
+     * Resume reading after the given <code>_id</code>.
+     *
+     * @param position     the <code>_id</code> of the last document read, serialized in JSON
+     * @param recordNumber the number of the last record read
+     */
+    @Override
+    public void resumeFrom(final String position, final long recordNumber) {
+        checkArgument(isSortedById(), "documents must be sorted by ascending _id to resume reading");
+        this.resumeId = JSON.parse(position);
+        this.resumeRecordNumber = recordNumber;
     }
 
     @Override
@@ -109,7 +161,9 @@ public class MongoDBRecordReader implements RecordReader {
 
     @Override
     public void close() {
-        cursor.close();
+        if (cursor != null) {
+            cursor.close();
+        }
     }
 
     /**
@@ -142,4 +196,12 @@ public class MongoDBRecordReader implements RecordReader {
         this.orderBy = orderBy;
     }
 
+    private boolean isSortedById() {
+        if (orderBy == null || orderBy.keySet().size() != 1) {
+            return false;
+        }
+        Object direction = orderBy.get("_id");
+        return direction instanceof Number && ((Number) direction).intValue() == 1;
+    }
+
 }
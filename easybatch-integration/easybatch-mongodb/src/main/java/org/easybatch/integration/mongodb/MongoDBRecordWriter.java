@@ -24,17 +24,28 @@
 
 package org.easybatch.integration.mongodb;
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
+import org.easybatch.core.api.BatchRecordWriter;
 import org.easybatch.core.api.RecordProcessingException;
 import org.easybatch.core.writer.AbstractRecordWriter;
 
+import java.util.List;
+
+import static java.lang.String.format;
+
 /**
  * Writes a Mongo {@link DBObject} in a given collection.
+ * <p/>
+ * In chunk mode, documents of a chunk are saved in a single ordered bulk operation.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class MongoDBRecordWriter extends AbstractRecordWriter<DBObject> {
+public class MongoDBRecordWriter extends AbstractRecordWriter<DBObject> implements BatchRecordWriter<DBObject> {
 
     private DBCollection collection;
 
@@ -56,4 +67,31 @@ public class MongoDBRecordWriter extends AbstractRecordWriter<DBObject> {
         }
     }
 
+    @Override
+    public void writeRecords(final List<DBObject> records) throws RecordProcessingException {
+        try {
+            BulkWriteOperation bulkWriteOperation = collection.initializeOrderedBulkOperation();
+            for (DBObject record : records) {
+                // same semantic as DBCollection#save: upsert documents having an id, insert the others
+                Object id = record.get("_id");
+                if (id != null) {
+                    bulkWriteOperation.find(new BasicDBObject("_id", id)).upsert().replaceOne(record);
+                } else {
+                    bulkWriteOperation.insert(record);
+                }
+            }
+            bulkWriteOperation.execute();
+        } catch (BulkWriteException e) {
+            // the ordered bulk operation stops at the first failed document
+            String message = format("Unable to write a chunk of %d documents to MongoDB server", records.size());
+            List<BulkWriteError> writeErrors = e.getWriteErrors();
+            if (!writeErrors.isEmpty()) {
+                message += format(", first failed document: %s", records.get(writeErrors.get(0).getIndex()));
+            }
+            throw new RecordProcessingException(message, e);
+        } catch (Exception e) {
+            throw new RecordProcessingException(format("Unable to write a chunk of %d documents to MongoDB server", records.size()), e);
+        }
+    }
+
 }
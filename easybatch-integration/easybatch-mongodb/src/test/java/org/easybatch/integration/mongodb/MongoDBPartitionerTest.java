@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.integration.mongodb;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import org.easybatch.core.api.PartitioningException;
+import org.easybatch.core.api.RecordReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link MongoDBPartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MongoDBPartitionerTest {
+
+    private DBObject query;
+
+    @Mock
+    private DBCollection collection;
+
+    @Mock
+    private DBCursor boundaryCursor, partitionCursor;
+
+    @Before
+    public void setUp() throws Exception {
+        query = new BasicDBObject("type", "tweet");
+        when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(boundaryCursor);
+        when(boundaryCursor.sort(any(DBObject.class))).thenReturn(boundaryCursor);
+        when(boundaryCursor.skip(anyInt())).thenReturn(boundaryCursor);
+        when(boundaryCursor.limit(anyInt())).thenReturn(boundaryCursor);
+        when(boundaryCursor.hasNext()).thenReturn(true);
+        when(boundaryCursor.next()).thenReturn(new BasicDBObject("_id", 5));
+        when(collection.find(any(DBObject.class))).thenReturn(partitionCursor);
+    }
+
+    @Test
+    public void documentsShouldBeSplitOnIdBoundaries() throws Exception {
+        when(collection.count(query)).thenReturn(10L);
+
+        List<RecordReader> readers = new MongoDBPartitioner(collection, query).partition(2);
+
+        assertThat(readers).hasSize(2);
+        verify(boundaryCursor).skip(5);
+        readers.get(0).open();
+        readers.get(1).open();
+        ArgumentCaptor<DBObject> partitionQueries = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection, atLeastOnce()).find(partitionQueries.capture());
+        assertThat(partitionQueries.getAllValues().get(0).toString()).contains("\"$lt\" : 5");
+        assertThat(partitionQueries.getAllValues().get(1).toString()).contains("\"$gte\" : 5");
+    }
+
+    @Test
+    public void whenThereAreNoDocuments_thenASinglePartitionShouldBeCreated() throws Exception {
+        when(collection.count(query)).thenReturn(0L);
+
+        List<RecordReader> readers = new MongoDBPartitioner(collection, query).partition(3);
+
+        assertThat(readers).hasSize(1);
+    }
+
+    @Test(expected = PartitioningException.class)
+    public void whenMoreDocumentsThanCanBeSkippedMatch_thenPartitioningShouldFail() throws Exception {
+        when(collection.count(query)).thenReturn(Integer.MAX_VALUE + 1L);
+
+        new MongoDBPartitioner(collection, query).partition(2);
+    }
+
+}
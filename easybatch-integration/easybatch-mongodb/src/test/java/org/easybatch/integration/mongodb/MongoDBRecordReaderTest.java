@@ -24,6 +24,7 @@
 
 package org.easybatch.integration.mongodb;
 
+import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
@@ -32,10 +33,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -111,6 +115,50 @@ public class MongoDBRecordReaderTest {
         verify(collection).getName();
     }
 
+    @Test
+    public void whenDocumentsAreSortedById_thenCurrentPositionShouldBeTheLastId() throws Exception {
+        when(dbObject.get("_id")).thenReturn(42);
+        reader.setSort(new BasicDBObject("_id", 1));
+        reader.readNextRecord();
+
+        assertThat(reader.getCurrentPosition()).isEqualTo("42");
+    }
+
+    @Test
+    public void whenDocumentsAreNotSortedById_thenCurrentPositionShouldBeNull() throws Exception {
+        when(dbObject.get("_id")).thenReturn(42);
+        reader.readNextRecord();
+
+        assertThat(reader.getCurrentPosition()).isNull();
+    }
+
+    @Test
+    public void testResumeFromLastId() throws Exception {
+        when(collection.find(any(DBObject.class))).thenReturn(cursor);
+        reader = new MongoDBRecordReader(collection, query);
+        reader.setSort(new BasicDBObject("_id", 1));
+        reader.resumeFrom("42", 5);
+        reader.open();
+
+        Record record = reader.readNextRecord();
+
+        assertThat(record.getHeader().getNumber()).isEqualTo(6);
+        ArgumentCaptor<DBObject> resumedQuery = ArgumentCaptor.forClass(DBObject.class);
+        verify(collection, atLeastOnce()).find(resumedQuery.capture());
+        assertThat(resumedQuery.getValue().toString()).contains("\"$gt\" : 42");
+    }
+
+    @Test
+    public void whenTheLimitHasBeenReachedBeforeResuming_thenNoRecordShouldBeRead() throws Exception {
+        reader = new MongoDBRecordReader(collection, query);
+        reader.setSort(new BasicDBObject("_id", 1));
+        reader.setLimit(5);
+        reader.resumeFrom("42", 5);
+        reader.open();
+
+        assertThat(reader.hasNextRecord()).isFalse();
+    }
+
     @After
     public void tearDown() throws Exception {
         reader.close();
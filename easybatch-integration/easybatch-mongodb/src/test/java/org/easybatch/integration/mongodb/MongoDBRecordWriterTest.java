@@ -24,6 +24,10 @@
 
 package org.easybatch.integration.mongodb;
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
 import org.easybatch.core.api.RecordProcessingException;
@@ -33,6 +37,10 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +58,9 @@ public class MongoDBRecordWriterTest {
     @Mock
     private DBObject dbObject;
 
+    @Mock
+    private BulkWriteOperation bulkWriteOperation;
+
     @Mock
     private RuntimeException exception;
 
@@ -73,4 +84,30 @@ public class MongoDBRecordWriterTest {
 
         mongoDBRecordWriter.processRecord(dbObject);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWriteRecords() throws Exception {
+        when(collection.initializeOrderedBulkOperation()).thenReturn(bulkWriteOperation);
+
+        mongoDBRecordWriter.writeRecords(asList(dbObject));
+
+        verify(bulkWriteOperation).insert(dbObject);
+        verify(bulkWriteOperation).execute();
+    }
+
+    @Test
+    public void theFirstFailedDocumentOfAChunkShouldBeReported() throws Exception {
+        DBObject failedDocument = new BasicDBObject("name", "failed");
+        BulkWriteException bulkWriteException = mock(BulkWriteException.class);
+        when(bulkWriteException.getWriteErrors()).thenReturn(asList(new BulkWriteError(11000, "duplicate key", new BasicDBObject(), 1)));
+        when(collection.initializeOrderedBulkOperation()).thenReturn(bulkWriteOperation);
+        when(bulkWriteOperation.execute()).thenThrow(bulkWriteException);
+
+        try {
+            mongoDBRecordWriter.writeRecords(asList(dbObject, failedDocument));
+            fail("the bulk write exception should be rethrown");
+        } catch (RecordProcessingException e) {
+            assertThat(e.getMessage()).contains("chunk of 2 documents").contains(failedDocument.toString());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.jdbc;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.PartitioningException;
+import org.easybatch.core.api.RecordReader;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A {@link Partitioner} that splits the rows of a query into ranges of a numeric key column.
+ * <p/>
+ * The range between the minimum and the maximum keys is split into ranges of equal width: partitions are
+ * balanced when keys are evenly distributed (auto-generated identifiers for example).
+ * Each partition is read by a {@link JdbcRecordReader} ordering rows by the key column, with its own connection
+ * which is taken from the data source when the reader is opened and released when it is closed.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JdbcPartitioner implements Partitioner {
+
+    private static final Logger LOGGER = Logger.getLogger(JdbcPartitioner.class.getSimpleName());
+
+    private DataSource dataSource;
+
+    private String query;
+
+    private String keyColumn;
+
+    /**
+     * Create a jdbc partitioner.
+     *
+     * @param dataSource the data source providing a connection for each partition
+     * @param query      the jdbc query to use to fetch data
+     * @param keyColumn  the unique numeric column used to split rows
+     */
+    public JdbcPartitioner(final DataSource dataSource, final String query, final String keyColumn) {
+        checkNotNull(dataSource, "data source");
+        checkNotNull(query, "query");
+        checkNotNull(keyColumn, "key column");
+        this.dataSource = dataSource;
+        this.query = query;
+        this.keyColumn = keyColumn;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) throws PartitioningException {
+        checkArgument(partitions >= 1, "The number of partitions should be greater than or equal to 1");
+        List<RecordReader> readers = new ArrayList<RecordReader>();
+        try {
+            long[] keyRange = getKeyRange();
+            if (keyRange == null) {
+                readers.add(newReader(query));
+                return readers;
+            }
+            long min = keyRange[0];
+            long max = keyRange[1];
+            long width = Math.max(1, (max - min) / partitions + 1);
+            for (long lower = min; lower <= max; lower += width) {
+                long upper = Math.min(max, lower + width - 1);
+                readers.add(newReader("SELECT * FROM (" + query + ") partitioned_query WHERE " +
+                        keyColumn + " BETWEEN " + lower + " AND " + upper + " ORDER BY " + keyColumn));
+                if (upper == max) {
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            throw new PartitioningException("Unable to partition query " + query, e);
+        }
+        return readers;
+    }
+
+    /*
+     * Minimum and maximum keys, or null if there is no row.
+     */
+    private long[] getKeyRange() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            try {
+                ResultSet resultSet = statement.executeQuery("SELECT MIN(" + keyColumn + "), MAX(" + keyColumn + ") FROM (" + query + ") partitioned_query");
+                resultSet.next();
+                long min = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    return null;
+                }
+                return new long[]{min, resultSet.getLong(2)};
+            } finally {
+                statement.close();
+            }
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
+    private JdbcRecordReader newReader(final String partitionQuery) {
+        JdbcRecordReader reader = new JdbcRecordReader(dataSource, partitionQuery);
+        reader.setKeyColumn(keyColumn);
+        return reader;
+    }
+
+    private void closeConnection(final Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Unable to close connection", e);
+        }
+    }
+
+}
@@ -25,28 +25,36 @@
 package org.easybatch.jdbc;
 
 import org.easybatch.core.api.Header;
-import org.easybatch.core.api.RecordReader;
 import org.easybatch.core.api.RecordReaderClosingException;
 import org.easybatch.core.api.RecordReaderOpeningException;
+import org.easybatch.core.api.ResumableRecordReader;
+import org.easybatch.core.api.TransientRecordReader;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
 
 /**
  * A {@link org.easybatch.core.api.RecordReader} that reads records from a database using jdbc API.
  * <p/>
- * This reader produces {@link JdbcRecord} instances.
+ * This reader produces {@link JdbcRecord} instances. Their payload is the result set positioned on the current row:
+ * records must be mapped before the next record is read, so this reader cannot be prefetched nor used in staged
+ * execution (see {@link TransientRecordReader}).
+ * <p/>
+ * When a key column is set (see {@link #setKeyColumn(String)}), this reader can resume reading after the last key read.
+ * In this case, the query must order rows by the key column.
  *
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class JdbcRecordReader implements RecordReader {
+public class JdbcRecordReader implements ResumableRecordReader, TransientRecordReader {
 
     /**
      * The logger to use.
@@ -58,6 +66,11 @@ public class JdbcRecordReader implements RecordReader {
      */
     private Connection connection;
 
+    /**
+     * The data source providing the connection when the reader is opened, if any.
+     */
+    private DataSource dataSource;
+
     /**
      * The statement to use to read data.
      */
@@ -93,6 +106,23 @@ public class JdbcRecordReader implements RecordReader {
      */
     private long currentRecordNumber;
 
+    /**
+     * The unique and ordered column used to resume reading.
+     */
+    private String keyColumn;
+
+    /**
+     * The key position (in the "sqlType:value" format) and the record number to resume from.
+     */
+    private String resumePosition;
+
+    private long resumeRecordNumber;
+
+    /**
+     * True if the maximum number of rows has already been read before resuming.
+     */
+    private boolean maxRowsReached;
+
     /**
      * Create a JdbcRecordReader instance.
      *
@@ -104,13 +134,40 @@ public class JdbcRecordReader implements RecordReader {
         this.query = query;
     }
 
+    /**
+     * Create a JdbcRecordReader instance getting its connection from a data source when opened,
+     * and closing it when closed.
+     * <p/>
+     * The data source name of this reader is the query string, so that it is known before the reader is opened.
+     *
+     * @param dataSource the data source providing the connection to use to read data
+     * @param query      the jdbc query to use to fetch data
+     */
+    public JdbcRecordReader(final DataSource dataSource, final String query) {
+        checkNotNull(dataSource, "data source");
+        this.dataSource = dataSource;
+        this.query = query;
+    }
+
     @Override
     public void open() throws RecordReaderOpeningException {
-        currentRecordNumber = 0;
+        currentRecordNumber = resumeRecordNumber;
+        // rows read before resuming count towards the maximum number of rows
+        maxRowsReached = maxRows >= 1 && resumeRecordNumber >= maxRows;
+        if (maxRowsReached) {
+            return;
+        }
         try {
-            statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (dataSource != null) {
+                connection = dataSource.getConnection();
+            }
+            if (resumePosition != null) {
+                statement = prepareResumedQuery();
+            } else {
+                statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            }
             if (maxRows >= 1) {
-                statement.setMaxRows(maxRows);
+                statement.setMaxRows((int) (maxRows - resumeRecordNumber));
             }
             if (fetchSize >= 1) {
                 statement.setFetchSize(fetchSize);
@@ -118,7 +175,11 @@ public class JdbcRecordReader implements RecordReader {
             if (queryTimeout >= 1) {
                 statement.setQueryTimeout(queryTimeout);
             }
-            resultSet = statement.executeQuery(query);
+            if (statement instanceof PreparedStatement) {
+                resultSet = ((PreparedStatement) statement).executeQuery();
+            } else {
+                resultSet = statement.executeQuery(query);
+            }
 
         } catch (SQLException e) {
             throw new RecordReaderOpeningException("Unable to open record reader", e);
@@ -127,6 +188,9 @@ public class JdbcRecordReader implements RecordReader {
 
     @Override
     public boolean hasNextRecord() {
+        if (maxRowsReached) {
+            return false;
+        }
         try {
             return resultSet.next();
         } catch (SQLException e) {
@@ -137,10 +201,58 @@ public class JdbcRecordReader implements RecordReader {
 
     @Override
     public JdbcRecord readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new JdbcRecord(header, resultSet);
     }
 
+    /**
+     * Return the position of the current row in the "sqlType:value" format, or null if no key column is set.
+     */
+    @Override
+    public String getCurrentPosition() {
+        if (keyColumn == null || resultSet == null) {
+            return null;
+        }
+        try {
+            int columnIndex = resultSet.findColumn(keyColumn);
+            int sqlType = resultSet.getMetaData().getColumnType(columnIndex);
+            String value = resultSet.getString(columnIndex);
+            return value != null ? sqlType + ":" + value : null;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Unable to get the key of the current database record", e);
+            return null;
+        }
+    }
+
+    /**
+     * Resume reading after the given key.
+     *
+     * @param position     the key of the last row read, in the "sqlType:value" format
+     * @param recordNumber the number of the last record read
+     */
+    @Override
+    public void resumeFrom(final String position, final long recordNumber) {
+        checkNotNull(keyColumn, "key column");
+        checkArgument(position.indexOf(':') > 0, "position must be in the 'sqlType:value' format");
+        this.resumePosition = position;
+        this.resumeRecordNumber = recordNumber;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The payload of records is the result set, which moves to the next row when the next record is read.
+     */
+    @Override
+    public boolean hasTransientRecords() {
+        return true;
+    }
+
+    @Override
+    public boolean isReusingRecords() {
+        return false;
+    }
+
     @Override
     public Long getTotalRecords() {
         return null;
@@ -148,6 +260,9 @@ public class JdbcRecordReader implements RecordReader {
 
     @Override
     public String getDataSourceName() {
+        if (dataSource != null) {
+            return "Query string: " + query;
+        }
         try {
             return "Connection URL: " + connection.getMetaData().getURL() + " | " +
                     "Query string: " + query;
@@ -169,12 +284,35 @@ public class JdbcRecordReader implements RecordReader {
             if (connection != null) {
                 connection.close();
             }
+            if (dataSource != null) {
+                connection = null;
+            }
         } catch (SQLException e) {
             throw new RecordReaderClosingException("Unable to close record reader", e);
         }
 
     }
 
+    /**
+     * Set the unique column by which the query orders rows. This column is used to resume reading from a checkpoint.
+     *
+     * @param keyColumn the key column name
+     */
+    public void setKeyColumn(final String keyColumn) {
+        checkNotNull(keyColumn, "key column");
+        this.keyColumn = keyColumn;
+    }
+
+    private PreparedStatement prepareResumedQuery() throws SQLException {
+        int separator = resumePosition.indexOf(':');
+        int sqlType = Integer.parseInt(resumePosition.substring(0, separator));
+        String lastKey = resumePosition.substring(separator + 1);
+        String resumedQuery = "SELECT * FROM (" + query + ") resumed_query WHERE " + keyColumn + " > ? ORDER BY " + keyColumn;
+        PreparedStatement preparedStatement = connection.prepareStatement(resumedQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        preparedStatement.setObject(1, lastKey, sqlType);
+        return preparedStatement;
+    }
+
     /**
      * Set the maximum number of rows to fetch.
      *
@@ -24,19 +24,29 @@
 
 package org.easybatch.jdbc;
 
+import org.easybatch.core.api.BatchRecordWriter;
 import org.easybatch.core.api.RecordProcessingException;
 import org.easybatch.core.writer.AbstractRecordWriter;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Write records to a database using the JDBC API.
+ * <p/>
+ * In chunk mode, records of a chunk are sent to the database in a single JDBC batch.
  * 
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class JdbcRecordWriter extends AbstractRecordWriter {
+public class JdbcRecordWriter extends AbstractRecordWriter<Object> implements BatchRecordWriter<Object> {
+
+    private static final Logger LOGGER = Logger.getLogger(JdbcRecordWriter.class.getName());
 
     private Connection connection;
 
@@ -68,4 +78,52 @@ public class JdbcRecordWriter extends AbstractRecordWriter {
         }
     }
 
+    @Override
+    public void writeRecords(final List<Object> records) throws RecordProcessingException {
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = connection.prepareStatement(query);
+            for (Object record : records) {
+                preparedStatementProvider.prepareStatement(preparedStatement, record);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            String message = "Unable to write a chunk of " + records.size() + " records to database";
+            int failedRecordIndex = getFirstFailedRecordIndex(e, records.size());
+            if (failedRecordIndex != -1) {
+                message += ", first failed record: " + records.get(failedRecordIndex);
+            }
+            throw new RecordProcessingException(message, e);
+        } finally {
+            closeStatement(preparedStatement);
+        }
+    }
+
+    /*
+     * Drivers either stop at the first failed command of a batch, or report failed commands in update counts.
+     */
+    private int getFirstFailedRecordIndex(final SQLException e, final int recordsCount) {
+        if (!(e instanceof BatchUpdateException) || ((BatchUpdateException) e).getUpdateCounts() == null) {
+            return -1;
+        }
+        int[] updateCounts = ((BatchUpdateException) e).getUpdateCounts();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return updateCounts.length < recordsCount ? updateCounts.length : -1;
+    }
+
+    private void closeStatement(final PreparedStatement preparedStatement) {
+        if (preparedStatement != null) {
+            try {
+                preparedStatement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Unable to close prepared statement", e);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.jdbc;
+
+import org.easybatch.core.api.event.step.ChunkEventListener;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Listener that commits a transaction after writing each chunk of records.
+ * <p/>
+ * This listener should be used instead of a {@link JdbcTransactionStepListener} when the engine runs in chunk mode.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JdbcTransactionChunkListener implements ChunkEventListener {
+
+    private static final Logger LOGGER = Logger.getLogger(JdbcTransactionChunkListener.class.getSimpleName());
+
+    private Connection connection;
+
+    /**
+     * Create a JDBC chunk transaction listener.
+     *
+     * @param connection the JDBC connection (should be in auto-commit = false)
+     */
+    public JdbcTransactionChunkListener(final Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public void beforeChunkWriting(final List<Object> records) {
+        // no op
+    }
+
+    @Override
+    public void afterChunkWriting(final List<Object> records) {
+        try {
+            connection.commit();
+            LOGGER.info("Committing transaction after writing a chunk of " + records.size() + " record(s)");
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Unable to commit transaction", e);
+        }
+    }
+
+    @Override
+    public void onChunkWritingException(final List<Object> records, final Throwable throwable) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Unable to rollback transaction", e);
+        }
+    }
+}
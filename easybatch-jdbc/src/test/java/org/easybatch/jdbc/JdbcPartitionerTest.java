@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+package org.easybatch.jdbc;
+
+import org.easybatch.core.api.RecordReader;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for {@link JdbcPartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JdbcPartitionerTest {
+
+    private static final int ROWS = 10;
+
+    private static JDBCDataSource dataSource;
+
+    @BeforeClass
+    public static void initDatabase() throws Exception {
+        dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:partitions");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("CREATE TABLE item (id integer NOT NULL PRIMARY KEY, name varchar(32) NOT NULL)");
+        for (int i = 1; i <= ROWS; i++) {
+            statement.executeUpdate("INSERT INTO item VALUES (" + i + ", 'item " + i + "')");
+        }
+        statement.close();
+        connection.close();
+    }
+
+    @Test
+    public void partitionsShouldCoverAllRowsWithoutOverlapping() throws Exception {
+        List<RecordReader> readers = new JdbcPartitioner(dataSource, "select * from item", "id").partition(3);
+
+        assertThat(readers).hasSize(3);
+        List<Integer> ids = readIds(readers);
+        assertThat(ids).hasSize(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            assertThat(ids.get(i - 1)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void whenThereAreMorePartitionsThanKeys_thenEmptyPartitionsShouldNotBeCreated() throws Exception {
+        List<RecordReader> readers = new JdbcPartitioner(dataSource, "select * from item", "id").partition(ROWS * 2);
+
+        assertThat(readers).hasSize(ROWS);
+        assertThat(readIds(readers)).hasSize(ROWS);
+    }
+
+    @Test
+    public void whenTheQueryReturnsNoRows_thenASinglePartitionShouldBeCreated() throws Exception {
+        List<RecordReader> readers = new JdbcPartitioner(dataSource, "select * from item where id > 100", "id").partition(3);
+
+        assertThat(readers).hasSize(1);
+        assertThat(readIds(readers)).isEmpty();
+    }
+
+    @Test
+    public void connectionsShouldBeTakenWhenPartitionsAreOpened() throws Exception {
+        DataSource spiedDataSource = spy(dataSource);
+        List<RecordReader> readers = new JdbcPartitioner(spiedDataSource, "select * from item", "id").partition(3);
+
+        // the connection used to get the key range
+        verify(spiedDataSource, times(1)).getConnection();
+
+        readers.get(0).open();
+        verify(spiedDataSource, times(2)).getConnection();
+        readers.get(0).close();
+    }
+
+    @AfterClass
+    public static void shutdownDatabase() throws Exception {
+        Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        statement.execute("SHUTDOWN");
+        statement.close();
+        connection.close();
+    }
+
+    private List<Integer> readIds(final List<RecordReader> readers) throws Exception {
+        List<Integer> ids = new ArrayList<Integer>();
+        for (RecordReader reader : readers) {
+            reader.open();
+            while (reader.hasNextRecord()) {
+                ids.add(((JdbcRecord) reader.readNextRecord()).getPayload().getInt("id"));
+            }
+            reader.close();
+        }
+        return ids;
+    }
+
+}
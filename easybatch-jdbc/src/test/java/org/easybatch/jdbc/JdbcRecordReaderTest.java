@@ -96,6 +96,44 @@ public class JdbcRecordReaderTest {
         assertThat(jdbcRecordReader.hasNextRecord()).isFalse();
     }
 
+    @Test
+    public void testResumeFromKeyPosition() throws Exception {
+        jdbcRecordReader = new JdbcRecordReader(connection, query + " order by id");
+        jdbcRecordReader.setKeyColumn("id");
+        jdbcRecordReader.open();
+        jdbcRecordReader.hasNextRecord();
+        jdbcRecordReader.readNextRecord();
+        String position = jdbcRecordReader.getCurrentPosition();
+        assertThat(position).isEqualTo(Types.INTEGER + ":1");
+
+        jdbcRecordReader = new JdbcRecordReader(connection, query + " order by id");
+        jdbcRecordReader.setKeyColumn("id");
+        jdbcRecordReader.resumeFrom(position, 1);
+        jdbcRecordReader.open();
+        assertThat(jdbcRecordReader.hasNextRecord()).isTrue();
+        JdbcRecord record = jdbcRecordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2);
+        assertThat(record.getPayload().getString("user")).isEqualTo("bar");
+        assertThat(jdbcRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void whenTheMaxRowsHaveBeenReadBeforeResuming_thenNoRecordShouldBeRead() throws Exception {
+        jdbcRecordReader = new JdbcRecordReader(connection, query + " order by id");
+        jdbcRecordReader.setKeyColumn("id");
+        jdbcRecordReader.setMaxRows(1);
+        jdbcRecordReader.resumeFrom(Types.INTEGER + ":1", 1);
+        jdbcRecordReader.open();
+        assertThat(jdbcRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void whenNoKeyColumnIsSet_thenCurrentPositionShouldBeNull() throws Exception {
+        jdbcRecordReader.hasNextRecord();
+        jdbcRecordReader.readNextRecord();
+        assertThat(jdbcRecordReader.getCurrentPosition()).isNull();
+    }
+
     @Test
     public void testGetDataSourceName() throws Exception {
         System.out.println(jdbcRecordReader.getDataSourceName());
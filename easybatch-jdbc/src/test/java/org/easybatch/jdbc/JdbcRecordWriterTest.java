@@ -24,6 +24,7 @@
 
 package org.easybatch.jdbc;
 
+import org.easybatch.core.api.RecordProcessingException;
 import org.easybatch.core.api.Report;
 import org.easybatch.core.mapper.GenericRecordMapper;
 import org.easybatch.core.reader.IterableRecordReader;
@@ -39,6 +40,7 @@ import java.util.List;
 
 import static java.lang.Long.valueOf;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.easybatch.core.impl.EngineBuilder.aNewEngine;
 
 /**
@@ -75,6 +77,7 @@ public class JdbcRecordWriterTest {
             }
         };
         jdbcRecordWriter = new JdbcRecordWriter(connection, query, preparedStatementProvider);
+        deleteTweets();
     }
 
     @Test
@@ -108,6 +111,47 @@ public class JdbcRecordWriterTest {
         assertThat(nbTweetsInDatabase).isEqualTo(nbTweetsToInsert);
     }
 
+    @Test
+    public void testWriteRecordsInChunkMode() throws Exception {
+
+        Integer nbTweetsToInsert = 13;
+        Integer chunkSize = 5;
+
+        List<Tweet> tweets = createTweets(nbTweetsToInsert);
+
+        Report report = aNewEngine()
+                .reader(new IterableRecordReader<Tweet>(tweets))
+                .mapper(new GenericRecordMapper())
+                .writer(jdbcRecordWriter)
+                .chunkSize(chunkSize)
+                .chunkEventListener(new JdbcTransactionChunkListener(connection))
+                .build().call();
+
+        assertThat(report).isNotNull();
+        assertThat(report.getTotalRecords()).isEqualTo(valueOf(nbTweetsToInsert));
+        assertThat(report.getSuccessRecordsCount()).isEqualTo(valueOf(nbTweetsToInsert));
+
+        int nbTweetsInDatabase = countTweetsInDatabase();
+
+        assertThat(nbTweetsInDatabase).isEqualTo(nbTweetsToInsert);
+    }
+
+    @Test
+    public void theFirstFailedRecordOfAChunkShouldBeReported() throws Exception {
+        List<Object> tweets = new ArrayList<Object>(createTweets(2));
+        Tweet duplicate = new Tweet(1, "user 1", "hello again");
+        tweets.add(duplicate);
+
+        try {
+            jdbcRecordWriter.writeRecords(tweets);
+            fail("the duplicate tweet should not be written");
+        } catch (RecordProcessingException e) {
+            assertThat(e.getMessage()).contains("chunk of 3 records").contains(duplicate.toString());
+        } finally {
+            connection.rollback();
+        }
+    }
+
     private int countTweetsInDatabase() throws SQLException {
         Statement statement = connection.createStatement();
         ResultSet resultSet = statement.executeQuery("select * from tweet");
@@ -120,6 +164,13 @@ public class JdbcRecordWriterTest {
         return nbTweets;
     }
 
+    private void deleteTweets() throws SQLException {
+        Statement statement = connection.createStatement();
+        statement.executeUpdate("delete from tweet");
+        statement.close();
+        connection.commit();
+    }
+
     private List<Tweet> createTweets(Integer nbTweetsToInsert) {
         List<Tweet> tweets = new ArrayList<Tweet>();
         for (int i = 1; i <= nbTweetsToInsert; i++) {
@@ -27,7 +27,6 @@ package org.easybatch.jms;
 import org.easybatch.core.api.*;
 
 import javax.jms.*;
-import java.util.Date;
 
 /**
  * A record reader that reads records from a JMS queue.
@@ -88,7 +87,7 @@ public class JmsRecordReader implements RecordReader {
             Message message = queueReceiver.receive();
             String type = message.getJMSType();
             stop = message instanceof JmsPoisonMessage || (type != null && JmsPoisonMessage.TYPE.equals(type));
-            Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+            Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
             return new JmsRecord(header, message);
         } catch (JMSException e) {
             throw new RecordReadingException("Unable to read next record", e);
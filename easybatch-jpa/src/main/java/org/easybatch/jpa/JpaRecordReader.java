@@ -31,7 +31,6 @@ import org.easybatch.core.record.GenericRecord;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
@@ -100,7 +99,7 @@ public class JpaRecordReader<T> implements RecordReader {
 
     @Override
     public GenericRecord<T> readNextRecord() {
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new GenericRecord<T>(header, iterator.next());
     }
 
@@ -24,10 +24,14 @@
 
 package org.easybatch.jpa;
 
+import org.easybatch.core.api.BatchRecordWriter;
 import org.easybatch.core.api.RecordProcessingException;
 import org.easybatch.core.writer.AbstractRecordWriter;
 
 import javax.persistence.EntityManager;
+import java.util.List;
+
+import static java.lang.String.format;
 
 /**
  * Write entities to a database using JPA.
@@ -38,7 +42,7 @@ import javax.persistence.EntityManager;
  * @param <T> the entity type.
  * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
  */
-public class JpaRecordWriter<T> extends AbstractRecordWriter<T> {
+public class JpaRecordWriter<T> extends AbstractRecordWriter<T> implements BatchRecordWriter<T> {
 
     private EntityManager entityManager;
 
@@ -55,4 +59,24 @@ public class JpaRecordWriter<T> extends AbstractRecordWriter<T> {
     public void writeRecord(final T record) throws RecordProcessingException {
         entityManager.persist(record);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Entities of the chunk are persisted and flushed together, then detached from the persistence context so that
+     * its size does not grow with the number of chunks. Chunks must be written in a transaction, maybe using a
+     * {@link JpaTransactionStepListener}.
+     */
+    @Override
+    public void writeRecords(final List<T> records) throws RecordProcessingException {
+        try {
+            for (T record : records) {
+                entityManager.persist(record);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } catch (RuntimeException e) {
+            throw new RecordProcessingException(format("Unable to write a chunk of %d entities", records.size()), e);
+        }
+    }
 }
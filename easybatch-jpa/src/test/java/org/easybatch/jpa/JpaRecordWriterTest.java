@@ -108,6 +108,29 @@ public class JpaRecordWriterTest {
         assertThat(nbTweetsInDatabase).isEqualTo(nbTweetsToInsert);
     }
 
+    @Test
+    public void chunksShouldBeFlushedAndDetachedFromThePersistenceContext() throws Exception {
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        for (int i = 101; i <= 103; i++) {
+            tweets.add(new Tweet(i, "user " + i, "hello " + i));
+        }
+
+        entityManager.getTransaction().begin();
+        jpaRecordWriter.writeRecords(tweets);
+        assertThat(entityManager.contains(tweets.get(0))).isFalse();
+        entityManager.getTransaction().commit();
+
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery("select count(*) from tweet where id > 100");
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isEqualTo(3);
+            statement.executeUpdate("delete from tweet where id > 100");
+        } finally {
+            statement.close();
+        }
+    }
+
     private List<Tweet> createTweets(Integer nbTweetsToInsert) {
         List<Tweet> tweets = new ArrayList<Tweet>();
         for (int i = 1; i <= nbTweetsToInsert; i++) {
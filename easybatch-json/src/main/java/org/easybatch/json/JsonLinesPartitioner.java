@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.json;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.PartitioningException;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.util.Compression;
+import org.easybatch.core.util.LineReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A {@link Partitioner} that splits a newline delimited Json file into byte ranges of (almost) equal size, aligned on
+ * line boundaries.
+ * <p/>
+ * Each partition is read by a {@link JsonLinesRecordReader} reading lines starting in its byte range. With a
+ * {@link org.easybatch.core.impl.PartitionedEngineRunner}, records of each partition are read, parsed and mapped by
+ * their own engine, so that a file is processed on as many cores as there are partitions.
+ * Record numbers restart from 1 in each partition.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JsonLinesPartitioner implements Partitioner {
+
+    private File input;
+
+    /**
+     * Create a Json Lines partitioner.
+     *
+     * @param input the input file
+     */
+    public JsonLinesPartitioner(final File input) {
+        checkNotNull(input, "input");
+        this.input = input;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) throws PartitioningException {
+        checkArgument(partitions >= 1, "The number of partitions should be greater than or equal to 1");
+        List<RecordReader> readers = new ArrayList<RecordReader>();
+        try {
+            if (Compression.detect(input) != null) {
+                throw new PartitioningException("Compressed file " + input.getName() + " cannot be partitioned");
+            }
+            FileChannel channel = new FileInputStream(input).getChannel();
+            try {
+                long size = channel.size();
+                long start = 0;
+                for (int i = 1; i <= partitions && start < size; i++) {
+                    long end = i == partitions ? size : LineReader.nextLineStart(channel, size * i / partitions);
+                    if (end > start) {
+                        JsonLinesRecordReader reader = new JsonLinesRecordReader(input);
+                        reader.setRange(start, end);
+                        readers.add(reader);
+                        start = end;
+                    }
+                }
+            } finally {
+                channel.close();
+            }
+        } catch (FileNotFoundException e) {
+            throw new PartitioningException("Unable to find file " + input.getName(), e);
+        } catch (IOException e) {
+            throw new PartitioningException("Unable to partition file " + input.getName(), e);
+        }
+        return readers;
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.json;
+
+import org.easybatch.core.api.*;
+import org.easybatch.core.util.Compression;
+import org.easybatch.core.util.LineReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * Record reader that reads Json records from newline delimited Json (also known as Json Lines), one record per line:
+ *
+ * <p>
+ * {"id":1,"user":"foo"}<br/>
+ * {"id":2,"user":"bar"}
+ * </p>
+ *
+ * <p>Lines are read with a {@link LineReader} and are not parsed: each line is the payload of a {@link JsonRecord},
+ * which can be mapped to domain objects like records of a {@link JsonRecordReader}. Blank lines are skipped.
+ * Input is encoded in UTF-8, gzip and zip inputs are decompressed while being read (see {@link Compression}).</p>
+ *
+ * <p>To read and map a file on several cores, use a {@link JsonLinesPartitioner}.</p>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JsonLinesRecordReader implements RecordReader {
+
+    private static final Logger LOGGER = Logger.getLogger(JsonLinesRecordReader.class.getName());
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The input file, or the data source stream.
+     */
+    private File input;
+
+    private InputStream inputStream;
+
+    private String dataSourceName;
+
+    /**
+     * The size of the read buffer.
+     */
+    private int bufferSize = LineReader.DEFAULT_BUFFER_SIZE;
+
+    /**
+     * The byte range of lines to read (when reading a partition).
+     */
+    private long startOffset;
+
+    private long endOffset = Long.MAX_VALUE;
+
+    private LineReader lineReader;
+
+    /**
+     * The next non blank line, null if not read yet.
+     */
+    private String nextLine;
+
+    /**
+     * The current record number.
+     */
+    private long currentRecordNumber;
+
+    /**
+     * Create a Json Lines record reader reading a file.
+     *
+     * @param input the input file
+     */
+    public JsonLinesRecordReader(final File input) {
+        checkNotNull(input, "input");
+        this.input = input;
+        this.dataSourceName = input.getAbsolutePath();
+    }
+
+    /**
+     * Create a Json Lines record reader reading a stream.
+     *
+     * @param inputStream the data source stream
+     */
+    public JsonLinesRecordReader(final InputStream inputStream) {
+        checkNotNull(inputStream, "input stream");
+        this.inputStream = inputStream;
+        this.dataSourceName = "Json stream";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void open() throws RecordReaderOpeningException {
+        currentRecordNumber = 0;
+        nextLine = null;
+        try {
+            if (input == null) {
+                lineReader = new LineReader(Channels.newChannel(Compression.autoDecompress(inputStream)), UTF_8, bufferSize);
+            } else if (Compression.detect(input) != null) {
+                if (startOffset != 0 || endOffset != Long.MAX_VALUE) {
+                    throw new RecordReaderOpeningException("Compressed file " + input.getName() + " cannot be read by range");
+                }
+                lineReader = new LineReader(Channels.newChannel(Compression.open(input)), UTF_8, bufferSize);
+            } else {
+                FileChannel channel = new FileInputStream(input).getChannel();
+                channel.position(startOffset);
+                lineReader = new LineReader(channel, UTF_8, bufferSize, startOffset);
+            }
+        } catch (FileNotFoundException e) {
+            throw new RecordReaderOpeningException("Unable to find file " + input.getName(), e);
+        } catch (IOException e) {
+            throw new RecordReaderOpeningException("Unable to open record reader", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNextRecord() {
+        try {
+            while (nextLine == null) {
+                long position = lineReader.getPosition();
+                if (position != LineReader.UNKNOWN_POSITION && position >= endOffset) {
+                    return false;
+                }
+                String line = lineReader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (!line.trim().isEmpty()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "An exception occurred while checking the existence of next line", e);
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonRecord readNextRecord() throws RecordReadingException {
+        if (!hasNextRecord()) {
+            throw new RecordReadingException("No more records to read from " + dataSourceName);
+        }
+        String line = nextLine;
+        nextLine = null;
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        return new JsonRecord(header, line);
+    }
+
+    @Override
+    public Long getTotalRecords() {
+        return null;
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws RecordReaderClosingException {
+        if (lineReader != null) {
+            try {
+                lineReader.close();
+            } catch (IOException e) {
+                throw new RecordReaderClosingException("Unable to close record reader", e);
+            }
+        }
+    }
+
+    /**
+     * Set the size of the read buffer (64KB by default). The buffer grows to hold lines larger than it.
+     *
+     * @param bufferSize the buffer size in bytes
+     */
+    public void setBufferSize(final int bufferSize) {
+        checkArgument(bufferSize >= 1, "buffer size parameter must be greater than or equal to 1");
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Read only lines starting in the given byte range (used by {@link JsonLinesPartitioner}).
+     * Both offsets must be at the beginning of a line.
+     */
+    void setRange(final long startOffset, final long endOffset) {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.dataSourceName = input.getAbsolutePath() + " (bytes " + startOffset + " to " + endOffset + ")";
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.json;
+
+import org.easybatch.core.api.BatchRecordWriter;
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordProcessingException;
+import org.easybatch.core.writer.AbstractRecordWriter;
+
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * Writes the <strong>payload</strong> of records as newline delimited Json (also known as Json Lines), one record per
+ * line.
+ * <p/>
+ * Payloads are Json strings (as read by {@link JsonRecordReader} or produced by a Json marshaller) or Json values of
+ * the Json processing API. Line terminators in Json strings can only be whitespace between tokens: they are written as
+ * spaces so that each record stays on its own line, without parsing payloads.
+ * <p/>
+ * The writer is flushed after each record, or after each chunk in chunk mode. Users of this class are responsible for
+ * opening/closing the writer, maybe using a {@link org.easybatch.core.api.event.job.JobEventListener}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JsonLinesRecordWriter extends AbstractRecordWriter<Object> implements BatchRecordWriter<Object> {
+
+    private static final char LF = '\n';
+
+    private static final char CR = '\r';
+
+    private Writer writer;
+
+    /**
+     * Create a Json Lines record writer.
+     *
+     * @param writer the writer to write records to
+     */
+    public JsonLinesRecordWriter(final Writer writer) {
+        checkNotNull(writer, "writer");
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeRecord(final Object record) throws RecordProcessingException {
+        CharSequence json = toJson(record);
+        try {
+            writeLine(json);
+            writer.flush();
+        } catch (IOException e) {
+            throw new RecordProcessingException(format("Unable to write record %s", record), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Payloads are checked before writing: no record of the chunk is written if one of them is not Json.
+     */
+    @Override
+    public void writeRecords(final List<Object> records) throws RecordProcessingException {
+        List<CharSequence> lines = new ArrayList<CharSequence>(records.size());
+        for (Object record : records) {
+            lines.add(toJson(record));
+        }
+        try {
+            for (CharSequence json : lines) {
+                writeLine(json);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new RecordProcessingException(format("Unable to write a chunk of %d records", records.size()), e);
+        }
+    }
+
+    private CharSequence toJson(final Object record) throws RecordProcessingException {
+        Object payload = record instanceof Record ? ((Record) record).getPayload() : record;
+        if (payload instanceof CharSequence) {
+            return (CharSequence) payload;
+        }
+        if (payload instanceof JsonValue) {
+            return payload.toString();
+        }
+        throw new RecordProcessingException(format("Unable to write record %s: its payload is not Json, use a Json marshaller", record));
+    }
+
+    private void writeLine(final CharSequence json) throws IOException {
+        int length = json.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = json.charAt(i);
+            if (c == LF || c == CR) {
+                writer.append(json, start, i).append(' ');
+                start = i + 1;
+            }
+        }
+        writer.append(json, start, length).append(LF);
+    }
+
+}
@@ -32,7 +32,6 @@ import org.easybatch.core.record.MultiRecord;
 
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -59,7 +58,7 @@ public class JsonMultiRecordReader extends AbstractMultiRecordReader {
         do {
             records.add(delegate.readNextRecord());
         } while (items++ < chunkSize && hasNextRecord());
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new MultiRecord(header, records);
     }
 
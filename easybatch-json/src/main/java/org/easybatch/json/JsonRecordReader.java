@@ -26,6 +26,8 @@ package org.easybatch.json;
 
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.api.RecordReaderOpeningException;
+import org.easybatch.core.util.Compression;
 
 import javax.json.Json;
 import javax.json.JsonValue;
@@ -33,9 +35,9 @@ import javax.json.stream.JsonGenerationException;
 import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonGeneratorFactory;
 import javax.json.stream.JsonParser;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
-import java.util.Date;
 import java.util.HashMap;
 
 /**
@@ -93,9 +95,18 @@ public class JsonRecordReader implements RecordReader {
         this.jsonGeneratorFactory = Json.createGeneratorFactory(new HashMap<String, Object>());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Gzip and zip input streams are decompressed while being read (see {@link Compression}).
+     */
     @Override
-    public void open() {
-        parser = Json.createParser(inputStream);
+    public void open() throws RecordReaderOpeningException {
+        try {
+            parser = Json.createParser(Compression.autoDecompress(inputStream));
+        } catch (IOException e) {
+            throw new RecordReaderOpeningException("Unable to open record reader", e);
+        }
     }
 
     @Override
@@ -146,7 +157,7 @@ public class JsonRecordReader implements RecordReader {
             jsonGenerator.writeEnd();
         }
         jsonGenerator.close();
-        Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
         return new JsonRecord(header, stringWriter.toString());
     }
 
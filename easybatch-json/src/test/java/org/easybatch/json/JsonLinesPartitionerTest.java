@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.json;
+
+import org.easybatch.core.api.RecordReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link JsonLinesPartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JsonLinesPartitionerTest {
+
+    private static final int LINES = 100;
+
+    private File input;
+
+    private List<String> expectedRecords;
+
+    @Before
+    public void setUp() throws Exception {
+        input = File.createTempFile("partitions", ".jsonl");
+        expectedRecords = new ArrayList<String>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= LINES; i++) {
+            String record = "{\"id\":" + i + ",\"user\":\"" + (i % 7 == 0 ? "user with a longer name" : "user") + "\"}";
+            expectedRecords.add(record);
+            content.append(record).append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        FileOutputStream outputStream = new FileOutputStream(input);
+        outputStream.write(content.toString().getBytes("UTF-8"));
+        outputStream.close();
+    }
+
+    @Test
+    public void partitionsShouldCoverAllRecordsWithoutOverlapping() throws Exception {
+        List<RecordReader> readers = new JsonLinesPartitioner(input).partition(7);
+
+        assertThat(readers).hasSize(7);
+        assertThat(readAll(readers)).isEqualTo(expectedRecords);
+    }
+
+    @Test
+    public void whenThereAreMorePartitionsThanLines_thenEmptyPartitionsShouldNotBeCreated() throws Exception {
+        List<RecordReader> readers = new JsonLinesPartitioner(input).partition(LINES * 4);
+
+        assertThat(readers.size()).isLessThanOrEqualTo(LINES);
+        assertThat(readAll(readers)).isEqualTo(expectedRecords);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        input.delete();
+    }
+
+    private List<String> readAll(List<RecordReader> readers) throws Exception {
+        List<String> records = new ArrayList<String>();
+        for (RecordReader reader : readers) {
+            reader.open();
+            while (reader.hasNextRecord()) {
+                records.add((String) reader.readNextRecord().getPayload());
+            }
+            reader.close();
+        }
+        return records;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.json;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link JsonLinesRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JsonLinesRecordReaderTest {
+
+    private static final String JSON_LINES = "{\"id\":1,\"user\":\"foo\",\"message\":\"Hello\"}\n"
+            + "\n"
+            + "{\"id\":2,\"user\":\"bar\",\"message\":\"Hi!\"}\r\n"
+            + "{\"id\":3,\"user\":\"toto\",\"message\":\"yep ;-)\"}";
+
+    private JsonLinesRecordReader recordReader;
+
+    @After
+    public void tearDown() throws Exception {
+        recordReader.close();
+    }
+
+    @Test
+    public void eachNonBlankLineShouldBeARecord() throws Exception {
+        recordReader = new JsonLinesRecordReader(new ByteArrayInputStream(JSON_LINES.getBytes("UTF-8")));
+        recordReader.open();
+
+        assertThat(recordReader.hasNextRecord()).isTrue();
+        JsonRecord record = recordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(1);
+        assertThat(record.getPayload()).isEqualTo("{\"id\":1,\"user\":\"foo\",\"message\":\"Hello\"}");
+
+        assertThat(recordReader.hasNextRecord()).isTrue();
+        record = recordReader.readNextRecord();
+        assertThat(record.getHeader().getNumber()).isEqualTo(2);
+        assertThat(record.getPayload()).isEqualTo("{\"id\":2,\"user\":\"bar\",\"message\":\"Hi!\"}");
+
+        assertThat(recordReader.hasNextRecord()).isTrue();
+        assertThat(recordReader.readNextRecord().getPayload()).isEqualTo("{\"id\":3,\"user\":\"toto\",\"message\":\"yep ;-)\"}");
+        assertThat(recordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void compressedFilesShouldBeDecompressed() throws Exception {
+        File input = File.createTempFile("tweets", ".jsonl.gz");
+        input.deleteOnExit();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed);
+        gzipOutputStream.write(JSON_LINES.getBytes("UTF-8"));
+        gzipOutputStream.close();
+        FileOutputStream outputStream = new FileOutputStream(input);
+        outputStream.write(compressed.toByteArray());
+        outputStream.close();
+
+        recordReader = new JsonLinesRecordReader(input);
+        recordReader.open();
+
+        int records = 0;
+        while (recordReader.hasNextRecord()) {
+            assertThat(recordReader.readNextRecord().getPayload()).startsWith("{\"id\":" + ++records);
+        }
+        assertThat(records).isEqualTo(3);
+    }
+
+    @Test
+    public void emptyStreamsShouldHaveNoRecord() throws Exception {
+        recordReader = new JsonLinesRecordReader(new ByteArrayInputStream(new byte[0]));
+        recordReader.open();
+
+        assertThat(recordReader.hasNextRecord()).isFalse();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.json;
+
+import org.easybatch.core.api.Header;
+import org.easybatch.core.api.RecordProcessingException;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.json.Json;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test class for {@link JsonLinesRecordWriter}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class JsonLinesRecordWriterTest {
+
+    private StringWriter stringWriter;
+
+    private JsonLinesRecordWriter recordWriter;
+
+    @Before
+    public void setUp() throws Exception {
+        stringWriter = new StringWriter();
+        recordWriter = new JsonLinesRecordWriter(stringWriter);
+    }
+
+    @Test
+    public void eachRecordShouldBeWrittenOnItsOwnLine() throws Exception {
+        recordWriter.processRecord(new JsonRecord(new Header(1L, "test", 0L), "{\n  \"id\": 1,\r\n  \"user\": \"foo\"\n}"));
+        recordWriter.processRecord("{\"id\":2}");
+
+        assertThat(stringWriter.toString()).isEqualTo("{   \"id\": 1,    \"user\": \"foo\" }\n{\"id\":2}\n");
+    }
+
+    @Test
+    public void chunksShouldBeWrittenAtOnce() throws Exception {
+        recordWriter.writeRecords(Arrays.<Object>asList(
+                "{\"id\":1}",
+                Json.createObjectBuilder().add("id", 2).build()));
+
+        assertThat(stringWriter.toString()).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @Test(expected = RecordProcessingException.class)
+    public void payloadsOtherThanJsonShouldBeRejected() throws Exception {
+        recordWriter.processRecord(42);
+    }
+
+    @Test
+    public void noRecordOfAChunkShouldBeWrittenIfOneOfThemIsNotJson() throws Exception {
+        try {
+            recordWriter.writeRecords(Arrays.<Object>asList("{\"id\":1}", 42));
+            fail("a payload other than Json should be rejected");
+        } catch (RecordProcessingException e) {
+            assertThat(e.getMessage()).contains("42");
+        }
+
+        assertThat(stringWriter.toString()).isEmpty();
+    }
+}
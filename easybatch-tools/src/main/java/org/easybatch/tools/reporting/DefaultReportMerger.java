@@ -127,32 +127,22 @@ public class DefaultReportMerger implements ReportMerger {
     }
 
     private void calculateSuccessRecords(Report finalReport, Report report) {
-        for (int i = 0; i < report.getSuccessRecordsCount(); i++) {
-            finalReport.incrementTotalSuccessRecord();
-        }
+        finalReport.incrementTotalSuccessRecord(report.getSuccessRecordsCount());
     }
 
     private void calculateErrorRecords(Report finalReport, Report report) {
-        for (int i = 0; i < report.getErrorRecordsCount(); i++) {
-            finalReport.incrementTotalErrorRecord();
-        }
+        finalReport.incrementTotalErrorRecord(report.getErrorRecordsCount());
     }
 
     private void calculateRejectedRecords(Report finalReport, Report report) {
-        for (int i = 0; i < report.getRejectedRecordsCount(); i++) {
-            finalReport.incrementTotalRejectedRecord();
-        }
+        finalReport.incrementTotalRejectedRecord(report.getRejectedRecordsCount());
     }
 
     private void calculateIgnoredRecords(Report finalReport, Report report) {
-        for (int i = 0; i < report.getIgnoredRecordsCount(); i++) {
-            finalReport.incrementTotalIgnoredRecord();
-        }
+        finalReport.incrementTotalIgnoredRecord(report.getIgnoredRecordsCount());
     }
 
     private void calculateFilteredRecords(Report finalReport, Report report) {
-        for (int i = 0; i < report.getFilteredRecordsCount(); i++) {
-            finalReport.incrementTotalFilteredRecords();
-        }
+        finalReport.incrementTotalFilteredRecords(report.getFilteredRecordsCount());
     }
 }
@@ -24,6 +24,7 @@
 
 package org.easybatch.tools.reporting;
 
+import org.easybatch.core.api.LatencyHistogram;
 import org.easybatch.core.api.Report;
 import org.easybatch.core.api.Status;
 import org.junit.Before;
@@ -93,4 +94,22 @@ public class HtmlReportFormatterTest {
         assertThat(result).isXmlEqualTo(expectedResult);
     }
 
+    @Test
+    public void whenLatencyHistogramsArePresent_ThenLatenciesShouldBeRendered() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram("read");
+        latencyHistogram.recordValue(2000000);
+        report.addLatencyHistogram(latencyHistogram);
+
+        String result = reportFormatter.formatReport(report);
+
+        assertThat(result).contains("<h3>Latencies</h3>").contains("<td>read</td>").contains("2.000ms");
+    }
+
+    @Test
+    public void whenNoLatencyHistogramIsPresent_ThenLatenciesShouldNotBeRendered() {
+        String result = reportFormatter.formatReport(report);
+
+        assertThat(result).doesNotContain("Latencies");
+    }
+
 }
@@ -0,0 +1,526 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.xml;
+
+import org.easybatch.core.api.Partitioner;
+import org.easybatch.core.api.PartitioningException;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.util.Compression;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A {@link Partitioner} that splits an xml file into byte ranges of (almost) equal size, aligned on records, so that
+ * records are parsed and unmarshalled by several threads or engines.
+ * <p/>
+ * Boundaries are found by scanning the raw bytes of the file for the start tags of records, which is much faster than
+ * parsing it. Comments, CDATA sections, processing instructions and declarations are skipped, and elements nested in
+ * records (including elements with the name of records) are part of records. The scan stops once all boundaries are
+ * found.
+ * <p/>
+ * Each partition is a {@link XmlFileSegment} read by a {@link XmlStreamRecordReader}, producing {@link XmlRecord}s or,
+ * when a type is set, unmarshalled records. Record numbers restart from 1 in each partition. Segments can also be read
+ * by other readers (see {@link #split(int)}).
+ * <p/>
+ * Only encodings writing markup characters as in ASCII (UTF-8 or ISO-8859 encodings for example) are supported.
+ * Namespaces must be declared on elements enclosing records or in records. Entities declared in a DTD are not
+ * supported.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class XmlFilePartitioner implements Partitioner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern ENCODING = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+
+    private File input;
+
+    private String rootElementName;
+
+    private JAXBContext jaxbContext;
+
+    private Class<?> type;
+
+    /**
+     * Create a xml file partitioner.
+     *
+     * @param input           the input file
+     * @param rootElementName the root element name of records, path expressions are not supported
+     */
+    public XmlFilePartitioner(final File input, final String rootElementName) {
+        checkNotNull(input, "input");
+        checkNotNull(rootElementName, "root element name");
+        checkArgument(rootElementName.indexOf('/') == -1, "Path expressions are not supported to partition xml files");
+        this.input = input;
+        this.rootElementName = rootElementName;
+    }
+
+    /**
+     * Unmarshal records of partitions to objects annotated with JAXB annotations.
+     *
+     * @param type the type of records
+     * @throws JAXBException thrown if an error occurs during the creation of Jaxb context.
+     */
+    public void setType(final Class<?> type) throws JAXBException {
+        checkNotNull(type, "type");
+        this.jaxbContext = JAXBContext.newInstance(type);
+        this.type = type;
+    }
+
+    @Override
+    public List<RecordReader> partition(final int partitions) throws PartitioningException {
+        List<RecordReader> readers = new ArrayList<RecordReader>();
+        for (XmlFileSegment segment : split(partitions)) {
+            if (type == null) {
+                readers.add(new XmlStreamRecordReader(rootElementName, segment.openStream()));
+            } else {
+                try {
+                    readers.add(new XmlStreamRecordReader(rootElementName, segment.openStream(), jaxbContext.createUnmarshaller(), type));
+                } catch (JAXBException e) {
+                    throw new PartitioningException("Unable to create unmarshaller", e);
+                }
+            }
+        }
+        return readers;
+    }
+
+    /**
+     * Split the file into record aligned segments.
+     *
+     * @param partitions the requested number of segments
+     * @return the segments, possibly fewer than requested if the file does not have enough records
+     * @throws PartitioningException if the file cannot be split
+     */
+    public List<XmlFileSegment> split(final int partitions) throws PartitioningException {
+        checkArgument(partitions >= 1, "The number of partitions should be greater than or equal to 1");
+        try {
+            if (Compression.detect(input) != null) {
+                throw new PartitioningException("Compressed file " + input.getName() + " cannot be partitioned");
+            }
+            return new Scanner(partitions).scan();
+        } catch (FileNotFoundException e) {
+            throw new PartitioningException("Unable to find file " + input.getName(), e);
+        } catch (IOException e) {
+            throw new PartitioningException("Unable to partition file " + input.getName(), e);
+        }
+    }
+
+    /**
+     * An element enclosing records.
+     */
+    private static class OpenElement {
+
+        private final byte[] name;
+
+        private final byte[] startTag;
+
+        OpenElement(final byte[] name, final byte[] startTag) {
+            this.name = name;
+            this.startTag = startTag;
+        }
+    }
+
+    /**
+     * Scans the bytes of the file, keeping track of the elements enclosing records.
+     * Inside records, only elements with the name of records are tracked.
+     */
+    private class Scanner {
+
+        private final int partitions;
+
+        private final FileChannel channel;
+
+        private final long size;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        /**
+         * The offset in the file of the first byte of the buffer.
+         */
+        private long bufferOffset;
+
+        private int position;
+
+        private int limit;
+
+        private byte[] xmlDeclaration = new byte[0];
+
+        private Charset charset = Charset.forName("UTF-8");
+
+        private byte[] recordName;
+
+        private final LinkedList<OpenElement> openElements = new LinkedList<OpenElement>();
+
+        /**
+         * The depth of elements with the name of records in the current record, 0 outside records.
+         */
+        private int recordDepth;
+
+        Scanner(final int partitions) throws FileNotFoundException {
+            this.partitions = partitions;
+            this.channel = new FileInputStream(input).getChannel();
+            this.size = input.length();
+        }
+
+        List<XmlFileSegment> scan() throws IOException, PartitioningException {
+            try {
+                readXmlDeclaration();
+                recordName = rootElementName.getBytes(charset.name());
+                List<XmlFileSegment> segments = new ArrayList<XmlFileSegment>();
+                long segmentStart = 0;
+                byte[] segmentPrefix = new byte[0];
+                int boundary = 1;
+                while (boundary < partitions && nextMarkup()) {
+                    long tagStart = offset() - 1;
+                    if (recordDepth == 0 && tagStart >= size * boundary / partitions && tagStart > segmentStart && isRecordStartTag()) {
+                        segments.add(new XmlFileSegment(input, segmentStart, tagStart, segmentPrefix, endTags()));
+                        segmentStart = tagStart;
+                        segmentPrefix = startTags();
+                        while (boundary < partitions && tagStart >= size * boundary / partitions) {
+                            boundary++;
+                        }
+                    }
+                    markup();
+                }
+                if (segmentStart < size) {
+                    segments.add(new XmlFileSegment(input, segmentStart, size, segmentPrefix, new byte[0]));
+                }
+                return segments;
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void readXmlDeclaration() throws IOException, PartitioningException {
+            int first = peek(0);
+            if (first == 0 || first == 0xfe || first == 0xff) {
+                throw new PartitioningException("Only ASCII compatible encodings are supported to partition file " + input.getName());
+            }
+            if (first == 0xef && peek(1) == 0xbb && peek(2) == 0xbf) {
+                // UTF-8 byte order mark
+                position += 3;
+            }
+            if (startsWith("<?xml")) {
+                ByteArrayOutputStream declaration = new ByteArrayOutputStream();
+                skipUntil("?>", declaration);
+                xmlDeclaration = declaration.toByteArray();
+                Matcher matcher = ENCODING.matcher(new String(xmlDeclaration, "ISO-8859-1"));
+                if (matcher.find()) {
+                    charset = Charset.forName(matcher.group(1));
+                    if (charset.encode("<").limit() != 1) {
+                        throw new PartitioningException("Encoding " + charset + " is not supported to partition file " + input.getName());
+                    }
+                }
+            }
+        }
+
+        /*
+         * Move after the next '<', returns false at the end of the file.
+         */
+        private boolean nextMarkup() throws IOException {
+            while (true) {
+                int i = position;
+                while (i < limit && buffer[i] != '<') {
+                    i++;
+                }
+                position = i;
+                if (i < limit) {
+                    position++;
+                    return true;
+                }
+                if (!fill(1)) {
+                    return false;
+                }
+            }
+        }
+
+        /*
+         * Skip the markup starting after '<', tracking elements.
+         */
+        private void markup() throws IOException {
+            int first = peek(0);
+            if (first == '!') {
+                if (startsWith("!--")) {
+                    skipUntil("-->", null);
+                } else if (startsWith("![CDATA[")) {
+                    skipUntil("]]>", null);
+                } else {
+                    skipDeclaration();
+                }
+            } else if (first == '?') {
+                skipUntil("?>", null);
+            } else if (recordDepth > 0) {
+                if (first == '/') {
+                    position++;
+                    if (isRecordName()) {
+                        recordDepth--;
+                    }
+                } else if (isRecordName() && !skipTag(null)) {
+                    recordDepth++;
+                }
+                // other tags do not contain '<' and are skipped when searching the next markup
+            } else if (first == '/') {
+                skipTag(null);
+                if (!openElements.isEmpty()) {
+                    openElements.removeLast();
+                }
+            } else if (isRecordName()) {
+                recordDepth = skipTag(null) ? 0 : 1;
+            } else {
+                ByteArrayOutputStream startTag = new ByteArrayOutputStream();
+                startTag.write('<');
+                byte[] name = readName(startTag);
+                if (!skipTag(startTag)) {
+                    openElements.add(new OpenElement(name, startTag.toByteArray()));
+                }
+            }
+        }
+
+        private boolean isRecordStartTag() throws IOException {
+            int first = peek(0);
+            return first != '/' && first != '!' && first != '?' && isRecordName();
+        }
+
+        /*
+         * Check if the name at the current position is the name of records, ignoring its prefix and the case of ASCII
+         * letters. The position is not moved.
+         */
+        private boolean isRecordName() throws IOException {
+            int length = 0;
+            int localNameStart = 0;
+            int c;
+            while ((c = peek(length)) != -1 && !isNameEnd(c)) {
+                length++;
+                if (c == ':') {
+                    localNameStart = length;
+                }
+            }
+            if (length - localNameStart != recordName.length) {
+                return false;
+            }
+            for (int i = 0; i < recordName.length; i++) {
+                int b = buffer[position + localNameStart + i];
+                int r = recordName[i];
+                if (b != r && toLowerCase(b) != toLowerCase(r)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int toLowerCase(final int b) {
+            return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+        }
+
+        private byte[] readName(final ByteArrayOutputStream tag) throws IOException {
+            int length = 0;
+            int c;
+            while ((c = peek(length)) != -1 && !isNameEnd(c)) {
+                length++;
+            }
+            byte[] name = new byte[length];
+            System.arraycopy(buffer, position, name, 0, length);
+            position += length;
+            tag.write(name, 0, length);
+            return name;
+        }
+
+        private boolean isNameEnd(final int c) {
+            return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '/' || c == '>';
+        }
+
+        /*
+         * Skip the rest of a tag, returns true if it is self closing.
+         */
+        private boolean skipTag(final ByteArrayOutputStream tag) throws IOException {
+            int quote = 0;
+            int previous = 0;
+            int c;
+            while ((c = next()) != -1) {
+                if (tag != null) {
+                    tag.write(c);
+                }
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return previous == '/';
+                }
+                previous = c;
+            }
+            return false;
+        }
+
+        /*
+         * Skip a declaration such as a DOCTYPE, with its internal subset.
+         */
+        private void skipDeclaration() throws IOException {
+            int depth = 0;
+            int quote = 0;
+            int c;
+            while ((c = next()) != -1) {
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                } else if (c == '>' && depth <= 0) {
+                    return;
+                }
+            }
+        }
+
+        /*
+         * Skip bytes up to the given end (included), writing them to the given stream if not null.
+         */
+        private void skipUntil(final String end, final ByteArrayOutputStream skipped) throws IOException {
+            byte first = (byte) end.charAt(0);
+            while (true) {
+                int i = position;
+                while (i < limit && buffer[i] != first) {
+                    i++;
+                }
+                if (skipped != null) {
+                    skipped.write(buffer, position, i - position);
+                }
+                position = i;
+                if (i == limit) {
+                    if (!fill(1)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (startsWith(end)) {
+                    if (skipped != null) {
+                        skipped.write(buffer, position, end.length());
+                    }
+                    position += end.length();
+                    return;
+                }
+                if (skipped != null) {
+                    skipped.write(buffer[position]);
+                }
+                position++;
+            }
+        }
+
+        private byte[] startTags() throws IOException {
+            ByteArrayOutputStream tags = new ByteArrayOutputStream();
+            tags.write(xmlDeclaration);
+            for (OpenElement openElement : openElements) {
+                tags.write(openElement.startTag);
+            }
+            return tags.toByteArray();
+        }
+
+        private byte[] endTags() throws IOException {
+            ByteArrayOutputStream tags = new ByteArrayOutputStream();
+            for (int i = openElements.size() - 1; i >= 0; i--) {
+                tags.write('<');
+                tags.write('/');
+                tags.write(openElements.get(i).name);
+                tags.write('>');
+            }
+            return tags.toByteArray();
+        }
+
+        /*
+         * Check if the bytes at the current position start with the given (ASCII) string.
+         */
+        private boolean startsWith(final String prefix) throws IOException {
+            for (int i = 0; i < prefix.length(); i++) {
+                if (peek(i) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long offset() {
+            return bufferOffset + position;
+        }
+
+        private int next() throws IOException {
+            if (position == limit && !fill(1)) {
+                return -1;
+            }
+            return buffer[position++] & 0xff;
+        }
+
+        private int peek(final int ahead) throws IOException {
+            if (position + ahead >= limit && !fill(ahead + 1)) {
+                return -1;
+            }
+            return buffer[position + ahead] & 0xff;
+        }
+
+        /*
+         * Make at least the given number of bytes available from the current position, returns false at the end of
+         * the file. Names and markup delimiters are assumed to be smaller than the buffer.
+         */
+        private boolean fill(final int bytes) throws IOException {
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                bufferOffset += position;
+                limit -= position;
+                position = 0;
+            }
+            while (limit < bytes) {
+                if (limit == buffer.length) {
+                    throw new IOException("Name too long at offset " + offset() + " in file " + input.getName());
+                }
+                int read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit), bufferOffset + limit);
+                if (read == -1) {
+                    return false;
+                }
+                limit += read;
+            }
+            return true;
+        }
+    }
+}
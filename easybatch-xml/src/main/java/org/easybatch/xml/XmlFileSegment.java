@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.xml;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Vector;
+
+/**
+ * A record aligned byte range of an xml file, read as a well formed xml document.
+ * <p/>
+ * The xml declaration of the file and the start tags of the elements enclosing the range (with their namespace
+ * declarations) are written before the bytes of the range, and the end tags of the elements still open at the end
+ * of the range are written after them, so that segments can be read by any xml record reader (for example a
+ * {@link XmlMultiRecordReader}) and records mapped by a {@link XmlRecordMapper} as usual.
+ * <p/>
+ * Segments are created by {@link XmlFilePartitioner#split(int)}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class XmlFileSegment {
+
+    private final File file;
+
+    private final long start;
+
+    private final long end;
+
+    private final byte[] prefix;
+
+    private final byte[] suffix;
+
+    XmlFileSegment(final File file, final long start, final long end, final byte[] prefix, final byte[] suffix) {
+        this.file = file;
+        this.start = start;
+        this.end = end;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Open the segment. The file is opened on the first read and closed at the end of the segment.
+     *
+     * @return the xml document of the segment
+     */
+    public InputStream openStream() {
+        Vector<InputStream> streams = new Vector<InputStream>(3);
+        streams.add(new ByteArrayInputStream(prefix));
+        streams.add(new RangeInputStream());
+        streams.add(new ByteArrayInputStream(suffix));
+        return new SequenceInputStream(streams.elements());
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the offset of the first byte of the segment in the file
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return the offset following the last byte of the segment in the file
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return file.getName() + "[" + start + ", " + end + ")";
+    }
+
+    /**
+     * Reads the bytes of the range from the file.
+     */
+    private class RangeInputStream extends InputStream {
+
+        private FileChannel channel;
+
+        private long position = start;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (position >= end) {
+                close();
+                return -1;
+            }
+            if (channel == null) {
+                channel = new FileInputStream(file).getChannel();
+            }
+            int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (read == -1) {
+                throw new EOFException("Unexpected end of file " + file.getName() + " at offset " + position);
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            position = end;
+        }
+    }
+}
@@ -39,7 +39,7 @@ public class XmlMultiRecordReader extends AbstractMultiRecordReader {
      * Create a Xml multi-record reader.
      *
      * @param xmlInputStream  the xml data source
-     * @param rootElementName the root element name
+     * @param rootElementName the root element name, or a path expression (see {@link XmlPath})
      * @param chunkSize       the number of xml records to read at a time
      */
     public XmlMultiRecordReader(final InputStream xmlInputStream, final String rootElementName, int chunkSize) {
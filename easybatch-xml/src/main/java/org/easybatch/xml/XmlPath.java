@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.xml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.easybatch.core.util.Utils.checkArgument;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A simple path expression selecting record elements in an xml document, with the syntax:
+ * <ul>
+ * <li>{@code order} matches elements named {@code order} at any depth (same as {@code //order})</li>
+ * <li>{@code /orders/order} matches {@code order} elements that are children of the document element {@code orders}</li>
+ * <li>{@code //} matches any number of elements in between, as in {@code /orders//line}</li>
+ * <li>{@code *} matches an element with any name, as in {@code /*}{@code /*} (elements at depth 2)</li>
+ * </ul>
+ * Names are compared on their local part, ignoring case, like root element names of {@link XmlRecordReader}.
+ * <p/>
+ * Paths are compiled to a state machine over the stack of open elements: readers skip the subtrees of elements in
+ * which the path cannot match anymore, and elements nested in a record are part of the record.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public final class XmlPath {
+
+    /**
+     * The maximum number of steps of a path (states are bits of a long).
+     */
+    private static final int MAX_STEPS = 63;
+
+    private final String expression;
+
+    /**
+     * Local names of steps, null for {@code *}.
+     */
+    private final String[] names;
+
+    /**
+     * True if the step may be preceded by any number of elements ({@code //}).
+     */
+    private final boolean[] descendants;
+
+    private final long matchState;
+
+    private XmlPath(final String expression, final String[] names, final boolean[] descendants) {
+        this.expression = expression;
+        this.names = names;
+        this.descendants = descendants;
+        this.matchState = 1L << names.length;
+    }
+
+    /**
+     * Compile a path expression.
+     *
+     * @param expression the path expression
+     * @return the compiled path
+     * @throws IllegalArgumentException if the path expression is invalid
+     */
+    public static XmlPath compile(final String expression) {
+        checkNotNull(expression, "path expression");
+        String path = expression.trim();
+        boolean descendant = true;
+        if (path.startsWith("//")) {
+            path = path.substring(2);
+        } else if (path.startsWith("/")) {
+            path = path.substring(1);
+            descendant = false;
+        }
+        List<String> names = new ArrayList<String>();
+        List<Boolean> descendants = new ArrayList<Boolean>();
+        for (String step : path.split("/", -1)) {
+            if (step.isEmpty()) {
+                checkArgument(!descendant, "Invalid path expression: " + expression);
+                descendant = true;
+                continue;
+            }
+            String name = step.substring(step.indexOf(':') + 1);
+            checkArgument(!name.isEmpty(), "Invalid path expression: " + expression);
+            names.add("*".equals(name) ? null : name);
+            descendants.add(descendant);
+            descendant = false;
+        }
+        checkArgument(!names.isEmpty() && !descendant, "Invalid path expression: " + expression);
+        checkArgument(names.size() <= MAX_STEPS, "Path expressions are limited to " + MAX_STEPS + " steps: " + expression);
+        boolean[] descendantSteps = new boolean[descendants.size()];
+        for (int i = 0; i < descendantSteps.length; i++) {
+            descendantSteps[i] = descendants.get(i);
+        }
+        return new XmlPath(expression, names.toArray(new String[names.size()]), descendantSteps);
+    }
+
+    /**
+     * Create a matcher tracking the state of this path over the elements of a document.
+     *
+     * @return a new matcher, positioned before the document element
+     */
+    Matcher matcher() {
+        return new Matcher();
+    }
+
+    /*
+     * The state of the child element with the given local name: bit i is set when the first i steps match.
+     */
+    private long next(final long state, final String localName) {
+        long next = 0;
+        for (int i = 0; i < names.length; i++) {
+            if ((state & (1L << i)) != 0) {
+                if (descendants[i]) {
+                    next |= 1L << i;
+                }
+                if (names[i] == null || names[i].equalsIgnoreCase(localName)) {
+                    next |= 1L << (i + 1);
+                }
+            }
+        }
+        return next;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Tracks the state of a path over the stack of open elements of a document.
+     */
+    final class Matcher {
+
+        private long[] states = new long[16];
+
+        private int depth;
+
+        private Matcher() {
+            states[0] = 1L;
+        }
+
+        /**
+         * The state of the child of the current element with the given local name, the current element is unchanged.
+         */
+        long child(final String localName) {
+            return next(states[depth], localName);
+        }
+
+        /**
+         * Check if an element in the given state is a record.
+         */
+        boolean matches(final long state) {
+            return (state & matchState) != 0;
+        }
+
+        /**
+         * Check if records may be nested in an element in the given state, its subtree can be skipped if not.
+         */
+        boolean mayMatchInside(final long state) {
+            return (state & ~matchState) != 0;
+        }
+
+        /**
+         * Move into a child element in the given state.
+         */
+        void enter(final long state) {
+            if (++depth == states.length) {
+                states = Arrays.copyOf(states, depth * 2);
+            }
+            states[depth] = state & ~matchState;
+        }
+
+        /**
+         * Move out of the current element.
+         */
+        void leave() {
+            if (depth > 0) {
+                depth--;
+            }
+        }
+    }
+}
@@ -33,10 +33,11 @@ import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
-import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.StringReader;
 
 /**
  * A record mapper that maps xml records to domain objects annotated with JaxB2 annotations.
@@ -56,6 +57,11 @@ public class XmlRecordMapper<T> implements RecordMapper<T> {
      */
     private Unmarshaller jaxbUnmarshaller;
 
+    /**
+     * The target domain object type, unknown when a preconfigured unmarshaller is used.
+     */
+    private Class<? extends T> type;
+
     /**
      * Creates an XmlRecordMapper. Using this constructor, no validation against an xsd will be applied.
      *
@@ -63,6 +69,7 @@ public class XmlRecordMapper<T> implements RecordMapper<T> {
      * @throws JAXBException thrown if an error occurs during the creation of Jaxb context.
      */
     public XmlRecordMapper(Class<? extends T> type) throws JAXBException {
+        this.type = type;
         jaxbContext = JAXBContext.newInstance(type);
         jaxbUnmarshaller = jaxbContext.createUnmarshaller();
     }
@@ -76,6 +83,7 @@ public class XmlRecordMapper<T> implements RecordMapper<T> {
      * @throws SAXException  thrown if an error occurs during the schema parsing.
      */
     public XmlRecordMapper(Class<? extends T> type, File xsd) throws JAXBException, SAXException {
+        this.type = type;
         jaxbContext = JAXBContext.newInstance(type);
         jaxbUnmarshaller = jaxbContext.createUnmarshaller();
         SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
@@ -86,6 +94,9 @@ public class XmlRecordMapper<T> implements RecordMapper<T> {
     /**
      * A constructor that let's you preconfigure the unmarshaller (with custom adapter, custom listener, etc)
      * to be used by the Xml record mapper.
+     * <p/>
+     * The target type being unknown, the payload of records already unmarshalled by a {@link XmlStreamRecordReader}
+     * is not checked against it.
      *
      * @param unmarshaller the unmarshaller to use
      */
@@ -93,13 +104,28 @@ public class XmlRecordMapper<T> implements RecordMapper<T> {
         this.jaxbUnmarshaller = unmarshaller;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Records already unmarshalled by a {@link XmlStreamRecordReader} are returned as is, provided that their
+     * payload is of the target type.
+     */
     @Override
+    @SuppressWarnings(value = "unchecked")
     public T mapRecord(final Record record) throws RecordMappingException {
 
+        if (!(record instanceof XmlRecord)) {
+            Object payload = record.getPayload();
+            if (type != null && !type.isInstance(payload)) {
+                throw new RecordMappingException("Unable to map record " + record + " to target type " + type.getName());
+            }
+            return (T) payload;
+        }
+
         XmlRecord xmlRecord = (XmlRecord) record;
 
         try {
-            return (T) jaxbUnmarshaller.unmarshal(new ByteArrayInputStream(xmlRecord.getPayload().getBytes()));
+            return (T) jaxbUnmarshaller.unmarshal(new StreamSource(new StringReader(xmlRecord.getPayload())));
         } catch (JAXBException e) {
             throw new RecordMappingException("Unable to map record " + record + " to target type", e);
         }
@@ -25,13 +25,14 @@
 package org.easybatch.xml;
 
 import org.easybatch.core.api.*;
+import org.easybatch.core.util.Compression;
 
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.*;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Date;
 import java.util.Iterator;
 import java.util.logging.Logger;
 
@@ -47,9 +48,14 @@ public class XmlRecordReader implements RecordReader {
     private static final Logger LOGGER = Logger.getLogger(XmlRecordReader.class.getSimpleName());
 
     /**
-     * The root element name.
+     * The path of records.
      */
-    private String rootElementName;
+    private XmlPath path;
+
+    /**
+     * The state of the path over the open elements.
+     */
+    private XmlPath.Matcher matcher;
 
     /**
      * The xml input stream.
@@ -66,31 +72,61 @@ public class XmlRecordReader implements RecordReader {
      */
     private long currentRecordNumber;
 
+    /**
+     * Create a xml record reader.
+     *
+     * @param rootElementName the root element name of records, or a path expression selecting them (see {@link XmlPath})
+     * @param xmlInputStream  the xml data source
+     */
     public XmlRecordReader(final String rootElementName, final InputStream xmlInputStream) {
-        this.rootElementName = rootElementName;
+        this.path = XmlPath.compile(rootElementName);
         this.xmlInputStream = xmlInputStream;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Gzip and zip input streams are decompressed while being read (see {@link Compression}).
+     */
     @Override
     public void open() throws RecordReaderOpeningException {
         currentRecordNumber = 0;
+        matcher = path.matcher();
         try {
-            xmlEventReader = XMLInputFactory.newInstance().createXMLEventReader(xmlInputStream);
+            xmlEventReader = XMLInputFactory.newInstance().createXMLEventReader(Compression.autoDecompress(xmlInputStream));
         } catch (XMLStreamException e) {
             throw new RecordReaderOpeningException("Unable to open record reader", e);
+        } catch (IOException e) {
+            throw new RecordReaderOpeningException("Unable to open record reader", e);
         }
     }
 
     @Override
     public boolean hasNextRecord() {
         try {
-            while (!nextTagIsRootElementStart()) {
-                XMLEvent xmlEvent = xmlEventReader.nextEvent();
-                if (xmlEvent instanceof EndDocument) {
-                    return false;
+            while (xmlEventReader.hasNext()) {
+                XMLEvent xmlEvent = xmlEventReader.peek();
+                if (xmlEvent.isStartElement()) {
+                    long state = matcher.child(xmlEvent.asStartElement().getName().getLocalPart());
+                    if (matcher.matches(state)) {
+                        return true;
+                    }
+                    xmlEventReader.nextEvent();
+                    if (matcher.mayMatchInside(state)) {
+                        matcher.enter(state);
+                    } else {
+                        skipElement();
+                    }
+                } else {
+                    xmlEventReader.nextEvent();
+                    if (xmlEvent.isEndElement()) {
+                        matcher.leave();
+                    } else if (xmlEvent instanceof EndDocument) {
+                        return false;
+                    }
                 }
             }
-            return true;
+            return false;
         } catch (Exception e) {
             return false;
         }
@@ -100,18 +136,20 @@ public class XmlRecordReader implements RecordReader {
     public XmlRecord readNextRecord() throws RecordReadingException {
         StringBuilder stringBuilder = new StringBuilder("");
         try {
-            while (!nextTagIsRootElementEnd()) {
+            int depth = 0;
+            do {
                 XMLEvent xmlEvent = xmlEventReader.nextEvent();
                 if (xmlEvent.isStartElement()) {
+                    depth++;
                     escapeStartElementAttributes(stringBuilder, xmlEvent);
                 } else if (xmlEvent.isEndElement()) {
+                    depth--;
                     writeEndElement(stringBuilder, xmlEvent);
                 } else {
                     stringBuilder.append(xmlEvent.toString());
                 }
-            }
-            writeEndElement(stringBuilder, xmlEventReader.nextEvent());
-            Header header = new Header(++currentRecordNumber, getDataSourceName(), new Date());
+            } while (depth > 0);
+            Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
             return new XmlRecord(header, stringBuilder.toString());
         } catch (XMLStreamException e) {
             throw new RecordReadingException("Unable to read next record", e);
@@ -140,25 +178,20 @@ public class XmlRecordReader implements RecordReader {
     }
 
     /**
-     * Utility method to check if the next tag matches a start tag of the root element.
+     * Utility method to skip the element whose start tag has just been read, with its content.
      *
-     * @return true if the next tag matches a start element of the root element, false else
-     * @throws XMLStreamException thrown if no able to peek the next xml element
+     * @throws XMLStreamException thrown if no able to read the next xml event
      */
-    private boolean nextTagIsRootElementStart() throws XMLStreamException {
-        return xmlEventReader.peek().isStartElement() &&
-                xmlEventReader.peek().asStartElement().getName().getLocalPart().equalsIgnoreCase(rootElementName);
-    }
-
-    /**
-     * Utility method to check if the next tag matches an end tag of the root element.
-     *
-     * @return true if the next tag matches an end tag of the root element, false else
-     * @throws XMLStreamException thrown if no able to peek the next xml element
-     */
-    private boolean nextTagIsRootElementEnd() throws XMLStreamException {
-        return xmlEventReader.peek().isEndElement() &&
-                xmlEventReader.peek().asEndElement().getName().getLocalPart().equalsIgnoreCase(rootElementName);
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            XMLEvent xmlEvent = xmlEventReader.nextEvent();
+            if (xmlEvent.isStartElement()) {
+                depth++;
+            } else if (xmlEvent.isEndElement()) {
+                depth--;
+            }
+        }
     }
 
     /**
@@ -188,23 +221,11 @@ public class XmlRecordReader implements RecordReader {
             Attribute attribute = iterator.next();
             stringBuilder.append(" ")
                     .append(attribute.getName())
-                    .append("='")
-                    .append(escape(attribute.getValue()))
-                    .append("'");
+                    .append("='");
+            XmlStreamRecordReader.escape(attribute.getValue(), stringBuilder);
+            stringBuilder.append("'");
         }
         stringBuilder.append(">");
     }
 
-    /**
-     * Escape the xml content. Only &, " and ' need to be escaped.
-     *
-     * @param xmlToEscape the xml content to escape
-     * @return the escaped xml
-     */
-    private String escape(String xmlToEscape) {
-        return xmlToEscape.replaceAll("&", "&amp;")
-                .replaceAll("'", "&apos;")
-                .replaceAll("\"", "&quot;");
-    }
-
 }
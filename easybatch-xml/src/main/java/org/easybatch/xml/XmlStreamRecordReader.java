@@ -0,0 +1,312 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.xml;
+
+import org.easybatch.core.api.*;
+import org.easybatch.core.record.GenericRecord;
+import org.easybatch.core.util.Compression;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static javax.xml.stream.XMLStreamConstants.*;
+import static org.easybatch.core.util.Utils.checkNotNull;
+
+/**
+ * A record reader that reads xml records from an xml stream with the cursor API of StAX ({@link XMLStreamReader}).
+ * <p/>
+ * Records are read in one of two modes:
+ * <ul>
+ * <li>string mode (default): the xml of each record is written to a string, and this reader produces
+ * {@link XmlRecord} instances, like {@link XmlRecordReader}</li>
+ * <li>unmarshalling mode: the stream positioned on each record is handed to a JAXB {@link Unmarshaller}, and this
+ * reader produces {@link GenericRecord} instances with the unmarshalled object as payload. Records are not written
+ * to intermediate strings and parsed again by a {@link XmlRecordMapper}, which returns these payloads as is.</li>
+ * </ul>
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class XmlStreamRecordReader implements RecordReader {
+
+    /**
+     * The path of records.
+     */
+    private XmlPath path;
+
+    /**
+     * The state of the path over the open elements.
+     */
+    private XmlPath.Matcher matcher;
+
+    /**
+     * The xml input stream.
+     */
+    private InputStream xmlInputStream;
+
+    /**
+     * The unmarshaller of records, null in string mode.
+     */
+    private Unmarshaller unmarshaller;
+
+    /**
+     * The type of unmarshalled records.
+     */
+    private Class<?> type;
+
+    /**
+     * The xml reader.
+     */
+    private XMLStreamReader xmlStreamReader;
+
+    /**
+     * The current record number.
+     */
+    private long currentRecordNumber;
+
+    /**
+     * Create a reader producing {@link XmlRecord}s.
+     *
+     * @param rootElementName the root element name of records, or a path expression selecting them (see {@link XmlPath})
+     * @param xmlInputStream  the xml data source
+     */
+    public XmlStreamRecordReader(final String rootElementName, final InputStream xmlInputStream) {
+        checkNotNull(rootElementName, "root element name");
+        checkNotNull(xmlInputStream, "xml input stream");
+        this.path = XmlPath.compile(rootElementName);
+        this.xmlInputStream = xmlInputStream;
+    }
+
+    /**
+     * Create a reader unmarshalling records to objects annotated with JAXB annotations.
+     *
+     * @param rootElementName the root element name of records, or a path expression selecting them (see {@link XmlPath})
+     * @param xmlInputStream  the xml data source
+     * @param type            the type of records
+     * @throws JAXBException thrown if an error occurs during the creation of Jaxb context.
+     */
+    public XmlStreamRecordReader(final String rootElementName, final InputStream xmlInputStream, final Class<?> type) throws JAXBException {
+        this(rootElementName, xmlInputStream, JAXBContext.newInstance(type).createUnmarshaller(), type);
+    }
+
+    /**
+     * Create a reader unmarshalling records with a preconfigured unmarshaller (with custom adapter, schema, etc).
+     *
+     * @param rootElementName the root element name of records, or a path expression selecting them (see {@link XmlPath})
+     * @param xmlInputStream  the xml data source
+     * @param unmarshaller    the unmarshaller to use
+     * @param type            the type of records
+     */
+    public XmlStreamRecordReader(final String rootElementName, final InputStream xmlInputStream, final Unmarshaller unmarshaller, final Class<?> type) {
+        this(rootElementName, xmlInputStream);
+        checkNotNull(unmarshaller, "unmarshaller");
+        checkNotNull(type, "type");
+        this.unmarshaller = unmarshaller;
+        this.type = type;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Gzip and zip input streams are decompressed while being read (see {@link Compression}).
+     */
+    @Override
+    public void open() throws RecordReaderOpeningException {
+        currentRecordNumber = 0;
+        matcher = path.matcher();
+        try {
+            xmlStreamReader = XMLInputFactory.newInstance().createXMLStreamReader(Compression.autoDecompress(xmlInputStream));
+        } catch (XMLStreamException e) {
+            throw new RecordReaderOpeningException("Unable to open record reader", e);
+        } catch (IOException e) {
+            throw new RecordReaderOpeningException("Unable to open record reader", e);
+        }
+    }
+
+    /**
+     * Move the cursor to the start of the next record. Elements in which no record can be nested are skipped.
+     *
+     * @return true if the reader has a next record, false else.
+     */
+    @Override
+    public boolean hasNextRecord() {
+        try {
+            while (true) {
+                int event = xmlStreamReader.getEventType();
+                if (event == START_ELEMENT) {
+                    long state = matcher.child(xmlStreamReader.getLocalName());
+                    if (matcher.matches(state)) {
+                        return true;
+                    }
+                    if (matcher.mayMatchInside(state)) {
+                        matcher.enter(state);
+                    } else {
+                        skipElement();
+                    }
+                } else if (event == END_ELEMENT) {
+                    matcher.leave();
+                }
+                if (!xmlStreamReader.hasNext()) {
+                    return false;
+                }
+                xmlStreamReader.next();
+            }
+        } catch (XMLStreamException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Record readNextRecord() throws RecordReadingException {
+        if (!hasNextRecord()) {
+            throw new RecordReadingException("No more records to read");
+        }
+        Header header = new Header(++currentRecordNumber, getDataSourceName(), System.currentTimeMillis());
+        try {
+            if (unmarshaller != null) {
+                return new GenericRecord<Object>(header, unmarshaller.unmarshal(xmlStreamReader, type).getValue());
+            }
+            return new XmlRecord(header, readElement());
+        } catch (XMLStreamException e) {
+            throw new RecordReadingException("Unable to read next record", e);
+        } catch (JAXBException e) {
+            throw new RecordReadingException("Unable to unmarshal next record", e);
+        }
+    }
+
+    @Override
+    public Long getTotalRecords() {
+        return null;
+    }
+
+    @Override
+    public String getDataSourceName() {
+        return "XML stream";
+    }
+
+    @Override
+    public void close() throws RecordReaderClosingException {
+        try {
+            if (xmlStreamReader != null) {
+                xmlStreamReader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new RecordReaderClosingException("Unable to close record reader", e);
+        }
+    }
+
+    /*
+     * Move the cursor from the start of an element to its end, without looking at its content.
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xmlStreamReader.next();
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /*
+     * Write the element starting at the cursor, with local names like XmlRecordReader, and move the cursor after it.
+     */
+    private String readElement() throws XMLStreamException {
+        StringBuilder xml = new StringBuilder();
+        int depth = 0;
+        do {
+            switch (xmlStreamReader.getEventType()) {
+                case START_ELEMENT:
+                    depth++;
+                    xml.append('<').append(xmlStreamReader.getLocalName());
+                    for (int i = 0; i < xmlStreamReader.getAttributeCount(); i++) {
+                        xml.append(' ').append(xmlStreamReader.getAttributeLocalName(i)).append("='");
+                        escape(xmlStreamReader.getAttributeValue(i), xml);
+                        xml.append('\'');
+                    }
+                    xml.append('>');
+                    break;
+                case END_ELEMENT:
+                    depth--;
+                    xml.append("</").append(xmlStreamReader.getLocalName()).append('>');
+                    break;
+                case CHARACTERS:
+                case SPACE:
+                case ENTITY_REFERENCE:
+                    escape(xmlStreamReader.getText(), xml);
+                    break;
+                case CDATA:
+                    xml.append("<![CDATA[").append(xmlStreamReader.getText()).append("]]>");
+                    break;
+                case COMMENT:
+                    xml.append("<!--").append(xmlStreamReader.getText()).append("-->");
+                    break;
+                default:
+                    // processing instructions are not part of records
+            }
+            xmlStreamReader.next();
+        } while (depth > 0);
+        return xml.toString();
+    }
+
+    /**
+     * Escape markup characters of text or of an attribute value in a single pass.
+     *
+     * @param value the value to escape
+     * @param xml   the builder in which the escaped value is written
+     */
+    static void escape(final String value, final StringBuilder xml) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    xml.append("&amp;");
+                    break;
+                case '<':
+                    xml.append("&lt;");
+                    break;
+                case '>':
+                    xml.append("&gt;");
+                    break;
+                case '\'':
+                    xml.append("&apos;");
+                    break;
+                case '"':
+                    xml.append("&quot;");
+                    break;
+                default:
+                    xml.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.xml;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.api.RecordReader;
+import org.easybatch.core.record.MultiRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link XmlFilePartitioner}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class XmlFilePartitionerTest {
+
+    private File input;
+
+    @Before
+    public void setUp() throws Exception {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<!DOCTYPE p:race [ <!ELEMENT person ANY> ]>\n");
+        xml.append("<p:race xmlns:p=\"http://easybatch.org/persons\">\n");
+        xml.append("  <!-- <person><id>-1</id></person> -->\n");
+        xml.append("  <p:men>\n");
+        for (int i = 1; i <= 20; i++) {
+            xml.append("    <person note='a > b'><id>").append(i).append("</id><firstName>man ").append(i).append("</firstName>");
+            if (i % 5 == 0) {
+                xml.append("<friends><person><id>0</id></person></friends>");
+            }
+            xml.append("<lastName><![CDATA[</person><person>]]></lastName></person>\n");
+        }
+        xml.append("  </p:men>\n");
+        xml.append("  <?pi <person> ?>\n");
+        xml.append("  <p:women>\n");
+        for (int i = 21; i <= 40; i++) {
+            xml.append("    <p:person><id>").append(i).append("</id><firstName>woman ").append(i).append("</firstName></p:person>\n");
+        }
+        xml.append("    <person/>\n");
+        xml.append("  </p:women>\n");
+        xml.append("</p:race>\n");
+        input = File.createTempFile("persons", ".xml");
+        FileOutputStream outputStream = new FileOutputStream(input);
+        outputStream.write(xml.toString().getBytes("UTF-8"));
+        outputStream.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        input.delete();
+    }
+
+    @Test
+    public void partitionsShouldHaveTheRecordsOfTheFileInOrder() throws Exception {
+        List<String> expectedRecords = readAll(new XmlStreamRecordReader("person", new FileInputStream(input)));
+        assertThat(expectedRecords).hasSize(41);
+
+        for (int partitions = 1; partitions <= 8; partitions++) {
+            List<RecordReader> readers = new XmlFilePartitioner(input, "person").partition(partitions);
+            assertThat(readers.size()).isLessThanOrEqualTo(partitions);
+            List<String> records = new ArrayList<String>();
+            for (RecordReader reader : readers) {
+                records.addAll(readAll(reader));
+            }
+            assertThat(records).as(partitions + " partitions").isEqualTo(expectedRecords);
+        }
+    }
+
+    @Test
+    public void segmentsShouldBeRecordAligned() throws Exception {
+        List<XmlFileSegment> segments = new XmlFilePartitioner(input, "person").split(4);
+
+        assertThat(segments).hasSize(4);
+        long start = 0;
+        for (XmlFileSegment segment : segments) {
+            assertThat(segment.getStart()).isEqualTo(start);
+            start = segment.getEnd();
+        }
+        assertThat(start).isEqualTo(input.length());
+        FileInputStream inputStream = new FileInputStream(input);
+        inputStream.skip(segments.get(1).getStart());
+        assertThat((char) inputStream.read()).isEqualTo('<');
+        inputStream.close();
+    }
+
+    @Test
+    public void segmentsShouldBeReadableByMultiRecordReaders() throws Exception {
+        int records = 0;
+        for (XmlFileSegment segment : new XmlFilePartitioner(input, "person").split(3)) {
+            XmlMultiRecordReader reader = new XmlMultiRecordReader(segment.openStream(), "person", 4);
+            reader.open();
+            while (reader.hasNextRecord()) {
+                MultiRecord multiRecord = reader.readNextRecord();
+                records += multiRecord.getPayload().size();
+            }
+            reader.close();
+        }
+        assertThat(records).isGreaterThanOrEqualTo(41);
+    }
+
+    @Test
+    public void recordsShouldBeUnmarshalledWhenATypeIsSet() throws Exception {
+        XmlFilePartitioner xmlFilePartitioner = new XmlFilePartitioner(input, "person");
+        xmlFilePartitioner.setType(Person.class);
+        List<Integer> ids = new ArrayList<Integer>();
+        for (RecordReader reader : xmlFilePartitioner.partition(3)) {
+            reader.open();
+            while (reader.hasNextRecord()) {
+                ids.add(((Person) reader.readNextRecord().getPayload()).getId());
+            }
+            reader.close();
+        }
+        assertThat(ids).hasSize(41);
+        assertThat(ids.get(0)).isEqualTo(1);
+        assertThat(ids.get(39)).isEqualTo(40);
+    }
+
+    private List<String> readAll(final RecordReader reader) throws Exception {
+        List<String> records = new ArrayList<String>();
+        reader.open();
+        while (reader.hasNextRecord()) {
+            Record record = reader.readNextRecord();
+            records.add((String) record.getPayload());
+        }
+        reader.close();
+        return records;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.xml;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link XmlPath}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class XmlPathTest {
+
+    @Test
+    public void elementNamesShouldMatchAtAnyDepth() {
+        XmlPath.Matcher matcher = XmlPath.compile("order").matcher();
+
+        assertThat(matcher.matches(matcher.child("ORDER"))).isTrue();
+        long state = matcher.child("orders");
+        assertThat(matcher.matches(state)).isFalse();
+        assertThat(matcher.mayMatchInside(state)).isTrue();
+        matcher.enter(state);
+        assertThat(matcher.matches(matcher.child("order"))).isTrue();
+    }
+
+    @Test
+    public void absolutePathsShouldMatchOnlyAtTheirDepth() {
+        XmlPath.Matcher matcher = XmlPath.compile("/orders/order").matcher();
+
+        assertThat(matcher.matches(matcher.child("order"))).isFalse();
+        assertThat(matcher.mayMatchInside(matcher.child("order"))).isFalse();
+        matcher.enter(matcher.child("orders"));
+        long state = matcher.child("order");
+        assertThat(matcher.matches(state)).isTrue();
+        assertThat(matcher.mayMatchInside(matcher.child("lines"))).isFalse();
+        matcher.enter(state);
+        assertThat(matcher.mayMatchInside(matcher.child("lines"))).isFalse();
+        matcher.leave();
+        assertThat(matcher.matches(matcher.child("order"))).isTrue();
+    }
+
+    @Test
+    public void descendantStepsAndWildcardsShouldBeSupported() {
+        XmlPath.Matcher matcher = XmlPath.compile("/orders//line").matcher();
+        matcher.enter(matcher.child("orders"));
+        matcher.enter(matcher.child("order"));
+        matcher.enter(matcher.child("lines"));
+        assertThat(matcher.matches(matcher.child("line"))).isTrue();
+
+        matcher = XmlPath.compile("/*/*").matcher();
+        matcher.enter(matcher.child("a"));
+        assertThat(matcher.matches(matcher.child("b"))).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyStepsShouldBeRejected() {
+        XmlPath.compile("/orders///order");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void trailingSlashesShouldBeRejected() {
+        XmlPath.compile("/orders/");
+    }
+}
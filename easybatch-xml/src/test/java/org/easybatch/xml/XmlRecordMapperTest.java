@@ -26,6 +26,7 @@ package org.easybatch.xml;
 
 import org.easybatch.core.api.Header;
 import org.easybatch.core.api.RecordMappingException;
+import org.easybatch.core.record.GenericRecord;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -131,6 +132,17 @@ public class XmlRecordMapperTest {
         xmlRecordMapper.mapRecord(xmlRecord);
     }
 
+    @Test
+    public void unmarshalledPayloadsOfTheTargetTypeShouldBeReturnedAsIs() throws Exception {
+        Person person = new Person();
+        assertThat(xmlRecordMapper.mapRecord(new GenericRecord<Person>(header, person))).isSameAs(person);
+    }
+
+    @Test(expected = RecordMappingException.class)
+    public void payloadsOfAnotherTypeShouldBeRejected() throws Exception {
+        xmlRecordMapper.mapRecord(new GenericRecord<String>(header, "<person/>"));
+    }
+
     private File getFile(String fileName) {
         return new File(this.getClass().getResource(fileName).getFile());
     }
@@ -30,8 +30,11 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.Scanner;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -113,6 +116,23 @@ public class XmlRecordReaderTest {
 
     }
 
+    @Test
+    public void testReadingGzipCompressedXml() throws Exception {
+        xmlRecordReader.close();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GZIPOutputStream outputStream = new GZIPOutputStream(bytes);
+        outputStream.write("<websites><website name=\"google\"/><website name=\"yahoo\"/></websites>".getBytes("UTF-8"));
+        outputStream.close();
+        xmlRecordReader = new XmlRecordReader("website", new ByteArrayInputStream(bytes.toByteArray()));
+        xmlRecordReader.open();
+
+        assertThat(xmlRecordReader.hasNextRecord()).isTrue();
+        assertThat(xmlRecordReader.readNextRecord().getPayload()).isXmlEqualTo("<website name=\"google\"/>");
+        assertThat(xmlRecordReader.hasNextRecord()).isTrue();
+        assertThat(xmlRecordReader.readNextRecord().getPayload()).isXmlEqualTo("<website name=\"yahoo\"/>");
+        assertThat(xmlRecordReader.hasNextRecord()).isFalse();
+    }
+
     /*
      * Test empty files
      */
@@ -170,6 +190,22 @@ public class XmlRecordReaderTest {
         assertThat(diff.similar()).isTrue();
     }
 
+    @Test
+    public void testReadRecordsSelectedByPath() throws Exception {
+        xmlRecordReader.close();
+        String xml = "<orders><order id='1'><lines><order id='1.1'/></lines></order>"
+                + "<archive><order id='0'/></archive><order id='2'/></orders>";
+        xmlRecordReader = new XmlRecordReader("/orders/order", new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        xmlRecordReader.open();
+
+        assertThat(xmlRecordReader.hasNextRecord()).isTrue();
+        XMLUnit.setIgnoreWhitespace(true);
+        Diff diff = new Diff("<order id='1'><lines><order id='1.1'></order></lines></order>", xmlRecordReader.readNextRecord().getPayload());
+        assertThat(diff.similar()).isTrue();
+        assertThat(xmlRecordReader.hasNextRecord()).isTrue();
+        assertThat(xmlRecordReader.readNextRecord().getPayload()).isEqualTo("<order id='2'></order>");
+        assertThat(xmlRecordReader.hasNextRecord()).isFalse();
+    }
 
     @After
     public void tearDown() throws Exception {
@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ *  Copyright (c) 2015, Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ */
+
+
+package org.easybatch.xml;
+
+import org.easybatch.core.api.Record;
+import org.easybatch.core.record.GenericRecord;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link XmlStreamRecordReader}.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud@benhassine.fr)
+ */
+public class XmlStreamRecordReaderTest {
+
+    private XmlStreamRecordReader xmlStreamRecordReader;
+
+    @After
+    public void tearDown() throws Exception {
+        xmlStreamRecordReader.close();
+    }
+
+    @Test
+    public void recordsShouldBeReadAsStrings() throws Exception {
+        xmlStreamRecordReader = new XmlStreamRecordReader("person", getDataSource("/persons.xml"));
+        xmlStreamRecordReader.open();
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        Record record = xmlStreamRecordReader.readNextRecord();
+        assertThat(record).isInstanceOf(XmlRecord.class);
+        assertThat(record.getHeader().getNumber()).isEqualTo(1);
+        assertThat((String) record.getPayload()).isXmlEqualTo(getXmlFromFile("/person.xml"));
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat(xmlStreamRecordReader.readNextRecord().getHeader().getNumber()).isEqualTo(2);
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void recordsShouldBeUnmarshalledFromTheStream() throws Exception {
+        xmlStreamRecordReader = new XmlStreamRecordReader("person", getDataSource("/persons-nested.xml"), Person.class);
+        xmlStreamRecordReader.open();
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        Record record = xmlStreamRecordReader.readNextRecord();
+        assertThat(record).isInstanceOf(GenericRecord.class);
+        Person person = (Person) record.getPayload();
+        assertThat(person.getId()).isEqualTo(1);
+        assertThat(person.getFirstName()).isEqualTo("foo");
+        assertThat(person.getLastName()).isEqualTo("bar");
+        assertThat(person.isMarried()).isTrue();
+
+        // the record can be mapped with a xml record mapper, which returns it as is
+        assertThat(new XmlRecordMapper<Person>(Person.class).mapRecord(record)).isSameAs(person);
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        person = (Person) xmlStreamRecordReader.readNextRecord().getPayload();
+        assertThat(person.getId()).isEqualTo(2);
+        assertThat(person.isMarried()).isFalse();
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void specialCharactersShouldBeEscaped() throws Exception {
+        xmlStreamRecordReader = new XmlStreamRecordReader("website", getDataSource("/websites.xml"));
+        xmlStreamRecordReader.open();
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat((String) xmlStreamRecordReader.readNextRecord().getPayload())
+                .isXmlEqualTo("<website name=\"google\" url=\"http://www.google.com?query=test&amp;sort=asc\"/>");
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat((String) xmlStreamRecordReader.readNextRecord().getPayload())
+                .isXmlEqualTo("<website name=\"l&apos;equipe\" url=\"http://www.lequipe.fr\"/>");
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat((String) xmlStreamRecordReader.readNextRecord().getPayload())
+                .isXmlEqualTo("<website name=\"l&quot;internaute.com\" url=\"http://www.linternaute.com\"/>");
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void nestedElementsWithTheRootElementNameShouldBePartOfTheRecord() throws Exception {
+        String xml = "<items><item id='1'><item>nested</item><name>a &lt; b</name></item><item id='2'/></items>";
+        xmlStreamRecordReader = new XmlStreamRecordReader("item", new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        xmlStreamRecordReader.open();
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat((String) xmlStreamRecordReader.readNextRecord().getPayload())
+                .isXmlEqualTo("<item id='1'><item>nested</item><name>a &lt; b</name></item>");
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat((String) xmlStreamRecordReader.readNextRecord().getPayload()).isXmlEqualTo("<item id='2'/>");
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void recordsShouldBeSelectedByPath() throws Exception {
+        String xml = "<orders><order id='1'><lines><order id='1.1'/></lines></order>"
+                + "<archive><order id='0'/></archive><order id='2'/></orders>";
+        xmlStreamRecordReader = new XmlStreamRecordReader("/orders/order", new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        xmlStreamRecordReader.open();
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat((String) xmlStreamRecordReader.readNextRecord().getPayload())
+                .isXmlEqualTo("<order id='1'><lines><order id='1.1'/></lines></order>");
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isTrue();
+        assertThat((String) xmlStreamRecordReader.readNextRecord().getPayload()).isXmlEqualTo("<order id='2'/>");
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isFalse();
+    }
+
+    @Test
+    public void emptyFilesShouldHaveNoRecord() throws Exception {
+        xmlStreamRecordReader = new XmlStreamRecordReader("person", getDataSource("/persons-empty.xml"));
+        xmlStreamRecordReader.open();
+
+        assertThat(xmlStreamRecordReader.hasNextRecord()).isFalse();
+        assertThat(xmlStreamRecordReader.getTotalRecords()).isNull();
+    }
+
+    private String getXmlFromFile(String file) {
+        return new Scanner(this.getClass().getResourceAsStream(file)).useDelimiter("\\A").next();
+    }
+
+    private InputStream getDataSource(String name) {
+        return this.getClass().getResourceAsStream(name);
+    }
+}